@@ -31,7 +31,8 @@ CREATE TABLE `customers` (
   `balance` double DEFAULT '0',
   `customer_type` varchar(50) DEFAULT 'permanent',
   PRIMARY KEY (`customer_id`),
-  UNIQUE KEY `cnic` (`cnic`)
+  UNIQUE KEY `cnic` (`cnic`),
+  KEY `idx_customers_phone` (`phone`,`customer_name`)
 ) ENGINE=InnoDB AUTO_INCREMENT=5 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
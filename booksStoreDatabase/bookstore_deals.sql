@@ -39,6 +39,9 @@ CREATE TABLE `deals` (
   `reversed` tinyint(1) DEFAULT '0',
   PRIMARY KEY (`deal_id`),
   KEY `sale_id` (`sale_id`),
+  KEY `idx_deals_customer` (`customer_id`,`deal_date`,`deal_id`),
+  KEY `idx_deals_supplier` (`supplier_id`,`deal_date`,`deal_id`),
+  KEY `idx_deals_purchase` (`purchase_id`),
   CONSTRAINT `deals_ibfk_1` FOREIGN KEY (`sale_id`) REFERENCES `sales` (`sale_id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=28 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
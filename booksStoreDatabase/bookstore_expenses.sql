@@ -29,7 +29,8 @@ CREATE TABLE `expenses` (
   `expense_date` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
   `category` varchar(50) DEFAULT NULL,
   `reversed` tinyint(1) DEFAULT '0',
-  PRIMARY KEY (`expense_id`)
+  PRIMARY KEY (`expense_id`),
+  KEY `idx_expenses_date` (`expense_date`)
 ) ENGINE=InnoDB AUTO_INCREMENT=6 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
@@ -38,8 +38,13 @@ CREATE TABLE `inventory` (
   `barcode` varchar(30) DEFAULT NULL,
   `company` varchar(50) DEFAULT NULL,
   `minimum_stock` int DEFAULT '0',
+  `low_stock` tinyint(1) GENERATED ALWAYS AS ((`stock` < coalesce(`minimum_stock`,0))) STORED,
   PRIMARY KEY (`item_id`),
-  UNIQUE KEY `unique_item_name_condition` (`item_name`,`item_condition`)
+  UNIQUE KEY `unique_item_name_condition` (`item_name`,`item_condition`),
+  KEY `idx_inventory_barcode` (`barcode`),
+  KEY `idx_inventory_low_stock` (`low_stock` DESC,`item_id`),
+  KEY `idx_inventory_category` (`category`,`low_stock` DESC,`item_id`),
+  KEY `idx_inventory_company` (`company`,`low_stock` DESC,`item_id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=7 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
@@ -49,7 +54,7 @@ CREATE TABLE `inventory` (
 
 LOCK TABLES `inventory` WRITE;
 /*!40000 ALTER TABLE `inventory` DISABLE KEYS */;
-INSERT INTO `inventory` VALUES (1,'dollar 707','stationery','pen','new',-21,15.00,30,'unit','2025-03-26 16:56:47',100,38,'12345678',NULL,0),(2,'dollar pointer','stationery','pointer','new',598,10.00,20,'penncil','2025-03-26 18:05:13',100,2,'',NULL,0),(3,'tempo urdu marker','books','text books','new',100,5.00,10,'marker','2025-03-19 23:28:52',30,0,'5418008',NULL,0),(4,'dux pencil','stationery','pencils','new',100,5.00,10,'pencil','2025-03-20 21:54:48',100,0,NULL,NULL,0),(6,'urdu 9th',NULL,NULL,'new',10,100.00,NULL,'unit','2025-03-26 17:02:09',NULL,0,'',NULL,0);
+INSERT INTO `inventory` (`item_id`, `item_name`, `category`, `subcategory`, `item_condition`, `stock`, `purchase_price`, `sale_price`, `unit`, `last_change`, `profit_margin`, `sold`, `barcode`, `company`, `minimum_stock`) VALUES (1,'dollar 707','stationery','pen','new',-21,15.00,30,'unit','2025-03-26 16:56:47',100,38,'12345678',NULL,0),(2,'dollar pointer','stationery','pointer','new',598,10.00,20,'penncil','2025-03-26 18:05:13',100,2,'',NULL,0),(3,'tempo urdu marker','books','text books','new',100,5.00,10,'marker','2025-03-19 23:28:52',30,0,'5418008',NULL,0),(4,'dux pencil','stationery','pencils','new',100,5.00,10,'pencil','2025-03-20 21:54:48',100,0,NULL,NULL,0),(6,'urdu 9th',NULL,NULL,'new',10,100.00,NULL,'unit','2025-03-26 17:02:09',NULL,0,'',NULL,0);
 /*!40000 ALTER TABLE `inventory` ENABLE KEYS */;
 UNLOCK TABLES;
 /*!50003 SET @saved_cs_client      = @@character_set_client */ ;
@@ -40,6 +40,7 @@ CREATE TABLE `purchases` (
   PRIMARY KEY (`purchase_id`),
   KEY `item_id` (`item_id`),
   KEY `supplier_id` (`supplier_id`),
+  KEY `idx_purchases_date` (`purchase_date`),
   CONSTRAINT `purchases_ibfk_1` FOREIGN KEY (`item_id`) REFERENCES `inventory` (`item_id`) ON DELETE CASCADE,
   CONSTRAINT `purchases_ibfk_2` FOREIGN KEY (`supplier_id`) REFERENCES `suppliers` (`supplier_id`) ON DELETE CASCADE
 ) ENGINE=InnoDB AUTO_INCREMENT=10 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -62,43 +63,10 @@ UNLOCK TABLES;
 /*!50003 SET collation_connection  = utf8mb4_0900_ai_ci */ ;
 /*!50003 SET @saved_sql_mode       = @@sql_mode */ ;
 /*!50003 SET sql_mode              = 'ONLY_FULL_GROUP_BY,STRICT_TRANS_TABLES,NO_ZERO_IN_DATE,NO_ZERO_DATE,ERROR_FOR_DIVISION_BY_ZERO,NO_ENGINE_SUBSTITUTION' */ ;
-DELIMITER ;;
-/*!50003 CREATE*/ /*!50017 DEFINER=`root`@`localhost`*/ /*!50003 TRIGGER `after_purchases_insert` AFTER INSERT ON `purchases` FOR EACH ROW BEGIN
-    -- Insert into deals table
-    INSERT INTO deals (purchase_id, quantity, credit, debit, item_name, supplier_id, description, type, payment_type)
-    VALUES (
-        NEW.purchase_id,          -- Purchase ID from the newly inserted purchase
-        NEW.quantity,             -- Quantity from the newly inserted purchase
-        NEW.total_price,          -- Credit (total price from the purchase)
-        0,                        -- Debit (set to 0 for now)
-        NEW.item_name,            -- Item Name
-        NEW.supplier_id,          -- Supplier ID
-        CONCAT('Purchased ', NEW.item_name), -- Description: "Purchased" + item_name
-        'permanent supplier deal', -- Type
-        NEW.payment_type          -- Payment Type ("Cash" or "Account")
-    );
-END */;;
-DELIMITER ;
-/*!50003 SET sql_mode              = @saved_sql_mode */ ;
-/*!50003 SET character_set_client  = @saved_cs_client */ ;
-/*!50003 SET character_set_results = @saved_cs_results */ ;
-/*!50003 SET collation_connection  = @saved_col_connection */ ;
-/*!50003 SET @saved_cs_client      = @@character_set_client */ ;
-/*!50003 SET @saved_cs_results     = @@character_set_results */ ;
-/*!50003 SET @saved_col_connection = @@collation_connection */ ;
-/*!50003 SET character_set_client  = utf8mb4 */ ;
-/*!50003 SET character_set_results = utf8mb4 */ ;
-/*!50003 SET collation_connection  = utf8mb4_0900_ai_ci */ ;
-/*!50003 SET @saved_sql_mode       = @@sql_mode */ ;
-/*!50003 SET sql_mode              = 'ONLY_FULL_GROUP_BY,STRICT_TRANS_TABLES,NO_ZERO_IN_DATE,NO_ZERO_DATE,ERROR_FOR_DIVISION_BY_ZERO,NO_ENGINE_SUBSTITUTION' */ ;
-DELIMITER ;;
-/*!50003 CREATE*/ /*!50017 DEFINER=`root`@`localhost`*/ /*!50003 TRIGGER `after_purchase_balance_update` AFTER INSERT ON `purchases` FOR EACH ROW BEGIN
-    -- Increase the supplier's balance when a purchase is made
-    UPDATE suppliers 
-    SET balance = balance + NEW.total_price
-    WHERE supplier_id = NEW.supplier_id;
-END */;;
-DELIMITER ;
+-- Deals rows and supplier balances are posted once per invoice by the
+-- application (LedgerPosting), so the per-row triggers are not created.
+DROP TRIGGER IF EXISTS `after_purchases_insert`;
+DROP TRIGGER IF EXISTS `after_purchase_balance_update`;
 /*!50003 SET sql_mode              = @saved_sql_mode */ ;
 /*!50003 SET character_set_client  = @saved_cs_client */ ;
 /*!50003 SET character_set_results = @saved_cs_results */ ;
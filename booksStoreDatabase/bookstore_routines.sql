@@ -39,20 +39,13 @@ BEGIN
     DECLARE total_expenses DECIMAL(10, 2);
     DECLARE net_profit DECIMAL(10, 2);
 
-    -- Calculate total sales
-    SELECT COALESCE(SUM(total_price), 0) INTO total_sales
-    FROM sales
-    WHERE sale_date BETWEEN from_date AND to_date;
-
-    -- Calculate total purchases
-    SELECT COALESCE(SUM(total_price), 0) INTO total_purchases
-    FROM purchases
-    WHERE purchase_date BETWEEN from_date AND to_date;
-
-    -- Calculate total expenses
-    SELECT COALESCE(SUM(amount), 0) INTO total_expenses
-    FROM expenses
-    WHERE expense_date BETWEEN from_date AND to_date;
+    -- Totals come from the daily_pnl rollup (non-reversed rows only)
+    SELECT COALESCE(SUM(CASE WHEN ledger = 'sale' THEN amount END), 0),
+           COALESCE(SUM(CASE WHEN ledger = 'purchase' THEN amount END), 0),
+           COALESCE(SUM(CASE WHEN ledger = 'expense' THEN amount END), 0)
+    INTO total_sales, total_purchases, total_expenses
+    FROM daily_pnl
+    WHERE day >= from_date AND day <= to_date;
 
     -- Calculate net profit
     SET net_profit = total_sales - total_purchases - total_expenses;
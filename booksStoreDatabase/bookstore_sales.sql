@@ -37,9 +37,12 @@ CREATE TABLE `sales` (
   `barcode` varchar(30) DEFAULT NULL,
   `customer_name` varchar(50) DEFAULT NULL,
   `type` enum('Whole Sale','Retail') NOT NULL DEFAULT 'Retail',
+  `invoice_id` int DEFAULT NULL,
   PRIMARY KEY (`sale_id`),
   KEY `item_id` (`item_id`),
   KEY `customer_id` (`customer_id`),
+  KEY `idx_sales_date` (`sale_date`),
+  KEY `idx_sales_invoice` (`invoice_id`,`sale_id`),
   CONSTRAINT `sales_ibfk_1` FOREIGN KEY (`item_id`) REFERENCES `inventory` (`item_id`) ON DELETE CASCADE
 ) ENGINE=InnoDB AUTO_INCREMENT=24 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
@@ -50,7 +53,7 @@ CREATE TABLE `sales` (
 
 LOCK TABLES `sales` WRITE;
 /*!40000 ALTER TABLE `sales` DISABLE KEYS */;
-INSERT INTO `sales` VALUES (1,1,1,10,-1700.0000000000005,300.00,'2025-03-18 20:02:00',NULL,'account',NULL,0,NULL,NULL,'Retail'),(2,1,NULL,4,-680.0000000000001,120.00,'2025-03-19 12:05:17','dollar 707','cash',NULL,1,NULL,NULL,'Retail'),(3,1,NULL,10,-1700.0000000000005,300.00,'2025-03-19 14:31:02','dollar 707','cash',30,1,NULL,NULL,'Retail'),(4,1,2,3,-510.0000000000001,90.00,'2025-03-19 15:46:56','dollar 707','account',30,1,NULL,NULL,'Retail'),(5,1,1,1,30,30.00,'2025-03-21 11:53:28','dollar 707','account',30,0,'12345678',NULL,'Retail'),(6,1,NULL,3,90,90.00,'2025-03-21 11:55:43','dollar 707','cash',30,0,'12345678',NULL,'Retail'),(7,1,NULL,3,90,90.00,'2025-03-21 11:57:42','dollar 707','cash',30,0,'12345678',NULL,'Retail'),(8,1,1,1,30,30.00,'2025-03-21 12:32:22','dollar 707','account',30,0,'12345678',NULL,'Retail'),(9,1,NULL,2,60,60.00,'2025-03-21 16:08:37','dollar 707','cash',30,0,'12345678',NULL,'Retail'),(10,2,NULL,1,20,20.00,'2025-03-21 16:10:33','dollar pointer','cash',20,0,'',NULL,'Retail'),(11,2,2,1,20,20.00,'2025-03-21 16:10:54','dollar pointer','account',20,0,'',NULL,'Retail'),(12,2,NULL,1,20,20.00,'2025-03-21 16:35:15','dollar pointer','cash',20,0,'',NULL,'Retail'),(13,1,3,1,30,30.00,'2025-03-21 16:51:18','dollar 707','account',30,0,'12345678',NULL,'Retail'),(14,1,1,2,60,60.00,'2025-03-22 20:31:14','dollar 707','cash',30,0,'12345678',NULL,'Retail'),(15,1,1,1,30,30.00,'2025-03-22 21:31:02','dollar 707','cash',30,0,'12345678',NULL,'Retail'),(19,1,0,2,60,60.00,'2025-03-23 14:53:29','dollar 707','cash',30,0,'12345678','Cash Customer','Retail'),(20,1,0,1,30,30.00,'2025-03-23 15:13:58','dollar 707','cash',30,0,'12345678','Abdullah','Retail'),(21,1,1,4,120,120.00,'2025-03-26 16:58:47','dollar 707','account',30,0,'12345678','abdullah','Retail'),(22,2,1,1,20,20.00,'2025-03-26 16:58:47','dollar pointer','account',20,1,'','abdullah','Retail'),(23,1,0,3,90,90.00,'2025-03-26 17:32:03','dollar 707','cash',30,0,'12345678','Cash Customer','Retail');
+INSERT INTO `sales` VALUES (1,1,1,10,-1700.0000000000005,300.00,'2025-03-18 20:02:00',NULL,'account',NULL,0,NULL,NULL,'Retail',NULL),(2,1,NULL,4,-680.0000000000001,120.00,'2025-03-19 12:05:17','dollar 707','cash',NULL,1,NULL,NULL,'Retail',NULL),(3,1,NULL,10,-1700.0000000000005,300.00,'2025-03-19 14:31:02','dollar 707','cash',30,1,NULL,NULL,'Retail',NULL),(4,1,2,3,-510.0000000000001,90.00,'2025-03-19 15:46:56','dollar 707','account',30,1,NULL,NULL,'Retail',NULL),(5,1,1,1,30,30.00,'2025-03-21 11:53:28','dollar 707','account',30,0,'12345678',NULL,'Retail',NULL),(6,1,NULL,3,90,90.00,'2025-03-21 11:55:43','dollar 707','cash',30,0,'12345678',NULL,'Retail',NULL),(7,1,NULL,3,90,90.00,'2025-03-21 11:57:42','dollar 707','cash',30,0,'12345678',NULL,'Retail',NULL),(8,1,1,1,30,30.00,'2025-03-21 12:32:22','dollar 707','account',30,0,'12345678',NULL,'Retail',NULL),(9,1,NULL,2,60,60.00,'2025-03-21 16:08:37','dollar 707','cash',30,0,'12345678',NULL,'Retail',NULL),(10,2,NULL,1,20,20.00,'2025-03-21 16:10:33','dollar pointer','cash',20,0,'',NULL,'Retail',NULL),(11,2,2,1,20,20.00,'2025-03-21 16:10:54','dollar pointer','account',20,0,'',NULL,'Retail',NULL),(12,2,NULL,1,20,20.00,'2025-03-21 16:35:15','dollar pointer','cash',20,0,'',NULL,'Retail',NULL),(13,1,3,1,30,30.00,'2025-03-21 16:51:18','dollar 707','account',30,0,'12345678',NULL,'Retail',NULL),(14,1,1,2,60,60.00,'2025-03-22 20:31:14','dollar 707','cash',30,0,'12345678',NULL,'Retail',NULL),(15,1,1,1,30,30.00,'2025-03-22 21:31:02','dollar 707','cash',30,0,'12345678',NULL,'Retail',NULL),(19,1,0,2,60,60.00,'2025-03-23 14:53:29','dollar 707','cash',30,0,'12345678','Cash Customer','Retail',NULL),(20,1,0,1,30,30.00,'2025-03-23 15:13:58','dollar 707','cash',30,0,'12345678','Abdullah','Retail',NULL),(21,1,1,4,120,120.00,'2025-03-26 16:58:47','dollar 707','account',30,0,'12345678','abdullah','Retail',NULL),(22,2,1,1,20,20.00,'2025-03-26 16:58:47','dollar pointer','account',20,1,'','abdullah','Retail',NULL),(23,1,0,3,90,90.00,'2025-03-26 17:32:03','dollar 707','cash',30,0,'12345678','Cash Customer','Retail',NULL);
 /*!40000 ALTER TABLE `sales` ENABLE KEYS */;
 UNLOCK TABLES;
 /*!50003 SET @saved_cs_client      = @@character_set_client */ ;
@@ -61,83 +64,11 @@ UNLOCK TABLES;
 /*!50003 SET collation_connection  = utf8mb4_0900_ai_ci */ ;
 /*!50003 SET @saved_sql_mode       = @@sql_mode */ ;
 /*!50003 SET sql_mode              = 'ONLY_FULL_GROUP_BY,STRICT_TRANS_TABLES,NO_ZERO_IN_DATE,NO_ZERO_DATE,ERROR_FOR_DIVISION_BY_ZERO,NO_ENGINE_SUBSTITUTION' */ ;
-DELIMITER ;;
-/*!50003 CREATE*/ /*!50017 DEFINER=`root`@`localhost`*/ /*!50003 TRIGGER `calculate_profit_on_insert` BEFORE INSERT ON `sales` FOR EACH ROW SET NEW.profit = (
-    SELECT NEW.total_price * (i.profit_margin / 100)
-    FROM inventory i
-    WHERE i.item_id = NEW.item_id
-) */;;
-DELIMITER ;
-/*!50003 SET sql_mode              = @saved_sql_mode */ ;
-/*!50003 SET character_set_client  = @saved_cs_client */ ;
-/*!50003 SET character_set_results = @saved_cs_results */ ;
-/*!50003 SET collation_connection  = @saved_col_connection */ ;
-/*!50003 SET @saved_cs_client      = @@character_set_client */ ;
-/*!50003 SET @saved_cs_results     = @@character_set_results */ ;
-/*!50003 SET @saved_col_connection = @@collation_connection */ ;
-/*!50003 SET character_set_client  = utf8mb4 */ ;
-/*!50003 SET character_set_results = utf8mb4 */ ;
-/*!50003 SET collation_connection  = utf8mb4_0900_ai_ci */ ;
-/*!50003 SET @saved_sql_mode       = @@sql_mode */ ;
-/*!50003 SET sql_mode              = 'ONLY_FULL_GROUP_BY,STRICT_TRANS_TABLES,NO_ZERO_IN_DATE,NO_ZERO_DATE,ERROR_FOR_DIVISION_BY_ZERO,NO_ENGINE_SUBSTITUTION' */ ;
-DELIMITER ;;
-/*!50003 CREATE*/ /*!50017 DEFINER=`root`@`localhost`*/ /*!50003 TRIGGER `after_sale_insert` AFTER INSERT ON `sales` FOR EACH ROW BEGIN
-    DECLARE customerType VARCHAR(20);
-    
-    IF NEW.customer_id <> 0 THEN
-        SELECT customer_type 
-          INTO customerType 
-          FROM customers 
-         WHERE customer_id = NEW.customer_id;
-        
-        INSERT INTO deals (
-            sale_id, 
-            customer_id, 
-            item_name, 
-            payment_type, 
-            type, 
-            debit, 
-            credit, 
-            description
-        )
-        VALUES (
-            NEW.sale_id,
-            NEW.customer_id,
-            NEW.customer_name,
-            NEW.payment_type,
-            CASE 
-                WHEN customerType = 'permanent' THEN 'permanent customer deal'
-                ELSE 'temporary customer deal'
-            END,
-            NEW.total_price,
-            0,
-            CONCAT('Sale recorded on ', NEW.payment_type)
-        );
-    END IF;
-END */;;
-DELIMITER ;
-/*!50003 SET sql_mode              = @saved_sql_mode */ ;
-/*!50003 SET character_set_client  = @saved_cs_client */ ;
-/*!50003 SET character_set_results = @saved_cs_results */ ;
-/*!50003 SET collation_connection  = @saved_col_connection */ ;
-/*!50003 SET @saved_cs_client      = @@character_set_client */ ;
-/*!50003 SET @saved_cs_results     = @@character_set_results */ ;
-/*!50003 SET @saved_col_connection = @@collation_connection */ ;
-/*!50003 SET character_set_client  = utf8mb4 */ ;
-/*!50003 SET character_set_results = utf8mb4 */ ;
-/*!50003 SET collation_connection  = utf8mb4_0900_ai_ci */ ;
-/*!50003 SET @saved_sql_mode       = @@sql_mode */ ;
-/*!50003 SET sql_mode              = 'ONLY_FULL_GROUP_BY,STRICT_TRANS_TABLES,NO_ZERO_IN_DATE,NO_ZERO_DATE,ERROR_FOR_DIVISION_BY_ZERO,NO_ENGINE_SUBSTITUTION' */ ;
-DELIMITER ;;
-/*!50003 CREATE*/ /*!50017 DEFINER=`root`@`localhost`*/ /*!50003 TRIGGER `after_sale_balance_update` AFTER INSERT ON `sales` FOR EACH ROW BEGIN
-    -- Update balance only if the sale is on account (customer_id ≠ 0)
-    IF NEW.customer_id <> 0 THEN
-        UPDATE customers 
-        SET balance = balance + NEW.total_price
-        WHERE customer_id = NEW.customer_id;
-    END IF;
-END */;;
-DELIMITER ;
+-- Profit, deals rows and customer balances are posted once per invoice by the
+-- application (LedgerPosting), so the per-row triggers are not created.
+DROP TRIGGER IF EXISTS `calculate_profit_on_insert`;
+DROP TRIGGER IF EXISTS `after_sale_insert`;
+DROP TRIGGER IF EXISTS `after_sale_balance_update`;
 /*!50003 SET sql_mode              = @saved_sql_mode */ ;
 /*!50003 SET character_set_client  = @saved_cs_client */ ;
 /*!50003 SET character_set_results = @saved_cs_results */ ;
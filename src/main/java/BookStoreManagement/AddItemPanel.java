@@ -35,6 +35,9 @@ public class AddItemPanel extends JPanel implements LanguageChangeListener {
     // This variable stores the current language ("English" by default)
     private String currentLanguage = "English";
     
+    // Bumped per search so a slow earlier lookup never overwrites a newer one
+    private int searchSequence = 0;
+    
     public AddItemPanel(Database db) {
         this.db = db;
         setLayout(new GridBagLayout());
@@ -257,11 +260,30 @@ public class AddItemPanel extends JPanel implements LanguageChangeListener {
         refreshButton.addActionListener(e -> refresh());
         add(refreshButton, gbc);
         
-        // Load initial categories from the database
+        // Load initial categories from the reference-data cache, and again whenever it changes
         loadCategories();
+        ReferenceDataCache.getInstance().addListener(() -> {
+            loadCategories();
+            loadSubcategories();
+        });
         
-        // Swing Timer to update profit margin in near real time
-        new javax.swing.Timer(200, e -> calculateProfitMargin()).start();
+        // Recompute the profit margin only when one of the prices is edited
+        javax.swing.event.DocumentListener priceListener = new javax.swing.event.DocumentListener() {
+            @Override
+            public void insertUpdate(javax.swing.event.DocumentEvent e) {
+                calculateProfitMargin();
+            }
+            @Override
+            public void removeUpdate(javax.swing.event.DocumentEvent e) {
+                calculateProfitMargin();
+            }
+            @Override
+            public void changedUpdate(javax.swing.event.DocumentEvent e) {
+                // Attribute changes only; the text is the same
+            }
+        };
+        purchasePriceField.getDocument().addDocumentListener(priceListener);
+        salePriceField.getDocument().addDocumentListener(priceListener);
         
         // ----------------- Add "Enter" Key Binding for Search -----------------
         getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke("ENTER"), "searchItem");
@@ -273,50 +295,47 @@ public class AddItemPanel extends JPanel implements LanguageChangeListener {
         });
     }
     
+    // Both lists come from the shared reference-data cache, not the database
     private void loadCategories() {
+        Object selected = categoryComboBox.getSelectedItem();
         categoryComboBox.removeAllItems();
-        try (PreparedStatement stmt = db.getConnection().prepareStatement("SELECT category_name FROM categories");
-             ResultSet rs = stmt.executeQuery()) {
-            while (rs.next()) {
-                categoryComboBox.addItem(rs.getString("category_name"));
-            }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error loading categories!", "Database Error", JOptionPane.ERROR_MESSAGE);
+        for (String category : ReferenceDataCache.getInstance().categories()) {
+            categoryComboBox.addItem(category);
+        }
+        if (selected != null) {
+            categoryComboBox.setSelectedItem(selected);
         }
     }
     
     private void loadSubcategories() {
+        Object selected = subcategoryComboBox.getSelectedItem();
         subcategoryComboBox.removeAllItems();
         String selectedCategory = (String) categoryComboBox.getSelectedItem();
         if (selectedCategory == null) return;
-        try (PreparedStatement stmt = db.getConnection().prepareStatement(
-                "SELECT subcategory_name FROM subcategories WHERE category_id = (SELECT category_id FROM categories WHERE category_name = ?)")) {
-            stmt.setString(1, selectedCategory);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                subcategoryComboBox.addItem(rs.getString("subcategory_name"));
-            }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error loading subcategories!", "Database Error", JOptionPane.ERROR_MESSAGE);
+        for (String subcategory : ReferenceDataCache.getInstance().subcategories(selectedCategory)) {
+            subcategoryComboBox.addItem(subcategory);
+        }
+        if (selected != null) {
+            subcategoryComboBox.setSelectedItem(selected);
         }
     }
     
     private void calculateProfitMargin() {
         String purchaseText = purchasePriceField.getText().trim();
         String saleText = salePriceField.getText().trim();
-        if (purchaseText.isEmpty() || saleText.isEmpty()) {
-            profitMarginLabel.setText("Profit Margin: 0%");
-            return;
+        String text = "Profit Margin: 0%";
+        if (!purchaseText.isEmpty() && !saleText.isEmpty()) {
+            try {
+                double purchasePrice = Double.parseDouble(purchaseText);
+                double salePrice = Double.parseDouble(saleText);
+                double profitMargin = ((salePrice - purchasePrice) / purchasePrice) * 100;
+                text = String.format("Profit Margin: %.2f%%", profitMargin);
+            } catch (NumberFormatException ex) {
+                // Not a number yet (e.g. while typing); show 0%
+            }
         }
-        try {
-            double purchasePrice = Double.parseDouble(purchaseText);
-            double salePrice = Double.parseDouble(saleText);
-            double profitMargin = ((salePrice - purchasePrice) / purchasePrice) * 100;
-            profitMarginLabel.setText(String.format("Profit Margin: %.2f%%", profitMargin));
-        } catch (NumberFormatException ex) {
-            profitMarginLabel.setText("Profit Margin: 0%");
+        if (!text.equals(profitMarginLabel.getText())) { // Skip the relayout when nothing changed
+            profitMarginLabel.setText(text);
         }
     }
     
@@ -330,51 +349,84 @@ public class AddItemPanel extends JPanel implements LanguageChangeListener {
             }
             return;
         }
-        String query = "";
-        PreparedStatement stmt = null;
-        Connection conn = db.getConnection();
-        try {
-            if (!barcode.isEmpty() && !itemName.isEmpty()) {
-                query = "SELECT * FROM inventory WHERE item_name = ? AND barcode = ? AND item_condition = ?";
-                stmt = conn.prepareStatement(query);
-                stmt.setString(1, itemName);
-                stmt.setString(2, barcode);
-                stmt.setString(3, condition);
-            } else if (!barcode.isEmpty()) {
-                query = "SELECT * FROM inventory WHERE barcode = ? AND item_condition = ?";
-                stmt = conn.prepareStatement(query);
-                stmt.setString(1, barcode);
-                stmt.setString(2, condition);
-            } else {
-                query = "SELECT * FROM inventory WHERE item_name = ? AND item_condition = ?";
-                stmt = conn.prepareStatement(query);
-                stmt.setString(1, itemName);
-                stmt.setString(2, condition);
+        // Fixed SQL text per search shape so each variant hits the statement cache
+        String query;
+        String[] params;
+        if (!barcode.isEmpty() && !itemName.isEmpty()) {
+            query = "SELECT * FROM inventory WHERE item_name = ? AND barcode = ? AND item_condition = ?";
+            params = new String[]{itemName, barcode, condition};
+        } else if (!barcode.isEmpty()) {
+            query = "SELECT * FROM inventory WHERE barcode = ? AND item_condition = ?";
+            params = new String[]{barcode, condition};
+        } else {
+            query = "SELECT * FROM inventory WHERE item_name = ? AND item_condition = ?";
+            params = new String[]{itemName, condition};
+        }
+        int sequence = ++searchSequence;
+        DataExecutor.getInstance().run(this, () -> findItem(query, params), item -> {
+            if (sequence != searchSequence) {
+                return; // A newer search is already on its way
             }
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                barcodeField.setText(rs.getString("barcode"));
-                itemNameField.setText(rs.getString("item_name"));
-                companyField.setText(rs.getString("company")); // Set company from DB
-                categoryComboBox.setSelectedItem(rs.getString("category"));
-                subcategoryComboBox.setSelectedItem(rs.getString("subcategory"));
+            if (item != null) {
+                barcodeField.setText(item.barcode);
+                itemNameField.setText(item.itemName);
+                companyField.setText(item.company); // Set company from DB
+                categoryComboBox.setSelectedItem(item.category);
+                subcategoryComboBox.setSelectedItem(item.subcategory);
                 stockField.setText("0");
-                purchasePriceField.setText(String.valueOf(rs.getDouble("purchase_price")));
-                salePriceField.setText(String.valueOf(rs.getDouble("sale_price")));
-                unitField.setText(rs.getString("unit"));
-                profitMarginLabel.setText(String.format("Profit Margin: %.2f%%", rs.getDouble("profit_margin")));
+                purchasePriceField.setText(String.valueOf(item.purchasePrice));
+                salePriceField.setText(String.valueOf(item.salePrice));
+                unitField.setText(item.unit);
+                profitMarginLabel.setText(String.format("Profit Margin: %.2f%%", item.profitMargin));
                 previewArea.setText(String.format(
                     "Item Name: %s\nBarcode: %s\nCompany: %s\nCategory: %s\nSubcategory: %s\nCondition: %s\nStock: %s\nPurchase Price: %.2f\nSale Price: %.2f\nUnit: %s",
-                    rs.getString("item_name"), rs.getString("barcode"), rs.getString("company"),
-                    rs.getString("category"), rs.getString("subcategory"),
-                    rs.getString("item_condition"), "0", rs.getDouble("purchase_price"), rs.getDouble("sale_price"), rs.getString("unit")));
+                    item.itemName, item.barcode, item.company,
+                    item.category, item.subcategory,
+                    item.condition, "0", item.purchasePrice, item.salePrice, item.unit));
             } else {
                 clearFields();
                 previewArea.setText("No matching item found.");
             }
-        } catch (SQLException ex) {
+        }, ex -> {
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Error searching item!", "Database Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+    
+    /** The inventory columns the search fills into the form. */
+    private static final class FoundItem {
+        String barcode, itemName, company, category, subcategory, condition, unit;
+        double purchasePrice, salePrice, profitMargin;
+    }
+    
+    // Runs on DataExecutor; returns null when nothing matches
+    private FoundItem findItem(String query, String[] params) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("Database is not reachable.");
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                for (int i = 0; i < params.length; i++) {
+                    stmt.setString(i + 1, params[i]);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    FoundItem item = new FoundItem();
+                    item.barcode = rs.getString("barcode");
+                    item.itemName = rs.getString("item_name");
+                    item.company = rs.getString("company");
+                    item.category = rs.getString("category");
+                    item.subcategory = rs.getString("subcategory");
+                    item.condition = rs.getString("item_condition");
+                    item.unit = rs.getString("unit");
+                    item.purchasePrice = rs.getDouble("purchase_price");
+                    item.salePrice = rs.getDouble("sale_price");
+                    item.profitMargin = rs.getDouble("profit_margin");
+                    return item;
+                }
+            }
         }
     }
     
@@ -395,14 +447,16 @@ public class AddItemPanel extends JPanel implements LanguageChangeListener {
     private void addCategory() {
         String category = JOptionPane.showInputDialog(this, "Enter New Category Name:");
         if (category == null || category.trim().isEmpty()) return;
-        try (PreparedStatement stmt = db.getConnection().prepareStatement("INSERT INTO categories (category_name) VALUES (?)")) {
-            stmt.setString(1, category.trim());
-            stmt.executeUpdate();
+        DataExecutor.getInstance().run(this, () -> {
+            ReferenceDataCache.getInstance().addCategory(category.trim());
+            return null;
+        }, ignored -> {
             loadCategories();
-        } catch (SQLException ex) {
+            categoryComboBox.setSelectedItem(category.trim());
+        }, ex -> {
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Error adding category!", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
     
     private void addSubcategory() {
@@ -413,16 +467,16 @@ public class AddItemPanel extends JPanel implements LanguageChangeListener {
         }
         String subcategory = JOptionPane.showInputDialog(this, "Enter New Subcategory Name:");
         if (subcategory == null || subcategory.trim().isEmpty()) return;
-        try (PreparedStatement stmt = db.getConnection().prepareStatement(
-                "INSERT INTO subcategories (subcategory_name, category_id) VALUES (?, (SELECT category_id FROM categories WHERE category_name = ?))")) {
-            stmt.setString(1, subcategory.trim());
-            stmt.setString(2, category);
-            stmt.executeUpdate();
+        DataExecutor.getInstance().run(this, () -> {
+            ReferenceDataCache.getInstance().addSubcategory(category, subcategory.trim());
+            return null;
+        }, ignored -> {
             loadSubcategories();
-        } catch (SQLException ex) {
+            subcategoryComboBox.setSelectedItem(subcategory.trim());
+        }, ex -> {
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Error adding subcategory!", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
     
     private void saveItem() {
@@ -439,25 +493,51 @@ public class AddItemPanel extends JPanel implements LanguageChangeListener {
         
         double computedProfitMargin = ((salePrice - purchasePrice) / purchasePrice) * 100;
         
+        saveButton.setEnabled(false); // No double saves while the first is in flight
+        DataExecutor.getInstance().run(this, () -> writeItem(itemName, barcode, company, category, subcategory,
+                condition, unit, stock, purchasePrice, salePrice, computedProfitMargin), updated -> {
+            saveButton.setEnabled(true);
+            JOptionPane.showMessageDialog(this, updated ? "Item updated successfully!" : "Item saved successfully!",
+                    "Success", JOptionPane.INFORMATION_MESSAGE);
+            refresh();
+        }, ex -> {
+            saveButton.setEnabled(true);
+            ex.printStackTrace();
+            JOptionPane.showMessageDialog(this, "Error saving item!", "Database Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+    
+    // Runs on DataExecutor; adds to the stock of a matching item or inserts a new one. Returns true on update.
+    private boolean writeItem(String itemName, String barcode, String company, String category, String subcategory,
+                              String condition, String unit, int stock, double purchasePrice, double salePrice,
+                              double computedProfitMargin) throws SQLException {
         try (Connection conn = db.getConnection()) {
-            String checkQuery;
-            PreparedStatement checkStmt;
-            if (barcode.isEmpty()) {
-                checkQuery = "SELECT item_id, stock FROM inventory WHERE item_name = ? AND item_condition = ? AND barcode IS NULL";
-                checkStmt = conn.prepareStatement(checkQuery);
-                checkStmt.setString(1, itemName);
-                checkStmt.setString(2, condition);
-            } else {
-                checkQuery = "SELECT item_id, stock FROM inventory WHERE (item_name = ? OR barcode = ?) AND item_condition = ?";
-                checkStmt = conn.prepareStatement(checkQuery);
+            if (conn == null) {
+                throw new SQLException("Database is not reachable.");
+            }
+            String checkQuery = barcode.isEmpty()
+                    ? "SELECT item_id, stock FROM inventory WHERE item_name = ? AND item_condition = ? AND barcode IS NULL"
+                    : "SELECT item_id, stock FROM inventory WHERE (item_name = ? OR barcode = ?) AND item_condition = ?";
+            boolean updated = false;
+            int existingId = 0;
+            int existingStock = 0;
+            try (PreparedStatement checkStmt = conn.prepareStatement(checkQuery)) {
                 checkStmt.setString(1, itemName);
-                checkStmt.setString(2, barcode);
-                checkStmt.setString(3, condition);
+                if (barcode.isEmpty()) {
+                    checkStmt.setString(2, condition);
+                } else {
+                    checkStmt.setString(2, barcode);
+                    checkStmt.setString(3, condition);
+                }
+                try (ResultSet rs = checkStmt.executeQuery()) {
+                    if (rs.next()) {
+                        updated = true;
+                        existingId = rs.getInt("item_id");
+                        existingStock = rs.getInt("stock");
+                    }
+                }
             }
-            
-            ResultSet rs = checkStmt.executeQuery();
-            if (rs.next()) {
-                int existingStock = rs.getInt("stock");
+            if (updated) {
                 int newStock = existingStock + stock;
                 String updateQuery = "UPDATE inventory SET barcode = ?, stock = ?, purchase_price = ?, sale_price = ?, unit = ?, profit_margin = ?, company = ? WHERE item_id = ?";
                 try (PreparedStatement updateStmt = conn.prepareStatement(updateQuery)) {
@@ -472,10 +552,9 @@ public class AddItemPanel extends JPanel implements LanguageChangeListener {
                     updateStmt.setString(5, unit);
                     updateStmt.setDouble(6, computedProfitMargin);
                     updateStmt.setString(7, company);
-                    updateStmt.setInt(8, rs.getInt("item_id"));
+                    updateStmt.setInt(8, existingId);
                     updateStmt.executeUpdate();
                 }
-                JOptionPane.showMessageDialog(this, "Item updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
             } else {
                 String insertQuery = "INSERT INTO inventory (item_name, barcode, category, subcategory, item_condition, stock, purchase_price, sale_price, unit, profit_margin, company) " +
                         "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
@@ -497,12 +576,9 @@ public class AddItemPanel extends JPanel implements LanguageChangeListener {
                     insertStmt.setString(11, company);
                     insertStmt.executeUpdate();
                 }
-                JOptionPane.showMessageDialog(this, "Item saved successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
             }
-            refresh();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error saving item!", "Database Error", JOptionPane.ERROR_MESSAGE);
+            ReferenceDataCache.getInstance().noteCompany(company);
+            return updated;
         }
     }
     
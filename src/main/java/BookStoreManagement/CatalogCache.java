@@ -0,0 +1,449 @@
+package BookStoreManagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory copy of the sellable part of the inventory so barcode scans and item
+ * name lookups at checkout never wait on the database.
+ *
+ * The whole table is loaded once at startup, then a background thread picks up
+ * rows whose last_change moved since the previous poll. Readers always see an
+ * immutable {@link Snapshot}; the refresher builds a new one and swaps it in.
+ * Deleted rows cannot be seen through last_change, so a full reload also runs
+ * every few minutes and {@link #removeItem(int)} drops local deletes right away.
+ */
+public class CatalogCache {
+    private static final CatalogCache INSTANCE = new CatalogCache();
+
+    private static final long REFRESH_INTERVAL_MS = 5_000L;
+    private static final long FULL_RELOAD_INTERVAL_MS = 10 * 60_000L;
+
+    private static final String SELECT_COLUMNS =
+            "SELECT item_id, item_name, barcode, sale_price, item_condition, stock, sold, last_change FROM inventory";
+
+    private volatile Snapshot snapshot = null;
+
+    // Only touched by the refresher thread
+    private final Map<Integer, Item> master = new HashMap<>();
+    private Timestamp lastSeenChange = null;
+    private long lastFullReload = 0;
+
+    private Database db;
+    private ScheduledExecutorService refresher;
+
+    private CatalogCache() {
+    }
+
+    public static CatalogCache getInstance() {
+        return INSTANCE;
+    }
+
+    /** Starts the initial load and the periodic refresh. Safe to call more than once. */
+    public synchronized void start(Database db) {
+        if (refresher != null) {
+            return;
+        }
+        this.db = db;
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "catalog-cache-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        refresher.scheduleWithFixedDelay(this::refresh, 0, REFRESH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    /** Asks the refresher to pick up changes now, e.g. right after this terminal wrote to inventory. */
+    public void refreshNow() {
+        ScheduledExecutorService r = refresher;
+        if (r != null) {
+            r.execute(this::refresh);
+        }
+    }
+
+    /** Drops an item deleted on this terminal without waiting for the next full reload. */
+    public void removeItem(int itemId) {
+        ScheduledExecutorService r = refresher;
+        if (r != null) {
+            r.execute(() -> {
+                if (master.remove(itemId) != null) {
+                    snapshot = Snapshot.build(master.values());
+                }
+            });
+        }
+    }
+
+    /**
+     * Finds an item by barcode. When several rows share the barcode (one per condition)
+     * the one matching {@code condition} wins, otherwise the first one. Returns null
+     * when nothing matches or the cache has not finished loading.
+     */
+    public Item findByBarcode(String barcode, String condition) {
+        Snapshot s = snapshot;
+        if (s == null || barcode == null || barcode.isEmpty()) {
+            return null;
+        }
+        return s.pick(s.barcodeHead(barcode), s.nextSameBarcode, condition);
+    }
+
+    /** Exact (case-insensitive) item name lookup, preferring the given condition. */
+    public Item findByName(String name, String condition) {
+        Snapshot s = snapshot;
+        if (s == null || name == null || name.isEmpty()) {
+            return null;
+        }
+        int[] rows = s.byName.get(nameKey(name));
+        if (rows == null) {
+            return null;
+        }
+        Item first = null;
+        for (int row : rows) {
+            Item item = s.item(row);
+            if (condition == null || condition.equalsIgnoreCase(item.condition)) {
+                return item;
+            }
+            if (first == null) {
+                first = item;
+            }
+        }
+        return first;
+    }
+
+    /** Items whose name starts with {@code prefix}, in name order, at most {@code limit} of them. */
+    public List<Item> findByNamePrefix(String prefix, int limit) {
+        Snapshot s = snapshot;
+        return s == null ? Collections.emptyList() : range(s, s.byName, prefix, limit);
+    }
+
+    /**
+     * Items with a later word of the name starting with {@code prefix} ("oxford" finds
+     * "The Oxford Atlas"), at most {@code limit} of them. Matches on the first word
+     * are {@link #findByNamePrefix}'s.
+     */
+    public List<Item> findByWordPrefix(String prefix, int limit) {
+        Snapshot s = snapshot;
+        return s == null ? Collections.emptyList() : range(s, s.byWord, prefix, limit);
+    }
+
+    private static List<Item> range(Snapshot s, NavigableMap<String, int[]> index, String prefix, int limit) {
+        if (prefix == null || prefix.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String key = nameKey(prefix);
+        List<Item> result = new ArrayList<>();
+        for (int[] rows : index.subMap(key, true, key + Character.MAX_VALUE, false).values()) {
+            for (int row : rows) {
+                result.add(s.item(row));
+                if (result.size() >= limit) {
+                    return result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private void refresh() {
+        long now = System.currentTimeMillis();
+        boolean full = snapshot == null || now - lastFullReload > FULL_RELOAD_INTERVAL_MS;
+        try (Connection conn = db.getConnection()) {
+            if (conn == null) {
+                return;
+            }
+            if (full) {
+                loadAll(conn);
+                lastFullReload = now;
+            } else {
+                loadChanged(conn);
+            }
+        } catch (SQLException e) {
+            // Keep serving the previous snapshot; the next poll will try again
+            System.out.println("Catalog refresh failed: " + e.getMessage());
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void loadAll(Connection conn) throws SQLException {
+        Map<Integer, Item> fresh = new HashMap<>();
+        Timestamp maxChange = null;
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_COLUMNS);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                Item item = readItem(rs);
+                fresh.put(item.itemId, item);
+                maxChange = later(maxChange, rs.getTimestamp("last_change"));
+            }
+        }
+        master.clear();
+        master.putAll(fresh);
+        lastSeenChange = maxChange;
+        snapshot = Snapshot.build(master.values());
+        System.out.println("✅ Catalog cache loaded " + master.size() + " items.");
+    }
+
+    private void loadChanged(Connection conn) throws SQLException {
+        if (lastSeenChange == null) {
+            loadAll(conn);
+            return;
+        }
+        boolean changed = false;
+        Timestamp maxChange = lastSeenChange;
+        // >= because last_change only has second precision; re-reading a row is harmless
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_COLUMNS + " WHERE last_change >= ?")) {
+            stmt.setTimestamp(1, lastSeenChange);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Item item = readItem(rs);
+                    if (!item.equals(master.put(item.itemId, item))) {
+                        changed = true;
+                    }
+                    maxChange = later(maxChange, rs.getTimestamp("last_change"));
+                }
+            }
+        }
+        lastSeenChange = maxChange;
+        if (changed) {
+            snapshot = Snapshot.build(master.values());
+        }
+    }
+
+    private static Item readItem(ResultSet rs) throws SQLException {
+        return new Item(
+                rs.getInt("item_id"),
+                rs.getString("item_name"),
+                rs.getString("barcode"),
+                rs.getDouble("sale_price"),
+                rs.getString("item_condition"),
+                rs.getInt("stock"),
+                rs.getInt("sold"));
+    }
+
+    private static Timestamp later(Timestamp a, Timestamp b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return b.after(a) ? b : a;
+    }
+
+    static String nameKey(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** One inventory row as seen by checkout. */
+    public static final class Item {
+        public final int itemId;
+        public final String name;
+        public final String barcode;
+        public final double salePrice;
+        public final String condition;
+        public final int stock;
+        public final int sold;
+
+        Item(int itemId, String name, String barcode, double salePrice, String condition, int stock, int sold) {
+            this.itemId = itemId;
+            this.name = name;
+            this.barcode = barcode;
+            this.salePrice = salePrice;
+            this.condition = condition;
+            this.stock = stock;
+            this.sold = sold;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Item)) return false;
+            Item other = (Item) o;
+            return itemId == other.itemId && salePrice == other.salePrice && stock == other.stock
+                    && sold == other.sold && java.util.Objects.equals(name, other.name)
+                    && java.util.Objects.equals(barcode, other.barcode)
+                    && java.util.Objects.equals(condition, other.condition);
+        }
+
+        @Override
+        public int hashCode() {
+            return itemId;
+        }
+    }
+
+    /**
+     * Immutable, column-per-field view of the catalog. Numeric barcodes (the usual
+     * EAN/UPC case) go into an open-addressing table keyed by a primitive long so a
+     * scan does no boxing or string hashing; anything else falls back to a HashMap.
+     * Rows sharing a barcode are chained through {@code nextSameBarcode}.
+     */
+    private static final class Snapshot {
+        final int size;
+        final int[] itemId;
+        final String[] name;
+        final String[] barcode;
+        final double[] salePrice;
+        final String[] condition;
+        final int[] stock;
+        final int[] sold;
+        final int[] nextSameBarcode;
+
+        final long[] numericKeys;
+        final int[] numericHeads; // -1 marks an empty slot
+        final int numericMask;
+        final Map<String, Integer> otherBarcodes;
+
+        final NavigableMap<String, int[]> byName;
+        // The name from each later word onwards, so a word prefix is a range scan too
+        final NavigableMap<String, int[]> byWord;
+
+        private Snapshot(int size) {
+            this.size = size;
+            itemId = new int[size];
+            name = new String[size];
+            barcode = new String[size];
+            salePrice = new double[size];
+            condition = new String[size];
+            stock = new int[size];
+            sold = new int[size];
+            nextSameBarcode = new int[size];
+            int capacity = Integer.highestOneBit(Math.max(16, size * 2 - 1)) << 1;
+            numericKeys = new long[capacity];
+            numericHeads = new int[capacity];
+            java.util.Arrays.fill(numericHeads, -1);
+            numericMask = capacity - 1;
+            otherBarcodes = new HashMap<>();
+            byName = new TreeMap<>();
+            byWord = new TreeMap<>();
+        }
+
+        static Snapshot build(Iterable<Item> items) {
+            List<Item> list = new ArrayList<>();
+            for (Item item : items) {
+                list.add(item);
+            }
+            Snapshot s = new Snapshot(list.size());
+            Map<String, List<Integer>> names = new HashMap<>();
+            Map<String, List<Integer>> words = new HashMap<>();
+            for (int row = 0; row < list.size(); row++) {
+                Item item = list.get(row);
+                s.itemId[row] = item.itemId;
+                s.name[row] = item.name;
+                s.barcode[row] = item.barcode;
+                s.salePrice[row] = item.salePrice;
+                s.condition[row] = item.condition;
+                s.stock[row] = item.stock;
+                s.sold[row] = item.sold;
+                s.nextSameBarcode[row] = -1;
+                if (item.barcode != null && !item.barcode.trim().isEmpty()) {
+                    s.indexBarcode(item.barcode.trim(), row);
+                }
+                if (item.name != null) {
+                    String key = nameKey(item.name);
+                    names.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+                    for (int at = key.indexOf(' '); at >= 0; at = key.indexOf(' ', at + 1)) {
+                        if (at + 1 < key.length() && key.charAt(at + 1) != ' ') {
+                            words.computeIfAbsent(key.substring(at + 1), k -> new ArrayList<>()).add(row);
+                        }
+                    }
+                }
+            }
+            fill(s.byName, names);
+            fill(s.byWord, words);
+            return s;
+        }
+
+        private static void fill(NavigableMap<String, int[]> index, Map<String, List<Integer>> keys) {
+            for (Map.Entry<String, List<Integer>> e : keys.entrySet()) {
+                int[] rows = new int[e.getValue().size()];
+                for (int i = 0; i < rows.length; i++) {
+                    rows[i] = e.getValue().get(i);
+                }
+                index.put(e.getKey(), rows);
+            }
+        }
+
+        private void indexBarcode(String code, int row) {
+            long key = numericKey(code);
+            if (key < 0) {
+                Integer head = otherBarcodes.put(code, row);
+                nextSameBarcode[row] = head == null ? -1 : head;
+                return;
+            }
+            int slot = mix(key) & numericMask;
+            while (numericHeads[slot] != -1 && numericKeys[slot] != key) {
+                slot = (slot + 1) & numericMask;
+            }
+            nextSameBarcode[row] = numericHeads[slot];
+            numericKeys[slot] = key;
+            numericHeads[slot] = row;
+        }
+
+        int barcodeHead(String code) {
+            code = code.trim();
+            long key = numericKey(code);
+            if (key < 0) {
+                Integer head = otherBarcodes.get(code);
+                return head == null ? -1 : head;
+            }
+            int slot = mix(key) & numericMask;
+            while (numericHeads[slot] != -1) {
+                if (numericKeys[slot] == key) {
+                    return numericHeads[slot];
+                }
+                slot = (slot + 1) & numericMask;
+            }
+            return -1;
+        }
+
+        Item pick(int head, int[] chain, String wantedCondition) {
+            int first = -1;
+            for (int row = head; row != -1; row = chain[row]) {
+                if (wantedCondition == null || wantedCondition.equalsIgnoreCase(condition[row])) {
+                    return item(row);
+                }
+                if (first == -1) {
+                    first = row;
+                }
+            }
+            return first == -1 ? null : item(first);
+        }
+
+        Item item(int row) {
+            return new Item(itemId[row], name[row], barcode[row], salePrice[row], condition[row], stock[row], sold[row]);
+        }
+
+        // Digits-only codes without a leading zero fit a long losslessly; -1 means "use the string map"
+        private static long numericKey(String code) {
+            int len = code.length();
+            if (len == 0 || len > 18 || (code.charAt(0) == '0' && len > 1)) {
+                return -1;
+            }
+            long value = 0;
+            for (int i = 0; i < len; i++) {
+                char c = code.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                value = value * 10 + (c - '0');
+            }
+            return value;
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
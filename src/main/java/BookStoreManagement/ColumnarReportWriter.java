@@ -0,0 +1,242 @@
+package BookStoreManagement;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a report in a compact compressed columnar file (.bkcol) for archiving or
+ * loading into analysis tools.
+ *
+ * Layout, all integers big-endian:
+ * <pre>
+ *   "BKCOL\0\0\1"                                magic and version
+ *   int columns, then per column: byte kind (ColumnKind ordinal), short length + UTF-8 name
+ *   row groups: int rows, then per column: int rawLength, int deflatedLength, deflated bytes
+ *   int 0                                       end of file
+ * </pre>
+ * A column chunk holds a null bitmap ((rows + 7) / 8 bytes, bit set = null) followed
+ * by the non-null values: 8-byte longs for integers, 8-byte doubles for decimals,
+ * 8-byte epoch milliseconds for dates and timestamps, and varint length + bytes for
+ * text. Column buffers, Deflaters and the output buffer are reused across row groups.
+ */
+public class ColumnarReportWriter implements ReportWriter {
+    private static final byte[] MAGIC = {'B', 'K', 'C', 'O', 'L', 0, 0, 1};
+    private static final int ROW_GROUP = 65_536;
+
+    private final File file;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(1 << 16);
+    private FileChannel channel;
+    private ColumnKind[] kinds;
+    private ColumnChunk[] chunks;
+    private byte[] deflated = new byte[1 << 16];
+    private int rows;
+
+    public ColumnarReportWriter(File file) {
+        this.file = file;
+    }
+
+    /** One column of the current row group. */
+    private static final class ColumnChunk {
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        final byte[] nulls = new byte[(ROW_GROUP + 7) / 8];
+        ByteBuffer values = ByteBuffer.allocate(1 << 14);
+
+        void clear() {
+            Arrays.fill(nulls, (byte) 0);
+            values.clear();
+        }
+
+        void setNull(int row) {
+            nulls[row >>> 3] |= (byte) (1 << (row & 7));
+        }
+
+        ByteBuffer reserve(int bytes) {
+            if (values.remaining() < bytes) {
+                ByteBuffer bigger = ByteBuffer.allocate(Math.max(values.capacity() * 2, values.position() + bytes));
+                values.flip();
+                bigger.put(values);
+                values = bigger;
+            }
+            return values;
+        }
+    }
+
+    @Override
+    public void begin(String title, ResultSetMetaData meta) throws IOException, SQLException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        int columnCount = meta.getColumnCount();
+        kinds = new ColumnKind[columnCount];
+        chunks = new ColumnChunk[columnCount];
+        reserve(MAGIC.length + 4).put(MAGIC).putInt(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            kinds[i] = ColumnKind.of(meta.getColumnType(i + 1));
+            chunks[i] = new ColumnChunk();
+            byte[] name = meta.getColumnLabel(i + 1).getBytes(StandardCharsets.UTF_8);
+            reserve(3 + name.length).put((byte) kinds[i].ordinal()).putShort((short) name.length).put(name);
+        }
+    }
+
+    @Override
+    public void writeRow(ResultSet rs) throws IOException, SQLException {
+        for (int i = 0; i < kinds.length; i++) {
+            ColumnChunk chunk = chunks[i];
+            int column = i + 1;
+            switch (kinds[i]) {
+                case INTEGER: {
+                    long value = rs.getLong(column);
+                    if (rs.wasNull()) {
+                        chunk.setNull(rows);
+                    } else {
+                        chunk.reserve(8).putLong(value);
+                    }
+                    break;
+                }
+                case DECIMAL: {
+                    double value = rs.getDouble(column);
+                    if (rs.wasNull()) {
+                        chunk.setNull(rows);
+                    } else {
+                        chunk.reserve(8).putDouble(value);
+                    }
+                    break;
+                }
+                case DATE:
+                case TIMESTAMP: {
+                    Timestamp value = rs.getTimestamp(column);
+                    if (value == null) {
+                        chunk.setNull(rows);
+                    } else {
+                        chunk.reserve(8).putLong(value.getTime());
+                    }
+                    break;
+                }
+                default: {
+                    byte[] value = rs.getBytes(column);
+                    if (value == null) {
+                        chunk.setNull(rows);
+                    } else {
+                        ByteBuffer values = chunk.reserve(5 + value.length);
+                        putVarint(values, value.length);
+                        values.put(value);
+                    }
+                    break;
+                }
+            }
+        }
+        if (++rows == ROW_GROUP) {
+            writeRowGroup();
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (rows > 0) {
+            writeRowGroup();
+        }
+        reserve(4).putInt(0);
+        drain();
+        channel.force(false);
+        channel.close();
+        endDeflaters();
+    }
+
+    @Override
+    public void abort() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            // The partial file is deleted below either way
+        }
+        endDeflaters();
+        if (!file.delete() && file.exists()) {
+            file.deleteOnExit();
+        }
+    }
+
+    private void writeRowGroup() throws IOException {
+        reserve(4).putInt(rows);
+        int bitmapLength = (rows + 7) / 8;
+        for (ColumnChunk chunk : chunks) {
+            Deflater deflater = chunk.deflater;
+            deflater.reset();
+            int length = 0;
+            deflater.setInput(chunk.nulls, 0, bitmapLength);
+            while (!deflater.needsInput()) {
+                length = deflate(deflater, length);
+            }
+            deflater.setInput(chunk.values.array(), 0, chunk.values.position());
+            deflater.finish();
+            while (!deflater.finished()) {
+                length = deflate(deflater, length);
+            }
+            reserve(8).putInt(bitmapLength + chunk.values.position()).putInt(length);
+            put(deflated, length);
+            chunk.clear();
+        }
+        rows = 0;
+    }
+
+    private int deflate(Deflater deflater, int length) {
+        if (length == deflated.length) {
+            deflated = Arrays.copyOf(deflated, deflated.length * 2);
+        }
+        return length + deflater.deflate(deflated, length, deflated.length - length);
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private ByteBuffer reserve(int bytes) throws IOException {
+        if (out.remaining() < bytes) {
+            drain();
+        }
+        return out;
+    }
+
+    private void put(byte[] bytes, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            if (!out.hasRemaining()) {
+                drain();
+            }
+            int n = Math.min(length - offset, out.remaining());
+            out.put(bytes, offset, n);
+            offset += n;
+        }
+    }
+
+    private void drain() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    private void endDeflaters() {
+        if (chunks != null) {
+            for (ColumnChunk chunk : chunks) {
+                chunk.deflater.end();
+            }
+            chunks = null;
+        }
+    }
+}
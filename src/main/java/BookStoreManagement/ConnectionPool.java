@@ -0,0 +1,505 @@
+package BookStoreManagement;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Small bounded JDBC connection pool used by {@link Database}.
+ *
+ * Callers borrow with {@link #borrow()} and give the connection back by calling
+ * {@code close()} on it (so the usual try-with-resources blocks keep working).
+ * Physical connections are validated on borrow, idle ones are evicted after a
+ * timeout and connections held for too long are reported as possible leaks.
+ *
+ * Each physical connection also keeps a small LRU cache of prepared statements
+ * keyed by SQL text, so the lookups the checkout and stock screens repeat all
+ * day are parsed and planned by the server only once per connection.
+ */
+public class ConnectionPool {
+    private final String url;
+    private final Properties connectionProps;
+    private final int maxSize;
+    private final int minIdle;
+    private final long idleTimeoutMs;
+    private final long leakThresholdMs;
+    private final long borrowTimeoutMs;
+    private final long validationIntervalMs;
+    private final int statementCacheSize;
+
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition returned = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> borrowed = new HashSet<>();
+    private int totalCount = 0;
+    private boolean shutdown = false;
+
+    private final ScheduledExecutorService housekeeper;
+
+    public ConnectionPool(String url, String user, String pass, Properties config) {
+        this.url = url;
+        this.connectionProps = new Properties();
+        connectionProps.setProperty("user", user);
+        connectionProps.setProperty("password", pass);
+        // Let the server keep the parsed statement so cached statements skip parse and plan
+        connectionProps.setProperty("useServerPrepStmts", config.getProperty("db_server_prep_stmts", "true"));
+        // Send JDBC batches as multi-row statements instead of one round-trip per row
+        connectionProps.setProperty("rewriteBatchedStatements", "true");
+        // Fail fast when the server is unreachable so checkout can fall back to the sale journal
+        connectionProps.setProperty("connectTimeout", config.getProperty("db_connect_timeout_ms", "3000"));
+        // A link that drops mid-statement fails (SQLState 08S01) instead of blocking forever;
+        // generous so long reports and migrations are not cut off
+        connectionProps.setProperty("socketTimeout", config.getProperty("db_socket_timeout_ms", "60000"));
+
+        this.maxSize = Math.max(1, intProperty(config, "db_pool_size", 5));
+        this.minIdle = Math.min(maxSize, Math.max(0, intProperty(config, "db_pool_min_idle", 1)));
+        this.idleTimeoutMs = longProperty(config, "db_pool_idle_timeout_ms", 300_000L);
+        this.leakThresholdMs = longProperty(config, "db_pool_leak_threshold_ms", 60_000L);
+        this.borrowTimeoutMs = longProperty(config, "db_pool_borrow_timeout_ms", 10_000L);
+        this.validationIntervalMs = longProperty(config, "db_pool_validation_interval_ms", 5_000L);
+        this.statementCacheSize = Math.max(0, intProperty(config, "db_stmt_cache_size", 64));
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 5, 5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Borrows a connection, opening a new physical connection only when the pool
+     * has no idle one and is below its maximum size. Waits up to the configured
+     * borrow timeout when the pool is exhausted.
+     */
+    public Connection borrow() throws SQLException {
+        long deadline = System.currentTimeMillis() + borrowTimeoutMs;
+        while (true) {
+            PooledConnection candidate = null;
+            boolean mayOpen = false;
+            lock.lock();
+            try {
+                if (shutdown) {
+                    throw new SQLException("Connection pool has been shut down.");
+                }
+                if (!idle.isEmpty()) {
+                    candidate = idle.pollFirst();
+                    borrowed.add(candidate);
+                } else if (totalCount < maxSize) {
+                    totalCount++;
+                    mayOpen = true;
+                } else {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new SQLException("Connection pool exhausted (" + maxSize + " connections in use).");
+                    }
+                    try {
+                        returned.await(remaining, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection.", e);
+                    }
+                    continue;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (mayOpen) {
+                PooledConnection opened;
+                try {
+                    opened = new PooledConnection(DriverManager.getConnection(url, connectionProps));
+                } catch (SQLException e) {
+                    lock.lock();
+                    try {
+                        totalCount--;
+                        returned.signal();
+                    } finally {
+                        lock.unlock();
+                    }
+                    throw e;
+                }
+                lock.lock();
+                try {
+                    borrowed.add(opened);
+                } finally {
+                    lock.unlock();
+                }
+                return opened.lease();
+            }
+
+            // Validate connections that have been sitting idle for a while
+            if (System.currentTimeMillis() - candidate.lastUsed > validationIntervalMs && !isValid(candidate)) {
+                System.out.println("🔄 Discarding stale pooled connection.");
+                discard(candidate);
+                continue;
+            }
+            return candidate.lease();
+        }
+    }
+
+    public void shutdown() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            shutdown = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            totalCount -= toClose.size();
+            returned.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        for (PooledConnection pc : toClose) {
+            pc.closePhysical();
+        }
+    }
+
+    public int getTotalCount() {
+        lock.lock();
+        try {
+            return totalCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getBorrowedCount() {
+        lock.lock();
+        try {
+            return borrowed.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    private void release(PooledConnection pc) {
+        boolean healthy = resetState(pc);
+        lock.lock();
+        try {
+            borrowed.remove(pc);
+            if (healthy && !shutdown) {
+                pc.lastUsed = System.currentTimeMillis();
+                idle.addFirst(pc); // LIFO keeps the warmest connections in use
+                returned.signal();
+                return;
+            }
+            totalCount--;
+            returned.signal();
+        } finally {
+            lock.unlock();
+        }
+        pc.closePhysical();
+    }
+
+    private void discard(PooledConnection pc) {
+        lock.lock();
+        try {
+            borrowed.remove(pc);
+            totalCount--;
+            returned.signal();
+        } finally {
+            lock.unlock();
+        }
+        pc.closePhysical();
+    }
+
+    // Undo whatever the last borrower changed so the next one gets a clean connection
+    private boolean resetState(PooledConnection pc) {
+        try {
+            if (pc.physical.isClosed()) {
+                return false;
+            }
+            if (!pc.physical.getAutoCommit()) {
+                pc.physical.rollback();
+                pc.physical.setAutoCommit(true);
+            }
+            pc.physical.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private boolean isValid(PooledConnection pc) {
+        try {
+            return pc.physical.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        List<PooledConnection> evicted = new ArrayList<>();
+        List<PooledConnection> leaked = new ArrayList<>();
+        lock.lock();
+        try {
+            // Idle eviction: oldest idle connections sit at the tail of the deque
+            while (idle.size() > minIdle && now - idle.peekLast().lastUsed > idleTimeoutMs) {
+                evicted.add(idle.pollLast());
+                totalCount--;
+            }
+            for (PooledConnection pc : borrowed) {
+                if (!pc.leakReported && now - pc.borrowedAt > leakThresholdMs) {
+                    pc.leakReported = true;
+                    leaked.add(pc);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (PooledConnection pc : evicted) {
+            pc.closePhysical();
+        }
+        for (PooledConnection pc : leaked) {
+            System.out.println("⚠️ Possible connection leak: connection held for "
+                    + (now - pc.borrowedAt) / 1000 + "s. Borrowed at:");
+            pc.borrowTrace.printStackTrace(System.out);
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        try {
+            resource.close();
+        } catch (Exception ignored) {
+        }
+    }
+
+    private static int intProperty(Properties props, String key, int defaultValue) {
+        try {
+            return Integer.parseInt(props.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static long longProperty(Properties props, String key, long defaultValue) {
+        try {
+            return Long.parseLong(props.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    // One physical connection owned by the pool
+    private class PooledConnection {
+        private final Connection physical;
+        private volatile long lastUsed = System.currentTimeMillis();
+        private volatile long borrowedAt;
+        private volatile boolean leakReported;
+        private volatile Throwable borrowTrace;
+
+        // Idle prepared statements by SQL text, least recently used first. A statement is
+        // taken out while a caller holds it, so two callers never share one.
+        private final Map<String, PreparedStatement> statementCache =
+                new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                        if (size() > statementCacheSize) {
+                            closeQuietly(eldest.getValue());
+                            return true;
+                        }
+                        return false;
+                    }
+                };
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement cached;
+            synchronized (statementCache) {
+                cached = statementCache.remove(sql);
+            }
+            if (cached != null && !cached.isClosed()) {
+                statementCacheHits.incrementAndGet();
+            } else {
+                statementCacheMisses.incrementAndGet();
+                cached = physical.prepareStatement(sql);
+            }
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new CachedStatementHandler(this, sql, cached));
+        }
+
+        // Called when a caller closes a cached statement; keeps it for the next caller if possible
+        void giveBack(String sql, PreparedStatement stmt, boolean reusable) {
+            if (reusable && statementCacheSize > 0) {
+                try {
+                    ResultSet open = stmt.getResultSet();
+                    if (open != null) {
+                        open.close();
+                    }
+                    stmt.clearParameters();
+                    stmt.clearBatch();
+                    synchronized (statementCache) {
+                        if (!statementCache.containsKey(sql)) {
+                            statementCache.put(sql, stmt);
+                            return;
+                        }
+                    }
+                } catch (SQLException e) {
+                    // Fall through and close it
+                }
+            }
+            closeQuietly(stmt);
+        }
+
+        void closePhysical() {
+            synchronized (statementCache) {
+                for (Iterator<PreparedStatement> it = statementCache.values().iterator(); it.hasNext(); ) {
+                    closeQuietly(it.next());
+                    it.remove();
+                }
+            }
+            closeQuietly(physical);
+        }
+
+        // Hands out a fresh proxy per borrow so a stale handle cannot touch the next borrower's work
+        Connection lease() {
+            borrowedAt = System.currentTimeMillis();
+            leakReported = false;
+            borrowTrace = new Throwable("Connection borrowed here");
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new LeaseHandler(this));
+        }
+    }
+
+    private class LeaseHandler implements InvocationHandler {
+        private final PooledConnection owner;
+        private boolean closed = false;
+
+        LeaseHandler(PooledConnection owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(owner);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || owner.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + owner.physical + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+            // Only the plain prepareStatement(sql) form is cached; result set or key options go straight through
+            if ("prepareStatement".equals(method.getName()) && args.length == 1) {
+                return owner.prepare((String) args[0]);
+            }
+            try {
+                return method.invoke(owner.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static class CachedStatementHandler implements InvocationHandler {
+        private final PooledConnection owner;
+        private final String sql;
+        private final PreparedStatement target;
+        private boolean closed = false;
+        private boolean reusable = true;
+
+        CachedStatementHandler(PooledConnection owner, String sql, PreparedStatement target) {
+            this.owner = owner;
+            this.sql = sql;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        owner.giveBack(sql, target, reusable);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || target.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached[" + target + "]";
+                // Settings that would leak into the next caller keep the statement out of the cache
+                case "setFetchSize":
+                case "setMaxRows":
+                case "setQueryTimeout":
+                case "setFetchDirection":
+                case "setMaxFieldSize":
+                case "setEscapeProcessing":
+                case "setPoolable":
+                case "closeOnCompletion":
+                    reusable = false;
+                    break;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement has already been closed.");
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
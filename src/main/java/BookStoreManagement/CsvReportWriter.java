@@ -0,0 +1,255 @@
+package BookStoreManagement;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Writes a report as UTF-8 CSV (with a BOM so spreadsheet programs read Urdu text
+ * correctly) through one reused direct buffer and a FileChannel.
+ *
+ * Cells are encoded straight into the buffer: text columns are copied from the
+ * driver's bytes, numbers are formatted digit by digit from the primitive value,
+ * and dates from their fields, so no String is created per cell.
+ */
+public class CsvReportWriter implements ReportWriter {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte[] BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000};
+    private static final int MAX_FRACTION_DIGITS = 6;
+    private static final double MAX_SCALED = 1e18; // Below Long.MAX_VALUE with room for rounding
+
+    private final File file;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final byte[] digits = new byte[20];
+    private FileChannel channel;
+    private ColumnKind[] kinds;
+    private int[] scales;
+
+    public CsvReportWriter(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public void begin(String title, ResultSetMetaData meta) throws IOException, SQLException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        int columnCount = meta.getColumnCount();
+        kinds = new ColumnKind[columnCount];
+        scales = new int[columnCount];
+        put(BOM, 0, BOM.length);
+        for (int i = 0; i < columnCount; i++) {
+            kinds[i] = ColumnKind.of(meta.getColumnType(i + 1));
+            scales[i] = meta.getScale(i + 1);
+            if (i > 0) {
+                put((byte) ',');
+            }
+            putText(meta.getColumnLabel(i + 1).getBytes(StandardCharsets.UTF_8));
+        }
+        put((byte) '\r');
+        put((byte) '\n');
+    }
+
+    @Override
+    public void writeRow(ResultSet rs) throws IOException, SQLException {
+        for (int i = 0; i < kinds.length; i++) {
+            if (i > 0) {
+                put((byte) ',');
+            }
+            int column = i + 1;
+            switch (kinds[i]) {
+                case INTEGER: {
+                    long value = rs.getLong(column);
+                    if (!rs.wasNull()) {
+                        putLong(value);
+                    }
+                    break;
+                }
+                case DECIMAL: {
+                    double value = rs.getDouble(column);
+                    if (!rs.wasNull()) {
+                        putDecimal(value, scales[i]);
+                    }
+                    break;
+                }
+                case DATE:
+                case TIMESTAMP: {
+                    Timestamp value = rs.getTimestamp(column);
+                    if (value != null) {
+                        putDateTime(value.toLocalDateTime(), kinds[i] == ColumnKind.TIMESTAMP);
+                    }
+                    break;
+                }
+                default: {
+                    byte[] value = rs.getBytes(column);
+                    if (value != null) {
+                        putText(value);
+                    }
+                    break;
+                }
+            }
+        }
+        put((byte) '\r');
+        put((byte) '\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        drain();
+        channel.force(false);
+        channel.close();
+    }
+
+    @Override
+    public void abort() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            // The partial file is deleted below either way
+        }
+        if (!file.delete() && file.exists()) {
+            file.deleteOnExit();
+        }
+    }
+
+    // Quotes the value only when it contains a separator, quote or line break (RFC 4180)
+    private void putText(byte[] value) throws IOException {
+        boolean quote = false;
+        for (byte b : value) {
+            if (b == ',' || b == '"' || b == '\n' || b == '\r') {
+                quote = true;
+                break;
+            }
+        }
+        if (!quote) {
+            put(value, 0, value.length);
+            return;
+        }
+        put((byte) '"');
+        int start = 0;
+        for (int i = 0; i < value.length; i++) {
+            if (value[i] == '"') {
+                put(value, start, i + 1 - start);
+                put((byte) '"');
+                start = i + 1;
+            }
+        }
+        put(value, start, value.length - start);
+        put((byte) '"');
+    }
+
+    private void putLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            put(Long.toString(value).getBytes(StandardCharsets.US_ASCII)); // Cannot be negated
+            return;
+        }
+        if (value < 0) {
+            put((byte) '-');
+            value = -value;
+        }
+        int pos = digits.length;
+        do {
+            digits[--pos] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        put(digits, pos, digits.length - pos);
+    }
+
+    // DECIMAL columns keep their scale; DOUBLE ones (reported with scale 31) get up to
+    // MAX_FRACTION_DIGITS digits with trailing zeros dropped, never exponent notation
+    private void putDecimal(double value, int scale) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= MAX_SCALED) {
+            put(Double.isNaN(value) || Double.isInfinite(value) ? Double.toString(value).getBytes(StandardCharsets.US_ASCII)
+                    : java.math.BigDecimal.valueOf(value).toPlainString().getBytes(StandardCharsets.US_ASCII)); // Rare
+            return;
+        }
+        boolean fixed = scale >= 0 && scale < POWERS_OF_TEN.length;
+        int places = fixed ? scale : MAX_FRACTION_DIGITS;
+        while (places > 0 && Math.abs(value) * POWERS_OF_TEN[places] >= MAX_SCALED) {
+            places--; // Keep the scaled value inside a long
+        }
+        long factor = POWERS_OF_TEN[places];
+        long scaled = Math.round(value * factor);
+        if (scaled < 0) {
+            put((byte) '-');
+            scaled = -scaled;
+        }
+        putLong(scaled / factor);
+        long fraction = scaled % factor;
+        if (!fixed) {
+            while (places > 0 && fraction % 10 == 0) {
+                fraction /= 10;
+                places--;
+            }
+        }
+        if (places > 0) {
+            put((byte) '.');
+            for (long p = POWERS_OF_TEN[places - 1]; p > 0; p /= 10) {
+                put((byte) ('0' + (fraction / p) % 10));
+            }
+        }
+    }
+
+    private void putDateTime(LocalDateTime value, boolean withTime) throws IOException {
+        putPadded(value.getYear(), 4);
+        put((byte) '-');
+        putPadded(value.getMonthValue(), 2);
+        put((byte) '-');
+        putPadded(value.getDayOfMonth(), 2);
+        if (withTime) {
+            put((byte) ' ');
+            putPadded(value.getHour(), 2);
+            put((byte) ':');
+            putPadded(value.getMinute(), 2);
+            put((byte) ':');
+            putPadded(value.getSecond(), 2);
+        }
+    }
+
+    private void putPadded(int value, int width) throws IOException {
+        for (int p = (int) POWERS_OF_TEN[width - 1]; p > 0; p /= 10) {
+            put((byte) ('0' + (value / p) % 10));
+        }
+    }
+
+    private void put(byte b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            drain();
+        }
+        buffer.put(b);
+    }
+
+    private void put(byte[] bytes) throws IOException {
+        put(bytes, 0, bytes.length);
+    }
+
+    private void put(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            int n = Math.min(length, buffer.remaining());
+            buffer.put(bytes, offset, n);
+            offset += n;
+            length -= n;
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
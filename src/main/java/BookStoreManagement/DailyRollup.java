@@ -0,0 +1,225 @@
+package BookStoreManagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+
+/**
+ * Keeps the daily_pnl table: one row per (day, ledger, category, payment_type)
+ * holding the summed amount, quantity and entry count of every non-reversed
+ * sale, purchase and expense.
+ *
+ * The writers call {@link #sales}, {@link #purchases} and {@link #expenses} on
+ * their own connection, inside their own transaction, with +1 when rows are
+ * recorded or un-reversed and -1 when they are reversed. A date-range P&L then
+ * sums a few rows per day instead of scanning the ledgers. {@link #rebuild}
+ * recomputes the whole table from the ledgers.
+ *
+ * The backfill runs in one transaction that also writes the single row of
+ * daily_pnl_status, and writers add their deltas only once they can see that
+ * row. A writer checks it with a locking read, so it waits for a backfill in
+ * progress rather than seeing the status before it. The backfill's INSERT ...
+ * SELECT locks the ledger rows it reads, so a sale committed after that read
+ * waits for the backfill and then adds its own delta. Either the backfill
+ * counts a row or its writer does, never both, and an interrupted backfill
+ * leaves no status row and is redone on the next start.
+ *
+ * Sales and purchases are bucketed by their item's current inventory.category,
+ * since the ledgers do not store one. If an item's category changes between a
+ * sale and its reversal, the reversal is taken off the new category's row, so
+ * per-category rows can drift (even below zero) until {@link #rebuild}. The day,
+ * ledger and payment type of a row never change, so the per-day totals the P&L
+ * screen reads stay exact.
+ */
+public final class DailyRollup {
+
+    public static final String SALE = "sale";
+    public static final String PURCHASE = "purchase";
+    public static final String EXPENSE = "expense";
+
+    private static final String CREATE_TABLE =
+            "CREATE TABLE IF NOT EXISTS daily_pnl (" +
+            "day DATE NOT NULL, " +
+            "ledger ENUM('sale','purchase','expense') NOT NULL, " +
+            "category VARCHAR(100) NOT NULL DEFAULT '', " +
+            "payment_type VARCHAR(16) NOT NULL DEFAULT '', " +
+            "amount DECIMAL(14,2) NOT NULL DEFAULT 0, " +
+            "quantity INT NOT NULL DEFAULT 0, " +
+            "entries INT NOT NULL DEFAULT 0, " +
+            "PRIMARY KEY (day, ledger, category, payment_type))";
+
+    private static final String CREATE_STATUS_TABLE =
+            "CREATE TABLE IF NOT EXISTS daily_pnl_status (" +
+            "id TINYINT NOT NULL PRIMARY KEY, " +
+            "backfilled_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)";
+
+    // Each source SELECT yields (day, ledger, category, payment_type, amount, quantity, entries);
+    // the {sign} and {where} placeholders are filled in per call
+    private static final String SALES_SOURCE =
+            "SELECT DATE(s.sale_date) AS day, 'sale' AS ledger, COALESCE(i.category, '') AS category, " +
+            "COALESCE(s.payment_type, '') AS payment_type, {sign} * SUM(s.total_price) AS amount, " +
+            "{sign} * SUM(s.quantity) AS quantity, {sign} * COUNT(*) AS entries " +
+            "FROM sales s LEFT JOIN inventory i ON i.item_id = s.item_id WHERE s.sale_date IS NOT NULL AND ({where}) " +
+            "GROUP BY DATE(s.sale_date), COALESCE(i.category, ''), COALESCE(s.payment_type, '')";
+    private static final String PURCHASES_SOURCE =
+            "SELECT DATE(p.purchase_date) AS day, 'purchase' AS ledger, COALESCE(i.category, '') AS category, " +
+            "COALESCE(p.payment_type, '') AS payment_type, {sign} * SUM(p.total_price) AS amount, " +
+            "{sign} * SUM(p.quantity) AS quantity, {sign} * COUNT(*) AS entries " +
+            "FROM purchases p LEFT JOIN inventory i ON i.item_id = p.item_id WHERE p.purchase_date IS NOT NULL AND ({where}) " +
+            "GROUP BY DATE(p.purchase_date), COALESCE(i.category, ''), COALESCE(p.payment_type, '')";
+    private static final String EXPENSES_SOURCE =
+            "SELECT DATE(e.expense_date) AS day, 'expense' AS ledger, COALESCE(e.category, '') AS category, " +
+            "'' AS payment_type, {sign} * SUM(e.amount) AS amount, 0 AS quantity, {sign} * COUNT(*) AS entries " +
+            "FROM expenses e WHERE e.expense_date IS NOT NULL AND ({where}) " +
+            "GROUP BY DATE(e.expense_date), COALESCE(e.category, '')";
+
+    private static volatile boolean tableReady = false;
+
+    private DailyRollup() {
+    }
+
+    /** True once daily_pnl is known to be backfilled. */
+    public static boolean isReady() {
+        return tableReady;
+    }
+
+    /** Adds (+1) or removes (-1) the given sales rows. */
+    public static void sales(Connection conn, Collection<Integer> saleIds, int sign) throws SQLException {
+        apply(conn, SALES_SOURCE, "s.sale_id", saleIds, sign);
+    }
+
+    /** Adds (+1) or removes (-1) the given purchase rows. */
+    public static void purchases(Connection conn, Collection<Integer> purchaseIds, int sign) throws SQLException {
+        apply(conn, PURCHASES_SOURCE, "p.purchase_id", purchaseIds, sign);
+    }
+
+    /** Adds (+1) or removes (-1) the given expense rows. */
+    public static void expenses(Connection conn, Collection<Integer> expenseIds, int sign) throws SQLException {
+        apply(conn, EXPENSES_SOURCE, "e.expense_id", expenseIds, sign);
+    }
+
+    /** Recomputes daily_pnl from the three ledgers in one transaction. Returns the number of rows written. */
+    public static int rebuild(Database db) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("Database is not reachable.");
+            }
+            return fill(conn);
+        }
+    }
+
+    /**
+     * Creates daily_pnl and backfills it on databases where that has not completed
+     * (schema migrations 5 and 8). Runs on its own connection, because CREATE TABLE
+     * would silently commit a caller's open transaction.
+     */
+    public static void ensureTable(Database db) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("Database is not reachable.");
+            }
+            if (backfilled(conn, false)) {
+                tableReady = true;
+                return;
+            }
+            fill(conn);
+        }
+    }
+
+    /** Called at startup after {@link SchemaMigrator} has run. */
+    public static void detectSchema(Database db) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("Database is not reachable.");
+            }
+            tableReady = backfilled(conn, false);
+        }
+    }
+
+    // Empties daily_pnl and refills it and the status row in one transaction
+    private static int fill(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(CREATE_TABLE);
+            stmt.executeUpdate(CREATE_STATUS_TABLE);
+        }
+        conn.setAutoCommit(false);
+        try {
+            int rows;
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM daily_pnl");
+                rows = backfill(stmt);
+                // Written last, so a writer's locking read of it never waits on a backfill that waits on the writer
+                stmt.executeUpdate("INSERT INTO daily_pnl_status (id) VALUES (1) " +
+                                   "ON DUPLICATE KEY UPDATE backfilled_at = CURRENT_TIMESTAMP");
+            }
+            conn.commit();
+            tableReady = true;
+            return rows;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static int backfill(Statement stmt) throws SQLException {
+        return stmt.executeUpdate(insert(SALES_SOURCE, "s.reversed = FALSE", 1))
+             + stmt.executeUpdate(insert(PURCHASES_SOURCE, "p.reversed = FALSE", 1))
+             + stmt.executeUpdate(insert(EXPENSES_SOURCE, "e.reversed = FALSE", 1));
+    }
+
+    // Whether a backfill has committed; a locking read sees the latest commit instead of the transaction's snapshot
+    private static boolean backfilled(Connection conn, boolean locking) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() " +
+                "AND table_name = 'daily_pnl_status'");
+             ResultSet rs = stmt.executeQuery()) {
+            if (!rs.next() || rs.getInt(1) == 0) {
+                return false;
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT COUNT(*) FROM daily_pnl_status WHERE id = 1" + (locking ? " FOR SHARE" : ""));
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() && rs.getInt(1) > 0;
+        }
+    }
+
+    private static void apply(Connection conn, String source, String idColumn, Collection<Integer> ids, int sign)
+            throws SQLException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (!tableReady) {
+            if (!backfilled(conn, true)) {
+                return; // Not backfilled yet: the backfill will pick these rows up
+            }
+            tableReady = true;
+        }
+        StringBuilder where = new StringBuilder(idColumn).append(" IN (");
+        for (int i = 0; i < ids.size(); i++) {
+            where.append(i == 0 ? "?" : ", ?");
+        }
+        where.append(")");
+        try (PreparedStatement stmt = conn.prepareStatement(insert(source, where.toString(), sign))) {
+            int index = 1;
+            for (int id : ids) {
+                stmt.setInt(index++, id);
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    // The grouped SELECT is wrapped in a derived table so ON DUPLICATE KEY UPDATE can refer to its columns
+    private static String insert(String source, String where, int sign) {
+        String select = source.replace("{sign}", sign < 0 ? "-1" : "1").replace("{where}", where);
+        return "INSERT INTO daily_pnl (day, ledger, category, payment_type, amount, quantity, entries) " +
+               "SELECT * FROM (" + select + ") AS delta " +
+               "ON DUPLICATE KEY UPDATE amount = daily_pnl.amount + delta.amount, " +
+               "quantity = daily_pnl.quantity + delta.quantity, entries = daily_pnl.entries + delta.entries";
+    }
+}
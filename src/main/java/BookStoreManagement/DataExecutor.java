@@ -0,0 +1,155 @@
+package BookStoreManagement;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Shared executor for database work so panels never run JDBC on the Swing event thread.
+ *
+ * On Java 21+ every task gets its own virtual thread; on older runtimes a small
+ * bounded pool is used. Either way the real concurrency limit is the connection
+ * pool. {@link #run} delivers results back on the EDT, shows a wait cursor on the
+ * owning window while work is pending, and returns a future whose
+ * {@code cancel(true)} suppresses the callbacks and interrupts the worker thread.
+ * Interrupting does not abort a JDBC call already blocked on the socket; work that
+ * must be stoppable mid-query should hold its Statement and call
+ * {@link java.sql.Statement#cancel()}, as {@link ReportExporter} does.
+ */
+public final class DataExecutor {
+    private static final DataExecutor INSTANCE = new DataExecutor();
+    private static final String BUSY_COUNT = "DataExecutor.busyCount";
+
+    private final ExecutorService executor;
+
+    /** A unit of background work, usually a JDBC query. */
+    @FunctionalInterface
+    public interface Work<T> {
+        T call() throws Exception;
+    }
+
+    private DataExecutor() {
+        executor = createExecutor();
+    }
+
+    public static DataExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    private static ExecutorService createExecutor() {
+        try {
+            // Java 21+: Executors.newVirtualThreadPerTaskExecutor(), looked up reflectively so we still compile for 17
+            return (ExecutorService) java.util.concurrent.Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), r -> {
+                        Thread t = new Thread(r, "data-executor-" + counter.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            return pool;
+        }
+    }
+
+    /** Runs work in the background; the future completes on the worker thread. */
+    public <T> CompletableFuture<T> supply(Work<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(work.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        // Propagate cancel(true) on the returned future to the running thread
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Runs work in the background and hands the outcome to {@code onSuccess} or
+     * {@code onError} on the EDT. The owner's window shows a wait cursor until then.
+     * Cancelled tasks call neither callback.
+     */
+    public <T> CompletableFuture<T> run(Component owner, Work<T> work, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        JComponent busyTarget = busyTarget(owner); // Resolved once so the matching "done" hits the same component
+        setBusy(busyTarget, true);
+        CompletableFuture<T> future = supply(work);
+        future.whenComplete((value, error) -> SwingUtilities.invokeLater(() -> {
+            setBusy(busyTarget, false);
+            if (future.isCancelled()) {
+                return;
+            }
+            if (error == null) {
+                onSuccess.accept(value);
+            } else {
+                Throwable cause = unwrap(error);
+                if (!(cause instanceof CancellationException) && !(cause instanceof InterruptedException)) {
+                    onError.accept(cause);
+                }
+            }
+        }));
+        return future;
+    }
+
+    /** Same as {@link #run(Component, Work, Consumer, Consumer)} with the standard error dialog. */
+    public <T> CompletableFuture<T> run(Component owner, Work<T> work, Consumer<T> onSuccess) {
+        return run(owner, work, onSuccess, error -> showError(owner, error));
+    }
+
+    public static void showError(Component owner, Throwable error) {
+        error.printStackTrace();
+        JOptionPane.showMessageDialog(owner, "Database error: " + error.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private static JComponent busyTarget(Component owner) {
+        if (owner == null) {
+            return null;
+        }
+        JRootPane root = SwingUtilities.getRootPane(owner);
+        return root != null ? root : (owner instanceof JComponent ? (JComponent) owner : null);
+    }
+
+    // Counts pending tasks per window so overlapping loads keep the cursor busy until the last one ends
+    private static void setBusy(JComponent target, boolean busy) {
+        if (target == null) {
+            return;
+        }
+        Runnable update = () -> {
+            Object current = target.getClientProperty(BUSY_COUNT);
+            int count = (current instanceof Integer ? (Integer) current : 0) + (busy ? 1 : -1);
+            count = Math.max(0, count);
+            target.putClientProperty(BUSY_COUNT, count);
+            target.setCursor(count > 0 ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
+        };
+        if (SwingUtilities.isEventDispatchThread()) {
+            update.run();
+        } else {
+            SwingUtilities.invokeLater(update);
+        }
+    }
+}
@@ -1,14 +1,13 @@
 package BookStoreManagement;
 
-import java.awt.Font;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.sql.*;
 import java.util.Properties;
 
 public class Database {
-    private static Connection connection; // Shared connection
+    private static ConnectionPool pool; // Shared connection pool
+    private static Properties config = new Properties();
     private static String dbUrl;
     private static String dbUser;
     private static String dbPass;
@@ -25,6 +24,7 @@ public class Database {
         Properties properties = new Properties();
         try (FileInputStream fis = new FileInputStream("config.properties")) {
             properties.load(fis);
+            config = properties;
             dbUrl = properties.getProperty("db_url", "jdbc:mysql://localhost:3306/BookStore");
             dbUser = properties.getProperty("db_user", "bookstore_dev");
             dbPass = properties.getProperty("db_pass", "Abdullah@1");
@@ -34,56 +34,96 @@ public class Database {
         }
     }
 
-    private void connect() {
+    private static synchronized void connect() {
+        if (pool != null) {
+            return;
+        }
+        ConnectionPool newPool = new ConnectionPool(dbUrl, dbUser, dbPass, config);
+        // Open the first connection up front so a bad configuration is reported at startup
         try {
-            if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(dbUrl, dbUser, dbPass);
-                System.out.println("✅ Database Connected.");
-            }
+            newPool.borrow().close(); // close() returns it to the pool
+            pool = newPool;
+            System.out.println("✅ Database Connected.");
         } catch (SQLException e) {
+            newPool.shutdown();
             e.printStackTrace();
             System.out.println("Database connection failed. Please check your connection settings and restart the app. " + e.getMessage());
         }
     }
 
+    /**
+     * Borrows a connection from the shared pool. Callers must close() it (normally with
+     * try-with-resources), which hands it back to the pool instead of disconnecting.
+     * Returns null when the database cannot be reached.
+     */
     public Connection getConnection() {
-        try {
-            if (connection == null || connection.isClosed()) {
-                System.out.println("🔄 Reconnecting to database...");
-                connect();
+        if (pool == null) {
+            System.out.println("🔄 Reconnecting to database...");
+            connect();
+            if (pool == null) {
+                return null;
             }
+        }
+        try {
+            return pool.borrow();
         } catch (SQLException e) {
             e.printStackTrace();
+            return null;
         }
-        return connection;
     }
 
-    public static void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("✅ Database Connection Closed.");
-            }
+    // Borrows and immediately returns a connection to check that the database is reachable
+    public boolean isConnectionAvailable() {
+        try (Connection conn = getConnection()) {
+            return conn != null;
         } catch (SQLException e) {
             e.printStackTrace();
+            return false;
         }
     }
 
-    public User authenticate(String username, String password) {
-        if (getConnection() == null) {
-            System.out.println("❌ Connection closed.");
-            return null;
+    public static synchronized void closeConnection() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+            System.out.println("✅ Database Connection Closed.");
         }
+    }
 
-        System.out.println("✅ Connection running");
+    // Reads an optional setting from config.properties
+    public String getSetting(String key, String defaultValue) {
+        return config.getProperty(key, defaultValue);
+    }
+
+    // Prepared statement cache counters, summed over every pooled connection
+    public String getStatementCacheStats() {
+        if (pool == null) {
+            return "Not connected";
+        }
+        long hits = pool.getStatementCacheHits();
+        long misses = pool.getStatementCacheMisses();
+        long total = hits + misses;
+        double hitRate = total == 0 ? 0 : 100.0 * hits / total;
+        return String.format("Statement cache: %d hits, %d misses (%.1f%% hit rate)%nPool: %d connections, %d in use",
+                hits, misses, hitRate, pool.getTotalCount(), pool.getBorrowedCount());
+    }
+
+    public User authenticate(String username, String password) {
         String query = "SELECT username, password, role FROM credentials WHERE username = ?";
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(query)) {
-            stmt.setString(1, username);
-            ResultSet rs = stmt.executeQuery();
+        try (Connection conn = getConnection()) {
+            if (conn == null) {
+                System.out.println("❌ Connection closed.");
+                return null;
+            }
+            System.out.println("✅ Connection running");
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setString(1, username);
+                ResultSet rs = stmt.executeQuery();
 
-            if (rs.next() && rs.getString("password").equals(password)) {
-                return new User(username, rs.getString("password"), "DEV-KEY", "2025-01-01", "2026-01-01", rs.getString("role"));
+                if (rs.next() && rs.getString("password").equals(password)) {
+                    return new User(username, rs.getString("password"), "DEV-KEY", "2025-01-01", "2026-01-01", rs.getString("role"));
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -93,7 +133,8 @@ public class Database {
 
     public boolean updateCredentials(String role, String username, String newPassword) {
         String query = "UPDATE credentials SET username = ?, password = ? WHERE role = ?";
-        try (PreparedStatement stmt = getConnection().prepareStatement(query)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, username);
             stmt.setString(2, newPassword);
             stmt.setString(3, role);
@@ -114,15 +155,4 @@ public class Database {
     public String getLanguage() {
         return language;
     }
-    
-    public Font getJameelNooriFont(float size) {
-        try (InputStream is = getClass().getResourceAsStream("/fonts/JameelNooriNastaleeq.ttf")) {
-            Font font = Font.createFont(Font.TRUETYPE_FONT, is);
-            return font.deriveFont(Font.PLAIN, size);
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            // Fallback to a default font if something goes wrong
-            return new Font("Serif", Font.PLAIN, (int) size);
-        }
-    }
 }
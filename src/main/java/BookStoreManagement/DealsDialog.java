@@ -5,19 +5,18 @@ import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.AdjustmentEvent;
 import java.awt.event.AdjustmentListener;
-import java.sql.*;
 import java.util.Vector;
 
 public class DealsDialog extends JDialog {
     private JTable dealsTable;
     private LazyLoadingTableModel dealsModel;
     private JScrollPane scrollPane;
+    private JButton viewReceiptButton;
     private int id;
     private String type;
     private Database db;
-    private int currentOffset = 0;
+    private DealsPager pager; // Seeks on (deal_date, deal_id) and prefetches the next page
     private int pageSize = 50; // Number of rows to load at a time
-    private boolean isLoading = false; // To prevent multiple simultaneous loads
 
     // English and Urdu column headers
     private final String[] englishColumns = {"Deal ID", "Sale ID", "Item Name", "Quantity", "Total Price", "Credit", "Deal Date", "Reversed"};
@@ -33,17 +32,37 @@ public class DealsDialog extends JDialog {
 
         // Table setup with lazy loading model
         dealsModel = new LazyLoadingTableModel();
+        dealsModel.setColumnIdentifiers(englishColumns); // Replaced by applyLanguage() below
+        pager = new DealsPager(db, type.equals("customer") ? "customer_id" : "supplier_id", id,
+                "deal_id, sale_id, item_name, quantity, debit AS total_price, credit, deal_date, reversed",
+                "sale_id >= 0", pageSize, rs -> new Object[]{
+                        rs.getInt("deal_id"),
+                        rs.getInt("sale_id"),
+                        rs.getString("item_name"),
+                        rs.getInt("quantity"),
+                        rs.getDouble("total_price"),
+                        rs.getDouble("credit"),
+                        rs.getDate("deal_date"),
+                        rs.getBoolean("reversed")
+                });
         dealsTable = new JTable(dealsModel);
         // Increase table header font size by 3 points over base (assume base is 12)
-        dealsTable.getTableHeader().setFont(getCurrentFont().deriveFont((float)getCurrentFont().getSize() + 3));
+        dealsTable.getTableHeader().setFont(FontRegistry.forLanguage(db.getLanguage(), Font.PLAIN, 15));
         scrollPane = new JScrollPane(dealsTable);
         add(scrollPane, BorderLayout.CENTER);
 
+        // Whole receipt of the selected deal's sale, fetched by its invoice
+        viewReceiptButton = new JButton();
+        viewReceiptButton.addActionListener(e -> viewReceipt());
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(viewReceiptButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+
         // Add scroll listener for lazy loading
         scrollPane.getVerticalScrollBar().addAdjustmentListener(new AdjustmentListener() {
             @Override
             public void adjustmentValueChanged(AdjustmentEvent e) {
-                if (!e.getValueIsAdjusting() && !isLoading) {
+                if (!e.getValueIsAdjusting()) {
                     JScrollBar scrollBar = (JScrollBar) e.getSource();
                     int extent = scrollBar.getModel().getExtent();
                     int maximum = scrollBar.getModel().getMaximum();
@@ -61,51 +80,34 @@ public class DealsDialog extends JDialog {
     }
 
     private void loadMoreData() {
-        isLoading = true;
-        String query = "SELECT deal_id, sale_id, item_name, quantity, debit AS total_price, credit, deal_date, reversed " +
-                       "FROM deals WHERE " + (type.equals("customer") ? "customer_id" : "supplier_id") + " = ? " +
-                       "AND sale_id >= 0 LIMIT ? OFFSET ?";
-        try (Connection conn = db.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setInt(1, id);
-            stmt.setInt(2, pageSize);
-            stmt.setInt(3, currentOffset);
-            ResultSet rs = stmt.executeQuery();
-
-            // Set column headers (only for first load)
-            if (dealsModel.getColumnCount() == 0) {
-                // We'll set the headers via applyLanguage() later.
-                dealsModel.setColumnIdentifiers(englishColumns);
-            }
-
-            while (rs.next()) {
-                Vector<Object> rowData = new Vector<>();
-                rowData.add(rs.getInt("deal_id"));
-                rowData.add(rs.getInt("sale_id"));
-                rowData.add(rs.getString("item_name"));
-                rowData.add(rs.getInt("quantity"));
-                rowData.add(rs.getDouble("total_price"));
-                rowData.add(rs.getDouble("credit"));
-                rowData.add(rs.getDate("deal_date"));
-                rowData.add(rs.getBoolean("reversed"));
-                dealsModel.addRow(rowData);
+        pager.loadNext(this, rows -> {
+            for (Object[] row : rows) {
+                dealsModel.addRow(row);
             }
-            currentOffset += pageSize;
-        } catch (SQLException ex) {
+        }, ex -> {
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Error fetching deals: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        } finally {
-            isLoading = false;
+        });
+    }
+
+    private void viewReceipt() {
+        int row = dealsTable.getSelectedRow();
+        int saleId = row == -1 ? 0 : (int) dealsModel.getValueAt(row, 1);
+        if (saleId == 0) {
+            return; // Nothing selected, or a deal without a sale
         }
+        SaleInvoice.showForSale(this, db, saleId, db.getLanguage().equalsIgnoreCase("Urdu"));
+    }
+
+    @Override
+    public void dispose() {
+        pager.close();
+        super.dispose();
     }
 
     // Helper method to return current base font (we assume base size 12)
     private Font getCurrentFont() {
-        if (db.getLanguage().equalsIgnoreCase("Urdu")) {
-            return new Font("Jameel Noori Nastaleeq", Font.PLAIN, 12);
-        } else {
-            return new Font("Arial", Font.PLAIN, 12);
-        }
+        return FontRegistry.forLanguage(db.getLanguage(), Font.PLAIN, 12);
     }
 
     // --------------------- applyLanguage() ---------------------
@@ -117,16 +119,20 @@ public class DealsDialog extends JDialog {
             // Set table column headers to Urdu.
             dealsModel.setColumnIdentifiers(urduColumns);
             // Increase font size by 3 (base 12 becomes 15).
-            Font newUrduFont = new Font("Jameel Noori Nastaleeq", Font.PLAIN, 15);
+            Font newUrduFont = FontRegistry.urdu(Font.PLAIN, 15);
             dealsTable.setFont(newUrduFont);
             dealsTable.getTableHeader().setFont(newUrduFont);
+            viewReceiptButton.setText("رسید دیکھیں");
+            viewReceiptButton.setFont(newUrduFont);
         } else {
             // Set orientation to LEFT_TO_RIGHT.
             setComponentOrientation(ComponentOrientation.LEFT_TO_RIGHT);
             dealsModel.setColumnIdentifiers(englishColumns);
-            Font newEnglishFont = new Font("Arial", Font.PLAIN, 15);
+            Font newEnglishFont = FontRegistry.get(FontRegistry.ENGLISH_FAMILY, Font.PLAIN, 15);
             dealsTable.setFont(newEnglishFont);
             dealsTable.getTableHeader().setFont(newEnglishFont);
+            viewReceiptButton.setText("View Receipt");
+            viewReceiptButton.setFont(newEnglishFont);
         }
         revalidate();
         repaint();
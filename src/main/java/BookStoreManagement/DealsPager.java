@@ -0,0 +1,148 @@
+package BookStoreManagement;
+
+import java.awt.Component;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Infinite-scroll paging over one customer's or supplier's deals.
+ *
+ * Pages are read in (deal_date, deal_id) order with a seek condition on the last
+ * row already shown instead of OFFSET, so with the (customer_id|supplier_id,
+ * deal_date, deal_id) indexes every page costs the same however deep the user
+ * scrolls. As soon as a page is shown the next one is fetched in the background,
+ * so reaching the bottom of the table usually finds it ready.
+ *
+ * Not thread safe: call {@link #loadNext} and {@link #close} on the EDT.
+ */
+public class DealsPager {
+
+    /** Turns the current result set row into a table row. */
+    @FunctionalInterface
+    public interface RowMapper {
+        Object[] map(ResultSet rs) throws SQLException;
+    }
+
+    private static final class Page {
+        final List<Object[]> rows = new ArrayList<>();
+        Timestamp lastDate;
+        int lastId;
+    }
+
+    private final Database db;
+    private final String firstPageQuery;
+    private final String afterNullDateQuery;
+    private final String afterDateQuery;
+    private final int ownerId;
+    private final int pageSize;
+    private final RowMapper mapper;
+
+    private boolean started = false; // False until the first page has been read
+    private Timestamp seekDate;
+    private int seekId;
+    private boolean exhausted = false;
+    private boolean loading = false;
+    private CompletableFuture<Page> prefetch;
+
+    /**
+     * @param ownerColumn "customer_id" or "supplier_id"
+     * @param columns     selected columns; must include deal_id and deal_date
+     * @param condition   extra filter ANDed to the owner match, e.g. "sale_id >= 0"
+     */
+    public DealsPager(Database db, String ownerColumn, int ownerId, String columns, String condition,
+                      int pageSize, RowMapper mapper) {
+        this.db = db;
+        this.ownerId = ownerId;
+        this.pageSize = pageSize;
+        this.mapper = mapper;
+        String base = "SELECT " + columns + " FROM deals WHERE " + ownerColumn + " = ? AND " + condition;
+        String order = " ORDER BY deal_date, deal_id LIMIT ?";
+        firstPageQuery = base + order;
+        // NULL dates sort first, so after a NULL-dated row come the remaining NULL rows, then every dated row
+        afterNullDateQuery = base + " AND ((deal_date IS NULL AND deal_id > ?) OR deal_date IS NOT NULL)" + order;
+        afterDateQuery = base + " AND (deal_date > ? OR (deal_date = ? AND deal_id > ?))" + order;
+    }
+
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    /**
+     * Appends the next page: {@code onRows} gets its rows on the EDT. Does nothing while
+     * a page is already on its way or when every deal has been shown.
+     */
+    public void loadNext(Component owner, Consumer<List<Object[]>> onRows, Consumer<Throwable> onError) {
+        if (loading || exhausted) {
+            return;
+        }
+        loading = true;
+        CompletableFuture<Page> next = prefetch != null ? prefetch : fetchAsync();
+        prefetch = null;
+        DataExecutor.getInstance().run(owner, next::join, page -> {
+            loading = false;
+            started = true;
+            if (!page.rows.isEmpty()) {
+                seekDate = page.lastDate;
+                seekId = page.lastId;
+            }
+            exhausted = page.rows.size() < pageSize;
+            onRows.accept(page.rows);
+            if (!exhausted) {
+                prefetch = fetchAsync();
+            }
+        }, error -> {
+            loading = false;
+            onError.accept(error);
+        });
+    }
+
+    /** Drops any page still being prefetched; call when the dialog closes. */
+    public void close() {
+        if (prefetch != null) {
+            prefetch.cancel(true);
+            prefetch = null;
+        }
+        exhausted = true;
+    }
+
+    private CompletableFuture<Page> fetchAsync() {
+        // Capture the seek position now; the EDT moves it on when this page is shown
+        boolean first = !started;
+        Timestamp date = seekDate;
+        int id = seekId;
+        return DataExecutor.getInstance().supply(() -> fetch(first, date, id));
+    }
+
+    private Page fetch(boolean first, Timestamp date, int id) throws SQLException {
+        String query = first ? firstPageQuery : (date == null ? afterNullDateQuery : afterDateQuery);
+        Page page = new Page();
+        try (Connection conn = db.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            int index = 1;
+            stmt.setInt(index++, ownerId);
+            if (!first) {
+                if (date != null) {
+                    stmt.setTimestamp(index++, date);
+                    stmt.setTimestamp(index++, date);
+                }
+                stmt.setInt(index++, id);
+            }
+            stmt.setInt(index, pageSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    page.rows.add(mapper.map(rs));
+                    page.lastDate = rs.getTimestamp("deal_date");
+                    page.lastId = rs.getInt("deal_id");
+                }
+            }
+        }
+        return page;
+    }
+}
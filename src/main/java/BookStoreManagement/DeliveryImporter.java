@@ -0,0 +1,466 @@
+package BookStoreManagement;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Imports a whole supplier delivery from a file into inventory and purchases.
+ *
+ * The file is read once, record by record: each record is parsed and validated,
+ * then collected into chunks of {@link #CHUNK_SIZE} lines that are resolved and
+ * written through {@link PurchaseTransaction} on one connection inside a single
+ * transaction. Memory use is one chunk plus the first {@link #MAX_REPORTED_ERRORS}
+ * error messages, however long the file is. Invalid lines are skipped and reported
+ * with their line number; a database error rolls the whole delivery back.
+ *
+ * Two formats are read:
+ * <ul>
+ *   <li>CSV (UTF-8, optional BOM, RFC 4180 quoting) with a header row naming the
+ *       columns: item_name, quantity and unit_price are required; barcode,
+ *       condition, total_price, category, subcategory and company are optional.</li>
+ *   <li>Fixed-width EDI text, one line per item, columns (1-based, inclusive):
+ *       item name 1-40, barcode 41-60, condition 61-75, quantity 76-83,
+ *       unit price 84-95, category 96-125, subcategory 126-155, company 156-185.
+ *       Blank lines and lines starting with '#' are ignored.</li>
+ * </ul>
+ * A line whose item is not in inventory yet must carry its category, subcategory
+ * and company so the item can be created.
+ */
+public class DeliveryImporter {
+
+    public enum Format {
+        CSV, FIXED_WIDTH;
+
+        /** CSV for .csv files, fixed width for anything else (.txt, .edi, ...). */
+        public static Format forFile(File file) {
+            return file.getName().toLowerCase(Locale.ROOT).endsWith(".csv") ? CSV : FIXED_WIDTH;
+        }
+    }
+
+    /** A rejected line. */
+    public static class LineError {
+        public final long lineNumber;
+        public final String message;
+
+        LineError(long lineNumber, String message) {
+            this.lineNumber = lineNumber;
+            this.message = message;
+        }
+
+        @Override
+        public String toString() {
+            return "Line " + lineNumber + ": " + message;
+        }
+    }
+
+    /** Outcome of an import. {@link #errors} holds at most the first {@link #MAX_REPORTED_ERRORS}. */
+    public static class Report {
+        public long linesRead;
+        public long imported;
+        public long skipped;
+        public int newItems;
+        public double total;
+        public long elapsedNanos;
+        public final List<LineError> errors = new ArrayList<>();
+
+        void reject(long lineNumber, String message) {
+            skipped++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new LineError(lineNumber, message));
+            }
+        }
+    }
+
+    static final int CHUNK_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 500;
+
+    private static final String[] CONDITIONS = {"New", "Like New", "Slightly Used", "Used"};
+
+    // Field order shared by both formats
+    private static final int NAME = 0, BARCODE = 1, CONDITION = 2, QUANTITY = 3, UNIT_PRICE = 4,
+            CATEGORY = 5, SUBCATEGORY = 6, COMPANY = 7, TOTAL = 8, FIELD_COUNT = 9;
+
+    // Fixed-width columns as {start, end} character offsets (end exclusive), in field order
+    private static final int[][] FIXED_COLUMNS = {
+        {0, 40}, {40, 60}, {60, 75}, {75, 83}, {83, 95}, {95, 125}, {125, 155}, {155, 185}
+    };
+
+    private static final Map<String, Integer> CSV_HEADERS = new HashMap<>();
+    static {
+        for (String name : new String[]{"itemname", "item", "name"}) CSV_HEADERS.put(name, NAME);
+        CSV_HEADERS.put("barcode", BARCODE);
+        for (String name : new String[]{"condition", "itemcondition"}) CSV_HEADERS.put(name, CONDITION);
+        for (String name : new String[]{"quantity", "qty"}) CSV_HEADERS.put(name, QUANTITY);
+        for (String name : new String[]{"unitprice", "purchaseprice", "price"}) CSV_HEADERS.put(name, UNIT_PRICE);
+        CSV_HEADERS.put("category", CATEGORY);
+        CSV_HEADERS.put("subcategory", SUBCATEGORY);
+        CSV_HEADERS.put("company", COMPANY);
+        for (String name : new String[]{"totalprice", "total"}) CSV_HEADERS.put(name, TOTAL);
+    }
+
+    private final Database db;
+
+    public DeliveryImporter(Database db) {
+        this.db = db;
+    }
+
+    /** A validated line waiting in the current chunk. */
+    static final class Row {
+        final long lineNumber;
+        final PurchaseTransaction.Line line;
+        final PurchaseTransaction.NewItem newItem; // Null unless category, subcategory and company were all given
+
+        Row(long lineNumber, PurchaseTransaction.Line line, PurchaseTransaction.NewItem newItem) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+            this.newItem = newItem;
+        }
+    }
+
+    /**
+     * Reads the file and records every valid line as purchases from the given supplier.
+     * Blocks; call off the EDT. Cancelling the calling task (interrupt) rolls back.
+     */
+    public Report importFile(File file, Format format, String supplierName, String supplierPhone, String paymentType)
+            throws IOException, SQLException, InterruptedException {
+        long start = System.nanoTime();
+        Report report = new Report();
+        SchemaMigrator.awaitStartup();
+        try (BufferedReader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+             Connection conn = db.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("Database is not reachable.");
+            }
+            RecordReader reader = format == Format.CSV ? new CsvReader(in) : new FixedWidthReader(in);
+            conn.setAutoCommit(false);
+            try {
+                int supplierId = PurchaseTransaction.findOrCreateSupplier(conn, supplierName, supplierPhone);
+                List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+                String[] fields;
+                while ((fields = reader.next()) != null) {
+                    report.linesRead++;
+                    Row row = validate(reader.lineNumber(), fields, report);
+                    if (row != null) {
+                        chunk.add(row);
+                    }
+                    if (chunk.size() == CHUNK_SIZE) {
+                        writeChunk(conn, supplierId, chunk, supplierName, supplierPhone, paymentType, report);
+                    }
+                }
+                writeChunk(conn, supplierId, chunk, supplierName, supplierPhone, paymentType, report);
+                if (report.imported == 0) {
+                    conn.rollback(); // Nothing valid: do not leave a new supplier behind
+                } else {
+                    conn.commit();
+                }
+            } catch (SQLException | IOException | InterruptedException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        report.elapsedNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    private static void writeChunk(Connection conn, int supplierId, List<Row> chunk, String supplierName,
+                                   String supplierPhone, String paymentType, Report report)
+            throws SQLException, InterruptedException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException("Import cancelled");
+        }
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<PurchaseTransaction.Line> lines = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            lines.add(row.line);
+        }
+        // Items not in inventory (nor added by an earlier chunk) need their details from some line of the chunk
+        Map<String, PurchaseTransaction.NewItem> newItems = new HashMap<>();
+        List<PurchaseTransaction.Line> missing = PurchaseTransaction.findNewItems(conn, lines);
+        if (!missing.isEmpty()) {
+            Map<String, Boolean> needed = new HashMap<>();
+            for (PurchaseTransaction.Line line : missing) {
+                needed.put(PurchaseTransaction.key(line), Boolean.TRUE);
+            }
+            for (Row row : chunk) {
+                String key = PurchaseTransaction.key(row.line);
+                if (row.newItem != null && needed.containsKey(key)) {
+                    newItems.putIfAbsent(key, row.newItem);
+                }
+            }
+            Iterator<Row> it = chunk.iterator();
+            while (it.hasNext()) {
+                Row row = it.next();
+                String key = PurchaseTransaction.key(row.line);
+                if (needed.containsKey(key) && !newItems.containsKey(key)) {
+                    report.reject(row.lineNumber, "New item \"" + row.line.getItemName() +
+                            "\" needs a category, subcategory and company");
+                    it.remove();
+                }
+            }
+            lines.clear();
+            for (Row row : chunk) {
+                lines.add(row.line);
+            }
+        }
+        if (!lines.isEmpty()) {
+            report.total += PurchaseTransaction.write(conn, supplierId, lines, supplierName, supplierPhone,
+                    paymentType, newItems);
+            report.imported += lines.size();
+            report.newItems += newItems.size();
+        }
+        chunk.clear();
+    }
+
+    static Row validate(long lineNumber, String[] fields, Report report) {
+        String name = field(fields, NAME);
+        if (name.isEmpty()) {
+            report.reject(lineNumber, "Item name is missing");
+            return null;
+        }
+        if (name.length() > 100) {
+            report.reject(lineNumber, "Item name is longer than 100 characters");
+            return null;
+        }
+        String barcode = field(fields, BARCODE);
+        if (barcode.length() > 30) {
+            report.reject(lineNumber, "Barcode is longer than 30 characters");
+            return null;
+        }
+        String condition = condition(field(fields, CONDITION));
+        if (condition == null) {
+            report.reject(lineNumber, "Unknown condition \"" + field(fields, CONDITION) + "\"");
+            return null;
+        }
+        int quantity;
+        try {
+            quantity = Integer.parseInt(field(fields, QUANTITY));
+        } catch (NumberFormatException e) {
+            report.reject(lineNumber, "Quantity \"" + field(fields, QUANTITY) + "\" is not a whole number");
+            return null;
+        }
+        if (quantity <= 0) {
+            report.reject(lineNumber, "Quantity must be greater than zero");
+            return null;
+        }
+        double unitPrice;
+        double total;
+        try {
+            unitPrice = Double.parseDouble(field(fields, UNIT_PRICE));
+            String totalText = field(fields, TOTAL);
+            total = totalText.isEmpty() ? Math.round(unitPrice * quantity * 100) / 100.0 : Double.parseDouble(totalText);
+        } catch (NumberFormatException e) {
+            report.reject(lineNumber, "Price is not a number");
+            return null;
+        }
+        if (unitPrice < 0 || total < 0 || Double.isNaN(unitPrice) || Double.isInfinite(unitPrice)) {
+            report.reject(lineNumber, "Price must not be negative");
+            return null;
+        }
+        String category = field(fields, CATEGORY);
+        String subcategory = field(fields, SUBCATEGORY);
+        String company = field(fields, COMPANY);
+        PurchaseTransaction.NewItem newItem = category.isEmpty() || subcategory.isEmpty() || company.isEmpty()
+                ? null : new PurchaseTransaction.NewItem(category, subcategory, company);
+        return new Row(lineNumber, new PurchaseTransaction.Line(name, barcode.isEmpty() ? null : barcode,
+                quantity, unitPrice, total, condition), newItem);
+    }
+
+    private static String field(String[] fields, int index) {
+        String value = index < fields.length ? fields[index] : null;
+        return value == null ? "" : value.trim();
+    }
+
+    // Blank means New; otherwise one of the purchases.item_condition values, any case
+    private static String condition(String value) {
+        if (value.isEmpty()) {
+            return CONDITIONS[0];
+        }
+        for (String condition : CONDITIONS) {
+            if (condition.equalsIgnoreCase(value)) {
+                return condition;
+            }
+        }
+        return null;
+    }
+
+    /** Yields each record as fields in the shared field order. */
+    interface RecordReader {
+        String[] next() throws IOException;
+
+        /** Line number (1-based) where the last record returned starts. */
+        long lineNumber();
+    }
+
+    static final class FixedWidthReader implements RecordReader {
+        private final BufferedReader in;
+        private long line = 0;
+
+        FixedWidthReader(BufferedReader in) {
+            this.in = in;
+        }
+
+        @Override
+        public String[] next() throws IOException {
+            String text;
+            while ((text = in.readLine()) != null) {
+                line++;
+                if (line == 1) {
+                    text = stripBom(text);
+                }
+                if (text.trim().isEmpty() || text.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = new String[FIELD_COUNT];
+                for (int i = 0; i < FIXED_COLUMNS.length; i++) {
+                    int from = FIXED_COLUMNS[i][0];
+                    int to = Math.min(FIXED_COLUMNS[i][1], text.length());
+                    fields[i] = from < to ? text.substring(from, to) : "";
+                }
+                return fields;
+            }
+            return null;
+        }
+
+        @Override
+        public long lineNumber() {
+            return line;
+        }
+    }
+
+    static final class CsvReader implements RecordReader {
+        private final BufferedReader in;
+        private long line = 0;
+        private long recordLine = 0;
+        private int[] columnToField;
+
+        CsvReader(BufferedReader in) {
+            this.in = in;
+        }
+
+        @Override
+        public String[] next() throws IOException {
+            if (columnToField == null) {
+                readHeader();
+            }
+            List<String> values;
+            do {
+                values = readRecord();
+                if (values == null) {
+                    return null;
+                }
+            } while (values.size() == 1 && values.get(0).trim().isEmpty()); // Blank line
+            String[] fields = new String[FIELD_COUNT];
+            for (int i = 0; i < values.size() && i < columnToField.length; i++) {
+                if (columnToField[i] >= 0) {
+                    fields[columnToField[i]] = values.get(i);
+                }
+            }
+            return fields;
+        }
+
+        @Override
+        public long lineNumber() {
+            return recordLine;
+        }
+
+        private void readHeader() throws IOException {
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new IOException("The file is empty.");
+            }
+            header.set(0, stripBom(header.get(0)));
+            columnToField = new int[header.size()];
+            boolean[] present = new boolean[FIELD_COUNT];
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).toLowerCase(Locale.ROOT).replaceAll("[\\s_-]", "");
+                Integer field = CSV_HEADERS.get(name);
+                columnToField[i] = field == null ? -1 : field;
+                if (field != null) {
+                    present[field] = true;
+                }
+            }
+            if (!present[NAME] || !present[QUANTITY] || !present[UNIT_PRICE]) {
+                throw new IOException("The header row must name the item_name, quantity and unit_price columns.");
+            }
+        }
+
+        // One RFC 4180 record; a quoted field may run over several physical lines
+        private List<String> readRecord() throws IOException {
+            String text = in.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+            recordLine = line;
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == text.length()) {
+                    if (!quoted) {
+                        values.add(value.toString());
+                        return values;
+                    }
+                    text = in.readLine();
+                    if (text == null) {
+                        throw new IOException("Line " + recordLine + ": quoted value is never closed.");
+                    }
+                    line++;
+                    value.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = text.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        value.append(c);
+                    } else if (i < text.length() && text.charAt(i) == '"') {
+                        value.append('"'); // Escaped quote
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"' && value.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else {
+                    value.append(c);
+                }
+            }
+        }
+    }
+
+    private static String stripBom(String text) {
+        return !text.isEmpty() && text.charAt(0) == '\uFEFF' ? text.substring(1) : text;
+    }
+
+    /** The first reported errors as text, one per line, for showing to the user. */
+    public static String describeErrors(Report report) {
+        StringBuilder text = new StringBuilder();
+        for (LineError error : report.errors) {
+            text.append(error).append('\n');
+        }
+        if (report.skipped > report.errors.size()) {
+            text.append("... and ").append(report.skipped - report.errors.size()).append(" more\n");
+        }
+        return text.toString();
+    }
+}
@@ -76,11 +76,22 @@ public class DeveloperPanel extends JPanel {
         gbc.gridy++;
         JButton databaseManagementButton = new JButton("server details");
         add(databaseManagementButton, gbc);
+
+        gbc.gridy++;
+        JButton poolStatsButton = new JButton("Connection Stats");
+        add(poolStatsButton, gbc);
+
+        gbc.gridy++;
+        JButton queryPlanButton = new JButton("Check Query Plans");
+        add(queryPlanButton, gbc);
         
        
 
         // Button Actions
         databaseManagementButton.addActionListener(e -> mainFrame.showScreen("ServerManagementPanel") );
+        poolStatsButton.addActionListener(e ->
+            JOptionPane.showMessageDialog(this, db.getStatementCacheStats(), "Connection Stats", JOptionPane.INFORMATION_MESSAGE));
+        queryPlanButton.addActionListener(e -> checkQueryPlans());
         updateAdminButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -99,18 +110,33 @@ public class DeveloperPanel extends JPanel {
           mainFrame.showScreen("LoginPage"));
     }
 
+    private void checkQueryPlans() {
+        String[] version = {""};
+        DataExecutor.getInstance().run(this, () -> {
+            version[0] = "Schema version: " + SchemaMigrator.currentVersion(db) + " of " + SchemaMigrator.latestVersion();
+            return QueryPlanCheck.run(db);
+        }, outcomes -> {
+            JTextArea text = new JTextArea(version[0] + "\n\n" + QueryPlanCheck.report(outcomes));
+            text.setEditable(false);
+            text.setFont(new Font("Monospaced", Font.PLAIN, 12));
+            JOptionPane.showMessageDialog(this, new JScrollPane(text), "Query Plans",
+                    QueryPlanCheck.allPassed(outcomes) ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+        });
+    }
+
     private void updateCredentials(String role, String username, String password) {
         if (username.isEmpty() || password.isEmpty()) {
             JOptionPane.showMessageDialog(this, "Username or Password cannot be empty!", "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
 
-        boolean success = db.updateCredentials(role, username, password);
-        if (success) {
-            JOptionPane.showMessageDialog(this, role + " credentials updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-        } else {
-            JOptionPane.showMessageDialog(this, "Failed to update " + role + " credentials.", "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        DataExecutor.getInstance().run(this, () -> db.updateCredentials(role, username, password), success -> {
+            if (success) {
+                JOptionPane.showMessageDialog(this, role + " credentials updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "Failed to update " + role + " credentials.", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
     
 }
@@ -1,15 +1,15 @@
 package BookStoreManagement;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.sql.*;
-import java.util.Vector;
+import java.util.Arrays;
+import java.util.Collections;
 
 public class ExpenseRecordPanel extends JPanel implements LanguageChangeListener {
     private Database db;
     private JTable expensesTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel tableModel;
     
     // Input fields and their labels
     private JTextField descriptionField, amountField, newCategoryField;
@@ -30,8 +30,16 @@ public class ExpenseRecordPanel extends JPanel implements LanguageChangeListener
         this.db = db;
         setLayout(new BorderLayout());
 
-        // Table setup
-        tableModel = new DefaultTableModel();
+        // Table setup: read-only paged model, rows load as the table scrolls
+        tableModel = new PagedTableModel(db, "expenses", Arrays.asList(
+            new PagedTableModel.Column("expense_id", "Expense ID", PagedTableModel.Type.INT),
+            new PagedTableModel.Column("description", "Description", PagedTableModel.Type.STRING),
+            new PagedTableModel.Column("amount", "Amount", PagedTableModel.Type.DOUBLE),
+            new PagedTableModel.Column("category", "Category", PagedTableModel.Type.STRING),
+            new PagedTableModel.Column("expense_date", "Expense Date", PagedTableModel.Type.TIMESTAMP),
+            new PagedTableModel.Column("reversed", "Reversed", PagedTableModel.Type.FLAG)
+        ), Collections.singletonList(new PagedTableModel.SortKey("expense_id", false)));
+        tableModel.setBusyOwner(this);
         expensesTable = new JTable(tableModel);
         JScrollPane scrollPane = new JScrollPane(expensesTable,
                 JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED,
@@ -67,6 +75,7 @@ public class ExpenseRecordPanel extends JPanel implements LanguageChangeListener
         gbc.gridx = 1;
         categoryComboBox = new JComboBox<>();
         loadCategories();
+        ReferenceDataCache.getInstance().addListener(this::loadCategories);
         topPanel.add(categoryComboBox, gbc);
 
         // New Category input and Add button
@@ -133,20 +142,15 @@ public class ExpenseRecordPanel extends JPanel implements LanguageChangeListener
         toDateSpinner.setEnabled(isCustom);
     }
 
-    // Loads expense categories from the database
+    // Loads expense categories from the shared reference-data cache
     private void loadCategories() {
+        Object selected = categoryComboBox.getSelectedItem();
         categoryComboBox.removeAllItems();
-        try (Connection conn = db.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT category_name FROM expense_categories")) {
-
-            while (rs.next()) {
-                categoryComboBox.addItem(rs.getString("category_name"));
-            }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error loading categories: " + ex.getMessage(), 
-                    "Error", JOptionPane.ERROR_MESSAGE);
+        for (String category : ReferenceDataCache.getInstance().expenseCategories()) {
+            categoryComboBox.addItem(category);
+        }
+        if (selected != null) {
+            categoryComboBox.setSelectedItem(selected);
         }
     }
 
@@ -159,20 +163,24 @@ public class ExpenseRecordPanel extends JPanel implements LanguageChangeListener
                     "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
-        try (Connection conn = db.getConnection();
-             PreparedStatement stmt = conn.prepareStatement("INSERT INTO expense_categories (category_name) VALUES (?)")) {
-            stmt.setString(1, newCategory);
-            stmt.executeUpdate();
+        addCategoryButton.setEnabled(false);
+        DataExecutor.getInstance().run(this, () -> {
+            ReferenceDataCache.getInstance().addExpenseCategory(newCategory);
+            return null;
+        }, ignored -> {
+            addCategoryButton.setEnabled(true);
             loadCategories();
+            categoryComboBox.setSelectedItem(newCategory);
             newCategoryField.setText("");
-        } catch (SQLException ex) {
+        }, ex -> {
+            addCategoryButton.setEnabled(true);
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Error adding category: " + ex.getMessage(), 
                     "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
-    // Saves a new expense into the database
+    // Saves a new expense into the database; the insert and its rollup commit together off the EDT
     private void saveExpense() {
         String description = descriptionField.getText().trim();
         String amountText = amountField.getText().trim();
@@ -183,63 +191,63 @@ public class ExpenseRecordPanel extends JPanel implements LanguageChangeListener
                     "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
-        try (Connection conn = db.getConnection();
-             PreparedStatement stmt = conn.prepareStatement("INSERT INTO expenses (description, amount, category, expense_date, reversed) VALUES (?, ?, ?, CURRENT_DATE, FALSE)")) {
-            stmt.setString(1, description);
-            stmt.setDouble(2, Double.parseDouble(amountText));
-            stmt.setString(3, category);
-            stmt.executeUpdate();
+        double amount;
+        try {
+            amount = Double.parseDouble(amountText);
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Error saving expense: " + ex.getMessage(), 
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        saveButton.setEnabled(false); // No double inserts while the first is in flight
+        DataExecutor.getInstance().run(this, () -> {
+            try (Connection conn = db.getConnection()) {
+                if (conn == null) {
+                    throw new SQLException("Database is not reachable.");
+                }
+                try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO expenses (description, amount, category, expense_date, reversed) VALUES (?, ?, ?, CURRENT_DATE, FALSE)",
+                        Statement.RETURN_GENERATED_KEYS)) {
+                    conn.setAutoCommit(false);
+                    try {
+                        stmt.setString(1, description);
+                        stmt.setDouble(2, amount);
+                        stmt.setString(3, category);
+                        stmt.executeUpdate();
+                        try (ResultSet keys = stmt.getGeneratedKeys()) {
+                            if (keys.next()) {
+                                DailyRollup.expenses(conn, Collections.singletonList(keys.getInt(1)), 1);
+                            }
+                        }
+                        conn.commit();
+                    } catch (SQLException ex) {
+                        conn.rollback();
+                        throw ex;
+                    } finally {
+                        conn.setAutoCommit(true);
+                    }
+                }
+            }
+            return null;
+        }, ignored -> {
+            saveButton.setEnabled(true);
             loadExpensesData();
-        } catch (SQLException | NumberFormatException ex) {
+        }, ex -> {
+            saveButton.setEnabled(true);
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Error saving expense: " + ex.getMessage(), 
                     "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
-    // Loads expense records from the database and updates the table
+    // Reloads expense records for the current reversal filter
     public void loadExpensesData() {
-        tableModel.setRowCount(0);
-        tableModel.setColumnCount(0);
-
-        String query = "SELECT expense_id, description, amount, category, expense_date, reversed FROM expenses";
         String filter = (String) reverseComboBox.getSelectedItem();
         if (filter != null && !filter.equalsIgnoreCase("ALL")) {
-            query += " WHERE reversed = " + (filter.equalsIgnoreCase("VALID") ? "FALSE" : "TRUE");
-        }
-
-        try (Connection conn = db.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query);
-             ResultSet rs = stmt.executeQuery()) {
-
-            // Set column headers based on language
-            String[] columnNames;
-            if (currentLanguage.equalsIgnoreCase("Urdu")) {
-                columnNames = new String[]{
-                    "اخراجات آئی ڈی", "تفصیل", "رقم", "قسم", "اخراجات کی تاریخ", "ریورس شدہ"
-                };
-            } else {
-                columnNames = new String[]{
-                    "Expense ID", "Description", "Amount", "Category", "Expense Date", "Reversed"
-                };
-            }
-            tableModel.setColumnIdentifiers(columnNames);
-
-            while (rs.next()) {
-                Vector<Object> rowData = new Vector<>();
-                for (int i = 1; i <= columnNames.length - 1; i++) {
-                    rowData.add(rs.getObject(i));
-                }
-                boolean rev = rs.getBoolean("reversed");
-                String revText = currentLanguage.equalsIgnoreCase("Urdu") ? (rev ? "ہاں" : "نہیں") : (rev ? "Yes" : "No");
-                rowData.add(revText);
-                tableModel.addRow(rowData);
-            }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error loading expenses: " + ex.getMessage(), 
-                    "Error", JOptionPane.ERROR_MESSAGE);
+            tableModel.setFilter("reversed = " + (filter.equalsIgnoreCase("VALID") ? "FALSE" : "TRUE"), null);
+        } else {
+            tableModel.setFilter("", null);
         }
+        tableModel.refresh();
     }
 
     // Reverses an expense by setting its 'reversed' field to TRUE in the database
@@ -251,6 +259,9 @@ public class ExpenseRecordPanel extends JPanel implements LanguageChangeListener
                     currentLanguage.equalsIgnoreCase("Urdu") ? "خرابی" : "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
+        if (tableModel.getValueAt(selectedRow, 0) == null) {
+            return; // Row still loading
+        }
         int expenseId = (int) tableModel.getValueAt(selectedRow, 0);
         String reversedValue = tableModel.getValueAt(selectedRow, 5).toString();
         if (reversedValue.equalsIgnoreCase(currentLanguage.equalsIgnoreCase("Urdu") ? "ہاں" : "Yes")) {
@@ -265,20 +276,41 @@ public class ExpenseRecordPanel extends JPanel implements LanguageChangeListener
         if (confirm != JOptionPane.YES_OPTION) {
             return;
         }
-        try (Connection conn = db.getConnection();
-             PreparedStatement stmt = conn.prepareStatement("UPDATE expenses SET reversed = TRUE WHERE expense_id = ?")) {
-            stmt.setInt(1, expenseId);
-            stmt.executeUpdate();
+        reverseButton.setEnabled(false);
+        DataExecutor.getInstance().run(this, () -> {
+            try (Connection conn = db.getConnection()) {
+                if (conn == null) {
+                    throw new SQLException("Database is not reachable.");
+                }
+                try (PreparedStatement stmt = conn.prepareStatement("UPDATE expenses SET reversed = TRUE WHERE expense_id = ?")) {
+                    conn.setAutoCommit(false);
+                    try {
+                        stmt.setInt(1, expenseId);
+                        stmt.executeUpdate();
+                        DailyRollup.expenses(conn, Collections.singletonList(expenseId), -1);
+                        conn.commit();
+                    } catch (SQLException ex) {
+                        conn.rollback();
+                        throw ex;
+                    } finally {
+                        conn.setAutoCommit(true);
+                    }
+                }
+            }
+            return null;
+        }, ignored -> {
+            reverseButton.setEnabled(true);
             JOptionPane.showMessageDialog(this, currentLanguage.equalsIgnoreCase("Urdu") ?
                     "اخراج کامیابی سے ریورس ہو گیا!" : "Expense reversed successfully!",
                     currentLanguage.equalsIgnoreCase("Urdu") ? "کامیابی" : "Success", JOptionPane.INFORMATION_MESSAGE);
             loadExpensesData();
-        } catch (SQLException ex) {
+        }, ex -> {
+            reverseButton.setEnabled(true);
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, currentLanguage.equalsIgnoreCase("Urdu") ?
                     "اخراج ریورس کرنے میں خرابی!" : "Error reversing expense!",
                     currentLanguage.equalsIgnoreCase("Urdu") ? "ڈیٹا بیس خرابی" : "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
     
     // ----------------- Language Change Implementation -----------------
@@ -321,9 +353,10 @@ public class ExpenseRecordPanel extends JPanel implements LanguageChangeListener
             categoryComboBox.setFont(urduFont);
             
             // Update table headers to Urdu
-            tableModel.setColumnIdentifiers(new String[]{
+            tableModel.setColumnLabels(new String[]{
                 "اخراجات آئی ڈی", "تفصیل", "رقم", "قسم", "اخراجات کی تاریخ", "ریورس شدہ"
             });
+            tableModel.setFlagLabels("ہاں", "نہیں");
             expensesTable.getTableHeader().setFont(urduFont.deriveFont(urduFont.getSize2D() * 4/3f));
 
             setComponentOrientation(ComponentOrientation.RIGHT_TO_LEFT);
@@ -354,9 +387,10 @@ public class ExpenseRecordPanel extends JPanel implements LanguageChangeListener
             toDateSpinner.setFont(englishFont);
             categoryComboBox.setFont(englishFont);
             
-            tableModel.setColumnIdentifiers(new String[]{
+            tableModel.setColumnLabels(new String[]{
                 "Expense ID", "Description", "Amount", "Category", "Expense Date", "Reversed"
             });
+            tableModel.setFlagLabels("Yes", "No");
             expensesTable.getTableHeader().setFont(englishFont.deriveFont(englishFont.getSize2D() * 4/3f));
 
             setComponentOrientation(ComponentOrientation.LEFT_TO_RIGHT);
@@ -0,0 +1,70 @@
+package BookStoreManagement;
+
+import java.awt.Font;
+import java.awt.GraphicsEnvironment;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Application-wide font cache.
+ *
+ * The bundled Urdu font (/fonts/JameelNooriNastaleeq.ttf) is parsed at most once
+ * per run and registered with the GraphicsEnvironment, so code that asks for
+ * "Jameel Noori Nastaleeq" by name gets it too. Every (family, style, size) asked
+ * for is created once and shared; Font is immutable, so that is safe.
+ */
+public final class FontRegistry {
+
+    public static final String URDU_FAMILY = "Jameel Noori Nastaleeq";
+    public static final String ENGLISH_FAMILY = "Arial";
+
+    private static final String URDU_FONT_RESOURCE = "/fonts/JameelNooriNastaleeq.ttf";
+
+    private static final Map<String, Font> FONTS = new ConcurrentHashMap<>();
+
+    private FontRegistry() {
+    }
+
+    // Loaded on first use; the holder idiom keeps that to one parse without locking
+    private static final class UrduBase {
+        static final Font FONT = loadUrduFont();
+    }
+
+    /** The Urdu font at the given style and size. */
+    public static Font urdu(int style, float size) {
+        return FONTS.computeIfAbsent(key(URDU_FAMILY, style, size), k -> UrduBase.FONT.deriveFont(style, size));
+    }
+
+    /** A system or logical font (e.g. "Arial", "Monospaced"). */
+    public static Font get(String family, int style, float size) {
+        if (URDU_FAMILY.equals(family)) {
+            return urdu(style, size);
+        }
+        return FONTS.computeIfAbsent(key(family, style, size), k -> new Font(family, style, Math.round(size))
+                .deriveFont(size));
+    }
+
+    /** The Urdu font for "Urdu", else the English one. */
+    public static Font forLanguage(String language, int style, float size) {
+        return "Urdu".equalsIgnoreCase(language) ? urdu(style, size) : get(ENGLISH_FAMILY, style, size);
+    }
+
+    private static String key(String family, int style, float size) {
+        return family + '|' + style + '|' + size;
+    }
+
+    private static Font loadUrduFont() {
+        try (InputStream is = FontRegistry.class.getResourceAsStream(URDU_FONT_RESOURCE)) {
+            if (is != null) {
+                Font font = Font.createFont(Font.TRUETYPE_FONT, is);
+                GraphicsEnvironment.getLocalGraphicsEnvironment().registerFont(font);
+                return font;
+            }
+            System.err.println("Urdu font resource not found; using the installed " + URDU_FAMILY + " font.");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return new Font(URDU_FAMILY, Font.PLAIN, 12);
+    }
+}
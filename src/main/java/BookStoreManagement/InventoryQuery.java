@@ -0,0 +1,145 @@
+package BookStoreManagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Typed inventory filter that renders to a WHERE clause with bound parameters.
+ *
+ * Predicates are always emitted in the same order (category, subcategory,
+ * condition, company, stock) so the same filter shape always produces the same
+ * SQL text and reuses the pooled prepared statement; only the values change.
+ * The category and company predicates line up with the (category|company,
+ * low_stock, item_id) indexes, which also serve the "low stock first" ordering.
+ */
+public class InventoryQuery {
+
+    /** How the stock filter value is compared. */
+    public enum StockOp {
+        EQUALS("="), LESS_THAN("<"), GREATER_THAN(">");
+
+        private final String sql;
+
+        StockOp(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private static final String LOW_STOCK_EXPRESSION = "(stock < COALESCE(minimum_stock, 0))";
+
+    private static volatile boolean lowStockColumn = false;
+
+    private String category;
+    private String subcategory;
+    private String condition;
+    private String company;
+    private StockOp stockOp;
+    private int stockValue;
+
+    /** Null or blank means "any". */
+    public InventoryQuery category(String category) {
+        this.category = normalize(category);
+        return this;
+    }
+
+    public InventoryQuery subcategory(String subcategory) {
+        this.subcategory = normalize(subcategory);
+        return this;
+    }
+
+    public InventoryQuery condition(String condition) {
+        this.condition = normalize(condition);
+        return this;
+    }
+
+    public InventoryQuery company(String company) {
+        this.company = normalize(company);
+        return this;
+    }
+
+    /** Pass a null operator to drop the stock filter. */
+    public InventoryQuery stock(StockOp op, int value) {
+        this.stockOp = op;
+        this.stockValue = value;
+        return this;
+    }
+
+    /** The WHERE clause, without the keyword; "1=1" when nothing is filtered. */
+    public String where() {
+        StringBuilder where = new StringBuilder("1=1");
+        if (category != null) {
+            where.append(" AND category = ?");
+        }
+        if (subcategory != null) {
+            where.append(" AND subcategory = ?");
+        }
+        if (condition != null) {
+            where.append(" AND item_condition = ?");
+        }
+        if (company != null) {
+            where.append(" AND company = ?");
+        }
+        if (stockOp != null) {
+            where.append(" AND stock ").append(stockOp.sql).append(" ?");
+        }
+        return where.toString();
+    }
+
+    /** Values for the placeholders in {@link #where()}, in order. */
+    public List<Object> params() {
+        List<Object> params = new ArrayList<>();
+        if (category != null) {
+            params.add(category);
+        }
+        if (subcategory != null) {
+            params.add(subcategory);
+        }
+        if (condition != null) {
+            params.add(condition);
+        }
+        if (company != null) {
+            params.add(company);
+        }
+        if (stockOp != null) {
+            params.add(stockValue);
+        }
+        return Collections.unmodifiableList(params);
+    }
+
+    /**
+     * Sort expression for "low stock first": the stored low_stock column once it is
+     * known to exist, so the ordering comes straight off an index, else the same
+     * comparison computed per row.
+     */
+    public static String lowStockExpression() {
+        return lowStockColumn ? "low_stock" : LOW_STOCK_EXPRESSION;
+    }
+
+    /**
+     * Switches {@link #lowStockExpression()} to the stored column once it exists.
+     * The column and its indexes are added by {@link SchemaMigrator}; this is called
+     * after it has run.
+     */
+    public static void detectSchema(Database db) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("Database is not reachable.");
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT COUNT(*) FROM information_schema.columns " +
+                    "WHERE table_schema = DATABASE() AND table_name = 'inventory' AND column_name = 'low_stock'");
+                 ResultSet rs = stmt.executeQuery()) {
+                lowStockColumn = rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.trim().isEmpty() || "All".equals(value) ? null : value;
+    }
+}
@@ -12,6 +12,7 @@ import java.io.IOException;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 public class InvoiceDialog extends JDialog {
@@ -23,8 +24,8 @@ public class InvoiceDialog extends JDialog {
     private double totalPrice = 0.0;
 
     // Fonts for bilingual support
-    private Font englishFont = new Font("Monospaced", Font.PLAIN, 12);
-    private Font urduFont = loadUrduFont();
+    private final Font englishFont = FontRegistry.get(Font.MONOSPACED, Font.PLAIN, 12);
+    private final Font urduFont = FontRegistry.urdu(Font.PLAIN, 12);
 
     public InvoiceDialog(Frame parent, Database db, List<Object[]> cart, String paymentType, String debtorName, String debtorPhone) {
         super(parent, db.getLanguage().equalsIgnoreCase("Urdu") ? "سیلز رسید" : "Sale Invoice", true);
@@ -135,7 +136,74 @@ public class InvoiceDialog extends JDialog {
     }
 
     private void recordSale() {
-        // ... (your recordSale implementation remains unchanged) ...
+        List<SaleTransaction.Line> lines = new ArrayList<>();
+        for (Object[] item : cart) {
+            lines.add(SaleTransaction.Line.fromCartRow(item));
+        }
+        Timestamp saleDate = new Timestamp(System.currentTimeMillis());
+        // Recorded with the online sale too, so journaling it after an unclear failure can never duplicate it
+        String journalId = SaleJournal.getInstance().isStarted() ? SaleJournal.newJournalId() : null;
+        // Disabled while the sale is on its way so the same invoice is never recorded twice
+        recordSaleButton.setEnabled(false);
+        closeButton.setEnabled(false);
+        DataExecutor.getInstance().run(this, () -> {
+            try {
+                return new SaleTransaction(db).commit(lines, paymentType, debtorName, debtorPhone, saleDate, journalId);
+            } catch (SQLException ex) {
+                if (journalId == null || !SaleJournal.isConnectionFailure(ex)) {
+                    throw ex;
+                }
+                ex.printStackTrace();
+                // Database unreachable: keep the sale in the local journal so the till can carry on
+                SaleJournal.getInstance().append(journalId, lines, paymentType, debtorName, debtorPhone, saleDate);
+                return null;
+            }
+        }, result -> {
+            closeButton.setEnabled(true);
+            if (result == null) {
+                showSavedOffline();
+            } else {
+                CatalogCache.getInstance().refreshNow();
+                showRecorded(result);
+            }
+        }, error -> {
+            recordSaleButton.setEnabled(true);
+            closeButton.setEnabled(true);
+            showRecordError(error);
+        });
+    }
+
+    private void showRecorded(SaleTransaction.Result result) {
+        boolean urdu = db.getLanguage().equalsIgnoreCase("Urdu");
+        JOptionPane.showMessageDialog(this,
+            urdu ? String.format("سیلز کامیابی سے ریکارڈ ہو گئی! (%d آئٹمز، %d ملی سیکنڈ)",
+                         result.lineCount, result.elapsedNanos / 1_000_000)
+                 : String.format("Sale recorded successfully! (%d items in %d ms)",
+                         result.lineCount, result.elapsedNanos / 1_000_000),
+            urdu ? "کامیابی" : "Success", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private void showSavedOffline() {
+        boolean urdu = db.getLanguage().equalsIgnoreCase("Urdu");
+        JOptionPane.showMessageDialog(this,
+            urdu ? "ڈیٹا بیس دستیاب نہیں۔ سیلز محفوظ کر لی گئی ہے اور کنکشن بحال ہونے پر ریکارڈ ہو جائے گی۔"
+                 : "Database is unavailable. The sale was saved offline and will be recorded when the connection returns.",
+            urdu ? "آف لائن" : "Saved Offline", JOptionPane.WARNING_MESSAGE);
+    }
+
+    // A rejected sale, or a journal write that failed after the database was found unreachable
+    private void showRecordError(Throwable error) {
+        boolean urdu = db.getLanguage().equalsIgnoreCase("Urdu");
+        error.printStackTrace();
+        if (error instanceof IOException) {
+            JOptionPane.showMessageDialog(this,
+                (urdu ? "سیلز محفوظ نہیں ہو سکی: " : "Could not save the sale: ") + error.getMessage(),
+                urdu ? "خرابی" : "Error", JOptionPane.ERROR_MESSAGE);
+        } else {
+            JOptionPane.showMessageDialog(this,
+                (urdu ? "سیلز ریکارڈ کرنے میں خرابی: " : "Error recording sale: ") + error.getMessage(),
+                urdu ? "ڈیٹا بیس خرابی" : "Database Error", JOptionPane.ERROR_MESSAGE);
+        }
     }
 
     private void exportToPDF() {
@@ -207,12 +275,4 @@ public class InvoiceDialog extends JDialog {
             }
         }
     }
-
-    private static Font loadUrduFont() {
-        // Implement your font loading logic here.
-        // For example, if you have a TTF file in your resources, load it via:
-        // Font.createFont(Font.TRUETYPE_FONT, InvoiceDialog.class.getResourceAsStream("/path/to/JameelNooriNastaleeq.ttf")).deriveFont(12f);
-        // For simplicity, we return a fallback font.
-        return new Font("Serif", Font.PLAIN, 12);
-    }
 }
@@ -0,0 +1,158 @@
+package BookStoreManagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Posts an invoice's ledger side effects from the application, replacing the
+ * per-row triggers on sales and purchases:
+ * <ul>
+ *   <li>calculate_profit_on_insert: profit = total_price * profit_margin / 100,
+ *       computed in memory from the margin read with the item ids;</li>
+ *   <li>after_sale_insert: one deals row per sale line for a named customer;</li>
+ *   <li>after_sale_balance_update: the customer's balance, once per invoice;</li>
+ *   <li>after_purchases_insert: one deals row per purchase line;</li>
+ *   <li>after_purchase_balance_update: the supplier's balance, once per invoice.</li>
+ * </ul>
+ * Each invoice costs one batched INSERT into deals and one balance UPDATE however
+ * many lines it has. Everything runs on the caller's connection, inside its
+ * transaction.
+ *
+ * Schema migrations 2 and 6 drop the triggers. Until it has run on a database (say it
+ * is still migrating at startup) the triggers still fire, so each posting is
+ * skipped while its trigger exists rather than counted twice.
+ */
+final class LedgerPosting {
+
+    private static final List<String> LEGACY_TRIGGERS = Arrays.asList(
+            "after_sale_insert", "after_sale_balance_update", "after_purchases_insert", "after_purchase_balance_update");
+
+    // Once every legacy trigger is gone they never come back, so the lookup stops
+    private static volatile boolean triggersDropped = false;
+
+    private LedgerPosting() {
+    }
+
+    /** A sale line's profit at the item's margin; null when the margin is unknown, as the trigger left it. */
+    static Double profit(double lineTotal, Double profitMargin) {
+        return profitMargin == null ? null : lineTotal * (profitMargin / 100);
+    }
+
+    /**
+     * Deals rows for a named customer's sale lines and the customer's balance, once
+     * for the invoice. {@code saleIds} are in line order. Walk-in sales (customer 0)
+     * post nothing.
+     */
+    static void postSale(Connection conn, int customerId, String customerName, String payment,
+                         List<Integer> saleIds, List<SaleTransaction.Line> lines) throws SQLException {
+        if (customerId == 0) {
+            return;
+        }
+        Set<String> triggers = remainingTriggers(conn);
+        if (!triggers.contains("after_sale_insert")) {
+            String dealType = "permanent".equals(customerType(conn, customerId))
+                    ? "permanent customer deal" : "temporary customer deal";
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO deals (sale_id, customer_id, item_name, payment_type, type, debit, credit, description) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, 0, ?)")) {
+                for (int i = 0; i < saleIds.size(); i++) {
+                    stmt.setInt(1, saleIds.get(i));
+                    stmt.setInt(2, customerId);
+                    stmt.setString(3, customerName); // The trigger recorded the customer's name here
+                    stmt.setString(4, payment);
+                    stmt.setString(5, dealType);
+                    stmt.setDouble(6, lines.get(i).lineTotal);
+                    stmt.setString(7, "Sale recorded on " + payment);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        }
+        if (!triggers.contains("after_sale_balance_update")) {
+            double total = 0;
+            for (SaleTransaction.Line line : lines) {
+                total += line.lineTotal;
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "UPDATE customers SET balance = balance + ? WHERE customer_id = ?")) {
+                stmt.setDouble(1, total);
+                stmt.setInt(2, customerId);
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    /** Deals rows for the purchase lines and the supplier's balance. {@code purchaseIds} are in line order. */
+    static void postPurchase(Connection conn, int supplierId, String paymentType,
+                             List<Integer> purchaseIds, List<PurchaseTransaction.Line> lines) throws SQLException {
+        Set<String> triggers = remainingTriggers(conn);
+        if (!triggers.contains("after_purchases_insert")) {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO deals (purchase_id, quantity, credit, debit, item_name, supplier_id, description, type, payment_type) " +
+                    "VALUES (?, ?, ?, 0, ?, ?, ?, 'permanent supplier deal', ?)")) {
+                for (int i = 0; i < purchaseIds.size(); i++) {
+                    PurchaseTransaction.Line line = lines.get(i);
+                    stmt.setInt(1, purchaseIds.get(i));
+                    stmt.setInt(2, line.quantity);
+                    stmt.setDouble(3, line.lineTotal);
+                    stmt.setString(4, line.itemName);
+                    stmt.setInt(5, supplierId);
+                    stmt.setString(6, "Purchased " + line.itemName);
+                    stmt.setString(7, paymentType);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        }
+        if (!triggers.contains("after_purchase_balance_update")) {
+            double total = 0;
+            for (PurchaseTransaction.Line line : lines) {
+                total += line.lineTotal;
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "UPDATE suppliers SET balance = balance + ? WHERE supplier_id = ?")) {
+                stmt.setDouble(1, total);
+                stmt.setInt(2, supplierId);
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    private static String customerType(Connection conn, int customerId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT customer_type FROM customers WHERE customer_id = ?")) {
+            stmt.setInt(1, customerId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static Set<String> remainingTriggers(Connection conn) throws SQLException {
+        Set<String> remaining = new HashSet<>();
+        if (triggersDropped) {
+            return remaining;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT trigger_name FROM information_schema.triggers " +
+                "WHERE trigger_schema = DATABASE() AND trigger_name IN (?, ?, ?, ?)")) {
+            for (int i = 0; i < LEGACY_TRIGGERS.size(); i++) {
+                stmt.setString(i + 1, LEGACY_TRIGGERS.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    remaining.add(rs.getString(1).toLowerCase());
+                }
+            }
+        }
+        if (remaining.isEmpty()) {
+            triggersDropped = true;
+        }
+        return remaining;
+    }
+}
@@ -0,0 +1,186 @@
+package BookStoreManagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reverses (or restores) any number of sales or purchases in one transaction.
+ *
+ * The ids whose state actually changes are copied into the session's
+ * tmp_reverse_ids temporary table, and every side effect is then one set-based
+ * UPDATE ... JOIN against it: the rows' and their deals' reversed flags, stock
+ * (summed per item, since an UPDATE ... JOIN touches each row only once), and
+ * customer or supplier balances (summed per account). An invoice header is marked
+ * reversed once all its lines are. The daily P&L rollup is adjusted for the same
+ * ids. A 50-line invoice costs the same handful of
+ * statements as a single line. Rows already in the requested state are skipped,
+ * so a mixed selection is safe.
+ */
+public class LedgerReversal {
+    private static final int ID_CHUNK = 1000;
+
+    private final Database db;
+
+    public LedgerReversal(Database db) {
+        this.db = db;
+    }
+
+    /** Marks the sales reversed (or not). Returns how many changed state. */
+    public int setSalesReversed(Collection<Integer> saleIds, boolean reverse) throws SQLException {
+        return run("sales", "sale_id", saleIds, reverse);
+    }
+
+    /** Marks the purchases reversed (or not). Returns how many changed state. */
+    public int setPurchasesReversed(Collection<Integer> purchaseIds, boolean reverse) throws SQLException {
+        return run("purchases", "purchase_id", purchaseIds, reverse);
+    }
+
+    private int run(String table, String idColumn, Collection<Integer> ids, boolean reverse) throws SQLException {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        try (Connection conn = db.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("Database is not reachable.");
+            }
+            conn.setAutoCommit(false);
+            try {
+                // TEMPORARY tables are created and dropped without committing the transaction
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("CREATE TEMPORARY TABLE IF NOT EXISTS tmp_reverse_ids (id INT NOT NULL PRIMARY KEY)");
+                    stmt.executeUpdate("DELETE FROM tmp_reverse_ids");
+                }
+                List<Integer> changed = collect(conn, table, idColumn, ids, reverse);
+                if (!changed.isEmpty()) {
+                    if ("sales".equals(table)) {
+                        reverseSales(conn, changed, reverse);
+                    } else {
+                        reversePurchases(conn, changed, reverse);
+                    }
+                }
+                conn.commit();
+                return changed.size();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("DROP TEMPORARY TABLE IF EXISTS tmp_reverse_ids");
+                }
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    // Fills tmp_reverse_ids with the ids not already in the requested state and returns them
+    private static List<Integer> collect(Connection conn, String table, String idColumn, Collection<Integer> ids,
+                                         boolean reverse) throws SQLException {
+        List<Integer> all = new ArrayList<>(ids);
+        for (int from = 0; from < all.size(); from += ID_CHUNK) {
+            List<Integer> chunk = all.subList(from, Math.min(all.size(), from + ID_CHUNK));
+            StringBuilder sql = new StringBuilder("INSERT IGNORE INTO tmp_reverse_ids (id) SELECT ")
+                    .append(idColumn).append(" FROM ").append(table).append(" WHERE COALESCE(reversed, 0) <> ? AND ")
+                    .append(idColumn).append(" IN (");
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(")");
+            try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                stmt.setInt(1, reverse ? 1 : 0);
+                int index = 2;
+                for (int id : chunk) {
+                    stmt.setInt(index++, id);
+                }
+                stmt.executeUpdate();
+            }
+        }
+        List<Integer> changed = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT id FROM tmp_reverse_ids");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                changed.add(rs.getInt(1));
+            }
+        }
+        return changed;
+    }
+
+    // Reversing a sale puts its stock back and takes its amount off the customer's balance
+    private static void reverseSales(Connection conn, List<Integer> saleIds, boolean reverse) throws SQLException {
+        int sign = reverse ? 1 : -1;
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE inventory i JOIN (SELECT s.item_id, SUM(s.quantity) AS qty FROM sales s " +
+                "JOIN tmp_reverse_ids t ON t.id = s.sale_id GROUP BY s.item_id) d ON d.item_id = i.item_id " +
+                "SET i.stock = i.stock + ? * d.qty, i.sold = i.sold - ? * d.qty")) {
+            stmt.setInt(1, sign);
+            stmt.setInt(2, sign);
+            stmt.executeUpdate();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE customers c JOIN (SELECT s.customer_id, SUM(s.total_price) AS amount FROM sales s " +
+                "JOIN tmp_reverse_ids t ON t.id = s.sale_id WHERE s.customer_id <> 0 GROUP BY s.customer_id) d " +
+                "ON d.customer_id = c.customer_id SET c.balance = c.balance - ? * d.amount")) {
+            stmt.setInt(1, sign);
+            stmt.executeUpdate();
+        }
+        // Older sales carry no customer_id; they are matched on the name, as before
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE customers c JOIN (SELECT s.customer_name, SUM(s.total_price) AS amount FROM sales s " +
+                "JOIN tmp_reverse_ids t ON t.id = s.sale_id WHERE COALESCE(s.customer_id, 0) = 0 " +
+                "AND s.customer_name IS NOT NULL GROUP BY s.customer_name) d " +
+                "ON d.customer_name = c.customer_name SET c.balance = c.balance - ? * d.amount")) {
+            stmt.setInt(1, sign);
+            stmt.executeUpdate();
+        }
+        setFlags(conn, "sales", "sale_id", reverse);
+        if (SaleInvoice.isReady()) {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "UPDATE invoices v JOIN (SELECT DISTINCT s.invoice_id FROM sales s " +
+                    "JOIN tmp_reverse_ids t ON t.id = s.sale_id) a ON a.invoice_id = v.invoice_id " +
+                    "SET v.reversed = NOT EXISTS (SELECT 1 FROM sales x WHERE x.invoice_id = v.invoice_id " +
+                    "AND COALESCE(x.reversed, 0) = 0)")) {
+                stmt.executeUpdate();
+            }
+        }
+        DailyRollup.sales(conn, saleIds, -sign);
+    }
+
+    // Reversing a purchase takes its stock back out and, on account, its amount off the supplier's balance
+    private static void reversePurchases(Connection conn, List<Integer> purchaseIds, boolean reverse) throws SQLException {
+        int sign = reverse ? 1 : -1;
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE inventory i JOIN (SELECT p.item_id, SUM(p.quantity) AS qty FROM purchases p " +
+                "JOIN tmp_reverse_ids t ON t.id = p.purchase_id GROUP BY p.item_id) d ON d.item_id = i.item_id " +
+                "SET i.stock = i.stock - ? * d.qty")) {
+            stmt.setInt(1, sign);
+            stmt.executeUpdate();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE suppliers su JOIN (SELECT p.supplier_id, SUM(p.total_price) AS amount FROM purchases p " +
+                "JOIN tmp_reverse_ids t ON t.id = p.purchase_id WHERE p.payment_type = 'account' " +
+                "GROUP BY p.supplier_id) d ON d.supplier_id = su.supplier_id SET su.balance = su.balance - ? * d.amount")) {
+            stmt.setInt(1, sign);
+            stmt.executeUpdate();
+        }
+        setFlags(conn, "purchases", "purchase_id", reverse);
+        DailyRollup.purchases(conn, purchaseIds, -sign);
+    }
+
+    private static void setFlags(Connection conn, String table, String idColumn, boolean reverse) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE " + table + " x JOIN tmp_reverse_ids t ON t.id = x." + idColumn + " SET x.reversed = ?")) {
+            stmt.setInt(1, reverse ? 1 : 0);
+            stmt.executeUpdate();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE deals d JOIN tmp_reverse_ids t ON t.id = d." + idColumn + " SET d.reversed = ?")) {
+            stmt.setInt(1, reverse ? 1 : 0);
+            stmt.executeUpdate();
+        }
+    }
+}
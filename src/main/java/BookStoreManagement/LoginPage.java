@@ -68,19 +68,12 @@ public class LoginPage extends JPanel {
         applyLanguage();
     }
     
-    private void authenticateUser() {
-        if (db.getConnection() == null || isConnectionClosed()) {
-            System.out.println("🔄 Reconnecting to database...");
-            db = new Database();  // Reinitialize connection
-        }
-
-        if (db.getConnection() != null) {
-            System.out.println("✅ Connection running");
-        } else {
-            JOptionPane.showMessageDialog(null, "Database connection failed. Please restart the application.");
-            return;
-        }
+    /** Login stays disabled until startup has finished upgrading the database. */
+    public void setReady(boolean ready) {
+        loginButton.setEnabled(ready);
+    }
 
+    private void authenticateUser() {
         String username = usernameField.getText().trim();
         String password = new String(passwordField.getPassword());
 
@@ -89,28 +82,38 @@ public class LoginPage extends JPanel {
             return;
         }
 
-        User user = db.authenticate(username, password);
-
-        if (user != null) {
-            if (user.getRole().equalsIgnoreCase("admin")) {
-                mainFrame.showScreen("MainMenu");
-            } else if (user.getRole().equalsIgnoreCase("developer")) {
-                mainFrame.showScreen("DeveloperPanel");
+        // Reconnecting and checking the password both wait on the server, so they run off the EDT
+        Database[] current = {db};
+        loginButton.setEnabled(false);
+        DataExecutor.getInstance().run(this, () -> {
+            if (!current[0].isConnectionAvailable()) {
+                System.out.println("🔄 Reconnecting to database...");
+                current[0] = new Database();  // Reinitialize connection
             }
-        } else {
-            JOptionPane.showMessageDialog(null, getLocalizedText("Invalid username or password", "غلط یوزر نیم یا پاس ورڈ"));
-        }
+            if (!current[0].isConnectionAvailable()) {
+                throw new SQLException("Database is not reachable.");
+            }
+            System.out.println("✅ Connection running");
+            return current[0].authenticate(username, password);
+        }, user -> {
+            db = current[0];
+            loginButton.setEnabled(true);
+            if (user != null) {
+                if (user.getRole().equalsIgnoreCase("admin")) {
+                    mainFrame.showScreen("MainMenu");
+                } else if (user.getRole().equalsIgnoreCase("developer")) {
+                    mainFrame.showScreen("DeveloperPanel");
+                }
+            } else {
+                JOptionPane.showMessageDialog(null, getLocalizedText("Invalid username or password", "غلط یوزر نیم یا پاس ورڈ"));
+            }
+        }, error -> {
+            db = current[0];
+            loginButton.setEnabled(true);
+            JOptionPane.showMessageDialog(null, "Database connection failed. Please restart the application.");
+        });
     }
 
-    private boolean isConnectionClosed() {
-        try {
-            return db.getConnection() == null || db.getConnection().isClosed();
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return true;
-        }
-    }
-    
     // This method updates the UI text, fonts, and orientation based on the language.
     public void applyLanguage() {
         String lang = db.getLanguage();  // Assume this returns "English" or "Urdu"
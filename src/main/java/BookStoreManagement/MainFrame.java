@@ -3,10 +3,12 @@ package BookStoreManagement;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 public class MainFrame extends JFrame {
+    private static final DateTimeFormatter CLOCK_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
+
     private CardLayout cardLayout;
     private JPanel mainPanel;
     private Database db;
@@ -27,6 +29,23 @@ public class MainFrame extends JFrame {
 
     public MainFrame() {
         db = new Database();
+        CatalogCache.getInstance().start(db); // Load the checkout catalog in the background
+        ReferenceDataCache.getInstance().start(db); // Category, subcategory and company lists for the combo boxes
+        SearchIndex.getInstance().start(db); // Name search index for the search screen
+        // Bring older databases up to the current schema; login and checkout wait for it
+        // (the sale journal's replayer retries it if the database is down now)
+        java.util.concurrent.CompletableFuture<Void> migration = DataExecutor.getInstance().supply(() -> {
+            SchemaMigrator.prepare(db);
+            return (Void) null;
+        });
+        SchemaMigrator.trackStartup(migration);
+        try {
+            // Sales made while the database is down are kept here and synced when it comes back
+            SaleJournal.getInstance().start(db, db.getSetting("sale_journal_path", "sale-journal.dat"));
+        } catch (java.io.IOException e) {
+            e.printStackTrace();
+            System.out.println("Sale journal could not be opened; offline sales are disabled.");
+        }
         setTitle("Bookstore Management");
         setSize(1000, 600);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -44,6 +63,13 @@ public class MainFrame extends JFrame {
 
         // Add screens to the card layout panel
         mainPanel.add(loginPage, "LoginPage");
+        loginPage.setReady(migration.isDone());
+        migration.whenComplete((ignored, e) -> {
+            if (e != null) {
+                e.printStackTrace();
+            }
+            SwingUtilities.invokeLater(() -> loginPage.setReady(true));
+        });
         mainPanel.add(mainMenu, "MainMenu");
         mainPanel.add(developerPanel, "DeveloperPanel");
         mainPanel.add(serverManagementPanel, "ServerManagementPanel");
@@ -80,18 +106,34 @@ public class MainFrame extends JFrame {
     public void showScreen(String screenName) {
         System.out.println("Switching to screen: " + screenName);
         cardLayout.show(mainPanel, screenName);
+        if ("MainMenu".equals(screenName)) {
+            mainMenu.onShown(); // Builds the first screen now and prewarms the likely next ones
+        }
     }
 
-    // Starts the clock timer to update the clock every second
+    // Starts the clock timer to update the clock every second. It is stopped while the
+    // window is minimized, since nothing is drawn then, and catches up on restore.
     private void startClock() {
         clockTimer = new Timer(1000, e -> updateClock());
+        updateClock();
         clockTimer.start();
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowIconified(WindowEvent e) {
+                clockTimer.stop();
+            }
+
+            @Override
+            public void windowDeiconified(WindowEvent e) {
+                updateClock();
+                clockTimer.start();
+            }
+        });
     }
 
     // Updates the clock label with the current time
     private void updateClock() {
-        String dateTime = new SimpleDateFormat("dd-MM-yyyy HH:mm:ss").format(new Date());
-        clockLabel.setText(dateTime);
+        clockLabel.setText(CLOCK_FORMAT.format(LocalDateTime.now()));
     }
 
     // Creates a transparent button with the specified text
@@ -3,6 +3,12 @@ package BookStoreManagement;
 import javax.swing.*;
 import javax.swing.border.Border;
 import java.awt.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 
 // MainMenu now supports real-time language updates
 public class MainMenu extends JPanel {
@@ -27,11 +33,13 @@ public class MainMenu extends JPanel {
     private JButton addItemButton;
     private JButton exitButton;
 
-    // Panels
-    private AddItemPanel addItemPanel;
-    private ViewInventoryPanel viewInventoryPanel;
-    // New TransactionsPanel (assumes a constructor taking MainFrame and Database)
-    private TransactionsPanel transactionsPanel;
+    // Screens are registered up front but only built (and their data loaded) on first use
+    private static final String DEFAULT_SCREEN = "AddItem";
+    private static final int PREWARM_DELAY_MS = 300;
+    private final Map<String, Supplier<JComponent>> screenFactories = new LinkedHashMap<>();
+    private final Map<String, JComponent> screens = new HashMap<>();
+    private String currentScreen = null;
+    private boolean prewarmed = false;
 
     public MainMenu(MainFrame mainFrame, Database db) {
         this.db = db;
@@ -79,40 +87,37 @@ public class MainMenu extends JPanel {
         cardLayout = new CardLayout();
         screenPanel = new JPanel(cardLayout);
 
-        // Initialize Panels
-        addItemPanel = new AddItemPanel(db);
-        viewInventoryPanel = new ViewInventoryPanel(db);
-        // Create TransactionsPanel by passing the main frame and database
-        transactionsPanel = new TransactionsPanel(mainFrame, db);
-
-        // Add Panels to screenPanel
-        screenPanel.add(addItemPanel, "AddItem");
-        screenPanel.add(viewInventoryPanel, "ViewInventory");
-        screenPanel.add(new ManageCustomersPanel(db), "ManageCustomers");
-        screenPanel.add(new SearchPanel(db), "Search");
-        screenPanel.add(new SalesRecordPanel(db), "SalesRecord");
-        screenPanel.add(new ExpenseRecordPanel(db), "ExpenseRecord");
-        screenPanel.add(new PurchaseRecordPanel(db), "PurchaseRecord");
-        screenPanel.add(new ProfitLossPanel(db), "ProfitAndLoss");
-        screenPanel.add(new ManageSupplierPanel(db), "ManageSuppliers");
-        screenPanel.add(new ReportsPanel(db), "Reports");
-        screenPanel.add(transactionsPanel, "Transactions"); // Add the transactions panel
+        // Register the screens; each is constructed the first time it is shown or prewarmed
+        screenFactories.put("AddItem", () -> new AddItemPanel(db));
+        screenFactories.put("ViewInventory", () -> new ViewInventoryPanel(db));
+        screenFactories.put("ManageCustomers", () -> new ManageCustomersPanel(db));
+        screenFactories.put("Search", () -> new SearchPanel(db));
+        screenFactories.put("SalesRecord", () -> new SalesRecordPanel(db));
+        screenFactories.put("ExpenseRecord", () -> new ExpenseRecordPanel(db));
+        screenFactories.put("PurchaseRecord", () -> new PurchaseRecordPanel(db));
+        screenFactories.put("ProfitAndLoss", () -> new ProfitLossPanel(db));
+        screenFactories.put("ManageSuppliers", () -> new ManageSupplierPanel(db));
+        screenFactories.put("Reports", () -> new ReportsPanel(db));
+        screenFactories.put("Transactions", () -> new TransactionsPanel(mainFrame, db));
 
         // Button Actions
-        salesRecordButton.addActionListener(e -> cardLayout.show(screenPanel, "SalesRecord"));
-        purchaseRecordButton.addActionListener(e -> cardLayout.show(screenPanel, "PurchaseRecord"));
-        manageCustomersButton.addActionListener(e -> cardLayout.show(screenPanel, "ManageCustomers"));
-        manageSuppliersButton.addActionListener(e -> cardLayout.show(screenPanel, "ManageSuppliers"));
-        profitAndLossButton.addActionListener(e -> cardLayout.show(screenPanel, "ProfitAndLoss"));
-        reportsButton.addActionListener(e -> cardLayout.show(screenPanel, "Reports"));
-        searchButton.addActionListener(e -> cardLayout.show(screenPanel, "Search"));
-        expenseRecordButton.addActionListener(e -> cardLayout.show(screenPanel, "ExpenseRecord"));
-        transactionsButton.addActionListener(e -> cardLayout.show(screenPanel, "Transactions")); // Action for transactions button
+        salesRecordButton.addActionListener(e -> showScreen("SalesRecord"));
+        purchaseRecordButton.addActionListener(e -> showScreen("PurchaseRecord"));
+        manageCustomersButton.addActionListener(e -> showScreen("ManageCustomers"));
+        manageSuppliersButton.addActionListener(e -> showScreen("ManageSuppliers"));
+        profitAndLossButton.addActionListener(e -> showScreen("ProfitAndLoss"));
+        reportsButton.addActionListener(e -> showScreen("Reports"));
+        searchButton.addActionListener(e -> showScreen("Search"));
+        expenseRecordButton.addActionListener(e -> showScreen("ExpenseRecord"));
+        transactionsButton.addActionListener(e -> showScreen("Transactions"));
         viewInventoryButton.addActionListener(e -> {
-            viewInventoryPanel.loadInventoryData();
-            cardLayout.show(screenPanel, "ViewInventory");
+            boolean built = screens.containsKey("ViewInventory");
+            ViewInventoryPanel panel = (ViewInventoryPanel) showScreen("ViewInventory");
+            if (built) {
+                panel.loadInventoryData(); // A new panel has just loaded it already
+            }
         });
-        addItemButton.addActionListener(e -> cardLayout.show(screenPanel, "AddItem"));
+        addItemButton.addActionListener(e -> showScreen("AddItem"));
         exitButton.addActionListener(e -> mainFrame.showScreen("LoginPage"));
 
         // Add components to MainMenu
@@ -123,6 +128,67 @@ public class MainMenu extends JPanel {
         applyLanguage();
     }
 
+    /** Shows a screen, building it on first use. Returns the screen. */
+    public JComponent showScreen(String name) {
+        JComponent screen = screen(name);
+        currentScreen = name;
+        cardLayout.show(screenPanel, name);
+        return screen;
+    }
+
+    /**
+     * Called when the menu becomes visible after login: shows the default screen if
+     * none has been opened yet and, the first time, builds the screens listed in the
+     * prewarm_screens setting in the background of the EDT, one per idle tick, so
+     * the first click on them is instant.
+     */
+    public void onShown() {
+        if (currentScreen == null) {
+            showScreen(DEFAULT_SCREEN);
+        }
+        if (prewarmed) {
+            return;
+        }
+        prewarmed = true;
+        Deque<String> pending = new ArrayDeque<>();
+        for (String name : db.getSetting("prewarm_screens", "SalesRecord,ViewInventory").split(",")) {
+            if (screenFactories.containsKey(name.trim())) {
+                pending.add(name.trim());
+            }
+        }
+        Timer timer = new Timer(PREWARM_DELAY_MS, null);
+        timer.addActionListener(e -> {
+            String name = pending.poll();
+            if (name == null) {
+                timer.stop();
+            } else {
+                screen(name);
+            }
+        });
+        timer.start();
+    }
+
+    private JComponent screen(String name) {
+        JComponent screen = screens.get(name);
+        if (screen == null) {
+            screen = screenFactories.get(name).get();
+            screens.put(name, screen);
+            screenPanel.add(screen, name);
+            applyLanguage(screen);
+        }
+        return screen;
+    }
+
+    // Propagate language update to a child panel if it implements updateLanguage(String)
+    private void applyLanguage(Component comp) {
+        try {
+            comp.getClass().getMethod("updateLanguage", String.class)
+                .invoke(comp, currentLanguage);
+        } catch (Exception e) {
+            // Child panel does not implement updateLanguage; ignore.
+        }
+    }
+
     private JButton createStyledButton(String text) {
         JButton button = new JButton(text);
         button.setPreferredSize(new Dimension(150, 40));
@@ -217,14 +283,9 @@ public class MainMenu extends JPanel {
             setComponentOrientation(ComponentOrientation.LEFT_TO_RIGHT);
         }
         
-        // Propagate language update to child panels if they implement updateLanguage(String)
+        // Only screens built so far; the rest pick up the language when they are created
         for (Component comp : screenPanel.getComponents()) {
-            try {
-                comp.getClass().getMethod("updateLanguage", String.class)
-                    .invoke(comp, currentLanguage);
-            } catch (Exception e) {
-                // Child panel does not implement updateLanguage; ignore.
-            }
+            applyLanguage(comp);
         }
         
         revalidate();
@@ -16,6 +16,7 @@ public class ManageCustomersPanel extends JPanel {
     private JTextField searchField;
     private JComboBox<String> searchByComboBox, sortByComboBox;
     private JRadioButton ascRadioButton, descRadioButton;
+    private java.util.concurrent.CompletableFuture<?> pendingQuery; // Customer load/search still running
 
     public ManageCustomersPanel(Database db) {
         this.db = db;
@@ -101,35 +102,9 @@ public class ManageCustomersPanel extends JPanel {
     }
 
     private void loadCustomersData() {
-        tableModel.setRowCount(0);
         // Query customers and their balance from the DB.
         String query = "SELECT customer_id, customer_name, phone, cnic, address, balance FROM customers";
-        try (Connection conn = db.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
-            while (rs.next()) {
-                int customerId = rs.getInt("customer_id");
-                String name = rs.getString("customer_name");
-                String phone = rs.getString("phone");
-                String cnic = rs.getString("cnic");
-                String address = rs.getString("address");
-                double balance = rs.getDouble("balance");
-                double remaining = balance > 0 ? balance : 0;
-                double advance = balance < 0 ? -balance : 0;
-                Vector<Object> rowData = new Vector<>();
-                rowData.add(customerId);
-                rowData.add(name);
-                rowData.add(phone);
-                rowData.add(cnic);
-                rowData.add(address);
-                rowData.add(remaining);
-                rowData.add(advance);
-                tableModel.addRow(rowData);
-            }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error loading customers data: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        runCustomerQuery(query, null, "Error loading customers data: ");
     }
 
     private void searchCustomers() {
@@ -162,34 +137,84 @@ public class ManageCustomersPanel extends JPanel {
         }
 
         String query = "SELECT customer_id, customer_name, phone, cnic, address, balance FROM customers WHERE " + columnName + " LIKE ? ORDER BY " + sortBy + " " + sortOrder;
-        tableModel.setRowCount(0);
-        try (Connection conn = db.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setString(1, "%" + searchText + "%");
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                int customerId = rs.getInt("customer_id");
-                String name = rs.getString("customer_name");
-                String phone = rs.getString("phone");
-                String cnic = rs.getString("cnic");
-                String address = rs.getString("address");
-                double balance = rs.getDouble("balance");
-                double remaining = balance > 0 ? balance : 0;
-                double advance = balance < 0 ? -balance : 0;
-                Vector<Object> rowData = new Vector<>();
-                rowData.add(customerId);
-                rowData.add(name);
-                rowData.add(phone);
-                rowData.add(cnic);
-                rowData.add(address);
-                rowData.add(remaining);
-                rowData.add(advance);
-                tableModel.addRow(rowData);
+        runCustomerQuery(query, "%" + searchText + "%", "Error searching customers: ");
+    }
+
+    // Runs a customer query in the background and fills the table with the result; a newer query cancels an older one
+    private void runCustomerQuery(String query, String likeParam, String errorPrefix) {
+        if (pendingQuery != null) {
+            pendingQuery.cancel(true);
+        }
+        pendingQuery = DataExecutor.getInstance().run(this, () -> {
+            Vector<Vector<Object>> rows = new Vector<>();
+            try (Connection conn = connect();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+                if (likeParam != null) {
+                    stmt.setString(1, likeParam);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        int customerId = rs.getInt("customer_id");
+                        String name = rs.getString("customer_name");
+                        String phone = rs.getString("phone");
+                        String cnic = rs.getString("cnic");
+                        String address = rs.getString("address");
+                        double balance = rs.getDouble("balance");
+                        double remaining = balance > 0 ? balance : 0;
+                        double advance = balance < 0 ? -balance : 0;
+                        Vector<Object> rowData = new Vector<>();
+                        rowData.add(customerId);
+                        rowData.add(name);
+                        rowData.add(phone);
+                        rowData.add(cnic);
+                        rowData.add(address);
+                        rowData.add(remaining);
+                        rowData.add(advance);
+                        rows.add(rowData);
+                    }
+                }
             }
-        } catch (SQLException ex) {
+            return rows;
+        }, rows -> {
+            tableModel.setRowCount(0);
+            for (Vector<Object> row : rows) {
+                tableModel.addRow(row);
+            }
+        }, ex -> {
             ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error searching customers: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            JOptionPane.showMessageDialog(this, errorPrefix + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    private Connection connect() throws SQLException {
+        Connection conn = db.getConnection();
+        if (conn == null) {
+            throw new SQLException("Database is not reachable.");
         }
+        return conn;
+    }
+
+    /**
+     * Runs a write on DataExecutor with the button disabled until it finishes. The work
+     * returns null on success or a message explaining why nothing was changed.
+     */
+    private void runUpdate(JButton button, DataExecutor.Work<String> work, String successMessage,
+                           String errorMessage, String errorTitle, boolean appendCause) {
+        button.setEnabled(false);
+        DataExecutor.getInstance().run(this, work, problem -> {
+            button.setEnabled(true);
+            if (problem != null) {
+                JOptionPane.showMessageDialog(this, problem, "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            JOptionPane.showMessageDialog(this, successMessage, "Success", JOptionPane.INFORMATION_MESSAGE);
+            loadCustomersData();
+        }, ex -> {
+            button.setEnabled(true);
+            ex.printStackTrace();
+            JOptionPane.showMessageDialog(this, appendCause ? errorMessage + ex.getMessage() : errorMessage,
+                    errorTitle, JOptionPane.ERROR_MESSAGE);
+        });
     }
 
     private void addCustomer() {
@@ -220,19 +245,17 @@ public class ManageCustomersPanel extends JPanel {
                 return;
             }
 
-            try (Connection conn = db.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement("INSERT INTO customers (customer_name, phone, cnic, address, balance) VALUES (?, ?, ?, ?, 0)")) {
-                stmt.setString(1, name);
-                stmt.setString(2, phone);
-                stmt.setString(3, cnic);
-                stmt.setString(4, address);
-                stmt.executeUpdate();
-                JOptionPane.showMessageDialog(this, "Customer added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                loadCustomersData();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-                JOptionPane.showMessageDialog(this, "Error adding customer!", "Database Error", JOptionPane.ERROR_MESSAGE);
-            }
+            runUpdate(addButton, () -> {
+                try (Connection conn = connect();
+                     PreparedStatement stmt = conn.prepareStatement("INSERT INTO customers (customer_name, phone, cnic, address, balance) VALUES (?, ?, ?, ?, 0)")) {
+                    stmt.setString(1, name);
+                    stmt.setString(2, phone);
+                    stmt.setString(3, cnic);
+                    stmt.setString(4, address);
+                    stmt.executeUpdate();
+                }
+                return null;
+            }, "Customer added successfully!", "Error adding customer!", "Database Error", false);
         }
     }
 
@@ -249,20 +272,18 @@ public class ManageCustomersPanel extends JPanel {
         String cnic = (String) tableModel.getValueAt(selectedRow, 3);
         String address = (String) tableModel.getValueAt(selectedRow, 4);
 
-        try (Connection conn = db.getConnection();
-             PreparedStatement stmt = conn.prepareStatement("UPDATE customers SET customer_name = ?, phone = ?, cnic = ?, address = ? WHERE customer_id = ?")) {
-            stmt.setString(1, name);
-            stmt.setString(2, phone);
-            stmt.setString(3, cnic);
-            stmt.setString(4, address);
-            stmt.setInt(5, customerId);
-            stmt.executeUpdate();
-            JOptionPane.showMessageDialog(this, "Customer updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            loadCustomersData();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error updating customer!", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        runUpdate(saveButton, () -> {
+            try (Connection conn = connect();
+                 PreparedStatement stmt = conn.prepareStatement("UPDATE customers SET customer_name = ?, phone = ?, cnic = ?, address = ? WHERE customer_id = ?")) {
+                stmt.setString(1, name);
+                stmt.setString(2, phone);
+                stmt.setString(3, cnic);
+                stmt.setString(4, address);
+                stmt.setInt(5, customerId);
+                stmt.executeUpdate();
+            }
+            return null;
+        }, "Customer updated successfully!", "Error updating customer!", "Database Error", false);
     }
 
     private void deleteCustomer() {
@@ -275,16 +296,14 @@ public class ManageCustomersPanel extends JPanel {
         int customerId = (int) tableModel.getValueAt(selectedRow, 0);
         int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to delete this customer?", "Confirm Delete", JOptionPane.YES_NO_OPTION);
         if (confirm == JOptionPane.YES_OPTION) {
-            try (Connection conn = db.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement("DELETE FROM customers WHERE customer_id = ?")) {
-                stmt.setInt(1, customerId);
-                stmt.executeUpdate();
-                JOptionPane.showMessageDialog(this, "Customer deleted successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                loadCustomersData();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-                JOptionPane.showMessageDialog(this, "Error deleting customer!", "Database Error", JOptionPane.ERROR_MESSAGE);
-            }
+            runUpdate(deleteButton, () -> {
+                try (Connection conn = connect();
+                     PreparedStatement stmt = conn.prepareStatement("DELETE FROM customers WHERE customer_id = ?")) {
+                    stmt.setInt(1, customerId);
+                    stmt.executeUpdate();
+                }
+                return null;
+            }, "Customer deleted successfully!", "Error deleting customer!", "Database Error", false);
         }
     }
 
@@ -348,49 +367,47 @@ private void settleUpCustomer() {
         return;
     }
 
+    double amount;
     try {
-        double amount = Double.parseDouble(amountField.getText().trim());
-        if (amount <= 0) {
-            JOptionPane.showMessageDialog(this, "Amount must be greater than 0.", "Error", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
-        String transactionType = "";
-        try (Connection conn = db.getConnection()) {
+        amount = Double.parseDouble(amountField.getText().trim());
+    } catch (NumberFormatException ex) {
+        JOptionPane.showMessageDialog(this, "Invalid amount. Please enter a valid number.", "Error", JOptionPane.ERROR_MESSAGE);
+        return;
+    }
+    if (amount <= 0) {
+        JOptionPane.showMessageDialog(this, "Amount must be greater than 0.", "Error", JOptionPane.ERROR_MESSAGE);
+        return;
+    }
+    boolean paidByCustomer = customerPaidYou.isSelected();
+    runUpdate(settleUpButton, () -> {
+        try (Connection conn = connect()) {
             conn.setAutoCommit(false);
-            if (customerPaidYou.isSelected()) {
-                // Customer paid you, so decrease the customer's balance
-                try (PreparedStatement stmt = conn.prepareStatement("UPDATE customers SET balance = balance - ? WHERE customer_id = ?")) {
+            try {
+                // A customer payment decreases their balance; paying the customer increases it
+                try (PreparedStatement stmt = conn.prepareStatement(paidByCustomer
+                        ? "UPDATE customers SET balance = balance - ? WHERE customer_id = ?"
+                        : "UPDATE customers SET balance = balance + ? WHERE customer_id = ?")) {
                     stmt.setDouble(1, amount);
                     stmt.setInt(2, customerId);
                     stmt.executeUpdate();
                 }
-                transactionType = "payment_received";
-            } else if (youPaidCustomer.isSelected()) {
-                // You paid the customer, so increase the customer's balance
-                try (PreparedStatement stmt = conn.prepareStatement("UPDATE customers SET balance = balance + ? WHERE customer_id = ?")) {
-                    stmt.setDouble(1, amount);
-                    stmt.setInt(2, customerId);
-                    stmt.executeUpdate();
+                // Insert the transaction record for the customer
+                try (PreparedStatement stmt2 = conn.prepareStatement("INSERT INTO transactions (customer_id, amount, type) VALUES (?, ?, ?)")) {
+                    stmt2.setInt(1, customerId);
+                    stmt2.setDouble(2, amount);
+                    stmt2.setString(3, paidByCustomer ? "payment_received" : "payment_done");
+                    stmt2.executeUpdate();
                 }
-                transactionType = "payment_done";
-            }
-            // Insert the transaction record for the customer
-            try (PreparedStatement stmt2 = conn.prepareStatement("INSERT INTO transactions (customer_id, amount, type) VALUES (?, ?, ?)")) {
-                stmt2.setInt(1, customerId);
-                stmt2.setDouble(2, amount);
-                stmt2.setString(3, transactionType);
-                stmt2.executeUpdate();
+                conn.commit();
+            } catch (SQLException ex) {
+                conn.rollback();
+                throw ex;
+            } finally {
+                conn.setAutoCommit(true);
             }
-            conn.commit();
         }
-        JOptionPane.showMessageDialog(this, "Payment recorded and balance updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-        loadCustomersData();
-    } catch (NumberFormatException ex) {
-        JOptionPane.showMessageDialog(this, "Invalid amount. Please enter a valid number.", "Error", JOptionPane.ERROR_MESSAGE);
-    } catch (SQLException ex) {
-        ex.printStackTrace();
-        JOptionPane.showMessageDialog(this, "Error updating balance: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-    }
+        return null;
+    }, "Payment recorded and balance updated successfully!", "Error updating balance: ", "Database Error", true);
 }
 
 
@@ -407,31 +424,42 @@ private void settleUpCustomer() {
         String address = (String) tableModel.getValueAt(selectedRow, 4);
 
         String title = customerName + " (" + phone + ") (" + address + ")";
-        try (Connection conn = db.getConnection();
-             PreparedStatement stmt = conn.prepareStatement("SELECT transaction_id, type, amount, date FROM transactions WHERE customer_id = ?")) {
-            stmt.setInt(1, customerId);
-            ResultSet rs = stmt.executeQuery();
+        transactionDetailsButton.setEnabled(false);
+        DataExecutor.getInstance().run(this, () -> {
+            Vector<Object[]> rows = new Vector<>();
+            try (Connection conn = connect();
+                 PreparedStatement stmt = conn.prepareStatement("SELECT transaction_id, type, amount, date FROM transactions WHERE customer_id = ?")) {
+                stmt.setInt(1, customerId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        rows.add(new Object[]{
+                                rs.getInt("transaction_id"),
+                                rs.getString("type"),
+                                rs.getDouble("amount"),
+                                rs.getTimestamp("date")
+                        });
+                    }
+                }
+            }
+            return rows;
+        }, rows -> {
+            transactionDetailsButton.setEnabled(true);
             DefaultTableModel transactionModel = new DefaultTableModel();
             transactionModel.addColumn("Transaction ID");
             transactionModel.addColumn("Type");
             transactionModel.addColumn("Amount");
             transactionModel.addColumn("Date");
-
-            while (rs.next()) {
-                transactionModel.addRow(new Object[]{
-                        rs.getInt("transaction_id"),
-                        rs.getString("type"),
-                        rs.getDouble("amount"),
-                        rs.getTimestamp("date")
-                });
+            for (Object[] row : rows) {
+                transactionModel.addRow(row);
             }
             JTable transactionTable = new JTable(transactionModel);
             JScrollPane scrollPane = new JScrollPane(transactionTable);
             JOptionPane.showMessageDialog(this, scrollPane, "Transaction Details for " + title, JOptionPane.PLAIN_MESSAGE);
-        } catch (SQLException ex) {
+        }, ex -> {
+            transactionDetailsButton.setEnabled(true);
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Error fetching transactions: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     // New button action for "Exchange Receiver"
@@ -448,60 +476,75 @@ private void settleUpCustomer() {
         panel.add(amountField);
         int result = JOptionPane.showConfirmDialog(this, panel, "Exchange Receiver", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
         if (result == JOptionPane.OK_OPTION) {
+            int sourceId, receiverId;
+            double amount;
             try {
-                int sourceId = Integer.parseInt(sourceIdField.getText().trim());
-                int receiverId = Integer.parseInt(receiverIdField.getText().trim());
-                double amount = Double.parseDouble(amountField.getText().trim());
-                if (amount <= 0) {
-                    JOptionPane.showMessageDialog(this, "Amount must be greater than 0.", "Error", JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
-                try (Connection conn = db.getConnection()) {
+                sourceId = Integer.parseInt(sourceIdField.getText().trim());
+                receiverId = Integer.parseInt(receiverIdField.getText().trim());
+                amount = Double.parseDouble(amountField.getText().trim());
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Invalid input. Please enter valid numbers.", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            if (amount <= 0) {
+                JOptionPane.showMessageDialog(this, "Amount must be greater than 0.", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            runUpdate(exchangeReceiverButton, () -> {
+                try (Connection conn = connect()) {
                     conn.setAutoCommit(false);
-                    double sourceBalance = 0;
-                    try (PreparedStatement stmt = conn.prepareStatement("SELECT balance FROM customers WHERE customer_id = ?")) {
-                        stmt.setInt(1, sourceId);
-                        ResultSet rs = stmt.executeQuery();
-                        if (rs.next()) {
-                            sourceBalance = rs.getDouble("balance");
-                        } else {
-                            JOptionPane.showMessageDialog(this, "Source customer not found.", "Error", JOptionPane.ERROR_MESSAGE);
-                            return;
-                        }
-                    }
-                    // For transferring funds, if source owes (balance > 0) then amount should not exceed balance.
-                    // If source has an advance (balance < 0), amount should not exceed its absolute value.
-                    if (sourceBalance >= 0) {
-                        if (amount > sourceBalance) {
-                            JOptionPane.showMessageDialog(this, "Source customer does not owe that much.", "Error", JOptionPane.ERROR_MESSAGE);
-                            return;
-                        }
-                    } else {
-                        if (amount > -sourceBalance) {
-                            JOptionPane.showMessageDialog(this, "Source customer's advance is less than the amount.", "Error", JOptionPane.ERROR_MESSAGE);
-                            return;
+                    try {
+                        String problem = transfer(conn, sourceId, receiverId, amount);
+                        if (problem != null) {
+                            conn.rollback();
+                            return problem;
                         }
+                        conn.commit();
+                    } catch (SQLException ex) {
+                        conn.rollback();
+                        throw ex;
+                    } finally {
+                        conn.setAutoCommit(true);
                     }
-                    try (PreparedStatement stmt = conn.prepareStatement("UPDATE customers SET balance = balance - ? WHERE customer_id = ?")) {
-                        stmt.setDouble(1, amount);
-                        stmt.setInt(2, sourceId);
-                        stmt.executeUpdate();
-                    }
-                    try (PreparedStatement stmt = conn.prepareStatement("UPDATE customers SET balance = balance + ? WHERE customer_id = ?")) {
-                        stmt.setDouble(1, amount);
-                        stmt.setInt(2, receiverId);
-                        stmt.executeUpdate();
-                    }
-                    conn.commit();
-                    JOptionPane.showMessageDialog(this, "Exchange successful!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                    loadCustomersData();
-                } catch (SQLException ex) {
-                    ex.printStackTrace();
-                    JOptionPane.showMessageDialog(this, "Error during exchange: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
                 }
-            } catch (NumberFormatException ex) {
-                JOptionPane.showMessageDialog(this, "Invalid input. Please enter valid numbers.", "Error", JOptionPane.ERROR_MESSAGE);
+                return null;
+            }, "Exchange successful!", "Error during exchange: ", "Error", true);
+        }
+    }
+
+    // Moves amount from the source customer's balance to the receiver's; returns why it refused, or null
+    private static String transfer(Connection conn, int sourceId, int receiverId, double amount) throws SQLException {
+        double sourceBalance;
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT balance FROM customers WHERE customer_id = ?")) {
+            stmt.setInt(1, sourceId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return "Source customer not found.";
+                }
+                sourceBalance = rs.getDouble("balance");
+            }
+        }
+        // For transferring funds, if source owes (balance > 0) then amount should not exceed balance.
+        // If source has an advance (balance < 0), amount should not exceed its absolute value.
+        if (sourceBalance >= 0) {
+            if (amount > sourceBalance) {
+                return "Source customer does not owe that much.";
             }
+        } else {
+            if (amount > -sourceBalance) {
+                return "Source customer's advance is less than the amount.";
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("UPDATE customers SET balance = balance - ? WHERE customer_id = ?")) {
+            stmt.setDouble(1, amount);
+            stmt.setInt(2, sourceId);
+            stmt.executeUpdate();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("UPDATE customers SET balance = balance + ? WHERE customer_id = ?")) {
+            stmt.setDouble(1, amount);
+            stmt.setInt(2, receiverId);
+            stmt.executeUpdate();
         }
+        return null;
     }
 }
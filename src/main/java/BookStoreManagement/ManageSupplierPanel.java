@@ -5,6 +5,8 @@ import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.*;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Vector;
 
 public class ManageSupplierPanel extends JPanel {
@@ -16,6 +18,8 @@ public class ManageSupplierPanel extends JPanel {
     private JTextField searchField;
     private JComboBox<String> searchByComboBox, sortByComboBox;
     private JRadioButton ascRadioButton, descRadioButton;
+    // Bumped per load or search so a slow earlier result never overwrites a newer one
+    private int loadSequence = 0;
 
     public ManageSupplierPanel(Database db) {
         this.db = db;
@@ -101,36 +105,89 @@ public class ManageSupplierPanel extends JPanel {
     }
 
     private void loadSuppliersData() {
-        tableModel.setRowCount(0);
         // Fixed query to load supplier data; assume suppliers table has columns: supplier_id, supplier_name, phone, email, address, balance
         String query = "SELECT supplier_id, supplier_name, phone, email, address, balance FROM suppliers";
-        try (Connection conn = db.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
-
-            while (rs.next()) {
-                int supplierId = rs.getInt("supplier_id");
-                String name = rs.getString("supplier_name");
-                String phone = rs.getString("phone");
-                String email = rs.getString("email");
-                String address = rs.getString("address");
-                double balance = rs.getDouble("balance");
-                double remaining = balance > 0 ? balance : 0;
-                double advance = balance < 0 ? -balance : 0;
-                Vector<Object> rowData = new Vector<>();
-                rowData.add(supplierId);
-                rowData.add(name);
-                rowData.add(phone);
-                rowData.add(email);
-                rowData.add(address);
-                rowData.add(remaining);
-                rowData.add(advance);
+        showSuppliers(query, null, "Error loading suppliers data: ");
+    }
+
+    // Runs the query on DataExecutor and swaps the rows in on the EDT
+    private void showSuppliers(String query, String likeParam, String errorPrefix) {
+        int sequence = ++loadSequence;
+        DataExecutor.getInstance().run(this, () -> fetchSuppliers(query, likeParam), rows -> {
+            if (sequence != loadSequence) {
+                return; // A newer load is already on its way
+            }
+            tableModel.setRowCount(0);
+            for (Vector<Object> rowData : rows) {
                 tableModel.addRow(rowData);
             }
-        } catch (SQLException ex) {
+        }, ex -> {
             ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error loading suppliers data: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            JOptionPane.showMessageDialog(this, errorPrefix + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    private List<Vector<Object>> fetchSuppliers(String query, String likeParam) throws SQLException {
+        List<Vector<Object>> rows = new ArrayList<>();
+        try (Connection conn = connect();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            if (likeParam != null) {
+                stmt.setString(1, "%" + likeParam + "%");
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int supplierId = rs.getInt("supplier_id");
+                    String name = rs.getString("supplier_name");
+                    String phone = rs.getString("phone");
+                    String email = rs.getString("email");
+                    String address = rs.getString("address");
+                    double balance = rs.getDouble("balance");
+                    double remaining = balance > 0 ? balance : 0;
+                    double advance = balance < 0 ? -balance : 0;
+                    Vector<Object> rowData = new Vector<>();
+                    rowData.add(supplierId);
+                    rowData.add(name);
+                    rowData.add(phone);
+                    rowData.add(email);
+                    rowData.add(address);
+                    rowData.add(remaining);
+                    rowData.add(advance);
+                    rows.add(rowData);
+                }
+            }
+        }
+        return rows;
+    }
+
+    private Connection connect() throws SQLException {
+        Connection conn = db.getConnection();
+        if (conn == null) {
+            throw new SQLException("Database is not reachable.");
         }
+        return conn;
+    }
+
+    /**
+     * Runs a write on DataExecutor with the button disabled until it finishes. The work
+     * returns null on success or a message explaining why nothing was changed.
+     */
+    private void runUpdate(JButton button, DataExecutor.Work<String> work, String successMessage,
+                           String errorMessage, String errorTitle, boolean appendCause) {
+        button.setEnabled(false);
+        DataExecutor.getInstance().run(this, work, problem -> {
+            button.setEnabled(true);
+            if (problem != null) {
+                JOptionPane.showMessageDialog(this, problem, "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            JOptionPane.showMessageDialog(this, successMessage, "Success", JOptionPane.INFORMATION_MESSAGE);
+            loadSuppliersData();
+        }, ex -> {
+            button.setEnabled(true);
+            ex.printStackTrace();
+            JOptionPane.showMessageDialog(this, appendCause ? errorMessage + ex.getMessage() : errorMessage,
+                    errorTitle, JOptionPane.ERROR_MESSAGE);
+        });
     }
 
     private void searchSuppliers() {
@@ -164,34 +221,7 @@ public class ManageSupplierPanel extends JPanel {
 
         String query = "SELECT supplier_id, supplier_name, phone, email, address, balance FROM suppliers WHERE " 
                 + columnName + " LIKE ? ORDER BY " + sortBy + " " + sortOrder;
-        tableModel.setRowCount(0);
-        try (Connection conn = db.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setString(1, "%" + searchText + "%");
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                int supplierId = rs.getInt("supplier_id");
-                String name = rs.getString("supplier_name");
-                String phone = rs.getString("phone");
-                String email = rs.getString("email");
-                String address = rs.getString("address");
-                double balance = rs.getDouble("balance");
-                double remaining = balance > 0 ? balance : 0;
-                double advance = balance < 0 ? -balance : 0;
-                Vector<Object> rowData = new Vector<>();
-                rowData.add(supplierId);
-                rowData.add(name);
-                rowData.add(phone);
-                rowData.add(email);
-                rowData.add(address);
-                rowData.add(remaining);
-                rowData.add(advance);
-                tableModel.addRow(rowData);
-            }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error searching suppliers: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        showSuppliers(query, searchText, "Error searching suppliers: ");
     }
 
     private void addSupplier() {
@@ -222,19 +252,17 @@ public class ManageSupplierPanel extends JPanel {
                 return;
             }
 
-            try (Connection conn = db.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement("INSERT INTO suppliers (supplier_name, phone, email, address, balance) VALUES (?, ?, ?, ?, 0)")) {
-                stmt.setString(1, name);
-                stmt.setString(2, phone);
-                stmt.setString(3, email);
-                stmt.setString(4, address);
-                stmt.executeUpdate();
-                JOptionPane.showMessageDialog(this, "Supplier added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                loadSuppliersData();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-                JOptionPane.showMessageDialog(this, "Error adding supplier!", "Database Error", JOptionPane.ERROR_MESSAGE);
-            }
+            runUpdate(addButton, () -> {
+                try (Connection conn = connect();
+                     PreparedStatement stmt = conn.prepareStatement("INSERT INTO suppliers (supplier_name, phone, email, address, balance) VALUES (?, ?, ?, ?, 0)")) {
+                    stmt.setString(1, name);
+                    stmt.setString(2, phone);
+                    stmt.setString(3, email);
+                    stmt.setString(4, address);
+                    stmt.executeUpdate();
+                }
+                return null;
+            }, "Supplier added successfully!", "Error adding supplier!", "Database Error", false);
         }
     }
 
@@ -251,20 +279,18 @@ public class ManageSupplierPanel extends JPanel {
         String email = (String) tableModel.getValueAt(selectedRow, 3);
         String address = (String) tableModel.getValueAt(selectedRow, 4);
 
-        try (Connection conn = db.getConnection();
-             PreparedStatement stmt = conn.prepareStatement("UPDATE suppliers SET supplier_name = ?, phone = ?, email = ?, address = ? WHERE supplier_id = ?")) {
-            stmt.setString(1, name);
-            stmt.setString(2, phone);
-            stmt.setString(3, email);
-            stmt.setString(4, address);
-            stmt.setInt(5, supplierId);
-            stmt.executeUpdate();
-            JOptionPane.showMessageDialog(this, "Supplier updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            loadSuppliersData();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error updating supplier!", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        runUpdate(saveButton, () -> {
+            try (Connection conn = connect();
+                 PreparedStatement stmt = conn.prepareStatement("UPDATE suppliers SET supplier_name = ?, phone = ?, email = ?, address = ? WHERE supplier_id = ?")) {
+                stmt.setString(1, name);
+                stmt.setString(2, phone);
+                stmt.setString(3, email);
+                stmt.setString(4, address);
+                stmt.setInt(5, supplierId);
+                stmt.executeUpdate();
+            }
+            return null;
+        }, "Supplier updated successfully!", "Error updating supplier!", "Database Error", false);
     }
 
     private void deleteSupplier() {
@@ -277,16 +303,14 @@ public class ManageSupplierPanel extends JPanel {
         int supplierId = (int) tableModel.getValueAt(selectedRow, 0);
         int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to delete this supplier?", "Confirm Delete", JOptionPane.YES_NO_OPTION);
         if (confirm == JOptionPane.YES_OPTION) {
-            try (Connection conn = db.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement("DELETE FROM suppliers WHERE supplier_id = ?")) {
-                stmt.setInt(1, supplierId);
-                stmt.executeUpdate();
-                JOptionPane.showMessageDialog(this, "Supplier deleted successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                loadSuppliersData();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-                JOptionPane.showMessageDialog(this, "Error deleting supplier!", "Database Error", JOptionPane.ERROR_MESSAGE);
-            }
+            runUpdate(deleteButton, () -> {
+                try (Connection conn = connect();
+                     PreparedStatement stmt = conn.prepareStatement("DELETE FROM suppliers WHERE supplier_id = ?")) {
+                    stmt.setInt(1, supplierId);
+                    stmt.executeUpdate();
+                }
+                return null;
+            }, "Supplier deleted successfully!", "Error deleting supplier!", "Database Error", false);
         }
     }
 
@@ -345,49 +369,47 @@ public class ManageSupplierPanel extends JPanel {
         return;
     }
     
+    double amount;
     try {
-        double amount = Double.parseDouble(amountField.getText().trim());
-        if (amount <= 0) {
-            JOptionPane.showMessageDialog(this, "Amount must be greater than 0.", "Error", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
-        String transactionType = "";
-        try (Connection conn = db.getConnection()) {
+        amount = Double.parseDouble(amountField.getText().trim());
+    } catch (NumberFormatException ex) {
+        JOptionPane.showMessageDialog(this, "Invalid amount. Please enter a valid number.", "Error", JOptionPane.ERROR_MESSAGE);
+        return;
+    }
+    if (amount <= 0) {
+        JOptionPane.showMessageDialog(this, "Amount must be greater than 0.", "Error", JOptionPane.ERROR_MESSAGE);
+        return;
+    }
+    boolean paidSupplier = youPaidSupplier.isSelected();
+    runUpdate(settleUpButton, () -> {
+        try (Connection conn = connect()) {
             conn.setAutoCommit(false);
-            if (youPaidSupplier.isSelected()) {
-                // We pay the supplier, so decrease our liability
-                try (PreparedStatement stmt = conn.prepareStatement("UPDATE suppliers SET balance = balance - ? WHERE supplier_id = ?")) {
+            try {
+                // We pay the supplier, so decrease our liability; or the supplier pays us, reducing a negative advance
+                try (PreparedStatement stmt = conn.prepareStatement(paidSupplier
+                        ? "UPDATE suppliers SET balance = balance - ? WHERE supplier_id = ?"
+                        : "UPDATE suppliers SET balance = balance + ? WHERE supplier_id = ?")) {
                     stmt.setDouble(1, amount);
                     stmt.setInt(2, supplierId);
                     stmt.executeUpdate();
                 }
-                transactionType = "payment_done";
-            } else if (supplierPaidYou.isSelected()) {
-                // Supplier pays you, so increase our balance (reduce negative advance)
-                try (PreparedStatement stmt = conn.prepareStatement("UPDATE suppliers SET balance = balance + ? WHERE supplier_id = ?")) {
-                    stmt.setDouble(1, amount);
-                    stmt.setInt(2, supplierId);
-                    stmt.executeUpdate();
+                // Insert the transaction record
+                try (PreparedStatement stmt2 = conn.prepareStatement("INSERT INTO transactions (supplier_id, amount, type) VALUES (?, ?, ?)")) {
+                    stmt2.setInt(1, supplierId);
+                    stmt2.setDouble(2, amount);
+                    stmt2.setString(3, paidSupplier ? "payment_done" : "payment_received");
+                    stmt2.executeUpdate();
                 }
-                transactionType = "payment_received";
-            }
-            // Insert the transaction record
-            try (PreparedStatement stmt2 = conn.prepareStatement("INSERT INTO transactions (supplier_id, amount, type) VALUES (?, ?, ?)")) {
-                stmt2.setInt(1, supplierId);
-                stmt2.setDouble(2, amount);
-                stmt2.setString(3, transactionType);
-                stmt2.executeUpdate();
+                conn.commit();
+            } catch (SQLException ex) {
+                conn.rollback();
+                throw ex;
+            } finally {
+                conn.setAutoCommit(true);
             }
-            conn.commit();
         }
-        JOptionPane.showMessageDialog(this, "Payment recorded and balance updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-        loadSuppliersData();
-    } catch (NumberFormatException ex) {
-        JOptionPane.showMessageDialog(this, "Invalid amount. Please enter a valid number.", "Error", JOptionPane.ERROR_MESSAGE);
-    } catch (SQLException ex) {
-        ex.printStackTrace();
-        JOptionPane.showMessageDialog(this, "Error updating balance: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-    }
+        return null;
+    }, "Payment recorded and balance updated successfully!", "Error updating balance: ", "Database Error", true);
 }
 
     private void showTransactionDetails() {
@@ -403,31 +425,42 @@ public class ManageSupplierPanel extends JPanel {
         String address = (String) tableModel.getValueAt(selectedRow, 4);
 
         String title = supplierName + " (" + phone + ") (" + address + ")";
-        try (Connection conn = db.getConnection();
-             PreparedStatement stmt = conn.prepareStatement("SELECT transaction_id, type, amount, date FROM transactions WHERE supplier_id = ?")) {
-            stmt.setInt(1, supplierId);
-            ResultSet rs = stmt.executeQuery();
+        transactionDetailsButton.setEnabled(false);
+        DataExecutor.getInstance().run(this, () -> {
+            List<Object[]> rows = new ArrayList<>();
+            try (Connection conn = connect();
+                 PreparedStatement stmt = conn.prepareStatement("SELECT transaction_id, type, amount, date FROM transactions WHERE supplier_id = ?")) {
+                stmt.setInt(1, supplierId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        rows.add(new Object[]{
+                                rs.getInt("transaction_id"),
+                                rs.getString("type"),
+                                rs.getDouble("amount"),
+                                rs.getTimestamp("date")
+                        });
+                    }
+                }
+            }
+            return rows;
+        }, rows -> {
+            transactionDetailsButton.setEnabled(true);
             DefaultTableModel transactionModel = new DefaultTableModel();
             transactionModel.addColumn("Transaction ID");
             transactionModel.addColumn("Type");
             transactionModel.addColumn("Amount");
             transactionModel.addColumn("Date");
-
-            while (rs.next()) {
-                transactionModel.addRow(new Object[]{
-                        rs.getInt("transaction_id"),
-                        rs.getString("type"),
-                        rs.getDouble("amount"),
-                        rs.getTimestamp("date")
-                });
+            for (Object[] row : rows) {
+                transactionModel.addRow(row);
             }
             JTable transactionTable = new JTable(transactionModel);
             JScrollPane scrollPane = new JScrollPane(transactionTable);
             JOptionPane.showMessageDialog(this, scrollPane, "Transaction Details for " + title, JOptionPane.PLAIN_MESSAGE);
-        } catch (SQLException ex) {
+        }, ex -> {
+            transactionDetailsButton.setEnabled(true);
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Error fetching transactions: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     // Optional: if you want an exchange receiver feature for suppliers too.
@@ -444,58 +477,73 @@ public class ManageSupplierPanel extends JPanel {
         panel.add(amountField);
         int result = JOptionPane.showConfirmDialog(this, panel, "Exchange Receiver", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
         if (result == JOptionPane.OK_OPTION) {
+            int sourceId, receiverId;
+            double amount;
             try {
-                int sourceId = Integer.parseInt(sourceIdField.getText().trim());
-                int receiverId = Integer.parseInt(receiverIdField.getText().trim());
-                double amount = Double.parseDouble(amountField.getText().trim());
-                if (amount <= 0) {
-                    JOptionPane.showMessageDialog(this, "Amount must be greater than 0.", "Error", JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
-                try (Connection conn = db.getConnection()) {
+                sourceId = Integer.parseInt(sourceIdField.getText().trim());
+                receiverId = Integer.parseInt(receiverIdField.getText().trim());
+                amount = Double.parseDouble(amountField.getText().trim());
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Invalid input. Please enter valid numbers.", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            if (amount <= 0) {
+                JOptionPane.showMessageDialog(this, "Amount must be greater than 0.", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            runUpdate(exchangeReceiverButton, () -> {
+                try (Connection conn = connect()) {
                     conn.setAutoCommit(false);
-                    double sourceBalance = 0;
-                    try (PreparedStatement stmt = conn.prepareStatement("SELECT balance FROM suppliers WHERE supplier_id = ?")) {
-                        stmt.setInt(1, sourceId);
-                        ResultSet rs = stmt.executeQuery();
-                        if (rs.next()) {
-                            sourceBalance = rs.getDouble("balance");
-                        } else {
-                            JOptionPane.showMessageDialog(this, "Source supplier not found.", "Error", JOptionPane.ERROR_MESSAGE);
-                            return;
+                    try {
+                        String problem = transfer(conn, sourceId, receiverId, amount);
+                        if (problem != null) {
+                            conn.rollback();
+                            return problem;
                         }
+                        conn.commit();
+                    } catch (SQLException ex) {
+                        conn.rollback();
+                        throw ex;
+                    } finally {
+                        conn.setAutoCommit(true);
                     }
-                    if (sourceBalance >= 0) {
-                        if (amount > sourceBalance) {
-                            JOptionPane.showMessageDialog(this, "Source supplier does not owe that much.", "Error", JOptionPane.ERROR_MESSAGE);
-                            return;
-                        }
-                    } else {
-                        if (amount > -sourceBalance) {
-                            JOptionPane.showMessageDialog(this, "Source supplier's advance is less than the amount.", "Error", JOptionPane.ERROR_MESSAGE);
-                            return;
-                        }
-                    }
-                    try (PreparedStatement stmt = conn.prepareStatement("UPDATE suppliers SET balance = balance - ? WHERE supplier_id = ?")) {
-                        stmt.setDouble(1, amount);
-                        stmt.setInt(2, sourceId);
-                        stmt.executeUpdate();
-                    }
-                    try (PreparedStatement stmt = conn.prepareStatement("UPDATE suppliers SET balance = balance + ? WHERE supplier_id = ?")) {
-                        stmt.setDouble(1, amount);
-                        stmt.setInt(2, receiverId);
-                        stmt.executeUpdate();
-                    }
-                    conn.commit();
-                    JOptionPane.showMessageDialog(this, "Exchange successful!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                    loadSuppliersData();
-                } catch (SQLException ex) {
-                    ex.printStackTrace();
-                    JOptionPane.showMessageDialog(this, "Error during exchange: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
                 }
-            } catch (NumberFormatException ex) {
-                JOptionPane.showMessageDialog(this, "Invalid input. Please enter valid numbers.", "Error", JOptionPane.ERROR_MESSAGE);
+                return null;
+            }, "Exchange successful!", "Error during exchange: ", "Error", true);
+        }
+    }
+
+    // Moves amount from the source supplier's balance to the receiver's; returns why it refused, or null
+    private static String transfer(Connection conn, int sourceId, int receiverId, double amount) throws SQLException {
+        double sourceBalance;
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT balance FROM suppliers WHERE supplier_id = ?")) {
+            stmt.setInt(1, sourceId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return "Source supplier not found.";
+                }
+                sourceBalance = rs.getDouble("balance");
+            }
+        }
+        if (sourceBalance >= 0) {
+            if (amount > sourceBalance) {
+                return "Source supplier does not owe that much.";
+            }
+        } else {
+            if (amount > -sourceBalance) {
+                return "Source supplier's advance is less than the amount.";
             }
         }
+        try (PreparedStatement stmt = conn.prepareStatement("UPDATE suppliers SET balance = balance - ? WHERE supplier_id = ?")) {
+            stmt.setDouble(1, amount);
+            stmt.setInt(2, sourceId);
+            stmt.executeUpdate();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("UPDATE suppliers SET balance = balance + ? WHERE supplier_id = ?")) {
+            stmt.setDouble(1, amount);
+            stmt.setInt(2, receiverId);
+            stmt.executeUpdate();
+        }
+        return null;
     }
 }
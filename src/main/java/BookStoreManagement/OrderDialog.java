@@ -31,10 +31,12 @@ public class OrderDialog extends JDialog {
     
     // Reference to database object for fetching item details
     private Database db;
+    // Bumped per database lookup so only the answer to the latest keystroke fills the fields
+    private int lookupSequence = 0;
     
     // Fonts for bilingual support
-    private Font englishFont = new Font("Arial", Font.PLAIN, 16);
-    private Font urduFont = loadUrduFont();
+    private final Font englishFont = FontRegistry.get(FontRegistry.ENGLISH_FAMILY, Font.PLAIN, 16);
+    private final Font urduFont = FontRegistry.urdu(Font.PLAIN, 16);
     
     public OrderDialog(JFrame parent, Database db) {
         super(parent, db.getLanguage().equalsIgnoreCase("Urdu") ? "آرڈر بنائیں" : "Create Order", true);
@@ -65,10 +67,20 @@ public class OrderDialog extends JDialog {
         itemNameField = new JTextField(15);
         itemNameField.setFont(lang.equalsIgnoreCase("Urdu") ? urduFont : englishFont);
         add(itemNameField, gbc);
-        itemNameField.addKeyListener(new KeyAdapter() {
-            @Override
-            public void keyReleased(KeyEvent e) {
+        // Suggestions are looked up off the event thread; typing never waits on the database
+        new TypeAheadSupport(itemNameField, db, item -> {
+            if ("used".equalsIgnoreCase(item.condition)) {
+                conditionCombo.setSelectedIndex(1);
+            } else if ("new".equalsIgnoreCase(item.condition)) {
+                conditionCombo.setSelectedIndex(0);
+            }
+            showItem(item, true);
+        }, item -> {
+            // With the catalog loaded this picks the row for the selected condition without touching the database
+            if (CatalogCache.getInstance().isLoaded()) {
                 fetchItemDetailsByItemName();
+            } else {
+                showItem(item, true);
             }
         });
         
@@ -87,17 +99,15 @@ public class OrderDialog extends JDialog {
             public void keyReleased(KeyEvent e) {
                 long now = System.currentTimeMillis();
                 if (now - lastKeyPressTime < 20 && !barcodeField.getText().trim().isEmpty()) {
-                    fetchItemDetailsByBarcode();
-                    addItemToCart(true);
-                    clearFields();
+                    fetchItemDetailsByBarcode(() -> {
+                        addItemToCart(true);
+                        clearFields();
+                    });
                 }
                 lastKeyPressTime = now;
             }
         });
-        barcodeField.addActionListener(e -> {
-            fetchItemDetailsByBarcode();
-            addItemToCart(false);
-        });
+        barcodeField.addActionListener(e -> fetchItemDetailsByBarcode(() -> addItemToCart(false)));
         
         // ===================== Row 1: Quantity & Sale Price =====================
         gbc.gridx = 0; gbc.gridy = 1;
@@ -159,7 +169,7 @@ public class OrderDialog extends JDialog {
             if (!itemNameField.getText().trim().isEmpty()) {
                 fetchItemDetailsByItemName();
             } else if (!barcodeField.getText().trim().isEmpty()) {
-                fetchItemDetailsByBarcode();
+                fetchItemDetailsByBarcode(null);
             }
         });
         
@@ -263,73 +273,101 @@ public class OrderDialog extends JDialog {
         getRootPane().setDefaultButton(addToCartButton);
     }
     
-    // Utility: load embedded Urdu font
-    private Font loadUrduFont() {
-        try {
-            java.io.InputStream is = getClass().getResourceAsStream("/fonts/JameelNooriNastaleeq.ttf");
-            if (is != null) {
-                Font f = Font.createFont(Font.TRUETYPE_FONT, is);
-                return f.deriveFont(Font.PLAIN, 16);
-            }
-            System.err.println("Urdu font not found, falling back.");
-        } catch (Exception e) {
-            e.printStackTrace();
+    // Inventory enum value for the selected condition (the combo shows translated labels)
+    private String selectedConditionValue() {
+        return conditionCombo.getSelectedIndex() == 1 ? "used" : "new";
+    }
+    
+    private void showItem(CatalogCache.Item item, boolean byName) {
+        if (byName) {
+            barcodeField.setText(item.barcode == null ? "" : item.barcode);
+        } else {
+            itemNameField.setText(item.name);
         }
-        return new Font("Serif", Font.PLAIN, 16);
+        salePriceField.setText(String.format("%.2f", item.salePrice));
+        if (quantityField.getText().trim().isEmpty()) quantityField.setText("1");
+        updateTotalPrice();
     }
     
     private void fetchItemDetailsByItemName() {
         String name = itemNameField.getText().trim();
         if (name.isEmpty()) return;
-        try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement(
-                 "SELECT barcode, sale_price FROM inventory WHERE item_name = ?")) {
-            ps.setString(1, name);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                barcodeField.setText(rs.getString("barcode"));
-                salePriceField.setText(String.format("%.2f", rs.getDouble("sale_price")));
-                if (quantityField.getText().trim().isEmpty()) quantityField.setText("1");
-                updateTotalPrice();
+        CatalogCache catalog = CatalogCache.getInstance();
+        if (catalog.isLoaded()) {
+            CatalogCache.Item item = catalog.findByName(name, selectedConditionValue());
+            if (item != null) {
+                showItem(item, true);
             } else {
                 barcodeField.setText("");
                 salePriceField.setText("");
             }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this,
-                db.getLanguage().equalsIgnoreCase("Urdu")
-                    ? "آئٹم کی تفصیلات لانے میں خرابی!"
-                    : "Error fetching item details!",
-                "Database Error", JOptionPane.ERROR_MESSAGE);
+            return;
         }
+        // Cache still loading: fall back to the database
+        lookup("SELECT barcode, sale_price FROM inventory WHERE item_name = ?", name, barcodeField, null);
     }
     
-    private void fetchItemDetailsByBarcode() {
+    // then, if given, runs once the fields are filled (the scanner and Enter paths add to the cart)
+    private void fetchItemDetailsByBarcode(Runnable then) {
         String code = barcodeField.getText().trim();
         if (code.isEmpty()) return;
-        try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement(
-                 "SELECT item_name, sale_price FROM inventory WHERE barcode = ?")) {
-            ps.setString(1, code);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                itemNameField.setText(rs.getString("item_name"));
-                salePriceField.setText(String.format("%.2f", rs.getDouble("sale_price")));
+        CatalogCache catalog = CatalogCache.getInstance();
+        if (catalog.isLoaded()) {
+            CatalogCache.Item item = catalog.findByBarcode(code, selectedConditionValue());
+            if (item != null) {
+                showItem(item, false);
+            } else {
+                itemNameField.setText("");
+                salePriceField.setText("");
+            }
+            if (then != null) {
+                then.run();
+            }
+            return;
+        }
+        // Cache still loading: fall back to the database
+        lookup("SELECT item_name, sale_price FROM inventory WHERE barcode = ?", code, itemNameField, then);
+    }
+    
+    // Queries on DataExecutor and fills otherField plus the sale price on the EDT
+    private void lookup(String query, String key, JTextField otherField, Runnable then) {
+        int sequence = ++lookupSequence;
+        DataExecutor.getInstance().run(this, () -> {
+            try (Connection conn = db.getConnection()) {
+                if (conn == null) {
+                    throw new SQLException("Database is not reachable.");
+                }
+                try (PreparedStatement ps = conn.prepareStatement(query)) {
+                    ps.setString(1, key);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        return rs.next() ? new Object[]{rs.getString(1), rs.getDouble("sale_price")} : null;
+                    }
+                }
+            }
+        }, row -> {
+            if (sequence != lookupSequence) {
+                return; // The user kept typing; a newer lookup owns the fields
+            }
+            if (row != null) {
+                otherField.setText((String) row[0]);
+                salePriceField.setText(String.format("%.2f", (Double) row[1]));
                 if (quantityField.getText().trim().isEmpty()) quantityField.setText("1");
                 updateTotalPrice();
             } else {
-                itemNameField.setText("");
+                otherField.setText("");
                 salePriceField.setText("");
             }
-        } catch (SQLException ex) {
+            if (then != null) {
+                then.run();
+            }
+        }, ex -> {
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this,
                 db.getLanguage().equalsIgnoreCase("Urdu")
                     ? "آئٹم کی تفصیلات لانے میں خرابی!"
                     : "Error fetching item details!",
                 "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
     
     // Recalculates the TOTAL of all rows in the cart and updates the label
@@ -0,0 +1,524 @@
+package BookStoreManagement;
+
+import javax.swing.table.AbstractTableModel;
+import java.awt.Component;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Table model that only keeps the rows near the viewport in memory.
+ *
+ * Rows are read in fixed-size pages with keyset (seek) pagination on a composite
+ * integer key. When the filter changes only COUNT(*) runs; a page is fetched on
+ * demand the first time the table asks for one of its cells, seeking past the
+ * last key of the page before it. Every page's last key is remembered, so paging
+ * and scrolling cost one indexed range read per page; jumping far ahead skips the
+ * gap with an OFFSET from the nearest page already seen, once. Pages live in a
+ * small LRU and store each column as a primitive array, so memory stays flat
+ * however much history the table holds.
+ *
+ * Cells of a page that is still loading read as null; the table repaints them when
+ * the page arrives. A page that failed to load is not asked for again until
+ * {@link #RETRY_DELAY_MS} has passed or the model is refreshed, so a database
+ * outage does not turn every repaint into a new query. Editable columns keep changes in a pending-edits map keyed by
+ * the row's unique key until the caller saves them.
+ */
+public class PagedTableModel extends AbstractTableModel {
+
+    public enum Type { INT, DOUBLE, STRING, DATE, TIMESTAMP, FLAG }
+
+    /** A selected column: SQL expression, header label and storage type. */
+    public static class Column {
+        final String expression;
+        final Type type;
+        String label;
+
+        public Column(String expression, String label, Type type) {
+            this.expression = expression;
+            this.label = label;
+            this.type = type;
+        }
+    }
+
+    /** One part of the sort/seek key. The expression must be integer valued. */
+    public static class SortKey {
+        final String expression;
+        final boolean descending;
+
+        public SortKey(String expression, boolean descending) {
+            this.expression = expression;
+            this.descending = descending;
+        }
+    }
+
+    private final Database db;
+    private final String from;
+    private final List<Column> columns;
+    private volatile List<SortKey> keys; // The last key must be unique (normally the primary key)
+    private final int pageSize;
+    private final int maxPages;
+    private final boolean[] editable;
+
+    static final int RETRY_DELAY_MS = 10_000;
+
+    private String where = "";
+    private List<Object> whereParams = Collections.emptyList();
+    private String flagYes = "Yes";
+    private String flagNo = "No";
+    private Component busyOwner;
+
+    private int rowCount = 0;
+    // Sort key values of the last row of every page read so far; only touched on the EDT
+    private final TreeMap<Integer, long[]> pageEnds = new TreeMap<>();
+    private int generation = 0;
+    private final Set<Integer> loadingPages = new HashSet<>();
+    // Pages whose last load failed, with the time (ms) they may be asked for again
+    private final Map<Integer, Long> failedPages = new HashMap<>();
+    private final Map<Integer, Page> pages;
+    private final Map<Long, Object[]> pendingEdits = new LinkedHashMap<>();
+    private Consumer<Integer> onRefreshed;
+
+    public PagedTableModel(Database db, String from, List<Column> columns, List<SortKey> keys, int pageSize, int maxPages) {
+        this.db = db;
+        this.from = from;
+        this.columns = new ArrayList<>(columns);
+        this.keys = new ArrayList<>(keys);
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.editable = new boolean[columns.size()];
+        this.pages = new LinkedHashMap<Integer, Page>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Page> eldest) {
+                return size() > PagedTableModel.this.maxPages;
+            }
+        };
+    }
+
+    public PagedTableModel(Database db, String from, List<Column> columns, List<SortKey> keys) {
+        this(db, from, columns, keys, 200, 20);
+    }
+
+    /** Sets the WHERE condition (without the keyword) and its bound parameters; call {@link #refresh()} after. */
+    public void setFilter(String where, List<Object> params) {
+        this.where = where == null ? "" : where;
+        this.whereParams = params == null ? Collections.emptyList() : new ArrayList<>(params);
+    }
+
+    /** Replaces the sort keys (same rules as the constructor's); call {@link #refresh()} after. */
+    public void setSortKeys(List<SortKey> keys) {
+        this.keys = new ArrayList<>(keys);
+    }
+
+    public void setEditable(int column, boolean value) {
+        editable[column] = value;
+    }
+
+    /** Labels shown for FLAG columns, e.g. Yes/No in the current language. */
+    public void setFlagLabels(String yes, String no) {
+        flagYes = yes;
+        flagNo = no;
+        fireTableDataChanged();
+    }
+
+    public void setColumnLabels(String[] labels) {
+        for (int i = 0; i < labels.length && i < columns.size(); i++) {
+            columns.get(i).label = labels[i];
+        }
+        fireTableStructureChanged();
+    }
+
+    /** Component whose window shows the busy cursor while the row count is being refreshed. */
+    public void setBusyOwner(Component owner) {
+        this.busyOwner = owner;
+    }
+
+    /** Called on the EDT with the new row count after every refresh. */
+    public void setOnRefreshed(Consumer<Integer> onRefreshed) {
+        this.onRefreshed = onRefreshed;
+    }
+
+    /** Re-reads the row count for the current filter, dropping every cached page. */
+    public void refresh() {
+        int myGeneration = ++generation;
+        pages.clear();
+        pageEnds.clear();
+        loadingPages.clear();
+        failedPages.clear();
+        DataExecutor.getInstance().run(busyOwner, this::loadRowCount, total -> {
+            if (myGeneration != generation) {
+                return; // A newer refresh is on its way
+            }
+            rowCount = total;
+            fireTableDataChanged();
+            if (onRefreshed != null) {
+                onRefreshed.accept(rowCount);
+            }
+        });
+    }
+
+    // ------------------------------------------------------------------ TableModel
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns.get(column).label;
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        switch (columns.get(column).type) {
+            case INT: return Integer.class;
+            case DOUBLE: return Double.class;
+            case DATE: return java.sql.Date.class;
+            case TIMESTAMP: return Timestamp.class;
+            default: return String.class;
+        }
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return editable[column] && pageFor(row, false) != null;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Page page = pageFor(row, true);
+        if (page == null) {
+            return null;
+        }
+        int index = row % pageSize;
+        if (index >= page.size) {
+            return null; // Rows were deleted since the page boundaries were read
+        }
+        if (!pendingEdits.isEmpty()) {
+            Object[] edits = pendingEdits.get(page.rowKey(index));
+            if (edits != null && edits[column] != null) {
+                return edits[column];
+            }
+        }
+        return page.value(index, column);
+    }
+
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+        Page page = pageFor(row, false);
+        if (page == null || !editable[column]) {
+            return;
+        }
+        int index = row % pageSize;
+        if (index >= page.size) {
+            return;
+        }
+        pendingEdits.computeIfAbsent(page.rowKey(index), k -> new Object[columns.size()])[column] = value;
+        fireTableCellUpdated(row, column);
+    }
+
+    /** Edited cells by unique row key; each array holds the new value per column, or null when unchanged. */
+    public Map<Long, Object[]> getPendingEdits() {
+        return Collections.unmodifiableMap(pendingEdits);
+    }
+
+    public void clearPendingEdits() {
+        pendingEdits.clear();
+    }
+
+    /** SQL expression behind a column, e.g. for building an UPDATE from the pending edits. */
+    public String getColumnExpression(int column) {
+        return columns.get(column).expression;
+    }
+
+    /**
+     * Streams every row matching the current filter, in table order, to {@code visitor}.
+     * Runs on the calling thread; meant for exports from a background task.
+     */
+    public void scan(Consumer<Object[]> visitor) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(columns.get(i).expression);
+        }
+        sql.append(" FROM ").append(from).append(whereClause("")).append(" ORDER BY ").append(orderBy());
+        try (Connection conn = db.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            bind(stmt, 1, whereParams);
+            try (ResultSet rs = stmt.executeQuery()) {
+                Page row = new Page(columns, 0, 1);
+                while (rs.next()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    row.size = 0;
+                    row.readColumns(rs, 0);
+                    Object[] values = new Object[columns.size()];
+                    for (int c = 0; c < values.length; c++) {
+                        values[c] = row.value(0, c);
+                    }
+                    visitor.accept(values);
+                }
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------ Loading
+
+    private Page pageFor(int row, boolean loadIfMissing) {
+        int pageIndex = row / pageSize;
+        Page page = pages.get(pageIndex);
+        if (page == null && loadIfMissing) {
+            requestPage(pageIndex);
+        }
+        return page;
+    }
+
+    private void requestPage(int pageIndex) {
+        if ((long) pageIndex * pageSize >= rowCount) {
+            return;
+        }
+        Long retryAt = failedPages.get(pageIndex);
+        if (retryAt != null && System.currentTimeMillis() < retryAt) {
+            return; // Failed recently; the retry timer repaints it
+        }
+        if (!loadingPages.add(pageIndex)) {
+            return;
+        }
+        int myGeneration = generation;
+        // Seek past the nearest earlier page whose end is known; rows in between are skipped with OFFSET
+        Map.Entry<Integer, long[]> known = pageEnds.floorEntry(pageIndex - 1);
+        long[] after = known == null ? null : known.getValue();
+        int offset = (pageIndex - (known == null ? 0 : known.getKey() + 1)) * pageSize;
+        DataExecutor.getInstance().run(null, () -> loadPage(after, offset), page -> {
+            if (myGeneration != generation) {
+                return;
+            }
+            loadingPages.remove(pageIndex);
+            failedPages.remove(pageIndex);
+            pages.put(pageIndex, page);
+            if (page.size > 0) {
+                pageEnds.put(pageIndex, page.lastKey);
+            }
+            int first = pageIndex * pageSize;
+            int last = Math.min(rowCount, first + pageSize) - 1;
+            if (last >= first) {
+                fireTableRowsUpdated(first, last);
+            }
+        }, error -> {
+            if (myGeneration != generation) {
+                return;
+            }
+            loadingPages.remove(pageIndex);
+            if (failedPages.put(pageIndex, System.currentTimeMillis() + RETRY_DELAY_MS) == null) {
+                error.printStackTrace(); // Once per outage, not once per retry
+            }
+            // Repaint the page's rows after the delay, which asks for the page again if it is still visible
+            javax.swing.Timer retry = new javax.swing.Timer(RETRY_DELAY_MS, e -> {
+                int first = pageIndex * pageSize;
+                int last = Math.min(rowCount, first + pageSize) - 1;
+                if (myGeneration == generation && last >= first) {
+                    fireTableRowsUpdated(first, last);
+                }
+            });
+            retry.setRepeats(false);
+            retry.start();
+        });
+    }
+
+    private int loadRowCount() throws SQLException {
+        try (Connection conn = db.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM " + from + whereClause(""))) {
+            bind(stmt, 1, whereParams);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    // The page that follows the row keyed {@code after} (the first page when null), skipping {@code offset} rows
+    private Page loadPage(long[] after, int offset) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (Column column : columns) {
+            sql.append(column.expression).append(", ");
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            sql.append(keys.get(i).expression).append(i == keys.size() - 1 ? "" : ", ");
+        }
+        List<Object> seekParams = new ArrayList<>();
+        String seek = after == null ? "" : seekCondition(0, after, seekParams);
+        sql.append(" FROM ").append(from).append(whereClause(seek))
+           .append(" ORDER BY ").append(orderBy()).append(" LIMIT ?, ?");
+
+        Page page = new Page(columns, keys.size(), pageSize);
+        try (Connection conn = db.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int index = bind(stmt, 1, whereParams);
+            index = bind(stmt, index, seekParams);
+            stmt.setInt(index++, offset);
+            stmt.setInt(index, pageSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next() && page.size < pageSize) {
+                    page.read(rs);
+                }
+            }
+        }
+        return page;
+    }
+
+    // Expands "row > after" in sort order, e.g. (a DESC, b ASC): a < ? OR (a = ? AND b > ?)
+    private String seekCondition(int keyIndex, long[] after, List<Object> params) {
+        SortKey key = keys.get(keyIndex);
+        if (keyIndex == keys.size() - 1) {
+            params.add(after[keyIndex]);
+            return key.expression + (key.descending ? " < ?" : " > ?");
+        }
+        params.add(after[keyIndex]);
+        params.add(after[keyIndex]);
+        String rest = seekCondition(keyIndex + 1, after, params);
+        return "(" + key.expression + (key.descending ? " < ?" : " > ?") + " OR (" + key.expression + " = ? AND " + rest + "))";
+    }
+
+    private String whereClause(String extra) {
+        boolean hasWhere = !where.trim().isEmpty();
+        boolean hasExtra = !extra.isEmpty();
+        if (!hasWhere && !hasExtra) {
+            return "";
+        }
+        if (hasWhere && hasExtra) {
+            return " WHERE (" + where + ") AND " + extra;
+        }
+        return " WHERE " + (hasWhere ? where : extra);
+    }
+
+    private String orderBy() {
+        StringBuilder order = new StringBuilder();
+        for (int i = 0; i < keys.size(); i++) {
+            SortKey key = keys.get(i);
+            order.append(i == 0 ? "" : ", ").append(key.expression).append(key.descending ? " DESC" : " ASC");
+        }
+        return order.toString();
+    }
+
+    private static int bind(PreparedStatement stmt, int index, List<Object> params) throws SQLException {
+        for (Object param : params) {
+            stmt.setObject(index++, param);
+        }
+        return index;
+    }
+
+    /** One page of rows, stored column by column in primitive arrays. */
+    private final class Page {
+        final Type[] types;
+        final Object[] data; // int[], double[], long[] (dates and timestamps), boolean[] or String[] per column
+        final BitSet[] nulls;
+        final long[] rowKeys; // Value of the unique (last) sort key per row
+        final long[] lastKey; // Every sort key value of the last row read
+        final int keyCount;
+        int size = 0;
+
+        Page(List<Column> columns, int keyCount, int capacity) {
+            this.keyCount = keyCount;
+            types = new Type[columns.size()];
+            data = new Object[columns.size()];
+            nulls = new BitSet[columns.size()];
+            rowKeys = new long[capacity];
+            lastKey = new long[keyCount];
+            for (int c = 0; c < types.length; c++) {
+                types[c] = columns.get(c).type;
+                nulls[c] = new BitSet(capacity);
+                switch (types[c]) {
+                    case INT: data[c] = new int[capacity]; break;
+                    case DOUBLE: data[c] = new double[capacity]; break;
+                    case DATE:
+                    case TIMESTAMP: data[c] = new long[capacity]; break;
+                    case FLAG: data[c] = new boolean[capacity]; break;
+                    default: data[c] = new String[capacity]; break;
+                }
+            }
+        }
+
+        void read(ResultSet rs) throws SQLException {
+            readColumns(rs, size);
+            for (int i = 0; i < keyCount; i++) {
+                lastKey[i] = rs.getLong(types.length + 1 + i);
+            }
+            rowKeys[size] = lastKey[keyCount - 1];
+            size++;
+        }
+
+        void readColumns(ResultSet rs, int row) throws SQLException {
+            nullsClear(row);
+            for (int c = 0; c < types.length; c++) {
+                int col = c + 1;
+                switch (types[c]) {
+                    case INT:
+                        ((int[]) data[c])[row] = rs.getInt(col);
+                        break;
+                    case DOUBLE:
+                        ((double[]) data[c])[row] = rs.getDouble(col);
+                        break;
+                    case DATE:
+                        java.sql.Date date = rs.getDate(col);
+                        ((long[]) data[c])[row] = date == null ? 0 : date.getTime();
+                        break;
+                    case TIMESTAMP:
+                        Timestamp ts = rs.getTimestamp(col);
+                        ((long[]) data[c])[row] = ts == null ? 0 : ts.getTime();
+                        break;
+                    case FLAG:
+                        ((boolean[]) data[c])[row] = rs.getBoolean(col);
+                        break;
+                    default:
+                        ((String[]) data[c])[row] = rs.getString(col);
+                        break;
+                }
+                if (rs.wasNull()) {
+                    nulls[c].set(row);
+                }
+            }
+        }
+
+        private void nullsClear(int row) {
+            for (BitSet bits : nulls) {
+                bits.clear(row);
+            }
+        }
+
+        long rowKey(int row) {
+            return rowKeys[row];
+        }
+
+        Object value(int row, int c) {
+            if (nulls[c].get(row)) {
+                return null;
+            }
+            switch (types[c]) {
+                case INT: return ((int[]) data[c])[row];
+                case DOUBLE: return ((double[]) data[c])[row];
+                case DATE: return new java.sql.Date(((long[]) data[c])[row]);
+                case TIMESTAMP: return new Timestamp(((long[]) data[c])[row]);
+                case FLAG: return ((boolean[]) data[c])[row] ? flagYes : flagNo;
+                default: return ((String[]) data[c])[row];
+            }
+        }
+    }
+}
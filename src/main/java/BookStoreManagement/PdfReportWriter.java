@@ -0,0 +1,78 @@
+package BookStoreManagement;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import java.io.File;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Writes a report as a PDF table using iText's large-table mode: the table is added
+ * to the document up front and rendered and released every few hundred rows, so
+ * memory does not grow with the report.
+ */
+public class PdfReportWriter implements ReportWriter {
+    private static final int FLUSH_EVERY = 500;
+
+    private final File file;
+    private PdfDocument pdf;
+    private Document document;
+    private Table table;
+    private int columnCount;
+    private long rows;
+
+    public PdfReportWriter(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public void begin(String title, ResultSetMetaData meta) throws IOException, SQLException {
+        pdf = new PdfDocument(new PdfWriter(file));
+        document = new Document(pdf);
+        document.add(new Paragraph("Report: " + title).setBold());
+
+        columnCount = meta.getColumnCount();
+        table = new Table(columnCount, true);
+        for (int i = 1; i <= columnCount; i++) {
+            table.addHeaderCell(new Cell().add(new Paragraph(meta.getColumnLabel(i))));
+        }
+        document.add(table);
+    }
+
+    @Override
+    public void writeRow(ResultSet rs) throws SQLException {
+        for (int i = 1; i <= columnCount; i++) {
+            String value = rs.getString(i);
+            table.addCell(new Cell().add(new Paragraph(value != null ? value : "N/A")));
+        }
+        if (++rows % FLUSH_EVERY == 0) {
+            table.flush();
+        }
+    }
+
+    @Override
+    public void finish() {
+        table.complete();
+        document.close();
+    }
+
+    @Override
+    public void abort() {
+        try {
+            if (document != null) {
+                document.close();
+            }
+        } catch (RuntimeException e) {
+            // Closing an unfinished document may fail; the file is deleted either way
+        }
+        if (!file.delete() && file.exists()) {
+            file.deleteOnExit();
+        }
+    }
+}
@@ -1,11 +1,10 @@
 package BookStoreManagement;
 
 import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.*;
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.Date;
 
 public class ProfitLossPanel extends JPanel implements LanguageChangeListener {
@@ -14,8 +13,14 @@ public class ProfitLossPanel extends JPanel implements LanguageChangeListener {
     private JLabel salesLabel, purchasesLabel, expensesLabel, netProfitLabel;
     private JComboBox<String> timeFilter;
     private JSpinner fromDateSpinner, toDateSpinner;
-    private JButton calculateButton;
+    private JButton calculateButton, rebuildButton;
     private String currentLanguage = "English";
+    private final ProfitLossService profitLossService;
+    private JTable dailyTable;
+    private DefaultTableModel dailyModel;
+
+    private static final String[] ENGLISH_DAY_COLUMNS = {"Date", "Sales", "Purchases", "Expenses", "Net"};
+    private static final String[] URDU_DAY_COLUMNS = {"تاریخ", "فروخت", "خریداری", "اخراجات", "خالص"};
     
     // Fonts
     private static final Font ENGLISH_FONT = new Font("Arial", Font.PLAIN, 14);
@@ -23,6 +28,7 @@ public class ProfitLossPanel extends JPanel implements LanguageChangeListener {
 
     public ProfitLossPanel(Database db) {
         this.db = db;
+        this.profitLossService = new ProfitLossService(db);
         setLayout(new GridBagLayout());
         GridBagConstraints gbc = new GridBagConstraints();
         gbc.insets = new Insets(5, 5, 5, 5);
@@ -71,6 +77,12 @@ public class ProfitLossPanel extends JPanel implements LanguageChangeListener {
         calculateButton.addActionListener(e -> calculateProfitLoss());
         add(calculateButton, gbc);
 
+        // Rebuild Button: recomputes the daily rollup from the ledgers
+        gbc.gridy++;
+        rebuildButton = new JButton("Rebuild Daily Totals");
+        rebuildButton.addActionListener(e -> rebuildRollup());
+        add(rebuildButton, gbc);
+
         gbc.gridwidth = 1; // Reset grid width
 
         // Results Labels
@@ -79,6 +91,28 @@ public class ProfitLossPanel extends JPanel implements LanguageChangeListener {
         addResultLabel(gbc, "Total Expenses:", "PKR 0.00", ++gbc.gridy, expensesLabel = new JLabel());
         addResultLabel(gbc, "Net Profit/Loss:", "PKR 0.00", ++gbc.gridy, netProfitLabel = new JLabel());
 
+        // Per-day breakdown of the selected range
+        dailyModel = new DefaultTableModel(ENGLISH_DAY_COLUMNS, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        dailyTable = new JTable(dailyModel);
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.gridwidth = 2;
+        gbc.weightx = 1;
+        gbc.weighty = 1;
+        gbc.fill = GridBagConstraints.BOTH;
+        JScrollPane dailyScroll = new JScrollPane(dailyTable);
+        dailyScroll.setPreferredSize(new Dimension(450, 200));
+        add(dailyScroll, gbc);
+        gbc.gridwidth = 1;
+        gbc.weightx = 0;
+        gbc.weighty = 0;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+
         updateDateRange(); // Set initial date range
         applyLanguage(); // Initialize language
     }
@@ -108,6 +142,7 @@ public class ProfitLossPanel extends JPanel implements LanguageChangeListener {
             fromDateLabel.setText("تاریخ سے:");
             toDateLabel.setText("تاریخ تک:");
             calculateButton.setText("منافع/نقصان کا حساب لگائیں");
+            rebuildButton.setText("روزانہ ٹوٹل دوبارہ بنائیں");
             
             // Update combo box items
             timeFilter.removeAllItems();
@@ -117,6 +152,7 @@ public class ProfitLossPanel extends JPanel implements LanguageChangeListener {
             
             // Update result labels
             updateResultLabels("کل فروخت:", "کل خریداری:", "کل اخراجات:", "خالص منافع/نقصان:");
+            dailyModel.setColumnIdentifiers(URDU_DAY_COLUMNS);
             
             applyUrduFontAndLayout();
         } else {
@@ -125,6 +161,7 @@ public class ProfitLossPanel extends JPanel implements LanguageChangeListener {
             fromDateLabel.setText("From Date:");
             toDateLabel.setText("To Date:");
             calculateButton.setText("Calculate Profit/Loss");
+            rebuildButton.setText("Rebuild Daily Totals");
             
             // Update combo box items
             timeFilter.removeAllItems();
@@ -134,6 +171,7 @@ public class ProfitLossPanel extends JPanel implements LanguageChangeListener {
             
             // Update result labels
             updateResultLabels("Total Sales:", "Total Purchases:", "Total Expenses:", "Net Profit/Loss:");
+            dailyModel.setColumnIdentifiers(ENGLISH_DAY_COLUMNS);
             
             applyEnglishFontAndLayout();
         }
@@ -172,6 +210,8 @@ public class ProfitLossPanel extends JPanel implements LanguageChangeListener {
         fromDateLabel.setFont(urduFont);
         toDateLabel.setFont(urduFont);
         calculateButton.setFont(urduFont);
+        rebuildButton.setFont(urduFont);
+        dailyTable.getTableHeader().setFont(urduFont);
         
         Component[] components = getComponents();
         for (Component comp : components) {
@@ -188,6 +228,8 @@ public class ProfitLossPanel extends JPanel implements LanguageChangeListener {
         fromDateLabel.setFont(ENGLISH_FONT);
         toDateLabel.setFont(ENGLISH_FONT);
         calculateButton.setFont(ENGLISH_FONT);
+        rebuildButton.setFont(ENGLISH_FONT);
+        dailyTable.getTableHeader().setFont(ENGLISH_FONT);
         
         Component[] components = getComponents();
         for (Component comp : components) {
@@ -225,49 +267,56 @@ public class ProfitLossPanel extends JPanel implements LanguageChangeListener {
         toDateSpinner.setValue(Date.from(to.atStartOfDay(ZoneId.systemDefault()).toInstant()));
     }
 
+    // Reads the daily rollup (or all three ledgers in parallel while it is not ready) off the EDT
     private void calculateProfitLoss() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
         Date fromDateUtil = (Date) fromDateSpinner.getValue();
         Date toDateUtil = (Date) toDateSpinner.getValue();
         LocalDate fromDate = fromDateUtil.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
         LocalDate toDate = toDateUtil.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
 
-        try (Connection conn = db.getConnection()) {
-            double totalSales = getTotal(conn, "sales", "total_price", "sale_date", fromDate, toDate, formatter);
-            double totalPurchases = getTotal(conn, "purchases", "total_price", "purchase_date", fromDate, toDate, formatter);
-            double totalExpenses = getTotal(conn, "expenses", "amount", "expense_date", fromDate, toDate, formatter);
-
-            double netProfit = totalSales - totalPurchases - totalExpenses;
+        calculateButton.setEnabled(false);
+        DataExecutor.getInstance().run(this, () -> profitLossService.compute(fromDate, toDate), result -> {
+            calculateButton.setEnabled(true);
+            salesLabel.setText(String.format("PKR %.2f", result.sales));
+            purchasesLabel.setText(String.format("PKR %.2f", result.purchases));
+            expensesLabel.setText(String.format("PKR %.2f", result.expenses));
+            netProfitLabel.setText(String.format("PKR %.2f", result.net()));
 
-            salesLabel.setText(String.format("PKR %.2f", totalSales));
-            purchasesLabel.setText(String.format("PKR %.2f", totalPurchases));
-            expensesLabel.setText(String.format("PKR %.2f", totalExpenses));
-            netProfitLabel.setText(String.format("PKR %.2f", netProfit));
-        } catch (SQLException ex) {
+            dailyModel.setRowCount(0);
+            for (ProfitLossService.Day day : result.days) {
+                dailyModel.addRow(new Object[]{
+                    day.date,
+                    String.format("%.2f", day.sales),
+                    String.format("%.2f", day.purchases),
+                    String.format("%.2f", day.expenses),
+                    String.format("%.2f", day.net())
+                });
+            }
+        }, ex -> {
+            calculateButton.setEnabled(true);
             ex.printStackTrace();
             showErrorMessage(
                 currentLanguage.equalsIgnoreCase("Urdu") 
                     ? "منافع/نقصان کا حساب لگانے میں خرابی!" 
                     : "Error calculating profit/loss!"
             );
-        }
+        });
     }
 
-    private double getTotal(Connection conn, String tableName, String column, String dateColumn, 
-                          LocalDate fromDate, LocalDate toDate, DateTimeFormatter formatter) throws SQLException {
-        double total = 0;
-        String query = "SELECT SUM(" + column + ") FROM " + tableName + 
-                      " WHERE " + dateColumn + " BETWEEN ? AND ? AND reversed = FALSE";
-
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setString(1, fromDate.format(formatter));
-            stmt.setString(2, toDate.format(formatter));
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next() && rs.getObject(1) != null) {
-                total = rs.getDouble(1);
-            }
-        }
-        return total;
+    private void rebuildRollup() {
+        boolean urdu = currentLanguage.equalsIgnoreCase("Urdu");
+        rebuildButton.setEnabled(false);
+        DataExecutor.getInstance().run(this, () -> DailyRollup.rebuild(db), rows -> {
+            rebuildButton.setEnabled(true);
+            JOptionPane.showMessageDialog(this,
+                urdu ? "روزانہ ٹوٹل دوبارہ بن گئے۔" : "Daily totals rebuilt (" + rows + " rows).",
+                urdu ? "کامیابی" : "Success", JOptionPane.INFORMATION_MESSAGE);
+            calculateProfitLoss();
+        }, ex -> {
+            rebuildButton.setEnabled(true);
+            ex.printStackTrace();
+            showErrorMessage(urdu ? "روزانہ ٹوٹل بنانے میں خرابی!" : "Error rebuilding daily totals: " + ex.getMessage());
+        });
     }
 
     private void showErrorMessage(String message) {
@@ -0,0 +1,192 @@
+package BookStoreManagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Computes profit/loss for a range of whole days, with a per-day breakdown.
+ *
+ * When the daily_pnl rollup is available it is a single small query. Otherwise the
+ * sales, purchases and expenses aggregates run at the same time on separate pooled
+ * connections, so the answer takes as long as the slowest ledger rather than the sum
+ * of all three. They get their own three threads rather than the shared
+ * {@link DataExecutor}: the caller is usually already one of its workers, and
+ * waiting there on tasks queued behind it would serialize them or, with several
+ * callers, deadlock the pool. Dates are compared as {@code col >= start AND col < next day} so the
+ * date indexes can be used.
+ */
+public class ProfitLossService {
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    // One thread per ledger; the aggregates never wait on anything, so callers can only queue here
+    private static final ExecutorService LEDGER_QUERIES = Executors.newFixedThreadPool(3, r -> {
+        Thread t = new Thread(r, "pnl-ledger-" + THREAD_COUNT.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Database db;
+
+    public ProfitLossService(Database db) {
+        this.db = db;
+    }
+
+    /** Totals for one day. */
+    public static class Day {
+        public final LocalDate date;
+        public double sales;
+        public double purchases;
+        public double expenses;
+
+        Day(LocalDate date) {
+            this.date = date;
+        }
+
+        public double net() {
+            return sales - purchases - expenses;
+        }
+    }
+
+    /** Totals for the whole range plus one {@link Day} per day that had activity, oldest first. */
+    public static class Result {
+        public final LocalDate from;
+        public final LocalDate to;
+        public final double sales;
+        public final double purchases;
+        public final double expenses;
+        public final List<Day> days;
+        public final boolean fromRollup;
+
+        Result(LocalDate from, LocalDate to, List<Day> days, boolean fromRollup) {
+            this.from = from;
+            this.to = to;
+            this.days = Collections.unmodifiableList(days);
+            this.fromRollup = fromRollup;
+            double s = 0, p = 0, e = 0;
+            for (Day day : days) {
+                s += day.sales;
+                p += day.purchases;
+                e += day.expenses;
+            }
+            this.sales = s;
+            this.purchases = p;
+            this.expenses = e;
+        }
+
+        public double net() {
+            return sales - purchases - expenses;
+        }
+    }
+
+    /** Uses the rollup when it is ready, else the ledgers. Blocks; call off the EDT. */
+    public Result compute(LocalDate from, LocalDate to) throws SQLException {
+        return DailyRollup.isReady() ? fromRollup(from, to) : fromLedgers(from, to);
+    }
+
+    public Result fromRollup(LocalDate from, LocalDate to) throws SQLException {
+        TreeMap<LocalDate, Day> days = new TreeMap<>();
+        String query = "SELECT day, ledger, SUM(amount) FROM daily_pnl WHERE day >= ? AND day <= ? GROUP BY day, ledger";
+        try (Connection conn = db.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setDate(1, java.sql.Date.valueOf(from));
+            stmt.setDate(2, java.sql.Date.valueOf(to));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Day day = days.computeIfAbsent(rs.getDate(1).toLocalDate(), Day::new);
+                    add(day, rs.getString(2), rs.getDouble(3));
+                }
+            }
+        }
+        return new Result(from, to, new ArrayList<>(days.values()), true);
+    }
+
+    /** Reads the three ledgers concurrently. */
+    public Result fromLedgers(LocalDate from, LocalDate to) throws SQLException {
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(to.plusDays(1).atStartOfDay());
+        CompletableFuture<List<Object[]>> sales = perDayAsync("sales", "total_price", "sale_date", start, end);
+        CompletableFuture<List<Object[]>> purchases = perDayAsync("purchases", "total_price", "purchase_date", start, end);
+        CompletableFuture<List<Object[]>> expenses = perDayAsync("expenses", "amount", "expense_date", start, end);
+
+        TreeMap<LocalDate, Day> days = new TreeMap<>();
+        try {
+            merge(days, sales.join(), DailyRollup.SALE);
+            merge(days, purchases.join(), DailyRollup.PURCHASE);
+            merge(days, expenses.join(), DailyRollup.EXPENSE);
+        } catch (CompletionException e) {
+            sales.cancel(true);
+            purchases.cancel(true);
+            expenses.cancel(true);
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw e;
+        }
+        return new Result(from, to, new ArrayList<>(days.values()), false);
+    }
+
+    private CompletableFuture<List<Object[]>> perDayAsync(String table, String column, String dateColumn,
+                                                         Timestamp start, Timestamp end) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return perDay(table, column, dateColumn, start, end);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, LEDGER_QUERIES);
+    }
+
+    // One ledger's non-reversed totals per day, each row {LocalDate, Double}
+    private List<Object[]> perDay(String table, String column, String dateColumn, Timestamp start, Timestamp end)
+            throws SQLException {
+        String query = "SELECT DATE(" + dateColumn + "), SUM(" + column + ") FROM " + table +
+                       " WHERE " + dateColumn + " >= ? AND " + dateColumn + " < ? AND reversed = FALSE" +
+                       " GROUP BY DATE(" + dateColumn + ")";
+        List<Object[]> rows = new ArrayList<>();
+        try (Connection conn = db.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setTimestamp(1, start);
+            stmt.setTimestamp(2, end);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new Object[]{rs.getDate(1).toLocalDate(), rs.getDouble(2)});
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static void merge(TreeMap<LocalDate, Day> days, List<Object[]> rows, String ledger) {
+        for (Object[] row : rows) {
+            add(days.computeIfAbsent((LocalDate) row[0], Day::new), ledger, (Double) row[1]);
+        }
+    }
+
+    private static void add(Day day, String ledger, double amount) {
+        switch (ledger) {
+            case DailyRollup.SALE:
+                day.sales += amount;
+                break;
+            case DailyRollup.PURCHASE:
+                day.purchases += amount;
+                break;
+            case DailyRollup.EXPENSE:
+                day.expenses += amount;
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -9,8 +9,11 @@ import java.sql.*;
 import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
@@ -143,116 +146,53 @@ public class PurchaseInvoiceDialog extends JDialog {
     }
 
     private void recordPurchase() {
-        try (Connection conn = db.getConnection()) {
-            int supplierId = getSupplierId(conn, supplierName, supplierPhone);
-            if (supplierId == -1) {
-                supplierId = insertSupplier(conn, supplierName, supplierPhone);
-                if (supplierId == -1) {
-                    JOptionPane.showMessageDialog(this, "Error creating supplier!", "Error", JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
-            }
-
-            for (Object[] item : cart) {
-                String itemName = (String) item[0];
-                String barcode = (String) item[1];
-                int quantity = (int) item[2];
-                double pricePerUnit = (double) item[3];
-                double totalPrice = (double) item[4];
-                String condition = (String) item[5];
-
-                int itemId = updateOrInsertInventory(conn, itemName, barcode, quantity, pricePerUnit, condition);
-
-                String purchasesQuery = "INSERT INTO purchases (supplier_id, supplier_name, supplier_phone, total_price, " +
-                        "item_name, quantity, purchase_price, item_condition, payment_type, item_id, barcode) " +
-                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-                try (PreparedStatement pstmt = conn.prepareStatement(purchasesQuery)) {
-                    pstmt.setInt(1, supplierId);
-                    pstmt.setString(2, supplierName);
-                    pstmt.setString(3, supplierPhone);
-                    pstmt.setDouble(4, totalPrice);
-                    pstmt.setString(5, itemName);
-                    pstmt.setInt(6, quantity);
-                    pstmt.setDouble(7, pricePerUnit);
-                    pstmt.setString(8, condition);
-                    pstmt.setString(9, paymentType);
-                    pstmt.setInt(10, itemId);
-                    pstmt.setString(11, barcode);
-                    pstmt.executeUpdate();
+        List<PurchaseTransaction.Line> lines = new ArrayList<>();
+        for (Object[] item : cart) {
+            lines.add(PurchaseTransaction.Line.fromCartRow(item));
+        }
+        PurchaseTransaction purchase = new PurchaseTransaction(db);
+        setRecording(true);
+        DataExecutor.getInstance().run(this, () -> purchase.findNewItems(lines), newLines -> {
+            // Ask for every new item's details up front, so no dialog is open while the transaction runs
+            Map<String, PurchaseTransaction.NewItem> newItems = new HashMap<>();
+            for (PurchaseTransaction.Line line : newLines) {
+                PurchaseTransaction.NewItem info = showNewItemDialog(line.getItemName());
+                if (info == null) {
+                    setRecording(false);
+                    return; // Cancelled: nothing has been written
                 }
+                newItems.put(PurchaseTransaction.key(line), info);
             }
-            JOptionPane.showMessageDialog(this, "Purchase recorded successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            dispose();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error recording purchase!", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+            DataExecutor.getInstance().run(this,
+                () -> purchase.commit(lines, supplierName, supplierPhone, paymentType, newItems),
+                result -> {
+                    for (PurchaseTransaction.NewItem info : newItems.values()) {
+                        ReferenceDataCache.getInstance().noteCompany(info.getCompany());
+                    }
+                    CatalogCache.getInstance().refreshNow();
+                    JOptionPane.showMessageDialog(this,
+                        String.format("Purchase recorded successfully! (%d items in %d ms)",
+                                result.lineCount, result.elapsedNanos / 1_000_000),
+                        "Success", JOptionPane.INFORMATION_MESSAGE);
+                    dispose();
+                },
+                this::showRecordError);
+        }, this::showRecordError);
     }
 
-    private int getSupplierId(Connection conn, String supplierName, String supplierPhone) throws SQLException {
-        String query = "SELECT supplier_id FROM suppliers WHERE supplier_name = ? AND phone = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-            pstmt.setString(1, supplierName);
-            pstmt.setString(2, supplierPhone);
-            ResultSet rs = pstmt.executeQuery();
-            return rs.next() ? rs.getInt("supplier_id") : -1;
-        }
+    // Record and Close stay disabled while the purchase is on its way, so it is never recorded twice
+    private void setRecording(boolean recording) {
+        recordPurchaseButton.setEnabled(!recording);
+        closeButton.setEnabled(!recording);
     }
 
-    private int insertSupplier(Connection conn, String supplierName, String supplierPhone) throws SQLException {
-        String insertQuery = "INSERT INTO suppliers (supplier_name, phone) VALUES (?, ?)";
-        try (PreparedStatement pstmt = conn.prepareStatement(insertQuery, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, supplierName);
-            pstmt.setString(2, supplierPhone);
-            pstmt.executeUpdate();
-            ResultSet keys = pstmt.getGeneratedKeys();
-            return keys.next() ? keys.getInt(1) : -1;
-        }
+    private void showRecordError(Throwable error) {
+        setRecording(false);
+        error.printStackTrace();
+        JOptionPane.showMessageDialog(this, "Error recording purchase: " + error.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
     }
 
-    private int updateOrInsertInventory(Connection conn, String itemName, String barcode, int quantity,
-                                        double purchasePrice, String condition) throws SQLException {
-        String checkQuery = "SELECT item_id, stock FROM inventory WHERE item_name = ? AND item_condition = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(checkQuery)) {
-            pstmt.setString(1, itemName);
-            pstmt.setString(2, condition);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                int existingStock = rs.getInt("stock");
-                int newStock = existingStock + quantity;
-                String updateQuery = "UPDATE inventory SET stock = ?, purchase_price = ? WHERE item_id = ?";
-                try (PreparedStatement updatePstmt = conn.prepareStatement(updateQuery)) {
-                    updatePstmt.setInt(1, newStock);
-                    updatePstmt.setDouble(2, purchasePrice);
-                    updatePstmt.setInt(3, rs.getInt("item_id"));
-                    updatePstmt.executeUpdate();
-                }
-                return rs.getInt("item_id");
-            } else {
-                NewItemInfo info = showNewItemDialog(itemName);
-                if (info == null) {
-                    return -1;
-                }
-                String insertQuery = "INSERT INTO inventory (item_name, barcode, stock, purchase_price, item_condition, category, subcategory, company) " +
-                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-                try (PreparedStatement insertPstmt = conn.prepareStatement(insertQuery, Statement.RETURN_GENERATED_KEYS)) {
-                    insertPstmt.setString(1, itemName);
-                    insertPstmt.setString(2, barcode);
-                    insertPstmt.setInt(3, quantity);
-                    insertPstmt.setDouble(4, purchasePrice);
-                    insertPstmt.setString(5, condition);
-                    insertPstmt.setString(6, info.getCategory());
-                    insertPstmt.setString(7, info.getSubcategory());
-                    insertPstmt.setString(8, info.getCompany());
-                    insertPstmt.executeUpdate();
-                    ResultSet keys = insertPstmt.getGeneratedKeys();
-                    return keys.next() ? keys.getInt(1) : -1;
-                }
-            }
-        }
-    }
-
-    private NewItemInfo showNewItemDialog(String itemName) {
+    private PurchaseTransaction.NewItem showNewItemDialog(String itemName) {
         JTextField categoryField = new JTextField();
         JTextField subcategoryField = new JTextField();
         JTextField companyField = new JTextField();
@@ -273,28 +213,12 @@ public class PurchaseInvoiceDialog extends JDialog {
                 JOptionPane.showMessageDialog(this, "All fields are required for a new item!", "Error", JOptionPane.ERROR_MESSAGE);
                 return showNewItemDialog(itemName); // Re-prompt
             }
-            return new NewItemInfo(category, subcategory, company);
+            return new PurchaseTransaction.NewItem(category, subcategory, company);
         } else {
             return null;
         }
     }
 
-    // Inner class to hold additional new item details
-    private class NewItemInfo {
-        private String category;
-        private String subcategory;
-        private String company;
-
-        public NewItemInfo(String category, String subcategory, String company) {
-            this.category = category;
-            this.subcategory = subcategory;
-            this.company = company;
-        }
-        public String getCategory()   { return category; }
-        public String getSubcategory(){ return subcategory; }
-        public String getCompany()    { return company; }
-    }
-
     private void exportToPdf() {
         // Ask the user which language they prefer for the PDF.
         String[] options = {"English", "Urdu"};
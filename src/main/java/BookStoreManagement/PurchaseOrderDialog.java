@@ -4,7 +4,6 @@ import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.*;
-import java.io.InputStream;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,6 +20,8 @@ public class PurchaseOrderDialog extends JDialog {
     private Database db;
     private List<Object[]> cart;
     private long lastKeyPressTime = 0;
+    // Bumped per item lookup so only the answer to the latest keystroke fills the fields
+    private int lookupSequence = 0;
 
     // Panels for grouping components (for orientation)
     private JPanel inputPanel;
@@ -56,17 +57,15 @@ public class PurchaseOrderDialog extends JDialog {
             public void keyReleased(KeyEvent e) {
                 long currentTime = System.currentTimeMillis();
                 if (currentTime - lastKeyPressTime < SCANNER_THRESHOLD_MS && !barcodeField.getText().trim().isEmpty()) {
-                    fetchItemDetailsByBarcode();
-                    addItemToCart(true); // auto-add with quantity = 1
-                    clearFields();
+                    fetchItemDetailsByBarcode(() -> {
+                        addItemToCart(true); // auto-add with quantity = 1
+                        clearFields();
+                    });
                 }
                 lastKeyPressTime = currentTime;
             }
         });
-        barcodeField.addActionListener(e -> {
-            fetchItemDetailsByBarcode();
-            addItemToCart(false);
-        });
+        barcodeField.addActionListener(e -> fetchItemDetailsByBarcode(() -> addItemToCart(false)));
         inputPanel.add(barcodeField);
 
         // Row 3: Quantity
@@ -98,7 +97,7 @@ public class PurchaseOrderDialog extends JDialog {
             if (!itemNameField.getText().trim().isEmpty()) {
                 fetchItemDetailsByItemName();
             } else if (!barcodeField.getText().trim().isEmpty()) {
-                fetchItemDetailsByBarcode();
+                fetchItemDetailsByBarcode(null);
             }
         });
         inputPanel.add(conditionComboBox);
@@ -161,23 +160,6 @@ public class PurchaseOrderDialog extends JDialog {
         applyLanguage();
     }
 
-    // --------------------- Custom Font Loader ---------------------
-    private Font getCustomUrduFont() {
-        try {
-            // Ensure the font file is available in your resources at /fonts/JameelNooriNastaleeq.ttf
-            InputStream is = getClass().getResourceAsStream("/fonts/JameelNooriNastaleeq.ttf");
-            if (is == null) {
-                System.err.println("Custom Urdu font file not found!");
-                return new Font("Serif", Font.PLAIN, 16);
-            }
-            Font font = Font.createFont(Font.TRUETYPE_FONT, is);
-            return font.deriveFont(Font.PLAIN, 16);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return new Font("Serif", Font.PLAIN, 16);
-        }
-    }
-
     // --------------------- applyLanguage() ---------------------
     public void applyLanguage() {
         if (db.getLanguage().equalsIgnoreCase("Urdu")) {
@@ -207,7 +189,7 @@ public class PurchaseOrderDialog extends JDialog {
             pricePerUnitLabel.setText("یونٹ قیمت: 0.00");
 
             // Load custom Urdu font
-            Font urduFont = getCustomUrduFont();
+            Font urduFont = FontRegistry.urdu(Font.PLAIN, 16);
 
             // Apply custom font to text fields.
             itemNameField.setFont(urduFont);
@@ -239,7 +221,7 @@ public class PurchaseOrderDialog extends JDialog {
 
             pricePerUnitLabel.setText("Price per Unit: 0.00");
 
-            Font englishFont = new Font("Arial", Font.PLAIN, 16);
+            Font englishFont = FontRegistry.get(FontRegistry.ENGLISH_FAMILY, Font.PLAIN, 16);
             itemNameField.setFont(englishFont);
             barcodeField.setFont(englishFont);
             quantityField.setFont(englishFont);
@@ -252,62 +234,74 @@ public class PurchaseOrderDialog extends JDialog {
     }
 
     // --------------------- Fetch Item Details Methods ---------------------
+    // Lookups run on DataExecutor; the fields are filled on the EDT once the row arrives
+
+    /** The other identifying column (barcode or item name) and the purchase price of a matched row. */
+    private static final class ItemDetails {
+        final String other;
+        final double purchasePrice;
+
+        ItemDetails(String other, double purchasePrice) {
+            this.other = other;
+            this.purchasePrice = purchasePrice;
+        }
+    }
+
     private void fetchItemDetailsByItemName() {
         String itemName = itemNameField.getText().trim();
         String condition = (String) conditionComboBox.getSelectedItem();
         if (itemName.isEmpty()) return;
-        try (Connection conn = db.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(
-                     "SELECT barcode, purchase_price FROM inventory WHERE item_name = ? AND item_condition = ?")) {
-            stmt.setString(1, itemName);
-            stmt.setString(2, condition);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                barcodeField.setText(rs.getString("barcode"));
-                double purchasePrice = rs.getDouble("purchase_price");
-                if (quantityField.getText().trim().isEmpty()) {
-                    quantityField.setText("1");
-                }
-                int quantity = Integer.parseInt(quantityField.getText().trim());
-                totalPriceField.setText(String.format("%.2f", purchasePrice * quantity));
-                updatePricePerUnit();
-            } else {
-                barcodeField.setText("");
-                totalPriceField.setText("");
-            }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error fetching item details!", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        lookup("SELECT barcode, purchase_price FROM inventory WHERE item_name = ? AND item_condition = ?",
+                itemName, condition, barcodeField, null);
     }
 
-    private void fetchItemDetailsByBarcode() {
+    // then, if given, runs after the fields are filled (the scanner and Enter paths add to the cart)
+    private void fetchItemDetailsByBarcode(Runnable then) {
         String barcode = barcodeField.getText().trim();
         String condition = (String) conditionComboBox.getSelectedItem();
         if (barcode.isEmpty()) return;
-        try (Connection conn = db.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(
-                     "SELECT item_name, purchase_price FROM inventory WHERE barcode = ? AND item_condition = ?")) {
-            stmt.setString(1, barcode);
-            stmt.setString(2, condition);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                itemNameField.setText(rs.getString("item_name"));
-                double purchasePrice = rs.getDouble("purchase_price");
+        lookup("SELECT item_name, purchase_price FROM inventory WHERE barcode = ? AND item_condition = ?",
+                barcode, condition, itemNameField, then);
+    }
+
+    private void lookup(String query, String key, String condition, JTextField otherField, Runnable then) {
+        int sequence = ++lookupSequence;
+        DataExecutor.getInstance().run(this, () -> {
+            try (Connection conn = db.getConnection()) {
+                if (conn == null) {
+                    throw new SQLException("Database is not reachable.");
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                    stmt.setString(1, key);
+                    stmt.setString(2, condition);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        return rs.next() ? new ItemDetails(rs.getString(1), rs.getDouble("purchase_price")) : null;
+                    }
+                }
+            }
+        }, details -> {
+            if (sequence != lookupSequence) {
+                return; // The user kept typing; a newer lookup owns the fields
+            }
+            if (details != null) {
+                otherField.setText(details.other);
                 if (quantityField.getText().trim().isEmpty()) {
                     quantityField.setText("1");
                 }
                 int quantity = Integer.parseInt(quantityField.getText().trim());
-                totalPriceField.setText(String.format("%.2f", purchasePrice * quantity));
+                totalPriceField.setText(String.format("%.2f", details.purchasePrice * quantity));
                 updatePricePerUnit();
             } else {
-                itemNameField.setText("");
+                otherField.setText("");
                 totalPriceField.setText("");
             }
-        } catch (SQLException ex) {
+            if (then != null) {
+                then.run();
+            }
+        }, ex -> {
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Error fetching item details!", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     // --------------------- Price Per Unit ---------------------
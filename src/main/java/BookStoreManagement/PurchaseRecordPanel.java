@@ -1,17 +1,20 @@
 package BookStoreManagement;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.*;
-import java.util.Vector;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 public class PurchaseRecordPanel extends JPanel implements LanguageChangeListener {
 
     private Database db;
     private JTable purchasesTable;
-    private DefaultTableModel tableModel;
-    private JButton createPurchaseButton, reversePurchaseButton, refreshButton;
+    private PagedTableModel tableModel;
+    private JButton createPurchaseButton, importDeliveryButton, cancelImportButton, reversePurchaseButton, refreshButton;
+    private java.util.concurrent.CompletableFuture<?> pendingImport; // Delivery import still running
+    private Object importToken; // Identifies the import whose worker is still running
     private JScrollPane scrollPane;
     private JPanel topPanel;
     
@@ -22,16 +25,22 @@ public class PurchaseRecordPanel extends JPanel implements LanguageChangeListene
         this.db = db;
         setLayout(new BorderLayout());
         
-        // Initialize table model with default (English) column headers
-        tableModel = new DefaultTableModel(new String[]{
-            "Purchase ID", "Item Name", "Barcode", "Supplier ID", "Quantity", "Total Price", "Purchase Date", "Payment Type", "Reversed"
-        }, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // Read-only paged model with default (English) column headers, using only the purchases table
+        tableModel = new PagedTableModel(db, "purchases", Arrays.asList(
+            new PagedTableModel.Column("purchase_id", "Purchase ID", PagedTableModel.Type.INT),
+            new PagedTableModel.Column("item_name", "Item Name", PagedTableModel.Type.STRING),
+            new PagedTableModel.Column("barcode", "Barcode", PagedTableModel.Type.STRING),
+            new PagedTableModel.Column("supplier_id", "Supplier ID", PagedTableModel.Type.INT),
+            new PagedTableModel.Column("quantity", "Quantity", PagedTableModel.Type.INT),
+            new PagedTableModel.Column("total_price", "Total Price", PagedTableModel.Type.DOUBLE),
+            new PagedTableModel.Column("purchase_date", "Purchase Date", PagedTableModel.Type.DATE),
+            new PagedTableModel.Column("payment_type", "Payment Type", PagedTableModel.Type.STRING),
+            new PagedTableModel.Column("reversed", "Reversed", PagedTableModel.Type.FLAG)
+        ), Collections.singletonList(new PagedTableModel.SortKey("purchase_id", false)));
+        tableModel.setFilter("purchase_id >= 0", null);
+        tableModel.setBusyOwner(this);
         purchasesTable = new JTable(tableModel);
+        purchasesTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION); // Several purchases can be reversed at once
         // Set table header font
         purchasesTable.getTableHeader().setFont(new Font("Arial", Font.BOLD, 18));
         scrollPane = new JScrollPane(purchasesTable);
@@ -44,6 +53,15 @@ public class PurchaseRecordPanel extends JPanel implements LanguageChangeListene
         createPurchaseButton.addActionListener(e -> openPurchaseOrderDialog());
         topPanel.add(createPurchaseButton);
         
+        importDeliveryButton = new JButton("Import Delivery");
+        importDeliveryButton.addActionListener(e -> importDelivery());
+        topPanel.add(importDeliveryButton);
+
+        cancelImportButton = new JButton("Cancel Import");
+        cancelImportButton.setEnabled(false);
+        cancelImportButton.addActionListener(e -> cancelImport());
+        topPanel.add(cancelImportButton);
+        
         reversePurchaseButton = new JButton("Reverse Purchase");
         reversePurchaseButton.addActionListener(e -> reversePurchase());
         topPanel.add(reversePurchaseButton);
@@ -65,154 +83,179 @@ public class PurchaseRecordPanel extends JPanel implements LanguageChangeListene
     }
     
     public void loadPurchasesData() {
-        tableModel.setRowCount(0);
-        // Using only the purchases table
-        String query = "SELECT purchase_id, item_name, barcode, supplier_id, quantity, total_price, purchase_date, payment_type, reversed FROM purchases WHERE purchase_id >= 0";
-        try (Connection conn = db.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query);
-             ResultSet rs = pstmt.executeQuery()) {
-            
-            while (rs.next()) {
-                Vector<Object> rowData = new Vector<>();
-                rowData.add(rs.getInt("purchase_id"));
-                rowData.add(rs.getString("item_name"));
-                rowData.add(rs.getString("barcode"));
-                rowData.add(rs.getInt("supplier_id"));
-                rowData.add(rs.getInt("quantity"));
-                rowData.add(rs.getDouble("total_price"));
-                rowData.add(rs.getDate("purchase_date"));
-                rowData.add(rs.getString("payment_type"));
-                rowData.add(rs.getInt("reversed") == 1 
-                        ? (currentLanguage.equalsIgnoreCase("Urdu") ? "ہاں" : "Yes") 
-                        : (currentLanguage.equalsIgnoreCase("Urdu") ? "نہیں" : "No"));
-                tableModel.addRow(rowData);
-            }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, 
-                currentLanguage.equalsIgnoreCase("Urdu") ? "خریداری کا ڈیٹا لوڈ کرنے میں خرابی!" : "Error loading purchases data!", 
-                currentLanguage.equalsIgnoreCase("Urdu") ? "ڈیٹا بیس خرابی" : "Database Error", JOptionPane.ERROR_MESSAGE);
+        tableModel.refresh();
+    }
+    
+    // Records a whole supplier delivery file (CSV or fixed-width EDI) as purchases
+    private void importDelivery() {
+        boolean urdu = currentLanguage.equalsIgnoreCase("Urdu");
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle(urdu ? "ڈیلیوری فائل منتخب کریں" : "Select Delivery File");
+        chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("Delivery files (CSV, EDI)", "csv", "txt", "edi"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        java.io.File file = chooser.getSelectedFile();
+
+        JTextField supplierNameField = new JTextField();
+        JTextField supplierPhoneField = new JTextField();
+        JComboBox<String> paymentTypeComboBox = new JComboBox<>(new String[]{"Cash", "Account"});
+        Object[] message = {
+            urdu ? "سپلائر کا نام:" : "Supplier Name:", supplierNameField,
+            urdu ? "سپلائر فون:" : "Supplier Phone:", supplierPhoneField,
+            urdu ? "ادائیگی کی قسم:" : "Payment Type:", paymentTypeComboBox
+        };
+        if (JOptionPane.showConfirmDialog(this, message, urdu ? "سپلائر" : "Supplier",
+                JOptionPane.OK_CANCEL_OPTION) != JOptionPane.OK_OPTION) {
+            return;
+        }
+        String supplierName = supplierNameField.getText().trim();
+        String supplierPhone = supplierPhoneField.getText().trim();
+        String paymentType = (String) paymentTypeComboBox.getSelectedItem();
+        if (supplierName.isEmpty()) {
+            JOptionPane.showMessageDialog(this, urdu ? "سپلائر کا نام ضروری ہے!" : "Supplier name is required!",
+                urdu ? "خرابی" : "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        importDeliveryButton.setEnabled(false);
+        cancelImportButton.setEnabled(true);
+        DeliveryImporter importer = new DeliveryImporter(db);
+        Object job = new Object();
+        importToken = job;
+        pendingImport = DataExecutor.getInstance().run(this, () -> {
+                DeliveryImporter.Report report = null;
+                try {
+                    report = importer.importFile(file, DeliveryImporter.Format.forFile(file), supplierName,
+                            supplierPhone, paymentType);
+                    return report;
+                } finally {
+                    // Runs even when cancelled, once the importer has rolled back or committed
+                    DeliveryImporter.Report outcome = report;
+                    SwingUtilities.invokeLater(() -> importStopped(job, outcome));
+                }
+            },
+            report -> { }, // Handled in importStopped
+            error -> DataExecutor.showError(this, error));
+    }
+
+    // Interrupts the import; the whole delivery is rolled back at the next chunk
+    private void cancelImport() {
+        if (pendingImport != null) {
+            pendingImport.cancel(true);
+            cancelImportButton.setEnabled(false);
+        }
+    }
+
+    // Called on the EDT when the import's worker has returned; report is null unless it committed
+    private void importStopped(Object job, DeliveryImporter.Report report) {
+        if (job != importToken) {
+            return;
+        }
+        boolean cancelled = pendingImport != null && pendingImport.isCancelled();
+        importToken = null;
+        pendingImport = null;
+        importDeliveryButton.setEnabled(true);
+        cancelImportButton.setEnabled(false);
+        if (report != null) {
+            CatalogCache.getInstance().refreshNow();
+            ReferenceDataCache.getInstance().reloadAsync(); // New items may bring new companies
+            loadPurchasesData();
+            showImportReport(report);
+        } else if (cancelled) {
+            boolean urdu = currentLanguage.equalsIgnoreCase("Urdu");
+            JOptionPane.showMessageDialog(this,
+                urdu ? "درآمد منسوخ کر دی گئی۔ کوئی خریداری درج نہیں ہوئی۔" : "Import cancelled. No purchases were recorded.",
+                urdu ? "منسوخ" : "Cancelled", JOptionPane.INFORMATION_MESSAGE);
         }
     }
+
+    private void showImportReport(DeliveryImporter.Report report) {
+        boolean urdu = currentLanguage.equalsIgnoreCase("Urdu");
+        String summary = urdu
+            ? String.format("%d میں سے %d لائنیں درج ہو گئیں (%d نئے آئٹمز)، کل قیمت %.2f۔ %d لائنیں چھوڑ دی گئیں۔",
+                report.linesRead, report.imported, report.newItems, report.total, report.skipped)
+            : String.format("Imported %d of %d lines (%d new items), total %.2f, in %.1f s. Skipped %d lines.",
+                report.imported, report.linesRead, report.newItems, report.total,
+                report.elapsedNanos / 1_000_000_000.0, report.skipped);
+        if (report.skipped == 0) {
+            JOptionPane.showMessageDialog(this, summary, urdu ? "کامیابی" : "Success", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        JTextArea errors = new JTextArea(DeliveryImporter.describeErrors(report), 15, 60);
+        errors.setEditable(false);
+        JOptionPane.showMessageDialog(this, new Object[]{summary, new JScrollPane(errors)},
+            urdu ? "درآمد مکمل" : "Import Finished",
+            report.imported == 0 ? JOptionPane.ERROR_MESSAGE : JOptionPane.WARNING_MESSAGE);
+    }
     
     private void reversePurchase() {
-        int selectedRow = purchasesTable.getSelectedRow();
-        if (selectedRow == -1) {
+        boolean urdu = currentLanguage.equalsIgnoreCase("Urdu");
+        int[] selectedRows = purchasesTable.getSelectedRows();
+        if (selectedRows.length == 0) {
             JOptionPane.showMessageDialog(this, 
-                currentLanguage.equalsIgnoreCase("Urdu") ? "براہ کرم الٹ کرنے کے لیے خریداری منتخب کریں۔" : "Select a purchase to reverse/unreverse.", 
-                currentLanguage.equalsIgnoreCase("Urdu") ? "خرابی" : "Error", JOptionPane.ERROR_MESSAGE);
+                urdu ? "براہ کرم الٹ کرنے کے لیے خریداری منتخب کریں۔" : "Select a purchase to reverse/unreverse.", 
+                urdu ? "خرابی" : "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
         
-        int purchaseId = (int) tableModel.getValueAt(selectedRow, 0);
-        int quantity = (int) tableModel.getValueAt(selectedRow, 4);
-        double totalPrice = (double) tableModel.getValueAt(selectedRow, 5);
-        String reversedStatus = (String) tableModel.getValueAt(selectedRow, 8);
-        
-        // If already reversed, prompt to unreversed it
-        if (reversedStatus.equals(currentLanguage.equalsIgnoreCase("Urdu") ? "ہاں" : "Yes")) {
-            int confirm = JOptionPane.showConfirmDialog(this, 
-                currentLanguage.equalsIgnoreCase("Urdu") ? 
-                "یہ خریداری پہلے ہی ریورس ہو چکی ہے۔ کیا آپ اسے ان ریورس کرنا چاہتے ہیں؟" : 
-                "This purchase is already reversed. Do you want to unreversed it (undo the reversal)?", 
-                currentLanguage.equalsIgnoreCase("Urdu") ? "تصدیق کریں" : "Confirm Unreverse", JOptionPane.YES_NO_OPTION);
-            if (confirm == JOptionPane.YES_OPTION) {
-                try (Connection conn = db.getConnection()) {
-                    conn.setAutoCommit(false);
-                    
-                    // Mark purchase as not reversed
-                    try (PreparedStatement stmt = conn.prepareStatement("UPDATE purchases SET reversed = 0 WHERE purchase_id = ?")) {
-                        stmt.setInt(1, purchaseId);
-                        stmt.executeUpdate();
-                    }
-                    // Mark deals as not reversed
-                    try (PreparedStatement stmt = conn.prepareStatement("UPDATE deals SET reversed = 0 WHERE purchase_id = ?")) {
-                        stmt.setInt(1, purchaseId);
-                        stmt.executeUpdate();
-                    }
-                    // Revert inventory changes: add back deducted stock
-                    try (PreparedStatement stmt = conn.prepareStatement(
-                            "UPDATE inventory SET stock = stock + (SELECT quantity FROM purchases WHERE purchase_id = ?) " +
-                            "WHERE item_id = (SELECT item_id FROM purchases WHERE purchase_id = ?)")) {
-                        stmt.setInt(1, purchaseId);
-                        stmt.setInt(2, purchaseId);
-                        stmt.executeUpdate();
-                    }
-                    // Revert supplier credit if payment was on account
-                    try (PreparedStatement stmt = conn.prepareStatement(
-                            "UPDATE suppliers SET balance = balance + (SELECT total_price FROM purchases WHERE purchase_id = ?) " +
-                            "WHERE supplier_id = (SELECT supplier_id FROM purchases WHERE purchase_id = ?) " +
-                            "AND EXISTS (SELECT 1 FROM purchases WHERE purchase_id = ? AND payment_type = 'account')")) {
-                        stmt.setInt(1, purchaseId);
-                        stmt.setInt(2, purchaseId);
-                        stmt.setInt(3, purchaseId);
-                        stmt.executeUpdate();
-                    }
-                    conn.commit();
-                    JOptionPane.showMessageDialog(this, 
-                        currentLanguage.equalsIgnoreCase("Urdu") ? "خریداری کی الٹ کاری منسوخ کر دی گئی ہے!" : "Purchase unreversed successfully!", 
-                        currentLanguage.equalsIgnoreCase("Urdu") ? "کامیابی" : "Success", JOptionPane.INFORMATION_MESSAGE);
-                    loadPurchasesData();
-                } catch (SQLException ex) {
-                    ex.printStackTrace();
-                    JOptionPane.showMessageDialog(this, 
-                        currentLanguage.equalsIgnoreCase("Urdu") ? "خریداری ان ریورس کرنے میں خرابی!" : "Error unreversing purchase!", 
-                        currentLanguage.equalsIgnoreCase("Urdu") ? "ڈیٹا بیس خرابی" : "Database Error", JOptionPane.ERROR_MESSAGE);
-                }
+        // Reverse the selection unless every selected purchase is already reversed, in which case restore it
+        List<Integer> purchaseIds = new ArrayList<>();
+        boolean allReversed = true;
+        for (int row : selectedRows) {
+            int modelRow = purchasesTable.convertRowIndexToModel(row);
+            if (tableModel.getValueAt(modelRow, 0) == null) {
+                continue; // Row still loading
             }
+            purchaseIds.add((int) tableModel.getValueAt(modelRow, 0));
+            allReversed &= (urdu ? "ہاں" : "Yes").equals(tableModel.getValueAt(modelRow, 8));
+        }
+        if (purchaseIds.isEmpty()) {
+            return;
+        }
+        
+        String count = purchaseIds.size() == 1 ? "" : " (" + purchaseIds.size() + ")";
+        int confirm;
+        if (allReversed) {
+            confirm = JOptionPane.showConfirmDialog(this, 
+                urdu ? 
+                "یہ خریداری پہلے ہی ریورس ہو چکی ہے۔ کیا آپ اسے ان ریورس کرنا چاہتے ہیں؟" + count : 
+                "This purchase is already reversed. Do you want to unreversed it (undo the reversal)?" + count, 
+                urdu ? "تصدیق کریں" : "Confirm Unreverse", JOptionPane.YES_NO_OPTION);
         } else {  // Not yet reversed; confirm reversal
-            int confirm = JOptionPane.showConfirmDialog(this, 
-                currentLanguage.equalsIgnoreCase("Urdu") ? 
-                "کیا آپ واقعی اس خریداری کو ریورس کرنا چاہتے ہیں؟" : 
-                "Are you sure you want to reverse this purchase?", 
-                currentLanguage.equalsIgnoreCase("Urdu") ? "تصدیق کریں" : "Confirm Reverse", JOptionPane.YES_NO_OPTION);
-            if (confirm == JOptionPane.YES_OPTION) {
-                try (Connection conn = db.getConnection()) {
-                    conn.setAutoCommit(false);
-                    
-                    // Mark purchase as reversed.
-                    try (PreparedStatement stmt = conn.prepareStatement("UPDATE purchases SET reversed = 1 WHERE purchase_id = ?")) {
-                        stmt.setInt(1, purchaseId);
-                        stmt.executeUpdate();
-                    }
-                    // Mark deals as reversed.
-                    try (PreparedStatement stmt = conn.prepareStatement("UPDATE deals SET reversed = 1 WHERE purchase_id = ?")) {
-                        stmt.setInt(1, purchaseId);
-                        stmt.executeUpdate();
-                    }
-                    // Deduct stock.
-                    try (PreparedStatement stmt = conn.prepareStatement(
-                            "UPDATE inventory SET stock = stock - (SELECT quantity FROM purchases WHERE purchase_id = ?) " +
-                            "WHERE item_id = (SELECT item_id FROM purchases WHERE purchase_id = ?)")) {
-                        stmt.setInt(1, purchaseId);
-                        stmt.setInt(2, purchaseId);
-                        stmt.executeUpdate();
-                    }
-                    // Reduce supplier credit if payment was on account.
-                    try (PreparedStatement stmt = conn.prepareStatement(
-                            "UPDATE suppliers SET balance = balance - (SELECT total_price FROM purchases WHERE purchase_id = ?) " +
-                            "WHERE supplier_id = (SELECT supplier_id FROM purchases WHERE purchase_id = ?) " +
-                            "AND EXISTS (SELECT 1 FROM purchases WHERE purchase_id = ? AND payment_type = 'account')")) {
-                        stmt.setInt(1, purchaseId);
-                        stmt.setInt(2, purchaseId);
-                        stmt.setInt(3, purchaseId);
-                        stmt.executeUpdate();
-                    }
-                    conn.commit();
-                    JOptionPane.showMessageDialog(this, 
-                        currentLanguage.equalsIgnoreCase("Urdu") ? "خریداری کامیابی سے ریورس ہو گئی ہے!" : "Purchase reversed successfully!", 
-                        currentLanguage.equalsIgnoreCase("Urdu") ? "کامیابی" : "Success", JOptionPane.INFORMATION_MESSAGE);
-                    loadPurchasesData();
-                } catch (SQLException ex) {
-                    ex.printStackTrace();
-                    JOptionPane.showMessageDialog(this, 
-                        currentLanguage.equalsIgnoreCase("Urdu") ? "خریداری ریورس کرنے میں خرابی!" : "Error reversing purchase!", 
-                        currentLanguage.equalsIgnoreCase("Urdu") ? "ڈیٹا بیس خرابی" : "Database Error", JOptionPane.ERROR_MESSAGE);
-                }
-            }
+            confirm = JOptionPane.showConfirmDialog(this, 
+                urdu ? 
+                "کیا آپ واقعی اس خریداری کو ریورس کرنا چاہتے ہیں؟" + count : 
+                "Are you sure you want to reverse this purchase?" + count, 
+                urdu ? "تصدیق کریں" : "Confirm Reverse", JOptionPane.YES_NO_OPTION);
+        }
+        if (confirm == JOptionPane.YES_OPTION) {
+            setReversed(purchaseIds, !allReversed);
         }
     }
     
+    // Reverses (or undoes the reversal of) the purchases in one background transaction
+    private void setReversed(List<Integer> purchaseIds, boolean reverse) {
+        boolean urdu = currentLanguage.equalsIgnoreCase("Urdu");
+        reversePurchaseButton.setEnabled(false);
+        DataExecutor.getInstance().run(this, () -> new LedgerReversal(db).setPurchasesReversed(purchaseIds, reverse), ignored -> {
+            reversePurchaseButton.setEnabled(true);
+            CatalogCache.getInstance().refreshNow();
+            JOptionPane.showMessageDialog(this, 
+                reverse ? (urdu ? "خریداری کامیابی سے ریورس ہو گئی ہے!" : "Purchase reversed successfully!")
+                        : (urdu ? "خریداری کی الٹ کاری منسوخ کر دی گئی ہے!" : "Purchase unreversed successfully!"), 
+                urdu ? "کامیابی" : "Success", JOptionPane.INFORMATION_MESSAGE);
+            loadPurchasesData();
+        }, ex -> {
+            reversePurchaseButton.setEnabled(true);
+            ex.printStackTrace();
+            JOptionPane.showMessageDialog(this, 
+                reverse ? (urdu ? "خریداری ریورس کرنے میں خرابی!" : "Error reversing purchase!")
+                        : (urdu ? "خریداری ان ریورس کرنے میں خرابی!" : "Error unreversing purchase!"), 
+                urdu ? "ڈیٹا بیس خرابی" : "Database Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+    
     // ----------------- Language Change Implementation -----------------
     
   
@@ -226,26 +269,36 @@ public class PurchaseRecordPanel extends JPanel implements LanguageChangeListene
         // Update button texts, fonts, and table column headers based on currentLanguage
         if (currentLanguage.equalsIgnoreCase("Urdu")) {
             createPurchaseButton.setText("خریداری بنائیں");
+            importDeliveryButton.setText("ڈیلیوری درآمد کریں");
+            cancelImportButton.setText("درآمد منسوخ کریں");
             reversePurchaseButton.setText("خریداری ریورس کریں");
             refreshButton.setText("ریفریش");
-            tableModel.setColumnIdentifiers(new String[]{
+            tableModel.setColumnLabels(new String[]{
                 "خریداری آئی ڈی", "آئٹم کا نام", "بارکوڈ", "سپلائر آئی ڈی", "مقدار", "کل قیمت", "خریداری کی تاریخ", "ادائیگی کی قسم", "الٹ دیا گیا"
             });
+            tableModel.setFlagLabels("ہاں", "نہیں");
             Font urduFont = new Font("Jameel Noori Nastaleeq", Font.BOLD, 18);
             createPurchaseButton.setFont(urduFont);
+            importDeliveryButton.setFont(urduFont);
+            cancelImportButton.setFont(urduFont);
             reversePurchaseButton.setFont(urduFont);
             refreshButton.setFont(urduFont);
             purchasesTable.getTableHeader().setFont(urduFont.deriveFont(urduFont.getSize2D() * 4 / 3f));
             setComponentOrientation(ComponentOrientation.RIGHT_TO_LEFT);
         } else {
             createPurchaseButton.setText("Create Purchase");
+            importDeliveryButton.setText("Import Delivery");
+            cancelImportButton.setText("Cancel Import");
             reversePurchaseButton.setText("Reverse Purchase");
             refreshButton.setText("Refresh");
-            tableModel.setColumnIdentifiers(new String[]{
+            tableModel.setColumnLabels(new String[]{
                 "Purchase ID", "Item Name", "Barcode", "Supplier ID", "Quantity", "Total Price", "Purchase Date", "Payment Type", "Reversed"
             });
+            tableModel.setFlagLabels("Yes", "No");
             Font englishFont = new Font("Arial", Font.BOLD, 18);
             createPurchaseButton.setFont(englishFont);
+            importDeliveryButton.setFont(englishFont);
+            cancelImportButton.setFont(englishFont);
             reversePurchaseButton.setFont(englishFont);
             refreshButton.setFont(englishFont);
             purchasesTable.getTableHeader().setFont(englishFont.deriveFont(englishFont.getSize2D() * 4 / 3f));
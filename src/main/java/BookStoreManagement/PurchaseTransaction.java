@@ -0,0 +1,286 @@
+package BookStoreManagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a whole purchase invoice (a supplier delivery) in one database transaction.
+ *
+ * Stock is added with one batched INSERT ... ON DUPLICATE KEY UPDATE on the
+ * (item_name, item_condition) unique key, so existing items and brand new ones go
+ * out together; the item ids are then read back with a single IN (...) query and
+ * the purchases rows are inserted as one batch. {@link LedgerPosting} adds the
+ * supplier's deals rows as one batch and their balance once, and the daily P&L
+ * rollup is updated in the same transaction. Nothing is kept if any step fails.
+ */
+public class PurchaseTransaction {
+    private final Database db;
+
+    public PurchaseTransaction(Database db) {
+        this.db = db;
+    }
+
+    /** One cart row as built by PurchaseOrderDialog. */
+    public static class Line {
+        final String itemName;
+        final String barcode;
+        final int quantity;
+        final double unitPrice;
+        final double lineTotal;
+        final String condition;
+
+        public Line(String itemName, String barcode, int quantity, double unitPrice, double lineTotal, String condition) {
+            this.itemName = itemName;
+            this.barcode = barcode;
+            this.quantity = quantity;
+            this.unitPrice = unitPrice;
+            this.lineTotal = lineTotal;
+            this.condition = condition;
+        }
+
+        /** Builds a line from a PurchaseOrderDialog cart row (name, barcode, qty, price, total, condition). */
+        public static Line fromCartRow(Object[] row) {
+            return new Line((String) row[0], (String) row[1], (int) row[2], (double) row[3], (double) row[4], (String) row[5]);
+        }
+
+        public String getItemName() {
+            return itemName;
+        }
+
+        public String getCondition() {
+            return condition;
+        }
+    }
+
+    /** Catalogue details for an item that is not in inventory yet. */
+    public static class NewItem {
+        final String category;
+        final String subcategory;
+        final String company;
+
+        public NewItem(String category, String subcategory, String company) {
+            this.category = category;
+            this.subcategory = subcategory;
+            this.company = company;
+        }
+
+        public String getCompany() {
+            return company;
+        }
+    }
+
+    /** What was written, for the caller's confirmation message. */
+    public static class Result {
+        public final int supplierId;
+        public final int lineCount;
+        public final double total;
+        public final long elapsedNanos;
+
+        Result(int supplierId, int lineCount, double total, long elapsedNanos) {
+            this.supplierId = supplierId;
+            this.lineCount = lineCount;
+            this.total = total;
+            this.elapsedNanos = elapsedNanos;
+        }
+    }
+
+    /**
+     * The distinct lines whose item is not in inventory yet, in cart order. The caller
+     * collects a {@link NewItem} for each before calling {@link #commit}.
+     */
+    public List<Line> findNewItems(List<Line> lines) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("Database is not reachable.");
+            }
+            return findNewItems(conn, lines);
+        }
+    }
+
+    /** {@link #findNewItems(List)} on a connection whose transaction the caller controls. */
+    static List<Line> findNewItems(Connection conn, List<Line> lines) throws SQLException {
+        Map<String, Line> distinct = distinctItems(lines);
+        Map<String, Integer> ids = findItemIds(conn, distinct.values());
+        List<Line> missing = new ArrayList<>();
+        for (Map.Entry<String, Line> entry : distinct.entrySet()) {
+            if (!ids.containsKey(entry.getKey())) {
+                missing.add(entry.getValue());
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Records the purchase. {@code newItems} holds the details for items not in
+     * inventory, keyed by {@link #key(Line)}; an item inserted meanwhile by another
+     * terminal simply has its stock added to.
+     */
+    public Result commit(List<Line> lines, String supplierName, String supplierPhone, String paymentType,
+                         Map<String, NewItem> newItems) throws SQLException {
+        if (lines.isEmpty()) {
+            throw new SQLException("Cannot record an empty purchase.");
+        }
+        SchemaMigrator.awaitStartup();
+        long start = System.nanoTime(); // Commit latency, shown per invoice; excludes the startup wait
+
+        try (Connection conn = db.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("Database is not reachable.");
+            }
+            conn.setAutoCommit(false);
+            try {
+                int supplierId = findOrCreateSupplier(conn, supplierName, supplierPhone);
+                double total = write(conn, supplierId, lines, supplierName, supplierPhone, paymentType, newItems);
+                conn.commit();
+                return new Result(supplierId, lines.size(), total, System.nanoTime() - start);
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Does the writes on a connection whose transaction the caller controls, so large
+     * imports can send a delivery in several chunks. Returns the lines' total.
+     */
+    static double write(Connection conn, int supplierId, List<Line> lines, String supplierName, String supplierPhone,
+                        String paymentType, Map<String, NewItem> newItems) throws SQLException {
+        // VALUES(col) rather than a row alias: Connector/J's batch rewriting handles this form
+        String upsertStock = "INSERT INTO inventory (item_name, item_condition, barcode, stock, purchase_price, " +
+                             "category, subcategory, company) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+                             "ON DUPLICATE KEY UPDATE stock = stock + VALUES(stock), purchase_price = VALUES(purchase_price)";
+        try (PreparedStatement stmt = conn.prepareStatement(upsertStock)) {
+            for (Line line : lines) {
+                NewItem info = newItems.get(key(line));
+                stmt.setString(1, line.itemName);
+                stmt.setString(2, line.condition);
+                stmt.setString(3, line.barcode);
+                stmt.setInt(4, line.quantity);
+                stmt.setDouble(5, line.unitPrice);
+                stmt.setString(6, info == null ? null : info.category);
+                stmt.setString(7, info == null ? null : info.subcategory);
+                stmt.setString(8, info == null ? null : info.company);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        Map<String, Integer> itemIds = findItemIds(conn, distinctItems(lines).values());
+        String insertPurchase = "INSERT INTO purchases (supplier_id, supplier_name, supplier_phone, total_price, " +
+                                "item_name, quantity, purchase_price, item_condition, payment_type, item_id, barcode) " +
+                                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        double total = 0;
+        List<Integer> purchaseIds = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(insertPurchase, Statement.RETURN_GENERATED_KEYS)) {
+            for (Line line : lines) {
+                Integer itemId = itemIds.get(key(line));
+                if (itemId == null) {
+                    throw new SQLException("Item could not be added to inventory: " + line.itemName);
+                }
+                stmt.setInt(1, supplierId);
+                stmt.setString(2, supplierName);
+                stmt.setString(3, supplierPhone);
+                stmt.setDouble(4, line.lineTotal);
+                stmt.setString(5, line.itemName);
+                stmt.setInt(6, line.quantity);
+                stmt.setDouble(7, line.unitPrice);
+                stmt.setString(8, line.condition);
+                stmt.setString(9, paymentType);
+                stmt.setInt(10, itemId);
+                stmt.setString(11, line.barcode);
+                stmt.addBatch();
+                total += line.lineTotal;
+            }
+            stmt.executeBatch();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                while (keys.next()) {
+                    purchaseIds.add(keys.getInt(1));
+                }
+            }
+        }
+        LedgerPosting.postPurchase(conn, supplierId, paymentType, purchaseIds, lines);
+        DailyRollup.purchases(conn, purchaseIds, 1);
+        return total;
+    }
+
+    // One round-trip for every distinct (item_name, item_condition); missing items are simply absent
+    private static Map<String, Integer> findItemIds(Connection conn, Collection<Line> items) throws SQLException {
+        Map<String, Integer> ids = new HashMap<>();
+        if (items.isEmpty()) {
+            return ids;
+        }
+        StringBuilder sql = new StringBuilder(
+                "SELECT item_id, item_name, item_condition FROM inventory WHERE (item_name, item_condition) IN (");
+        for (int i = 0; i < items.size(); i++) {
+            sql.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+        }
+        sql.append(")");
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (Line line : items) {
+                stmt.setString(index++, line.itemName);
+                stmt.setString(index++, line.condition);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.put(key(rs.getString("item_name"), rs.getString("item_condition")), rs.getInt("item_id"));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static Map<String, Line> distinctItems(List<Line> lines) {
+        Map<String, Line> distinct = new LinkedHashMap<>();
+        for (Line line : lines) {
+            distinct.putIfAbsent(key(line), line);
+        }
+        return distinct;
+    }
+
+    static int findOrCreateSupplier(Connection conn, String name, String phone) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT supplier_id FROM suppliers WHERE supplier_name = ? AND phone = ?")) {
+            stmt.setString(1, name);
+            stmt.setString(2, phone);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO suppliers (supplier_name, phone) VALUES (?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, name);
+            stmt.setString(2, phone);
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    return keys.getInt(1);
+                }
+            }
+        }
+        throw new SQLException("Could not create supplier " + name);
+    }
+
+    /** Identifies a line's inventory item; case-insensitive like the utf8mb4_0900_ai_ci lookups. */
+    public static String key(Line line) {
+        return key(line.itemName, line.condition);
+    }
+
+    private static String key(String name, String condition) {
+        return name.toLowerCase() + "\u0000" + (condition == null ? "" : condition.toLowerCase());
+    }
+}
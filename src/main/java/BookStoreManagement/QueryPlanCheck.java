@@ -0,0 +1,160 @@
+package BookStoreManagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs EXPLAIN on the queries the checkout, reports and ledgers run most often
+ * and fails any that falls back to a full table scan (access type ALL).
+ *
+ * MySQL may still scan a table that is so small an index does not pay off; that
+ * is only reported as a note while the index the query needs is among the plan's
+ * possible keys and the table holds fewer than {@link #SMALL_TABLE_ROWS} rows.
+ * Run it from the Developer panel, or as a main class against config.properties
+ * (exit status 1 when a check fails).
+ */
+public final class QueryPlanCheck {
+
+    static final long SMALL_TABLE_ROWS = 1000;
+
+    private static final class Check {
+        final String name;
+        final String table;
+        final String index;
+        final String sql;
+        final Object[] params;
+
+        Check(String name, String table, String index, String sql, Object... params) {
+            this.name = name;
+            this.table = table;
+            this.index = index;
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+
+    /** One query's verdict. */
+    public static final class Outcome {
+        public final String name;
+        public final boolean passed;
+        public final String detail;
+
+        Outcome(String name, boolean passed, String detail) {
+            this.name = name;
+            this.passed = passed;
+            this.detail = detail;
+        }
+    }
+
+    private static List<Check> checks() {
+        Timestamp from = Timestamp.valueOf(LocalDate.now().atStartOfDay());
+        Timestamp to = Timestamp.valueOf(LocalDate.now().plusDays(1).atStartOfDay());
+        return Arrays.asList(
+                new Check("Barcode scan", "inventory", "idx_inventory_barcode",
+                        "SELECT item_id, item_name, stock FROM inventory WHERE barcode = ?", "0000000000000"),
+                new Check("Sales by date", "sales", "idx_sales_date",
+                        "SELECT sale_id, total_price FROM sales WHERE sale_date >= ? AND sale_date < ?", from, to),
+                new Check("Purchases by date", "purchases", "idx_purchases_date",
+                        "SELECT purchase_id, total_price FROM purchases WHERE purchase_date >= ? AND purchase_date < ?", from, to),
+                new Check("Expenses by date", "expenses", "idx_expenses_date",
+                        "SELECT expense_id, amount FROM expenses WHERE expense_date >= ? AND expense_date < ?", from, to),
+                new Check("Customer ledger", "deals", "idx_deals_customer",
+                        "SELECT deal_id FROM deals WHERE customer_id = ? ORDER BY deal_date DESC, deal_id DESC LIMIT 50", 1),
+                new Check("Supplier ledger", "deals", "idx_deals_supplier",
+                        "SELECT deal_id FROM deals WHERE supplier_id = ? ORDER BY deal_date DESC, deal_id DESC LIMIT 50", 1),
+                new Check("Customer by phone", "customers", "idx_customers_phone",
+                        "SELECT customer_id FROM customers WHERE customer_name = ? AND phone = ? LIMIT 1", "x", "00000000000"),
+                new Check("Receipt lines", "sales", "idx_sales_invoice",
+                        "SELECT sale_id, item_name, quantity, total_price FROM sales WHERE invoice_id = ? ORDER BY sale_id", 1),
+                new Check("Low stock first", "inventory", "idx_inventory_low_stock",
+                        "SELECT item_id FROM inventory ORDER BY low_stock DESC, item_id LIMIT 100"),
+                new Check("Inventory by category", "inventory", "idx_inventory_category",
+                        "SELECT item_id FROM inventory WHERE category = ? ORDER BY low_stock DESC, item_id LIMIT 100", "x")
+        );
+    }
+
+    private QueryPlanCheck() {
+    }
+
+    /** Explains every hot query. */
+    public static List<Outcome> run(Database db) throws SQLException {
+        List<Outcome> outcomes = new ArrayList<>();
+        try (Connection conn = db.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("Database is not reachable.");
+            }
+            for (Check check : checks()) {
+                outcomes.add(explain(conn, check));
+            }
+        }
+        return outcomes;
+    }
+
+    public static boolean allPassed(List<Outcome> outcomes) {
+        return outcomes.stream().allMatch(o -> o.passed);
+    }
+
+    /** One line per query, failures marked, for a dialog or the console. */
+    public static String report(List<Outcome> outcomes) {
+        StringBuilder text = new StringBuilder();
+        for (Outcome outcome : outcomes) {
+            text.append(outcome.passed ? "OK    " : "FAIL  ").append(outcome.name).append(": ")
+                .append(outcome.detail).append('\n');
+        }
+        long failed = outcomes.stream().filter(o -> !o.passed).count();
+        text.append('\n').append(failed == 0 ? "All queries use an index."
+                : failed + " of " + outcomes.size() + " queries fall back to a full scan.");
+        return text.toString();
+    }
+
+    private static Outcome explain(Connection conn, Check check) {
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + check.sql)) {
+            for (int i = 0; i < check.params.length; i++) {
+                stmt.setObject(i + 1, check.params[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (!check.table.equalsIgnoreCase(rs.getString("table"))) {
+                        continue;
+                    }
+                    String type = rs.getString("type");
+                    String key = rs.getString("key");
+                    String possibleKeys = rs.getString("possible_keys");
+                    long rows = rs.getLong("rows");
+                    if (!"ALL".equalsIgnoreCase(type)) {
+                        return new Outcome(check.name, true, "type=" + type + ", key=" + key);
+                    }
+                    boolean indexAvailable = possibleKeys != null
+                            && Arrays.asList(possibleKeys.split(",")).contains(check.index);
+                    if (indexAvailable && rows < SMALL_TABLE_ROWS) {
+                        return new Outcome(check.name, true, "full scan of a small table (" + rows
+                                + " rows); " + check.index + " is available");
+                    }
+                    return new Outcome(check.name, false, "full scan of " + check.table + " (~" + rows + " rows)"
+                            + (indexAvailable ? "" : "; " + check.index + " is missing"));
+                }
+                return new Outcome(check.name, false, "no plan row for " + check.table);
+            }
+        } catch (SQLException e) {
+            return new Outcome(check.name, false, e.getMessage());
+        }
+    }
+
+    public static void main(String[] args) {
+        try {
+            List<Outcome> outcomes = run(new Database());
+            System.out.println(report(outcomes));
+            System.exit(allPassed(outcomes) ? 0 : 1);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package BookStoreManagement;
+
+import javax.swing.SwingUtilities;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Shared in-memory copy of the small lookup lists behind the combo boxes: item
+ * categories, their subcategories, the companies used in inventory and the
+ * expense categories.
+ *
+ * Everything is read once (at startup, or on first use) and combo boxes fill from
+ * memory after that. Inserts made through this class update the cache directly;
+ * {@link #reloadAsync()} picks up changes made elsewhere. Each change swaps in a
+ * new immutable {@link Snapshot} with a higher version, and listeners are told on
+ * the EDT so screens can refill their combo boxes only when something changed.
+ * Until the first load lands the lists are empty; it never runs on the caller.
+ */
+public class ReferenceDataCache {
+    private static final ReferenceDataCache INSTANCE = new ReferenceDataCache();
+
+    // Served before the first load lands; its version differs from every loaded one
+    private static final Snapshot EMPTY =
+            new Snapshot(-1, new ArrayList<>(), new LinkedHashMap<>(), new ArrayList<>(), new ArrayList<>());
+
+    private volatile Snapshot snapshot = null;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private Database db;
+    // Guarded by this: a load in flight, and inserts made through this class, so a load
+    // that raced with one is read again instead of overwriting it
+    private boolean loading = false;
+    private long localChanges = 0;
+
+    private ReferenceDataCache() {
+    }
+
+    public static ReferenceDataCache getInstance() {
+        return INSTANCE;
+    }
+
+    /** Immutable view of every list at one version. */
+    public static final class Snapshot {
+        public final long version;
+        public final List<String> categories;
+        public final Map<String, List<String>> subcategories; // Keyed by category name
+        public final List<String> companies;
+        public final List<String> expenseCategories;
+
+        Snapshot(long version, List<String> categories, Map<String, List<String>> subcategories,
+                 List<String> companies, List<String> expenseCategories) {
+            this.version = version;
+            this.categories = Collections.unmodifiableList(categories);
+            this.subcategories = Collections.unmodifiableMap(subcategories);
+            this.companies = Collections.unmodifiableList(companies);
+            this.expenseCategories = Collections.unmodifiableList(expenseCategories);
+        }
+
+        boolean sameContent(Snapshot other) {
+            return categories.equals(other.categories) && subcategories.equals(other.subcategories)
+                    && companies.equals(other.companies) && expenseCategories.equals(other.expenseCategories);
+        }
+    }
+
+    /** Loads the lists in the background. Safe to call more than once. */
+    public synchronized void start(Database db) {
+        if (this.db != null) {
+            return;
+        }
+        this.db = db;
+        reloadAsync();
+    }
+
+    /**
+     * Current lists. Empty until the startup load has landed (a failed load is retried
+     * in the background); the listeners are told when it does.
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot != null) {
+                return snapshot;
+            }
+            if (db != null && !loading) {
+                reloadAsync();
+            }
+            return EMPTY;
+        }
+    }
+
+    public long version() {
+        return snapshot().version;
+    }
+
+    public List<String> categories() {
+        return snapshot().categories;
+    }
+
+    public List<String> subcategories(String category) {
+        List<String> names = category == null ? null : snapshot().subcategories.get(category);
+        return names == null ? Collections.emptyList() : names;
+    }
+
+    public List<String> companies() {
+        return snapshot().companies;
+    }
+
+    public List<String> expenseCategories() {
+        return snapshot().expenseCategories;
+    }
+
+    /** Called on the EDT after every change of version. */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    public void addCategory(String name) throws SQLException {
+        try (Connection conn = db.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("INSERT INTO categories (category_name) VALUES (?)")) {
+            stmt.setString(1, name);
+            stmt.executeUpdate();
+        }
+        synchronized (this) {
+            localChanges++;
+            Snapshot s = snapshot();
+            List<String> categories = new ArrayList<>(s.categories);
+            categories.add(name);
+            Map<String, List<String>> subcategories = new LinkedHashMap<>(s.subcategories);
+            subcategories.putIfAbsent(name, Collections.emptyList());
+            publish(new Snapshot(s.version + 1, categories, subcategories, s.companies, s.expenseCategories));
+        }
+    }
+
+    public void addSubcategory(String category, String name) throws SQLException {
+        try (Connection conn = db.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO subcategories (subcategory_name, category_id) VALUES (?, (SELECT category_id FROM categories WHERE category_name = ?))")) {
+            stmt.setString(1, name);
+            stmt.setString(2, category);
+            stmt.executeUpdate();
+        }
+        synchronized (this) {
+            localChanges++;
+            Snapshot s = snapshot();
+            List<String> names = new ArrayList<>(subcategories(category));
+            names.add(name);
+            Map<String, List<String>> subcategories = new LinkedHashMap<>(s.subcategories);
+            subcategories.put(category, Collections.unmodifiableList(names));
+            publish(new Snapshot(s.version + 1, s.categories, subcategories, s.companies, s.expenseCategories));
+        }
+    }
+
+    public void addExpenseCategory(String name) throws SQLException {
+        try (Connection conn = db.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("INSERT INTO expense_categories (category_name) VALUES (?)")) {
+            stmt.setString(1, name);
+            stmt.executeUpdate();
+        }
+        synchronized (this) {
+            localChanges++;
+            Snapshot s = snapshot();
+            List<String> expenseCategories = new ArrayList<>(s.expenseCategories);
+            expenseCategories.add(name);
+            publish(new Snapshot(s.version + 1, s.categories, s.subcategories, s.companies, expenseCategories));
+        }
+    }
+
+    /** Records a company just written to inventory, so the filters offer it without a rescan. */
+    public synchronized void noteCompany(String company) {
+        if (company == null || company.trim().isEmpty()) {
+            return;
+        }
+        Snapshot s = snapshot();
+        if (s.companies.contains(company)) {
+            return;
+        }
+        localChanges++;
+        TreeSet<String> companies = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        companies.addAll(s.companies);
+        companies.add(company);
+        publish(new Snapshot(s.version + 1, s.categories, s.subcategories, new ArrayList<>(companies), s.expenseCategories));
+    }
+
+    /** Re-reads every list in the background; listeners hear about it only if something changed. */
+    public void reloadAsync() {
+        long changesBefore;
+        synchronized (this) {
+            loading = true;
+            changesBefore = localChanges;
+        }
+        DataExecutor.getInstance().supply(() -> {
+            Snapshot fresh = load();
+            synchronized (this) {
+                if (localChanges != changesBefore) {
+                    // An insert landed while this was reading and may be missing from it; read again
+                    reloadAsync();
+                    return null;
+                }
+                loading = false;
+                Snapshot s = snapshot;
+                if (s == null || !s.sameContent(fresh)) {
+                    publish(new Snapshot(s == null ? 0 : s.version + 1, fresh.categories, fresh.subcategories,
+                            fresh.companies, fresh.expenseCategories));
+                }
+            }
+            return null;
+        }).exceptionally(e -> {
+            synchronized (this) {
+                loading = false;
+            }
+            e.printStackTrace();
+            return null;
+        });
+    }
+
+    private void publish(Snapshot next) {
+        snapshot = next;
+        if (!listeners.isEmpty()) {
+            SwingUtilities.invokeLater(() -> listeners.forEach(Runnable::run));
+        }
+    }
+
+    private Snapshot load() throws SQLException {
+        List<String> categories = new ArrayList<>();
+        Map<String, List<String>> subcategories = new LinkedHashMap<>();
+        List<String> companies = new ArrayList<>();
+        List<String> expenseCategories = new ArrayList<>();
+        try (Connection conn = db.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("Database is not reachable.");
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT category_name FROM categories");
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    categories.add(rs.getString(1));
+                }
+            }
+            Map<String, List<String>> names = new LinkedHashMap<>();
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT c.category_name, s.subcategory_name FROM subcategories s " +
+                    "JOIN categories c ON c.category_id = s.category_id");
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    names.computeIfAbsent(rs.getString(1), k -> new ArrayList<>()).add(rs.getString(2));
+                }
+            }
+            names.forEach((category, list) -> subcategories.put(category, Collections.unmodifiableList(list)));
+            // Served by idx_inventory_company where it exists, so this reads the index rather than the table
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT DISTINCT company FROM inventory WHERE company IS NOT NULL AND company <> '' ORDER BY company");
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    companies.add(rs.getString(1));
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT category_name FROM expense_categories");
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    expenseCategories.add(rs.getString(1));
+                }
+            }
+        }
+        return new Snapshot(0, categories, subcategories, companies, expenseCategories);
+    }
+}
@@ -0,0 +1,69 @@
+package BookStoreManagement;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.LongConsumer;
+
+/**
+ * Streams a report query into a {@link ReportWriter}.
+ *
+ * The statement uses MySQL's row-streaming mode ({@code setFetchSize(Integer.MIN_VALUE)}
+ * on a forward-only, read-only result set), so rows arrive one at a time and
+ * memory stays flat however large the report is. Meant to run on a background
+ * thread: interrupting it cancels the query and deletes the partial file.
+ */
+public class ReportExporter {
+    private static final int PROGRESS_EVERY = 1000;
+
+    private final Database db;
+
+    public ReportExporter(Database db) {
+        this.db = db;
+    }
+
+    /**
+     * Runs {@code query} and writes every row. {@code progress} is called on the
+     * worker thread with the number of rows written so far.
+     *
+     * @return the number of rows written
+     */
+    public long export(String query, String title, ReportWriter writer, LongConsumer progress)
+            throws SQLException, IOException, InterruptedException {
+        boolean done = false;
+        try (Connection conn = db.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("Database is not reachable.");
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(Integer.MIN_VALUE); // Stream rows instead of buffering the whole result
+                long rows = 0;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    writer.begin(title, rs.getMetaData());
+                    while (rs.next()) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            // Closing a streaming result set reads the rest of it; stop the server first
+                            stmt.cancel();
+                            throw new InterruptedException("Export cancelled");
+                        }
+                        writer.writeRow(rs);
+                        if (++rows % PROGRESS_EVERY == 0) {
+                            progress.accept(rows);
+                        }
+                    }
+                }
+                writer.finish();
+                progress.accept(rows);
+                done = true;
+                return rows;
+            }
+        } finally {
+            if (!done) {
+                writer.abort();
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package BookStoreManagement;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Output format for {@link ReportExporter}. Rows are handed over one at a time
+ * straight from the streaming result set, so a writer must not keep them.
+ */
+public interface ReportWriter {
+
+    /** How a column's values are read and encoded by the binary-friendly writers. */
+    enum ColumnKind {
+        INTEGER, DECIMAL, DATE, TIMESTAMP, TEXT;
+
+        public static ColumnKind of(int sqlType) {
+            switch (sqlType) {
+                case Types.BIT:
+                case Types.BOOLEAN:
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                case Types.INTEGER:
+                case Types.BIGINT:
+                    return INTEGER;
+                case Types.DECIMAL:
+                case Types.NUMERIC:
+                case Types.REAL:
+                case Types.FLOAT:
+                case Types.DOUBLE:
+                    return DECIMAL;
+                case Types.DATE:
+                    return DATE;
+                case Types.TIMESTAMP:
+                case Types.TIMESTAMP_WITH_TIMEZONE:
+                    return TIMESTAMP;
+                default:
+                    return TEXT;
+            }
+        }
+    }
+
+    /** Called once before the first row. */
+    void begin(String title, ResultSetMetaData meta) throws IOException, SQLException;
+
+    /** Writes the result set's current row. */
+    void writeRow(ResultSet rs) throws IOException, SQLException;
+
+    /** Called after the last row; the file is complete once this returns. */
+    void finish() throws IOException;
+
+    /** Closes the writer after a failure or cancel and deletes the partial file. */
+    void abort();
+}
@@ -1,18 +1,10 @@
 package BookStoreManagement;
 
-import com.itextpdf.kernel.pdf.PdfDocument;
-import com.itextpdf.kernel.pdf.PdfWriter;
-import com.itextpdf.layout.Document;
-import com.itextpdf.layout.element.Cell;
-import com.itextpdf.layout.element.Paragraph;
-import com.itextpdf.layout.element.Table;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.io.FileOutputStream;
+import java.io.File;
 import java.sql.*;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.Vector;
 
 public class ReportsPanel extends JPanel {
@@ -20,10 +12,16 @@ public class ReportsPanel extends JPanel {
     private JTable reportTable;
     private DefaultTableModel tableModel;
     private JComboBox<String> reportType, timeFilter;
-    private JButton generateButton, exportPdfButton;
+    private JButton generateButton, cancelButton, exportPdfButton, exportCsvButton, exportColumnarButton;
+    private java.util.concurrent.CompletableFuture<?> pendingReport; // Report query still running
+    private java.util.concurrent.CompletableFuture<?> pendingExport; // Export still streaming to disk
+    private Object exportToken; // Identifies the export whose worker is still running
+    private JProgressBar exportProgress;
+    private final ReportExporter exporter;
 
     public ReportsPanel(Database db) {
         this.db = db;
+        this.exporter = new ReportExporter(db);
         setLayout(new BorderLayout());
 
         // Table setup
@@ -33,19 +31,44 @@ public class ReportsPanel extends JPanel {
 
         // Control panel
         JPanel controlPanel = new JPanel();
-        reportType = new JComboBox<>(new String[]{"Sales", "Purchases", "Expenses", "Inventory"});
+        reportType = new JComboBox<>(new String[]{"Sales", "Invoices", "Purchases", "Expenses", "Inventory"});
         timeFilter = new JComboBox<>(new String[]{"Today", "Yesterday", "This Week", "This Month", "All Time"});
         generateButton = new JButton("Generate Report");
+        cancelButton = new JButton("Cancel");
+        cancelButton.setEnabled(false);
         exportPdfButton = new JButton("Export to PDF");
+        exportCsvButton = new JButton("Export to CSV");
+        exportColumnarButton = new JButton("Export Columnar");
+        exportColumnarButton.setToolTipText("Compressed column-oriented file (.bkcol) for archiving and analysis tools");
+        exportProgress = new JProgressBar();
+        exportProgress.setStringPainted(true);
+        exportProgress.setVisible(false);
 
         generateButton.addActionListener(e -> generateReport());
+        cancelButton.addActionListener(e -> cancelReport());
         exportPdfButton.addActionListener(e -> exportToPdf());
+        exportCsvButton.addActionListener(e -> {
+            File file = chooseExportFile("csv");
+            if (file != null) {
+                startExport(new CsvReportWriter(file), file);
+            }
+        });
+        exportColumnarButton.addActionListener(e -> {
+            File file = chooseExportFile("bkcol");
+            if (file != null) {
+                startExport(new ColumnarReportWriter(file), file);
+            }
+        });
 
         controlPanel.add(reportType);
         controlPanel.add(new JLabel("Time Filter:"));
         controlPanel.add(timeFilter);
         controlPanel.add(generateButton);
+        controlPanel.add(cancelButton);
         controlPanel.add(exportPdfButton);
+        controlPanel.add(exportCsvButton);
+        controlPanel.add(exportColumnarButton);
+        controlPanel.add(exportProgress);
 
         add(controlPanel, BorderLayout.NORTH);
     }
@@ -55,45 +78,79 @@ public class ReportsPanel extends JPanel {
         String selectedTimeFilter = (String) timeFilter.getSelectedItem();
         String query = buildQuery(selectedReport, selectedTimeFilter);
 
-        tableModel.setRowCount(0); // Clear existing rows
-        tableModel.setColumnCount(0); // Clear existing columns
+        generateButton.setEnabled(false);
+        cancelButton.setEnabled(true);
+        // Heavy reports run in the background so the rest of the app stays responsive
+        pendingReport = DataExecutor.getInstance().run(this, () -> {
+            try (Connection conn = db.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query);
+                 ResultSet rs = stmt.executeQuery()) {
 
-        try (Connection conn = db.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query);
-             ResultSet rs = stmt.executeQuery()) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                int columnCount = metaData.getColumnCount();
 
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
-
-            // Set column names
-            String[] columnNames = new String[columnCount];
-            for (int i = 0; i < columnCount; i++) {
-                columnNames[i] = metaData.getColumnName(i + 1);
-            }
-            tableModel.setColumnIdentifiers(columnNames);
+                // Column names
+                Vector<String> columnNames = new Vector<>();
+                for (int i = 0; i < columnCount; i++) {
+                    columnNames.add(metaData.getColumnName(i + 1));
+                }
 
-            // Add rows (ignoring reversed entries if the column exists)
-            while (rs.next()) {
-                try {
-                    if (rs.getMetaData().getColumnLabel(1).equalsIgnoreCase("reversed") && rs.getBoolean("reversed")) {
-                        continue; // Skip reversed entries
+                // Rows (ignoring reversed entries if the column exists)
+                Vector<Vector<Object>> rows = new Vector<>();
+                while (rs.next()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException();
                     }
-                } catch (SQLException ignore) {}
-                Vector<Object> rowData = new Vector<>();
-                for (int i = 0; i < columnCount; i++) {
-                    rowData.add(rs.getObject(i + 1));
+                    try {
+                        if (rs.getMetaData().getColumnLabel(1).equalsIgnoreCase("reversed") && rs.getBoolean("reversed")) {
+                            continue; // Skip reversed entries
+                        }
+                    } catch (SQLException ignore) {}
+                    Vector<Object> rowData = new Vector<>();
+                    for (int i = 0; i < columnCount; i++) {
+                        rowData.add(rs.getObject(i + 1));
+                    }
+                    rows.add(rowData);
                 }
-                tableModel.addRow(rowData);
+                return new Object[]{columnNames, rows};
             }
-        } catch (SQLException ex) {
+        }, result -> {
+            reportFinished();
+            @SuppressWarnings("unchecked")
+            Vector<Vector<Object>> rows = (Vector<Vector<Object>>) result[1];
+            @SuppressWarnings("unchecked")
+            Vector<String> columnNames = (Vector<String>) result[0];
+            tableModel.setDataVector(rows, columnNames);
+        }, ex -> {
+            reportFinished();
             JOptionPane.showMessageDialog(this, "Error fetching report data: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    private void cancelReport() {
+        if (pendingReport != null) {
+            pendingReport.cancel(true);
+            reportFinished();
         }
+        if (pendingExport != null) {
+            // The buttons come back in exportStopped(), once the exporter has deleted the partial file
+            pendingExport.cancel(true);
+            exportProgress.setString("Cancelling...");
+            cancelButton.setEnabled(pendingReport != null);
+        }
+    }
+
+    private void reportFinished() {
+        pendingReport = null;
+        generateButton.setEnabled(true);
+        cancelButton.setEnabled(pendingExport != null);
     }
 
     /**
      * Builds a query tailored to the selected report type and time filter.
      * 
      * - For "Sales", uses the sale_date column.
+     * - For "Invoices", uses the invoice_date column.
      * - For "Purchases", uses the purchase_date column.
      * - For "Expenses", uses expense_date (adjust if needed).
      * - For "Inventory", no date filter is applied.
@@ -106,6 +163,9 @@ public class ReportsPanel extends JPanel {
         if (reportType.equalsIgnoreCase("Sales")) {
             tableName = "sales";
             dateColumn = "sale_date";
+        } else if (reportType.equalsIgnoreCase("Invoices")) {
+            tableName = "invoices"; // One row per checkout with its totals
+            dateColumn = "invoice_date";
         } else if (reportType.equalsIgnoreCase("Purchases")) {
             tableName = "purchases";
             dateColumn = "purchase_date";
@@ -155,36 +215,73 @@ public class ReportsPanel extends JPanel {
     }
 
     private void exportToPdf() {
-        try {
-            // Export PDF as "Report.pdf" in current directory
-            String filePath = "Report.pdf";
-            PdfWriter writer = new PdfWriter(new FileOutputStream(filePath));
-            PdfDocument pdfDoc = new PdfDocument(writer);
-            Document document = new Document(pdfDoc);
-
-            document.add(new Paragraph("Report: " + reportType.getSelectedItem()).setBold());
-            
-            // Create table with same column count as tableModel
-            Table table = new Table(tableModel.getColumnCount());
-            for (int i = 0; i < tableModel.getColumnCount(); i++) {
-                table.addHeaderCell(new Cell().add(new Paragraph(tableModel.getColumnName(i))));
-            }
+        File file = chooseExportFile("pdf");
+        if (file != null) {
+            startExport(new PdfReportWriter(file), file);
+        }
+    }
 
-            // Add rows to the table with null handling
-            for (int row = 0; row < tableModel.getRowCount(); row++) {
-                for (int col = 0; col < tableModel.getColumnCount(); col++) {
-                    Object value = tableModel.getValueAt(row, col);
-                    String cellText = (value != null ? value.toString() : "N/A");
-                    table.addCell(new Cell().add(new Paragraph(cellText)));
-                }
-            }
+    private File chooseExportFile(String extension) {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Save Report");
+        fileChooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
+        fileChooser.setSelectedFile(new File(reportType.getSelectedItem() + "_Report." + extension));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return null;
+        }
+        File file = fileChooser.getSelectedFile();
+        if (!file.getName().toLowerCase().endsWith("." + extension)) {
+            file = new File(file.getParentFile(), file.getName() + "." + extension);
+        }
+        return file;
+    }
+
+    // Streams the selected report straight from the database to the file, off the EDT
+    private void startExport(ReportWriter writer, File file) {
+        String title = (String) reportType.getSelectedItem();
+        String query = buildQuery(title, (String) timeFilter.getSelectedItem());
+
+        setExportButtonsEnabled(false);
+        cancelButton.setEnabled(true);
+        exportProgress.setIndeterminate(true);
+        exportProgress.setString("0 rows");
+        exportProgress.setVisible(true);
+        revalidate();
+        Object export = new Object();
+        exportToken = export;
+        pendingExport = DataExecutor.getInstance().run(this, () -> {
+                    try {
+                        return exporter.export(query, title, writer, rows ->
+                                SwingUtilities.invokeLater(() -> exportProgress.setString(rows + " rows")));
+                    } finally {
+                        // Runs even when cancelled, after the writer has cleaned up
+                        SwingUtilities.invokeLater(() -> exportStopped(export));
+                    }
+                },
+                rows -> JOptionPane.showMessageDialog(this, "Report exported as " + file.getAbsolutePath() + " (" + rows + " rows)",
+                            "Success", JOptionPane.INFORMATION_MESSAGE),
+                ex -> {
+                    ex.printStackTrace();
+                    JOptionPane.showMessageDialog(this, "Error exporting report: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                });
+    }
 
-            document.add(table);
-            document.close();
+    private void setExportButtonsEnabled(boolean enabled) {
+        exportPdfButton.setEnabled(enabled);
+        exportCsvButton.setEnabled(enabled);
+        exportColumnarButton.setEnabled(enabled);
+    }
 
-            JOptionPane.showMessageDialog(this, "Report exported as " + filePath, "Success", JOptionPane.INFORMATION_MESSAGE);
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Error exporting PDF: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+    // Called on the EDT when the export's worker has actually returned
+    private void exportStopped(Object export) {
+        if (export != exportToken) {
+            return;
         }
+        exportToken = null;
+        pendingExport = null;
+        setExportButtonsEnabled(true);
+        cancelButton.setEnabled(pendingReport != null);
+        exportProgress.setIndeterminate(false);
+        exportProgress.setVisible(false);
     }
 }
@@ -0,0 +1,224 @@
+package BookStoreManagement;
+
+import javax.swing.JOptionPane;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import java.awt.Component;
+import java.awt.Font;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The invoices header table: one row per checkout, holding its customer, payment
+ * type, date and totals once, with the sales rows keyed to it by
+ * sales.invoice_id.
+ *
+ * {@link SaleTransaction} writes the header in the same transaction as the lines.
+ * A whole receipt comes back with one query on invoices' primary key joined to
+ * idx_sales_invoice, whether it is asked for by invoice or by any of its sales.
+ * The table and column come from schema migration 7; until it has run,
+ * {@link #isReady()} is false and sales are written without a header.
+ */
+public final class SaleInvoice {
+
+    private static volatile boolean schemaReady = false;
+
+    private static final String RECEIPT_QUERY =
+            "SELECT v.invoice_id, v.customer_name, v.payment_type, v.invoice_date, v.line_count, v.total_quantity, " +
+            "v.total_amount, v.reversed AS invoice_reversed, s.sale_id, s.item_name, s.barcode, s.quantity, " +
+            "s.sale_price, s.total_price, s.reversed " +
+            "FROM invoices v JOIN sales s ON s.invoice_id = v.invoice_id WHERE v.invoice_id = {id} ORDER BY s.sale_id";
+
+    private SaleInvoice() {
+    }
+
+    /** One line of a receipt. */
+    public static final class Item {
+        public final int saleId;
+        public final String itemName;
+        public final String barcode;
+        public final int quantity;
+        public final double unitPrice;
+        public final double lineTotal;
+        public final boolean reversed;
+
+        Item(int saleId, String itemName, String barcode, int quantity, double unitPrice, double lineTotal, boolean reversed) {
+            this.saleId = saleId;
+            this.itemName = itemName;
+            this.barcode = barcode;
+            this.quantity = quantity;
+            this.unitPrice = unitPrice;
+            this.lineTotal = lineTotal;
+            this.reversed = reversed;
+        }
+    }
+
+    /** A header and all its lines. */
+    public static final class Receipt {
+        public final int invoiceId;
+        public final String customerName;
+        public final String paymentType;
+        public final Timestamp invoiceDate;
+        public final int lineCount;
+        public final int totalQuantity;
+        public final double totalAmount;
+        public final boolean reversed;
+        public final List<Item> items;
+
+        Receipt(int invoiceId, String customerName, String paymentType, Timestamp invoiceDate, int lineCount,
+                int totalQuantity, double totalAmount, boolean reversed, List<Item> items) {
+            this.invoiceId = invoiceId;
+            this.customerName = customerName;
+            this.paymentType = paymentType;
+            this.invoiceDate = invoiceDate;
+            this.lineCount = lineCount;
+            this.totalQuantity = totalQuantity;
+            this.totalAmount = totalAmount;
+            this.reversed = reversed;
+            this.items = Collections.unmodifiableList(items);
+        }
+
+        public List<Integer> saleIds() {
+            List<Integer> ids = new ArrayList<>();
+            for (Item item : items) {
+                ids.add(item.saleId);
+            }
+            return ids;
+        }
+    }
+
+    /** True once sales.invoice_id is known to exist. */
+    public static boolean isReady() {
+        return schemaReady;
+    }
+
+    /** Called at startup after {@link SchemaMigrator} has run. */
+    public static void detectSchema(Database db) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("Database is not reachable.");
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT COUNT(*) FROM information_schema.columns " +
+                    "WHERE table_schema = DATABASE() AND table_name = 'sales' AND column_name = 'invoice_id'");
+                 ResultSet rs = stmt.executeQuery()) {
+                schemaReady = rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    /** Writes the header for an invoice about to be recorded on {@code conn}; returns its id. */
+    static int insert(Connection conn, int customerId, String customerName, String payment, Timestamp date,
+                      List<SaleTransaction.Line> lines) throws SQLException {
+        int quantity = 0;
+        double total = 0;
+        for (SaleTransaction.Line line : lines) {
+            quantity += line.quantity;
+            total += line.lineTotal;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO invoices (customer_id, customer_name, payment_type, invoice_date, line_count, " +
+                "total_quantity, total_amount) VALUES (?, ?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setInt(1, customerId);
+            stmt.setString(2, customerName);
+            stmt.setString(3, payment);
+            stmt.setTimestamp(4, date);
+            stmt.setInt(5, lines.size());
+            stmt.setInt(6, quantity);
+            stmt.setDouble(7, total);
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    return keys.getInt(1);
+                }
+            }
+        }
+        throw new SQLException("Could not create the invoice header.");
+    }
+
+    /** The receipt with this invoice id, or null. */
+    public static Receipt load(Database db, int invoiceId) throws SQLException {
+        return query(db, "?", invoiceId);
+    }
+
+    /** The receipt that {@code saleId} belongs to, or null for a sale recorded without one. */
+    public static Receipt loadForSale(Database db, int saleId) throws SQLException {
+        return query(db, "(SELECT invoice_id FROM sales WHERE sale_id = ?)", saleId);
+    }
+
+    private static Receipt query(Database db, String idExpression, int id) throws SQLException {
+        if (!schemaReady) {
+            return null;
+        }
+        try (Connection conn = db.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(RECEIPT_QUERY.replace("{id}", idExpression))) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                List<Item> items = new ArrayList<>();
+                Receipt header = null;
+                while (rs.next()) {
+                    if (header == null) {
+                        header = new Receipt(rs.getInt("invoice_id"), rs.getString("customer_name"),
+                                rs.getString("payment_type"), rs.getTimestamp("invoice_date"), rs.getInt("line_count"),
+                                rs.getInt("total_quantity"), rs.getDouble("total_amount"),
+                                rs.getBoolean("invoice_reversed"), items);
+                    }
+                    items.add(new Item(rs.getInt("sale_id"), rs.getString("item_name"), rs.getString("barcode"),
+                            rs.getInt("quantity"), rs.getDouble("sale_price"), rs.getDouble("total_price"),
+                            rs.getBoolean("reversed")));
+                }
+                return header;
+            }
+        }
+    }
+
+    /** Plain-text receipt in the layout InvoiceDialog prints. */
+    public static String format(Receipt receipt, boolean urdu) {
+        StringBuilder text = new StringBuilder();
+        String date = receipt.invoiceDate == null ? "" : new SimpleDateFormat("dd-MM-yyyy HH:mm:ss").format(receipt.invoiceDate);
+        text.append(urdu ? "انوائس نمبر      : " : "Invoice No    : ").append(receipt.invoiceId).append('\n');
+        text.append(urdu ? "گاہک کا نام     : " : "Customer      : ")
+            .append(receipt.customerName == null ? "" : receipt.customerName).append('\n');
+        text.append(urdu ? "ادائیگی کی قسم  : " : "Payment Type  : ").append(receipt.paymentType).append('\n');
+        text.append(urdu ? "سیلز کی تاریخ     : " : "Sale Date     : ").append(date).append("\n\n");
+        text.append(String.format("%-15s %-10s %-10s %-10s%n",
+                urdu ? "آئٹم" : "Item", urdu ? "مقدار" : "Qty", urdu ? "قیمت" : "Price", urdu ? "کل" : "Total"));
+        for (Item item : receipt.items) {
+            text.append(String.format("%-15s %-10d %-10.2f %-10.2f%s%n", item.itemName, item.quantity, item.unitPrice,
+                    item.lineTotal, item.reversed ? (urdu ? "  (ریورس شدہ)" : "  (reversed)") : ""));
+        }
+        text.append(String.format("%n%s %d / %d%n", urdu ? "لائنیں / مقدار:" : "Lines / Qty:",
+                receipt.lineCount, receipt.totalQuantity));
+        text.append(String.format("%s %.2f%n", urdu ? "کل رقم:" : "Grand Total:", receipt.totalAmount));
+        if (receipt.reversed) {
+            text.append(urdu ? "یہ انوائس ریورس ہو چکی ہے۔" : "This invoice has been reversed.").append('\n');
+        }
+        return text.toString();
+    }
+
+    /** Loads the receipt of {@code saleId} in the background and shows it. */
+    public static void showForSale(Component owner, Database db, int saleId, boolean urdu) {
+        DataExecutor.getInstance().run(owner, () -> loadForSale(db, saleId), receipt -> {
+            if (receipt == null) {
+                JOptionPane.showMessageDialog(owner,
+                    urdu ? "اس سیلز کی کوئی انوائس موجود نہیں۔" : "No invoice is recorded for this sale.",
+                    urdu ? "رسید" : "Receipt", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+            JTextArea text = new JTextArea(format(receipt, urdu));
+            text.setEditable(false);
+            text.setRows(Math.min(25, receipt.items.size() + 10));
+            text.setFont(urdu ? FontRegistry.urdu(Font.PLAIN, 16) : FontRegistry.get("Monospaced", Font.PLAIN, 12));
+            JOptionPane.showMessageDialog(owner, new JScrollPane(text),
+                (urdu ? "رسید #" : "Receipt #") + receipt.invoiceId, JOptionPane.PLAIN_MESSAGE);
+        });
+    }
+}
@@ -0,0 +1,453 @@
+package BookStoreManagement;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Local store-and-forward log for sales made while MySQL is unreachable.
+ *
+ * The journal is a memory-mapped file: a small header (magic, write position,
+ * replay position) followed by records of {magic, length, crc32, payload}.
+ * {@link #append} returns once the record is forced to disk; appends that arrive
+ * while a force is running share the next one, so a busy till pays for one fsync
+ * per batch rather than one per sale.
+ *
+ * A background thread replays records in order once the database answers again.
+ * Each record carries a journal id that is inserted into sale_journal_applied in
+ * the same transaction as the sale, so a record that was applied just before a
+ * crash is skipped instead of being recorded twice. The checkout takes the id from
+ * {@link #newJournalId()} before it tries the database and records it with the
+ * online sale as well: when a commit fails in a way that may still have
+ * succeeded, the sale is journaled under that id and the replay skips it if it
+ * did land.
+ */
+public class SaleJournal {
+    private static final SaleJournal INSTANCE = new SaleJournal();
+
+    private static final int FILE_MAGIC = 0x534A4E31; // "SJN1"
+    private static final int RECORD_MAGIC = 0x53414C45; // "SALE"
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_HEADER_SIZE = 12;
+    private static final int DEFAULT_CAPACITY = 8 * 1024 * 1024;
+    private static final long REPLAY_INTERVAL_MS = 5_000L;
+
+    private MappedByteBuffer buffer;
+    private FileChannel channel;
+    private int writePos;
+    private int replayPos;
+
+    // Group commit bookkeeping, guarded by this
+    private long appendedSeq = 0;
+    private long flushedSeq = 0;
+    private IOException flushError;
+
+    private Database db;
+    private ScheduledExecutorService replayer;
+    private static volatile boolean tableChecked = false;
+
+    SaleJournal() {
+    }
+
+    public static SaleJournal getInstance() {
+        return INSTANCE;
+    }
+
+    /** Opens (or creates) the journal file and starts the flusher and replayer threads. */
+    public synchronized void start(Database db, String path) throws IOException {
+        if (buffer != null) {
+            return;
+        }
+        this.db = db;
+        open(path);
+        replayer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sale-journal-replay");
+            t.setDaemon(true);
+            return t;
+        });
+        replayer.scheduleWithFixedDelay(this::replay, 0, REPLAY_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        if (writePos > replayPos) {
+            System.out.println("📒 Sale journal has " + countPending() + " sale(s) waiting to be synced.");
+        }
+    }
+
+    // Maps the file and starts the flusher; replay is left to the caller
+    synchronized void open(String path) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(path, "rw");
+        boolean fresh = file.length() < HEADER_SIZE;
+        channel = file.getChannel();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(DEFAULT_CAPACITY, file.length()));
+        if (fresh || buffer.getInt(0) != FILE_MAGIC) {
+            buffer.putInt(0, FILE_MAGIC);
+            writePos = HEADER_SIZE;
+            replayPos = HEADER_SIZE;
+            writeHeader();
+            buffer.force();
+        } else {
+            writePos = buffer.getInt(4);
+            replayPos = buffer.getInt(8);
+            recoverTail();
+        }
+
+        Thread flusher = new Thread(this::flushLoop, "sale-journal-flush");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public boolean isStarted() {
+        return buffer != null;
+    }
+
+    /** A fresh id for a sale that may end up in the journal. */
+    public static String newJournalId() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Stores a completed sale under {@code journalId} and waits until it is on disk.
+     * Pass the id the online attempt recorded, if there was one.
+     */
+    public void append(String journalId, List<SaleTransaction.Line> lines, String paymentType, String customerName,
+                       String customerPhone, Timestamp saleDate) throws IOException {
+        byte[] payload = encode(journalId, lines, paymentType, customerName, customerPhone, saleDate);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        long mySeq;
+        synchronized (this) {
+            if (buffer == null) {
+                throw new IOException("Sale journal is not open.");
+            }
+            int needed = RECORD_HEADER_SIZE + payload.length;
+            if (writePos + needed > buffer.capacity()) {
+                throw new IOException("Sale journal is full; reconnect to the database to sync pending sales.");
+            }
+            ByteBuffer view = buffer.duplicate();
+            view.position(writePos);
+            view.putInt(RECORD_MAGIC);
+            view.putInt(payload.length);
+            view.putInt((int) crc.getValue());
+            view.put(payload);
+            if (view.remaining() >= 4) {
+                view.putInt(0); // Terminator so stale bytes from before a reset never look like a record
+            }
+            writePos += needed;
+            writeHeader();
+            mySeq = ++appendedSeq;
+            notifyAll();
+            while (flushedSeq < mySeq && flushError == null) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while saving the sale.", e);
+                }
+            }
+            if (flushedSeq < mySeq) {
+                throw flushError;
+            }
+        }
+        if (replayer != null) {
+            replayer.schedule(this::replay, REPLAY_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized int countPending() {
+        int count = 0;
+        int pos = replayPos;
+        while (pos < writePos) {
+            int len = buffer.getInt(pos + 4);
+            pos += RECORD_HEADER_SIZE + len;
+            count++;
+        }
+        return count;
+    }
+
+    // One force() covers every append made since the previous one
+    private void flushLoop() {
+        while (true) {
+            long target;
+            synchronized (this) {
+                while (appendedSeq == flushedSeq) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                target = appendedSeq;
+            }
+            IOException error = null;
+            try {
+                buffer.force();
+            } catch (RuntimeException e) {
+                error = new IOException("Could not write the sale journal to disk.", e);
+            }
+            synchronized (this) {
+                if (error == null) {
+                    flushedSeq = target;
+                    flushError = null;
+                } else {
+                    flushError = error;
+                }
+                notifyAll();
+                if (error != null) {
+                    try {
+                        wait(1000); // Back off before retrying a failing disk
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    void replay() {
+        if (db != null && !SchemaMigrator.isPrepared()) {
+            // The till started offline: migrate and detect the schema before syncing anything
+            try {
+                SchemaMigrator.prepare(db);
+                System.out.println("📒 Database reachable again; schema checks completed.");
+            } catch (SQLException e) {
+                // Retried next tick; applySale below finds out whether the database is reachable
+            }
+        }
+        try {
+            while (true) {
+                byte[] payload;
+                int next;
+                synchronized (this) {
+                    if (replayPos >= writePos) {
+                        // Everything is applied; start the file over so it never fills up
+                        if (replayPos > HEADER_SIZE) {
+                            writePos = HEADER_SIZE;
+                            replayPos = HEADER_SIZE;
+                            buffer.putInt(HEADER_SIZE, 0);
+                            writeHeader();
+                        }
+                        return;
+                    }
+                    payload = readRecord(replayPos);
+                    if (payload == null) {
+                        System.out.println("⚠️ Sale journal record at " + replayPos + " is corrupt; stopping replay.");
+                        return;
+                    }
+                    next = replayPos + RECORD_HEADER_SIZE + payload.length;
+                }
+                if (!apply(payload)) {
+                    return; // Database still unavailable, try again later
+                }
+                synchronized (this) {
+                    replayPos = next;
+                    writeHeader();
+                }
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Returns false when the database could not be reached
+    private boolean apply(byte[] payload) {
+        DecodedSale sale;
+        try {
+            sale = decode(payload);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+        return applySale(sale);
+    }
+
+    // Records one decoded sale; false when the database could not be reached
+    boolean applySale(DecodedSale sale) {
+        try (Connection conn = db.getConnection()) {
+            if (conn == null) {
+                return false;
+            }
+            ensureAppliedTable(conn);
+            conn.setAutoCommit(false);
+            try {
+                try {
+                    markApplied(conn, sale.journalId);
+                } catch (SQLIntegrityConstraintViolationException duplicate) {
+                    conn.rollback();
+                    return true; // Already recorded, online or before a crash; nothing to do
+                }
+                new SaleTransaction(db).write(conn, sale.lines, SaleTransaction.normalizePaymentType(sale.paymentType),
+                        sale.customerName, sale.customerPhone, sale.saleDate, System.nanoTime());
+                conn.commit();
+                System.out.println("📒 Synced offline sale " + sale.journalId);
+                CatalogCache.getInstance().refreshNow();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            if (isConnectionFailure(e)) {
+                System.out.println("Sale journal replay waiting for the database: " + e.getMessage());
+                return false;
+            }
+            // The sale itself is bad (e.g. the item was deleted meanwhile). Keep a readable copy
+            // and move on so one bad record does not hold back every sale behind it.
+            System.out.println("⚠️ Offline sale " + sale.journalId + " could not be applied: " + e.getMessage());
+            reject(sale, e);
+            return true;
+        }
+    }
+
+    /** True for errors that mean "database unreachable" (SQLState class 08) rather than "this statement is wrong". */
+    static boolean isConnectionFailure(SQLException e) {
+        String state = e.getSQLState();
+        return e instanceof java.sql.SQLTransientConnectionException
+                || e instanceof java.sql.SQLNonTransientConnectionException
+                || (state != null && state.startsWith("08"));
+    }
+
+    /**
+     * Records {@code journalId} as applied, inside the caller's transaction. Throws
+     * SQLIntegrityConstraintViolationException when it already was.
+     */
+    static void markApplied(Connection conn, String journalId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO sale_journal_applied (journal_id) VALUES (?)")) {
+            stmt.setString(1, journalId);
+            stmt.executeUpdate();
+        }
+    }
+
+    private void reject(DecodedSale sale, SQLException cause) {
+        try (java.io.PrintWriter out = new java.io.PrintWriter(new java.io.OutputStreamWriter(
+                new java.io.FileOutputStream("sale-journal-rejected.txt", true), java.nio.charset.StandardCharsets.UTF_8))) {
+            out.printf("%s  %s  %s  %s/%s  (%s)%n", sale.journalId, sale.saleDate, sale.paymentType,
+                    sale.customerName, sale.customerPhone, cause.getMessage());
+            for (SaleTransaction.Line line : sale.lines) {
+                out.printf("    %s [%s] x%d @ %.2f = %.2f%n", line.itemName, line.condition,
+                        line.quantity, line.unitPrice, line.lineTotal);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Schema migration 3 creates this too; kept because a sync can start before the startup migration has run.
+    // DDL commits implicitly, so call it before the transaction starts.
+    static void ensureAppliedTable(Connection conn) throws SQLException {
+        if (tableChecked) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS sale_journal_applied (" +
+                         "journal_id varchar(36) NOT NULL PRIMARY KEY, " +
+                         "applied_at timestamp NULL DEFAULT CURRENT_TIMESTAMP)");
+        }
+        tableChecked = true;
+    }
+
+    // Picks up records that reached the file but whose header update did not
+    private void recoverTail() {
+        int pos = writePos;
+        byte[] payload;
+        while ((payload = readRecord(pos)) != null) {
+            pos += RECORD_HEADER_SIZE + payload.length;
+        }
+        if (pos != writePos) {
+            writePos = pos;
+            writeHeader();
+        }
+    }
+
+    // Returns the payload when a complete record with a matching checksum starts at pos
+    private byte[] readRecord(int pos) {
+        if (pos + RECORD_HEADER_SIZE > buffer.capacity() || buffer.getInt(pos) != RECORD_MAGIC) {
+            return null;
+        }
+        int len = buffer.getInt(pos + 4);
+        if (len <= 0 || pos + RECORD_HEADER_SIZE + len > buffer.capacity()) {
+            return null;
+        }
+        byte[] payload = new byte[len];
+        ByteBuffer view = buffer.duplicate();
+        view.position(pos + RECORD_HEADER_SIZE);
+        view.get(payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue() == buffer.getInt(pos + 8) ? payload : null;
+    }
+
+    private void writeHeader() {
+        buffer.putInt(4, writePos);
+        buffer.putInt(8, replayPos);
+    }
+
+    static byte[] encode(String journalId, List<SaleTransaction.Line> lines, String paymentType,
+                                 String customerName, String customerPhone, Timestamp saleDate) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(journalId);
+            out.writeLong(saleDate.getTime());
+            out.writeUTF(paymentType);
+            out.writeUTF(customerName);
+            out.writeUTF(customerPhone);
+            out.writeInt(lines.size());
+            for (SaleTransaction.Line line : lines) {
+                out.writeUTF(line.itemName);
+                out.writeUTF(line.barcode == null ? "" : line.barcode);
+                out.writeInt(line.quantity);
+                out.writeDouble(line.unitPrice);
+                out.writeDouble(line.lineTotal);
+                out.writeUTF(line.condition);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    static DecodedSale decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            DecodedSale sale = new DecodedSale();
+            sale.journalId = in.readUTF();
+            sale.saleDate = new Timestamp(in.readLong());
+            sale.paymentType = in.readUTF();
+            sale.customerName = in.readUTF();
+            sale.customerPhone = in.readUTF();
+            int count = in.readInt();
+            sale.lines = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                sale.lines.add(new SaleTransaction.Line(in.readUTF(), in.readUTF(), in.readInt(),
+                        in.readDouble(), in.readDouble(), in.readUTF()));
+            }
+            return sale;
+        }
+    }
+
+    static class DecodedSale {
+        String journalId;
+        Timestamp saleDate;
+        String paymentType;
+        String customerName;
+        String customerPhone;
+        List<SaleTransaction.Line> lines;
+    }
+}
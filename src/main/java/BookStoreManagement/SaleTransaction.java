@@ -0,0 +1,291 @@
+package BookStoreManagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a whole invoice in one database transaction.
+ *
+ * All cart lines are resolved to item ids (and profit margins) with a single
+ * query, an {@link SaleInvoice} header row holds the invoice totals, the sales rows and the stock/sold decrements go out as two JDBC batches,
+ * and {@link LedgerPosting} writes the customer's deals rows as one batch and
+ * their balance once with the invoice total. The daily P&L rollup is updated in
+ * the same transaction. Nothing is kept if any step fails.
+ */
+public class SaleTransaction {
+    private final Database db;
+
+    public SaleTransaction(Database db) {
+        this.db = db;
+    }
+
+    /** One cart row as built by OrderDialog. */
+    public static class Line {
+        final String itemName;
+        final String barcode;
+        final int quantity;
+        final double unitPrice;
+        final double lineTotal;
+        final String condition;
+
+        public Line(String itemName, String barcode, int quantity, double unitPrice, double lineTotal, String condition) {
+            this.itemName = itemName;
+            this.barcode = barcode;
+            this.quantity = quantity;
+            this.unitPrice = unitPrice;
+            this.lineTotal = lineTotal;
+            this.condition = condition;
+        }
+
+        /** Builds a line from an OrderDialog cart row (name, barcode, qty, price, discount, total, condition). */
+        public static Line fromCartRow(Object[] row) {
+            return new Line((String) row[0], (String) row[1], (int) row[2], (double) row[3], (double) row[5], (String) row[6]);
+        }
+    }
+
+    /** What was written, for the caller's confirmation message. */
+    public static class Result {
+        public final int customerId;
+        public final int lineCount;
+        public final double total;
+        public final long elapsedNanos;
+
+        Result(int customerId, int lineCount, double total, long elapsedNanos) {
+            this.customerId = customerId;
+            this.lineCount = lineCount;
+            this.total = total;
+            this.elapsedNanos = elapsedNanos;
+        }
+    }
+
+    public Result commit(List<Line> lines, String paymentType, String customerName, String customerPhone) throws SQLException {
+        return commit(lines, paymentType, customerName, customerPhone, new Timestamp(System.currentTimeMillis()));
+    }
+
+    /**
+     * Records the sale. {@code saleDate} is shared by every line so the invoice's rows
+     * stay together in the sales grid and reports.
+     */
+    public Result commit(List<Line> lines, String paymentType, String customerName, String customerPhone,
+                         Timestamp saleDate) throws SQLException {
+        return commit(lines, paymentType, customerName, customerPhone, saleDate, null);
+    }
+
+    /**
+     * Records the sale and, when {@code journalId} is given, marks that id applied in
+     * sale_journal_applied in the same transaction. A sale whose commit failed without
+     * a clear outcome can then go to the {@link SaleJournal} under the same id, and
+     * its replay is skipped if the commit did go through.
+     */
+    public Result commit(List<Line> lines, String paymentType, String customerName, String customerPhone,
+                         Timestamp saleDate, String journalId) throws SQLException {
+        if (lines.isEmpty()) {
+            throw new SQLException("Cannot record an empty sale.");
+        }
+        String payment = normalizePaymentType(paymentType);
+        SchemaMigrator.awaitStartup();
+        long start = System.nanoTime(); // Commit latency, shown per invoice; excludes the startup wait
+
+        try (Connection conn = db.getConnection()) {
+            if (conn == null) {
+                throw new SQLNonTransientConnectionException("Database is not reachable.", "08001");
+            }
+            if (journalId != null) {
+                SaleJournal.ensureAppliedTable(conn);
+            }
+            conn.setAutoCommit(false);
+            try {
+                if (journalId != null) {
+                    SaleJournal.markApplied(conn, journalId);
+                }
+                Result result = write(conn, lines, payment, customerName, customerPhone, saleDate, start);
+                conn.commit();
+                return new Result(result.customerId, result.lineCount, result.total, System.nanoTime() - start);
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Does the writes on a connection whose transaction the caller controls. Used by
+     * {@link #commit} and by callers that need to add their own rows to the same transaction.
+     */
+    Result write(Connection conn, List<Line> lines, String payment, String customerName, String customerPhone,
+                 Timestamp saleDate, long start) throws SQLException {
+        Map<Integer, Double> margins = new HashMap<>();
+        Map<String, Integer> itemIds = resolveItemIds(conn, lines, margins);
+
+        int customerId = 0; // Walk-in cash sales are recorded against customer 0
+        if ("account".equals(payment)) {
+            customerId = findOrCreateCustomer(conn, customerName, customerPhone);
+        }
+
+        Integer invoiceId = SaleInvoice.isReady()
+                ? SaleInvoice.insert(conn, customerId, customerName, payment, saleDate, lines) : null;
+
+        String insertSale = "INSERT INTO sales (item_id, customer_id, quantity, total_price, sale_date, item_name, " +
+                            "payment_type, sale_price, barcode, customer_name, profit" +
+                            (invoiceId == null ? ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"
+                                               : ", invoice_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        String updateStock = "UPDATE inventory SET stock = stock - ?, sold = sold + ? WHERE item_id = ?";
+        double total = 0;
+        List<Integer> saleIds = new ArrayList<>();
+        try (PreparedStatement saleStmt = conn.prepareStatement(insertSale, Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement stockStmt = conn.prepareStatement(updateStock)) {
+            for (Line line : lines) {
+                int itemId = itemIds.get(itemKey(line.itemName, conditionValue(line.condition)));
+                saleStmt.setInt(1, itemId);
+                saleStmt.setInt(2, customerId);
+                saleStmt.setInt(3, line.quantity);
+                saleStmt.setDouble(4, line.lineTotal);
+                saleStmt.setTimestamp(5, saleDate);
+                saleStmt.setString(6, line.itemName);
+                saleStmt.setString(7, payment);
+                saleStmt.setDouble(8, line.unitPrice);
+                saleStmt.setString(9, line.barcode);
+                saleStmt.setString(10, customerName);
+                Double profit = LedgerPosting.profit(line.lineTotal, margins.get(itemId));
+                if (profit == null) {
+                    saleStmt.setNull(11, Types.DOUBLE);
+                } else {
+                    saleStmt.setDouble(11, profit);
+                }
+                if (invoiceId != null) {
+                    saleStmt.setInt(12, invoiceId);
+                }
+                saleStmt.addBatch();
+
+                stockStmt.setInt(1, line.quantity);
+                stockStmt.setInt(2, line.quantity);
+                stockStmt.setInt(3, itemId);
+                stockStmt.addBatch();
+
+                total += line.lineTotal;
+            }
+            saleStmt.executeBatch();
+            try (ResultSet keys = saleStmt.getGeneratedKeys()) {
+                while (keys.next()) {
+                    saleIds.add(keys.getInt(1));
+                }
+            }
+            stockStmt.executeBatch();
+        }
+        LedgerPosting.postSale(conn, customerId, customerName, payment, saleIds, lines);
+        DailyRollup.sales(conn, saleIds, 1);
+        return new Result(customerId, lines.size(), total, System.nanoTime() - start);
+    }
+
+    // One round-trip for every distinct (item_name, item_condition) in the cart; fills margins by item id
+    private Map<String, Integer> resolveItemIds(Connection conn, List<Line> lines, Map<Integer, Double> margins)
+            throws SQLException {
+        List<String[]> keys = new ArrayList<>();
+        Map<String, Integer> ids = new HashMap<>();
+        for (Line line : lines) {
+            String condition = conditionValue(line.condition);
+            String key = itemKey(line.itemName, condition);
+            if (!ids.containsKey(key)) {
+                ids.put(key, null);
+                keys.add(new String[]{line.itemName, condition});
+            }
+        }
+        StringBuilder sql = new StringBuilder(
+                "SELECT item_id, item_name, item_condition, profit_margin FROM inventory WHERE (item_name, item_condition) IN (");
+        for (int i = 0; i < keys.size(); i++) {
+            sql.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+        }
+        sql.append(")");
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (String[] key : keys) {
+                stmt.setString(index++, key[0]);
+                stmt.setString(index++, key[1]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int itemId = rs.getInt("item_id");
+                    ids.put(itemKey(rs.getString("item_name"), rs.getString("item_condition")), itemId);
+                    double margin = rs.getDouble("profit_margin");
+                    margins.put(itemId, rs.wasNull() ? null : margin);
+                }
+            }
+        }
+        for (String[] key : keys) {
+            if (ids.get(itemKey(key[0], key[1])) == null) {
+                throw new SQLException("Item not found in inventory: " + key[0] + " (" + key[1] + ")");
+            }
+        }
+        return ids;
+    }
+
+    private int findOrCreateCustomer(Connection conn, String name, String phone) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT customer_id FROM customers WHERE customer_name = ? AND phone = ? LIMIT 1")) {
+            stmt.setString(1, name);
+            stmt.setString(2, phone);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO customers (customer_name, phone, balance, customer_type) VALUES (?, ?, 0, 'temporary')",
+                Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, name);
+            stmt.setString(2, phone);
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    return keys.getInt(1);
+                }
+            }
+        }
+        throw new SQLException("Could not create customer " + name);
+    }
+
+    // Inventory lookups are case-insensitive (utf8mb4_0900_ai_ci), so the map key is too
+    private static String itemKey(String name, String condition) {
+        return name.toLowerCase() + "\u0000" + condition.toLowerCase();
+    }
+
+    /** Maps the checkout's payment label (English or Urdu) to the sales.payment_type enum. */
+    static String normalizePaymentType(String paymentType) {
+        if (paymentType == null) {
+            return "cash";
+        }
+        String p = paymentType.trim().toLowerCase();
+        if (p.equals("account") || p.equals("اکاؤنٹ")) {
+            return "account";
+        }
+        return "cash";
+    }
+
+    /** Maps the checkout's condition label (English or Urdu) to the inventory.item_condition enum. */
+    static String conditionValue(String condition) {
+        if (condition == null) {
+            return "new";
+        }
+        String c = condition.trim().toLowerCase();
+        if (c.equals("استعمال شدہ")) {
+            return "used";
+        }
+        if (c.equals("نیا")) {
+            return "new";
+        }
+        return c;
+    }
+}
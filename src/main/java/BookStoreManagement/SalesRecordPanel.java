@@ -1,17 +1,18 @@
 package BookStoreManagement;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.*;
-import java.util.Vector;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 public class SalesRecordPanel extends JPanel implements LanguageChangeListener {
 
     private Database db;
     private JTable salesTable;
-    private DefaultTableModel tableModel;
-    private JButton createSaleButton, reverseSaleButton, refreshButton;
+    private PagedTableModel tableModel;
+    private JButton createSaleButton, reverseSaleButton, viewReceiptButton, reverseInvoiceButton, refreshButton;
     private JScrollPane scrollPane;
     
     // Local variable to store current language (default: English)
@@ -21,16 +22,20 @@ public class SalesRecordPanel extends JPanel implements LanguageChangeListener {
         this.db = db;
         setLayout(new BorderLayout());
 
-        // Initialize table model with default (English) column headers
-        tableModel = new DefaultTableModel(new String[]{
-            "Sale ID", "Customer Name", "Barcode", "Item Name", "Quantity", "Total Price", "Sale Date", "Reversed"
-        }, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // No editing allowed
-            }
-        };
+        // Read-only paged model with default (English) column headers; rows load as the table scrolls
+        tableModel = new PagedTableModel(db, "sales", Arrays.asList(
+            new PagedTableModel.Column("sale_id", "Sale ID", PagedTableModel.Type.INT),
+            new PagedTableModel.Column("customer_name", "Customer Name", PagedTableModel.Type.STRING),
+            new PagedTableModel.Column("barcode", "Barcode", PagedTableModel.Type.STRING),
+            new PagedTableModel.Column("item_name", "Item Name", PagedTableModel.Type.STRING),
+            new PagedTableModel.Column("quantity", "Quantity", PagedTableModel.Type.INT),
+            new PagedTableModel.Column("total_price", "Total Price", PagedTableModel.Type.DOUBLE),
+            new PagedTableModel.Column("sale_date", "Sale Date", PagedTableModel.Type.TIMESTAMP),
+            new PagedTableModel.Column("reversed", "Reversed", PagedTableModel.Type.FLAG)
+        ), Collections.singletonList(new PagedTableModel.SortKey("sale_id", false)));
+        tableModel.setBusyOwner(this);
         salesTable = new JTable(tableModel);
+        salesTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION); // Several sales can be reversed at once
         // Increase table header font (e.g. to 18pt) based on language
         salesTable.getTableHeader().setFont(new Font("Arial", Font.BOLD, 18));
         scrollPane = new JScrollPane(salesTable);
@@ -49,6 +54,15 @@ public class SalesRecordPanel extends JPanel implements LanguageChangeListener {
         reverseSaleButton.addActionListener(e -> reverseSale());
         topPanel.add(reverseSaleButton);
 
+        // Receipt and whole-invoice actions for the selected sale's invoice
+        viewReceiptButton = new JButton("View Receipt");
+        viewReceiptButton.addActionListener(e -> viewReceipt());
+        topPanel.add(viewReceiptButton);
+
+        reverseInvoiceButton = new JButton("Reverse Invoice");
+        reverseInvoiceButton.addActionListener(e -> reverseInvoice());
+        topPanel.add(reverseInvoiceButton);
+
         // Refresh Button
         refreshButton = new JButton("Refresh");
         refreshButton.addActionListener(e -> loadSalesData());
@@ -67,127 +81,125 @@ public class SalesRecordPanel extends JPanel implements LanguageChangeListener {
     }
     
     public void loadSalesData() {
-        tableModel.setRowCount(0);
-        try (Connection conn = db.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(
-                     "SELECT sale_id, barcode, customer_name, item_name, quantity, total_price, sale_date, reversed FROM sales");
-             ResultSet rs = pstmt.executeQuery()) {
-
-            while (rs.next()) {
-                int saleId = rs.getInt("sale_id");
-                String customerName = rs.getString("customer_name");
-                String itemName = rs.getString("item_name");
-                double totalAmount = rs.getDouble("total_price");
-                int barcode = rs.getInt("barcode");
-                int quantity = rs.getInt("quantity");
-                String reversed = rs.getBoolean("reversed") ? (currentLanguage.equalsIgnoreCase("Urdu") ? "ہاں" : "Yes")
-                        : (currentLanguage.equalsIgnoreCase("Urdu") ? "نہیں" : "No");
-                Timestamp saleDate = rs.getTimestamp("sale_date");
-
-                tableModel.addRow(new Object[]{saleId, customerName, barcode, itemName, quantity, totalAmount, saleDate, reversed});
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        tableModel.refresh();
     }
     
     private void reverseSale() {
-        int selectedRow = salesTable.getSelectedRow();
-        if (selectedRow == -1) {
+        boolean urdu = currentLanguage.equalsIgnoreCase("Urdu");
+        int[] selectedRows = salesTable.getSelectedRows();
+        if (selectedRows.length == 0) {
             JOptionPane.showMessageDialog(this, 
-                currentLanguage.equalsIgnoreCase("Urdu") ? "براہ کرم ریورس کرنے کے لیے سیلز منتخب کریں۔" : "Select a sale to reverse/unreverse.", 
-                currentLanguage.equalsIgnoreCase("Urdu") ? "خرابی" : "Error", JOptionPane.ERROR_MESSAGE);
+                urdu ? "براہ کرم ریورس کرنے کے لیے سیلز منتخب کریں۔" : "Select a sale to reverse/unreverse.", 
+                urdu ? "خرابی" : "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
 
-        int saleId = (int) tableModel.getValueAt(selectedRow, 0);
-        int quantity = (int) tableModel.getValueAt(selectedRow, 4);
-        double totalPrice = (double) tableModel.getValueAt(selectedRow, 5);
-        String reversedStatus = (String) tableModel.getValueAt(selectedRow, 7);
+        // Reverse the selection unless every selected sale is already reversed, in which case restore it
+        List<Integer> saleIds = new ArrayList<>();
+        boolean allReversed = true;
+        for (int row : selectedRows) {
+            int modelRow = salesTable.convertRowIndexToModel(row);
+            if (tableModel.getValueAt(modelRow, 0) == null) {
+                continue; // Row still loading
+            }
+            saleIds.add((int) tableModel.getValueAt(modelRow, 0));
+            allReversed &= (urdu ? "ہاں" : "Yes").equals(tableModel.getValueAt(modelRow, 7));
+        }
+        if (saleIds.isEmpty()) {
+            return;
+        }
 
-        if (reversedStatus.equals(currentLanguage.equalsIgnoreCase("Urdu") ? "ہاں" : "Yes")) {
+        String count = saleIds.size() == 1 ? "" : " (" + saleIds.size() + ")";
+        if (allReversed) {
             int confirm = JOptionPane.showConfirmDialog(this, 
-                currentLanguage.equalsIgnoreCase("Urdu") ?
-                "یہ سیلز پہلے ہی ریورس ہو چکی ہے۔ کیا آپ اس کو ان ریورس کرنا چاہتے ہیں؟" :
-                "This sale is already reversed. Do you want to unreversed it (undo the reversal)?",
-                currentLanguage.equalsIgnoreCase("Urdu") ? "تصدیق کریں" : "Confirm Unreverse", JOptionPane.YES_NO_OPTION);
+                urdu ?
+                "یہ سیلز پہلے ہی ریورس ہو چکی ہے۔ کیا آپ اس کو ان ریورس کرنا چاہتے ہیں؟" + count :
+                "This sale is already reversed. Do you want to unreversed it (undo the reversal)?" + count,
+                urdu ? "تصدیق کریں" : "Confirm Unreverse", JOptionPane.YES_NO_OPTION);
             if (confirm == JOptionPane.YES_OPTION) {
-                try (Connection conn = db.getConnection()) {
-                    conn.setAutoCommit(false);
-                    try (PreparedStatement stmt = conn.prepareStatement("UPDATE sales SET reversed = 0 WHERE sale_id = ?")) {
-                        stmt.setInt(1, saleId);
-                        stmt.executeUpdate();
-                    }
-                    try (PreparedStatement stmt = conn.prepareStatement("UPDATE deals SET reversed = 0 WHERE sale_id = ?")) {
-                        stmt.setInt(1, saleId);
-                        stmt.executeUpdate();
-                    }
-                    try (PreparedStatement stmt = conn.prepareStatement("UPDATE inventory SET stock = stock - ?, sold = sold + ? WHERE item_id = (SELECT item_id FROM sales WHERE sale_id = ?)")) {
-                        stmt.setInt(1, quantity);
-                        stmt.setInt(2, quantity);
-                        stmt.setInt(3, saleId);
-                        stmt.executeUpdate();
-                    }
-                    try (PreparedStatement stmt = conn.prepareStatement("UPDATE customers SET balance = balance + ? WHERE customer_name = (SELECT customer_name FROM sales WHERE sale_id = ?)")) {
-                        stmt.setDouble(1, totalPrice);
-                        stmt.setInt(2, saleId);
-                        stmt.executeUpdate();
-                    }
-                    conn.commit();
-                    JOptionPane.showMessageDialog(this, 
-                        currentLanguage.equalsIgnoreCase("Urdu") ? "سیلز کامیابی سے ان ریورس ہو گئی!" : "Sale unreversed successfully!", 
-                        currentLanguage.equalsIgnoreCase("Urdu") ? "کامیابی" : "Success", JOptionPane.INFORMATION_MESSAGE);
-                    loadSalesData();
-                } catch (SQLException ex) {
-                    ex.printStackTrace();
-                    JOptionPane.showMessageDialog(this, 
-                        currentLanguage.equalsIgnoreCase("Urdu") ? "سیلز ان ریورس کرنے میں خرابی!" : "Error unreversing sale!", 
-                        currentLanguage.equalsIgnoreCase("Urdu") ? "ڈیٹا بیس خرابی" : "Database Error", JOptionPane.ERROR_MESSAGE);
-                }
+                setReversed(saleIds, false);
             }
         } else {
             int confirm = JOptionPane.showConfirmDialog(this, 
-                currentLanguage.equalsIgnoreCase("Urdu") ?
-                "کیا آپ واقعی اس سیلز کو ریورس کرنا چاہتے ہیں؟" :
-                "Are you sure you want to reverse this sale?",
-                currentLanguage.equalsIgnoreCase("Urdu") ? "تصدیق کریں" : "Confirm Reverse", JOptionPane.YES_NO_OPTION);
+                urdu ?
+                "کیا آپ واقعی اس سیلز کو ریورس کرنا چاہتے ہیں؟" + count :
+                "Are you sure you want to reverse this sale?" + count,
+                urdu ? "تصدیق کریں" : "Confirm Reverse", JOptionPane.YES_NO_OPTION);
             if (confirm == JOptionPane.YES_OPTION) {
-                try (Connection conn = db.getConnection()) {
-                    conn.setAutoCommit(false);
-                    try (PreparedStatement stmt = conn.prepareStatement("UPDATE sales SET reversed = 1 WHERE sale_id = ?")) {
-                        stmt.setInt(1, saleId);
-                        stmt.executeUpdate();
-                    }
-                    try (PreparedStatement stmt = conn.prepareStatement("UPDATE deals SET reversed = 1 WHERE sale_id = ?")) {
-                        stmt.setInt(1, saleId);
-                        stmt.executeUpdate();
-                    }
-                    try (PreparedStatement stmt = conn.prepareStatement("UPDATE inventory SET stock = stock + ?, sold = sold - ? WHERE item_id = (SELECT item_id FROM sales WHERE sale_id = ?)")) {
-                        stmt.setInt(1, quantity);
-                        stmt.setInt(2, quantity);
-                        stmt.setInt(3, saleId);
-                        stmt.executeUpdate();
-                    }
-                    try (PreparedStatement stmt = conn.prepareStatement("UPDATE customers SET balance = balance - ? WHERE customer_name = (SELECT customer_name FROM sales WHERE sale_id = ?)")) {
-                        stmt.setDouble(1, totalPrice);
-                        stmt.setInt(2, saleId);
-                        stmt.executeUpdate();
-                    }
-                    conn.commit();
-                    JOptionPane.showMessageDialog(this, 
-                        currentLanguage.equalsIgnoreCase("Urdu") ? "سیلز کامیابی سے ریورس ہو گئی!" : "Sale reversed successfully!", 
-                        currentLanguage.equalsIgnoreCase("Urdu") ? "کامیابی" : "Success", JOptionPane.INFORMATION_MESSAGE);
-                    loadSalesData();
-                } catch (SQLException ex) {
-                    ex.printStackTrace();
-                    JOptionPane.showMessageDialog(this, 
-                        currentLanguage.equalsIgnoreCase("Urdu") ? "سیلز ریورس کرنے میں خرابی!" : "Error reversing sale!", 
-                        currentLanguage.equalsIgnoreCase("Urdu") ? "ڈیٹا بیس خرابی" : "Database Error", JOptionPane.ERROR_MESSAGE);
-                }
+                setReversed(saleIds, true);
             }
         }
     }
     
+    // Sale id of the selected row, or null (with a message) when there is none yet
+    private Integer selectedSaleId() {
+        boolean urdu = currentLanguage.equalsIgnoreCase("Urdu");
+        int row = salesTable.getSelectedRow();
+        if (row == -1) {
+            JOptionPane.showMessageDialog(this,
+                urdu ? "براہ کرم سیلز منتخب کریں۔" : "Select a sale first.",
+                urdu ? "خرابی" : "Error", JOptionPane.ERROR_MESSAGE);
+            return null;
+        }
+        return (Integer) tableModel.getValueAt(salesTable.convertRowIndexToModel(row), 0); // Null while loading
+    }
+
+    private void viewReceipt() {
+        Integer saleId = selectedSaleId();
+        if (saleId != null) {
+            SaleInvoice.showForSale(this, db, saleId, currentLanguage.equalsIgnoreCase("Urdu"));
+        }
+    }
+
+    // Reverses every line of the selected sale's invoice, or restores it if it is already reversed
+    private void reverseInvoice() {
+        Integer saleId = selectedSaleId();
+        if (saleId == null) {
+            return;
+        }
+        boolean urdu = currentLanguage.equalsIgnoreCase("Urdu");
+        DataExecutor.getInstance().run(this, () -> SaleInvoice.loadForSale(db, saleId), receipt -> {
+            if (receipt == null) {
+                JOptionPane.showMessageDialog(this,
+                    urdu ? "اس سیلز کی کوئی انوائس موجود نہیں۔" : "No invoice is recorded for this sale.",
+                    urdu ? "خرابی" : "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            String summary = String.format(urdu ? "انوائس #%d: %d لائنیں، کل %.2f" : "Invoice #%d: %d lines, total %.2f",
+                receipt.invoiceId, receipt.items.size(), receipt.totalAmount);
+            int confirm = JOptionPane.showConfirmDialog(this,
+                summary + "\n" + (receipt.reversed
+                    ? (urdu ? "کیا آپ اس انوائس کو ان ریورس کرنا چاہتے ہیں؟" : "Unreverse this whole invoice?")
+                    : (urdu ? "کیا آپ واقعی پوری انوائس ریورس کرنا چاہتے ہیں؟" : "Reverse this whole invoice?")),
+                urdu ? "تصدیق کریں" : "Confirm", JOptionPane.YES_NO_OPTION);
+            if (confirm == JOptionPane.YES_OPTION) {
+                setReversed(receipt.saleIds(), !receipt.reversed);
+            }
+        });
+    }
+
+    // Reverses (or undoes the reversal of) the sales in one background transaction
+    private void setReversed(List<Integer> saleIds, boolean reverse) {
+        boolean urdu = currentLanguage.equalsIgnoreCase("Urdu");
+        reverseSaleButton.setEnabled(false);
+        DataExecutor.getInstance().run(this, () -> new LedgerReversal(db).setSalesReversed(saleIds, reverse), ignored -> {
+            reverseSaleButton.setEnabled(true);
+            CatalogCache.getInstance().refreshNow();
+            JOptionPane.showMessageDialog(this, 
+                reverse ? (urdu ? "سیلز کامیابی سے ریورس ہو گئی!" : "Sale reversed successfully!")
+                        : (urdu ? "سیلز کامیابی سے ان ریورس ہو گئی!" : "Sale unreversed successfully!"), 
+                urdu ? "کامیابی" : "Success", JOptionPane.INFORMATION_MESSAGE);
+            loadSalesData();
+        }, ex -> {
+            reverseSaleButton.setEnabled(true);
+            ex.printStackTrace();
+            JOptionPane.showMessageDialog(this, 
+                reverse ? (urdu ? "سیلز ریورس کرنے میں خرابی!" : "Error reversing sale!")
+                        : (urdu ? "سیلز ان ریورس کرنے میں خرابی!" : "Error unreversing sale!"), 
+                urdu ? "ڈیٹا بیس خرابی" : "Database Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+    
     // ----------------- Language Change Implementation -----------------
     
    
@@ -202,13 +214,18 @@ public class SalesRecordPanel extends JPanel implements LanguageChangeListener {
         if (currentLanguage.equalsIgnoreCase("Urdu")) {
             createSaleButton.setText("سیلز بنائیں");
             reverseSaleButton.setText("سیلز ریورس کریں");
+            viewReceiptButton.setText("رسید دیکھیں");
+            reverseInvoiceButton.setText("انوائس ریورس کریں");
             refreshButton.setText("ریفریش");
-            tableModel.setColumnIdentifiers(new String[]{
+            tableModel.setColumnLabels(new String[]{
                 "سیلز آئی ڈی", "گاہک کا نام", "بارکوڈ", "آئٹم کا نام", "مقدار", "کل قیمت", "سیلز کی تاریخ", "ریورس شدہ"
             });
+            tableModel.setFlagLabels("ہاں", "نہیں");
             Font urduFont = new Font("Jameel Noori Nastaleeq", Font.BOLD, 18);
             createSaleButton.setFont(urduFont);
             reverseSaleButton.setFont(urduFont);
+            viewReceiptButton.setFont(urduFont);
+            reverseInvoiceButton.setFont(urduFont);
             refreshButton.setFont(urduFont);
             // Update table header font
             salesTable.getTableHeader().setFont(urduFont.deriveFont(urduFont.getSize2D() * 4/3f));
@@ -216,13 +233,18 @@ public class SalesRecordPanel extends JPanel implements LanguageChangeListener {
         } else {
             createSaleButton.setText("Create Sale");
             reverseSaleButton.setText("Reverse Sale");
+            viewReceiptButton.setText("View Receipt");
+            reverseInvoiceButton.setText("Reverse Invoice");
             refreshButton.setText("Refresh");
-            tableModel.setColumnIdentifiers(new String[]{
+            tableModel.setColumnLabels(new String[]{
                 "Sale ID", "Customer Name", "Barcode", "Item Name", "Quantity", "Total Price", "Sale Date", "Reversed"
             });
+            tableModel.setFlagLabels("Yes", "No");
             Font englishFont = new Font("Arial", Font.BOLD, 18);
             createSaleButton.setFont(englishFont);
             reverseSaleButton.setFont(englishFont);
+            viewReceiptButton.setFont(englishFont);
+            reverseInvoiceButton.setFont(englishFont);
             refreshButton.setFont(englishFont);
             salesTable.getTableHeader().setFont(englishFont.deriveFont(englishFont.getSize2D() * 4/3f));
             setComponentOrientation(ComponentOrientation.LEFT_TO_RIGHT);
@@ -0,0 +1,316 @@
+package BookStoreManagement;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Brings an existing database up to the schema this build expects.
+ *
+ * Each migration has a version and is either a script bundled under
+ * /db/migration (V&lt;version&gt;__&lt;description&gt;.sql, statements ending in ";")
+ * or a Java step. Pending migrations run in version order at startup and each
+ * one is recorded in schema_version once it has run, so it never runs again.
+ *
+ * Databases restored from the booksStoreDatabase dumps already have most of these
+ * objects, so "already exists" / "does not exist" errors (see
+ * {@link #TOLERATED_ERRORS}) are treated as the statement having been applied.
+ * DDL commits implicitly, so this always runs on its own connection, never inside
+ * a caller's transaction. A MySQL named lock keeps two terminals starting at the
+ * same time from migrating together.
+ *
+ * Sales and purchases must not write to a schema that is halfway through an
+ * upgrade, so they call {@link #awaitStartup} before opening their transaction.
+ */
+public final class SchemaMigrator {
+
+    private static final String RESOURCE_DIR = "/db/migration/";
+    private static final String LOCK_NAME = "bookstore_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+    // Longer than the lock wait so a terminal queued behind another one's migration still gets through
+    private static final int STARTUP_WAIT_SECONDS = 2 * LOCK_TIMEOUT_SECONDS;
+
+    private static volatile CompletableFuture<?> startup = CompletableFuture.completedFuture(null);
+    private static volatile boolean prepared = false;
+
+    // 1050 table exists, 1060 duplicate column, 1061 duplicate key name,
+    // 1091 can't drop (no such column/key), 1360 trigger does not exist
+    private static final Set<Integer> TOLERATED_ERRORS = new HashSet<>(Arrays.asList(1050, 1060, 1061, 1091, 1360));
+
+    private static final String CREATE_VERSION_TABLE =
+            "CREATE TABLE IF NOT EXISTS schema_version (" +
+            "version INT NOT NULL PRIMARY KEY, " +
+            "description VARCHAR(200) NOT NULL, " +
+            "script VARCHAR(200) NULL, " +
+            "execution_ms INT NOT NULL DEFAULT 0, " +
+            "applied_at TIMESTAMP NULL DEFAULT CURRENT_TIMESTAMP)";
+
+    /** A migration implemented in code, for steps that need more than DDL (e.g. a backfill). */
+    public interface Step {
+        void apply(Database db) throws SQLException;
+    }
+
+    private static final class Migration {
+        final int version;
+        final String description;
+        final String script; // Null for Java steps
+        final Step step;
+
+        Migration(int version, String description, String script, Step step) {
+            this.version = version;
+            this.description = description;
+            this.script = script;
+            this.step = step;
+        }
+    }
+
+    // In version order; never edit or renumber one that has shipped, add a new one instead
+    private static final List<Migration> MIGRATIONS = Arrays.asList(
+            script(1, "hot lookup indexes"),
+            script(2, "drop sale balance trigger"),
+            script(3, "sale journal applied"),
+            script(4, "inventory low stock"),
+            new Migration(5, "daily pnl rollup", null, DailyRollup::ensureTable),
+            script(6, "drop ledger triggers"),
+            script(7, "sale invoices"),
+            // Databases that ran V5 before the backfill was tracked are backfilled again, once
+            new Migration(8, "daily pnl backfill status", null, DailyRollup::ensureTable),
+            script(9, "deals purchase index")
+    );
+
+    private SchemaMigrator() {
+    }
+
+    private static Migration script(int version, String description) {
+        return new Migration(version, description, "V" + version + "__" + description.replace(' ', '_') + ".sql", null);
+    }
+
+    /** The version this build expects once every migration has run. */
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    /** Runs every pending migration. Returns how many were applied. */
+    public static int migrate(Database db) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("Database is not reachable.");
+            }
+            if (!acquireLock(conn)) {
+                throw new SQLException("Timed out waiting for another terminal to finish migrating the schema.");
+            }
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute(CREATE_VERSION_TABLE);
+                }
+                Set<Integer> applied = appliedVersions(conn);
+                int count = 0;
+                for (Migration migration : MIGRATIONS) {
+                    if (applied.contains(migration.version)) {
+                        continue;
+                    }
+                    long start = System.nanoTime();
+                    if (migration.script != null) {
+                        runScript(conn, migration.script);
+                    } else {
+                        migration.step.apply(db);
+                    }
+                    long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+                    record(conn, migration, elapsedMs);
+                    System.out.printf("🛠 Schema migrated to V%d (%s) in %d ms%n",
+                            migration.version, migration.description, elapsedMs);
+                    count++;
+                }
+                return count;
+            } finally {
+                releaseLock(conn);
+            }
+        }
+    }
+
+    /**
+     * Runs pending migrations, then detects the optional schema the writers adapt
+     * to (daily_pnl, inventory.low_stock, sales.invoice_id). Detection runs even
+     * when migrating fails, e.g. another terminal already migrated this database.
+     * Once both have succeeded later calls return at once; until then each call
+     * retries, so a till started offline catches up when the database returns.
+     */
+    public static synchronized void prepare(Database db) throws SQLException {
+        if (prepared) {
+            return;
+        }
+        SQLException failure = null;
+        try {
+            migrate(db);
+        } catch (SQLException e) {
+            failure = e;
+        }
+        try {
+            DailyRollup.detectSchema(db);
+            InventoryQuery.detectSchema(db);
+            SaleInvoice.detectSchema(db);
+        } catch (SQLException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        prepared = true;
+    }
+
+    /** True once {@link #prepare} has completed. */
+    public static boolean isPrepared() {
+        return prepared;
+    }
+
+    /** Records the startup migration so {@link #awaitStartup} can wait for it. */
+    public static void trackStartup(CompletableFuture<?> migration) {
+        startup = migration;
+    }
+
+    /**
+     * Waits for the startup migration to finish. A migration that failed does not
+     * block writes; its error is already logged and the statements report their own.
+     */
+    public static void awaitStartup() throws SQLException {
+        try {
+            startup.get(STARTUP_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new SQLException("The database is still being upgraded. Please try again in a moment.");
+        } catch (ExecutionException e) {
+            // Migration failed; carry on against the schema as it is
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the database upgrade.", e);
+        }
+    }
+
+    /** The highest version recorded in schema_version, or 0 on a database never migrated. */
+    public static int currentVersion(Database db) throws SQLException {
+        try (Connection conn = db.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                "SELECT COALESCE(MAX(version), 0) FROM schema_version");
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            if (e.getErrorCode() == 1146) { // Table doesn't exist
+                return 0;
+            }
+            throw e;
+        }
+    }
+
+    private static void runScript(Connection conn, String script) throws SQLException {
+        List<String> statements;
+        try {
+            statements = readStatements(script);
+        } catch (IOException e) {
+            throw new SQLException("Could not read migration " + script, e);
+        }
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : statements) {
+                try {
+                    stmt.execute(sql);
+                } catch (SQLException e) {
+                    if (!TOLERATED_ERRORS.contains(e.getErrorCode())) {
+                        throw new SQLException(script + ": " + e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+                    }
+                    System.out.println("Already applied (" + e.getErrorCode() + "): " + firstLine(sql));
+                }
+            }
+        }
+    }
+
+    // Statements end with ";" at the end of a line; "--" lines are comments
+    static List<String> readStatements(String script) throws IOException {
+        InputStream in = SchemaMigrator.class.getResourceAsStream(RESOURCE_DIR + script);
+        if (in == null) {
+            throw new IOException("Migration resource not found: " + RESOURCE_DIR + script);
+        }
+        List<String> statements = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            StringBuilder current = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                    continue;
+                }
+                current.append(current.length() == 0 ? "" : "\n").append(line);
+                if (trimmed.endsWith(";")) {
+                    current.setLength(current.length() - (line.length() - line.lastIndexOf(';')));
+                    statements.add(current.toString().trim());
+                    current.setLength(0);
+                }
+            }
+            if (current.toString().trim().length() > 0) {
+                statements.add(current.toString().trim());
+            }
+        }
+        return statements;
+    }
+
+    private static Set<Integer> appliedVersions(Connection conn) throws SQLException {
+        Set<Integer> versions = new HashSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT version FROM schema_version");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                versions.add(rs.getInt(1));
+            }
+        }
+        return versions;
+    }
+
+    private static void record(Connection conn, Migration migration, long elapsedMs) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO schema_version (version, description, script, execution_ms) VALUES (?, ?, ?, ?)")) {
+            stmt.setInt(1, migration.version);
+            stmt.setString(2, migration.description);
+            stmt.setString(3, migration.script);
+            stmt.setInt(4, (int) Math.min(Integer.MAX_VALUE, elapsedMs));
+            stmt.executeUpdate();
+        }
+    }
+
+    private static boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.executeQuery().close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static String firstLine(String sql) {
+        int newline = sql.indexOf('\n');
+        return newline < 0 ? sql : sql.substring(0, newline) + " ...";
+    }
+}
@@ -0,0 +1,511 @@
+package BookStoreManagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process full-text index over item names (with company, category,
+ * subcategory and barcode), customers, suppliers and transaction names, so the
+ * search screen can answer as the user types instead of running LIKE '%text%'
+ * scans.
+ *
+ * Text is normalized (NFKC, lower case, Arabic/Urdu diacritics and tatweel
+ * removed, Arabic ي/ى/ك/ه folded to Urdu ی/ک/ہ, Eastern digits to ASCII) and
+ * split into word trigrams padded with '$', so "کتاب" and "كتاب" match and a
+ * typo only costs a few grams. Matches are ranked with BM25 over the grams.
+ *
+ * Like {@link CatalogCache} it loads everything once in the background, then
+ * polls: inventory rows by last_change, the other tables by new ids, and a full
+ * rebuild every few minutes catches edits and deletes. A changed record is
+ * tombstoned and re-added; postings are compacted once a quarter of the
+ * documents are dead. Each kind has its own posting lists and BM25 statistics,
+ * so a customer search never walks item postings.
+ */
+public class SearchIndex {
+    private static final SearchIndex INSTANCE = new SearchIndex();
+
+    private static final long REFRESH_INTERVAL_MS = 5_000L;
+    private static final long FULL_RELOAD_INTERVAL_MS = 10 * 60_000L;
+
+    // BM25 parameters; the usual defaults
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    // A record must share this fraction of the query's grams, which still lets a typo through
+    private static final float MIN_MATCH_RATIO = 0.34f;
+
+    /** What a document is; search results are ids in that kind's table. */
+    public enum Kind {
+        ITEM("SELECT item_id, item_name, company, category, subcategory, barcode, last_change FROM inventory"),
+        CUSTOMER("SELECT customer_id, customer_name, phone, address FROM customers"),
+        SUPPLIER("SELECT supplier_id, supplier_name, phone, address FROM suppliers"),
+        TRANSACTION("SELECT transaction_id, name FROM transactions");
+
+        final String select;
+
+        Kind(String select) {
+            this.select = select;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Segment segment = null;
+
+    // Only touched by the refresher thread
+    private Timestamp lastSeenChange = null;
+    private final Map<Kind, Integer> lastSeenId = new HashMap<>();
+    private long lastFullReload = 0;
+    private boolean refreshFailing = false; // So an outage is reported once, not every poll
+
+    private Database db;
+    private ScheduledExecutorService refresher;
+
+    private SearchIndex() {
+    }
+
+    public static SearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /** Starts the initial load and the periodic refresh. Safe to call more than once. */
+    public synchronized void start(Database db) {
+        if (refresher != null) {
+            return;
+        }
+        this.db = db;
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "search-index-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        refresher.scheduleWithFixedDelay(this::refresh, 0, REFRESH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isLoaded() {
+        return segment != null;
+    }
+
+    /** Asks the refresher to pick up changes now, e.g. right after this terminal wrote a record. */
+    public void refreshNow() {
+        ScheduledExecutorService r = refresher;
+        if (r != null) {
+            r.execute(this::refresh);
+        }
+    }
+
+    /**
+     * Ids of the records of {@code kind} that best match {@code text}, best first.
+     * Empty when nothing matches or the index has not loaded yet.
+     */
+    public List<Integer> search(Kind kind, String text, int limit) {
+        Segment s = segment;
+        if (s == null || text == null) {
+            return Collections.emptyList();
+        }
+        Map<String, Integer> queryGrams = grams(normalize(text));
+        if (queryGrams.isEmpty()) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            return s.search(kind, queryGrams, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Adds or replaces one record, e.g. straight after this terminal saved it. */
+    public void put(Kind kind, int id, String... fields) {
+        Segment s = segment;
+        if (s == null) {
+            return; // The initial load will read it
+        }
+        lock.writeLock().lock();
+        try {
+            s.put(kind, id, String.join(" ", nonNull(fields)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Drops a deleted record. */
+    public void remove(Kind kind, int id) {
+        Segment s = segment;
+        if (s == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            s.remove(kind, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Folds the spellings a user may type for the same text together: NFKC, lower
+     * case, no Arabic-script diacritics or tatweel, Arabic letter forms mapped to
+     * the Urdu ones, Eastern digits to ASCII, and anything else that is not a
+     * letter or digit turned into a space.
+     */
+    static String normalize(String text) {
+        String s = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder out = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if ((c >= 'ً' && c <= 'ٟ') || c == 'ٰ' || (c >= 'ۖ' && c <= 'ۭ') || c == 'ـ') {
+                continue; // Harakat, superscript alef, Quranic marks, tatweel
+            }
+            switch (c) {
+                case 'ي': // Arabic yeh
+                case 'ى': // Alef maksura
+                    c = 'ی'; // Farsi/Urdu yeh
+                    break;
+                case 'ك': // Arabic kaf
+                    c = 'ک'; // Keheh
+                    break;
+                case 'ه': // Arabic heh
+                    c = 'ہ'; // Heh goal
+                    break;
+                default:
+                    if (c >= '٠' && c <= '٩') {
+                        c = (char) ('0' + (c - '٠'));
+                    } else if (c >= '۰' && c <= '۹') {
+                        c = (char) ('0' + (c - '۰'));
+                    }
+            }
+            out.append(Character.isLetterOrDigit(c) ? c : ' ');
+        }
+        return out.toString();
+    }
+
+    /** Padded word trigrams of normalized text, with their counts. */
+    static Map<String, Integer> grams(String normalized) {
+        Map<String, Integer> grams = new LinkedHashMap<>();
+        for (String word : normalized.trim().split("\\s+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "$" + word + "$";
+            if (padded.length() <= 3) {
+                grams.merge(padded, 1, Integer::sum);
+                continue;
+            }
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.merge(padded.substring(i, i + 3), 1, Integer::sum);
+            }
+        }
+        return grams;
+    }
+
+    private static List<String> nonNull(String[] fields) {
+        List<String> list = new ArrayList<>(fields.length);
+        for (String field : fields) {
+            if (field != null) {
+                list.add(field);
+            }
+        }
+        return list;
+    }
+
+    private void refresh() {
+        long now = System.currentTimeMillis();
+        boolean full = segment == null || now - lastFullReload > FULL_RELOAD_INTERVAL_MS;
+        try (Connection conn = db.getConnection()) {
+            if (conn == null) {
+                return;
+            }
+            if (full) {
+                loadAll(conn);
+                lastFullReload = now;
+            } else {
+                loadChanged(conn);
+            }
+            if (refreshFailing) {
+                refreshFailing = false;
+                System.out.println("Search index refresh is working again.");
+            }
+        } catch (SQLException e) {
+            // Keep serving the current index; the next poll will try again
+            if (!refreshFailing) {
+                refreshFailing = true;
+                System.out.println("Search index refresh failed: " + e.getMessage());
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Builds a fresh segment off the lock and swaps it in
+    private void loadAll(Connection conn) throws SQLException {
+        long start = System.nanoTime();
+        Segment fresh = new Segment();
+        Timestamp maxChange = null;
+        Map<Kind, Integer> maxIds = new HashMap<>();
+        for (Kind kind : Kind.values()) {
+            try (PreparedStatement stmt = conn.prepareStatement(kind.select);
+                 ResultSet rs = stmt.executeQuery()) {
+                int maxId = 0;
+                while (rs.next()) {
+                    int id = rs.getInt(1);
+                    fresh.put(kind, id, text(kind, rs));
+                    maxId = Math.max(maxId, id);
+                    if (kind == Kind.ITEM) {
+                        maxChange = later(maxChange, rs.getTimestamp("last_change"));
+                    }
+                }
+                maxIds.put(kind, maxId);
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            segment = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        lastSeenChange = maxChange;
+        lastSeenId.putAll(maxIds);
+        System.out.printf("🔎 Search index built: %d records in %.1f ms%n",
+                fresh.liveCount, (System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    private void loadChanged(Connection conn) throws SQLException {
+        if (lastSeenChange != null) {
+            // >= because last_change only has second precision; unchanged rows are skipped by put()
+            try (PreparedStatement stmt = conn.prepareStatement(Kind.ITEM.select + " WHERE last_change >= ?")) {
+                stmt.setTimestamp(1, lastSeenChange);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        put(Kind.ITEM, rs.getInt(1), text(Kind.ITEM, rs));
+                        lastSeenChange = later(lastSeenChange, rs.getTimestamp("last_change"));
+                    }
+                }
+            }
+        }
+        for (Kind kind : new Kind[]{Kind.CUSTOMER, Kind.SUPPLIER, Kind.TRANSACTION}) {
+            int lastId = lastSeenId.getOrDefault(kind, 0);
+            String idColumn = kind.select.substring("SELECT ".length(), kind.select.indexOf(','));
+            try (PreparedStatement stmt = conn.prepareStatement(kind.select + " WHERE " + idColumn + " > ?")) {
+                stmt.setInt(1, lastId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        int id = rs.getInt(1);
+                        put(kind, id, text(kind, rs));
+                        lastId = Math.max(lastId, id);
+                    }
+                }
+            }
+            lastSeenId.put(kind, lastId);
+        }
+    }
+
+    // Every selected column except the id (and last_change), joined into one document
+    private static String text(Kind kind, ResultSet rs) throws SQLException {
+        int columns = kind == Kind.ITEM ? 6 : rs.getMetaData().getColumnCount();
+        StringBuilder text = new StringBuilder();
+        for (int i = 2; i <= columns; i++) {
+            String value = rs.getString(i);
+            if (value != null) {
+                text.append(value).append(' ');
+            }
+        }
+        return text.toString();
+    }
+
+    private static Timestamp later(Timestamp a, Timestamp b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.after(b) ? a : b;
+    }
+
+    /** One growable posting list: document numbers and the gram's count in each. */
+    private static final class Postings {
+        int[] docs = new int[4];
+        byte[] tfs = new byte[4];
+        int size;
+
+        void add(int doc, int tf) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                tfs = Arrays.copyOf(tfs, size * 2);
+            }
+            docs[size] = doc;
+            tfs[size] = (byte) Math.min(tf, Byte.MAX_VALUE);
+            size++;
+        }
+    }
+
+    /** Running score of one document during a search. */
+    private static final class Hit {
+        final int doc;
+        float score;
+        int matched;
+
+        Hit(int doc) {
+            this.doc = doc;
+        }
+    }
+
+    /**
+     * The index proper. Document numbers are handed out in insertion order and
+     * never reused within a segment; a replaced or removed record's number is
+     * marked in {@code dead}. Callers hold the lock (write lock for changes).
+     */
+    private static final class Segment {
+        final List<Map<String, Postings>> postings = new ArrayList<>(); // Indexed by kind ordinal
+        final Map<Long, Integer> docOf = new HashMap<>(); // (kind, id) -> live document number
+        int[] docKind = new int[1024];
+        int[] docId = new int[1024];
+        int[] docLen = new int[1024];
+        String[] docText = new String[1024]; // Null once the document is dead
+        final BitSet dead = new BitSet();
+        int nextDoc;
+        int liveCount;
+        final int[] kindCount = new int[Kind.values().length];
+        final long[] kindLength = new long[Kind.values().length];
+
+        Segment() {
+            for (int i = 0; i < Kind.values().length; i++) {
+                postings.add(new HashMap<>());
+            }
+        }
+
+        void put(Kind kind, int id, String text) {
+            long key = ((long) kind.ordinal() << 32) | (id & 0xFFFFFFFFL);
+            Integer old = docOf.get(key);
+            if (old != null) {
+                if (text.equals(docText[old])) {
+                    return; // Re-read but unchanged
+                }
+                kill(old);
+            }
+            Map<String, Integer> grams = grams(normalize(text));
+            int doc = nextDoc++;
+            if (doc == docKind.length) {
+                int size = doc * 2;
+                docKind = Arrays.copyOf(docKind, size);
+                docId = Arrays.copyOf(docId, size);
+                docLen = Arrays.copyOf(docLen, size);
+                docText = Arrays.copyOf(docText, size);
+            }
+            Map<String, Postings> kindPostings = postings.get(kind.ordinal());
+            int length = 0;
+            for (Map.Entry<String, Integer> gram : grams.entrySet()) {
+                kindPostings.computeIfAbsent(gram.getKey(), g -> new Postings()).add(doc, gram.getValue());
+                length += gram.getValue();
+            }
+            docKind[doc] = kind.ordinal();
+            docId[doc] = id;
+            docLen[doc] = length;
+            docText[doc] = text;
+            docOf.put(key, doc);
+            liveCount++;
+            kindCount[kind.ordinal()]++;
+            kindLength[kind.ordinal()] += length;
+        }
+
+        void remove(Kind kind, int id) {
+            Integer old = docOf.remove(((long) kind.ordinal() << 32) | (id & 0xFFFFFFFFL));
+            if (old != null) {
+                kill(old);
+            }
+        }
+
+        private void kill(int doc) {
+            dead.set(doc);
+            docText[doc] = null;
+            liveCount--;
+            kindCount[docKind[doc]]--;
+            kindLength[docKind[doc]] -= docLen[doc];
+            if (dead.cardinality() > Math.max(1024, nextDoc / 4)) {
+                compact();
+            }
+        }
+
+        // Drops tombstoned entries from every posting list; document numbers stay as they are
+        private void compact() {
+            for (Map<String, Postings> kindPostings : postings) {
+                kindPostings.values().removeIf(p -> {
+                    int kept = 0;
+                    for (int i = 0; i < p.size; i++) {
+                        if (!dead.get(p.docs[i])) {
+                            p.docs[kept] = p.docs[i];
+                            p.tfs[kept] = p.tfs[i];
+                            kept++;
+                        }
+                    }
+                    p.size = kept;
+                    return kept == 0;
+                });
+            }
+            // Numbers of dead documents no longer appear in any posting list, so the marks can go
+            dead.clear();
+        }
+
+        List<Integer> search(Kind kind, Map<String, Integer> queryGrams, int limit) {
+            int wanted = kind.ordinal();
+            int count = kindCount[wanted];
+            if (count == 0) {
+                return Collections.emptyList();
+            }
+            float avgLength = (float) kindLength[wanted] / count;
+            Map<String, Postings> kindPostings = postings.get(wanted);
+            // Only documents sharing a gram with the query get an entry
+            Map<Integer, Hit> hits = new HashMap<>();
+
+            for (Map.Entry<String, Integer> gram : queryGrams.entrySet()) {
+                Postings p = kindPostings.get(gram.getKey());
+                if (p == null) {
+                    continue;
+                }
+                // Tombstoned entries still count toward df until compaction; close enough for ranking
+                float idf = (float) Math.log(1 + (count - p.size + 0.5) / (p.size + 0.5));
+                for (int i = 0; i < p.size; i++) {
+                    int doc = p.docs[i];
+                    if (dead.get(doc)) {
+                        continue;
+                    }
+                    int tf = p.tfs[i];
+                    float norm = K1 * (1 - B + B * docLen[doc] / avgLength);
+                    Hit hit = hits.computeIfAbsent(doc, Hit::new);
+                    hit.score += gram.getValue() * idf * tf * (K1 + 1) / (tf + norm);
+                    hit.matched++;
+                }
+            }
+
+            int minMatch = Math.max(1, Math.round(queryGrams.size() * MIN_MATCH_RATIO));
+            PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, (a, b) -> Float.compare(a.score, b.score));
+            for (Hit hit : hits.values()) {
+                if (hit.matched < minMatch) {
+                    continue;
+                }
+                best.add(hit);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            Integer[] ranked = new Integer[best.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = docId[best.poll().doc];
+            }
+            return Arrays.asList(ranked);
+        }
+    }
+}
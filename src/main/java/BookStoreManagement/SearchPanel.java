@@ -1,11 +1,15 @@
 package BookStoreManagement;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.sql.*;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Vector;
 
@@ -22,6 +26,15 @@ public class SearchPanel extends JPanel implements LanguageChangeListener {
     private JSpinner fromDateSpinner, toDateSpinner;
     private JTextField minValueField, maxValueField;
     private Map<String, String[]> searchOptionsMap;
+
+    // Name searches go through SearchIndex; this many ranked matches are shown
+    private static final int INDEX_RESULTS = 200;
+    // Sales and purchases of those items can run to thousands of rows; show the latest this many
+    private static final int LEDGER_ROWS = 500;
+    private static final int TYPING_DELAY_MS = 150;
+    private final Timer typingTimer;
+    // Bumped per search so a slow earlier result never overwrites a newer one
+    private int searchSequence = 0;
     
     // Instance variables for top panel labels
     private JLabel searchLabel;
@@ -104,6 +117,31 @@ public class SearchPanel extends JPanel implements LanguageChangeListener {
         searchButton.addActionListener(e -> performSearch());
         searchField.addActionListener(e -> performSearch());
 
+        // Search as you type, but only where the index answers with the records themselves;
+        // LIKE scans and sales/purchases (every sale of the matched items) still wait for Enter
+        typingTimer = new Timer(TYPING_DELAY_MS, e -> {
+            if (indexedKind() != null && !isLedgerCategory() && SearchIndex.getInstance().isLoaded()) {
+                performSearch();
+            }
+        });
+        typingTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                typingTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                typingTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                typingTimer.restart();
+            }
+        });
+
         updateSearchOptions();
         updateFilterAndSortOptions((String) searchCategory.getSelectedItem());
     }
@@ -165,48 +203,145 @@ public class SearchPanel extends JPanel implements LanguageChangeListener {
     }
 
     private void performSearch() {
+        typingTimer.stop();
         String category = (String) searchCategory.getSelectedItem();
         String searchBy = (String) searchOption.getSelectedItem();
         String searchText = searchField.getText().trim();
+        if (category == null || searchBy == null) {
+            return;
+        }
 
-        String query = "";
+        String query;
         if (category.equals("Customers") || category.equals("Suppliers")) {
-            query = "SELECT name, phone, address, " +
+            String nameColumn = category.equals("Customers") ? "customer_name" : "supplier_name";
+            query = "SELECT " + nameColumn + ", phone, address, " +
                     "CASE WHEN balance >= 0 THEN balance ELSE 0 END AS 'Remaining', " +
                     "CASE WHEN balance < 0 THEN -balance ELSE 0 END AS 'Advance' " +
-                    "FROM " + category.toLowerCase() + " WHERE " + searchBy.replace(" ", "_") + " LIKE ?";
+                    "FROM " + category.toLowerCase();
+        } else {
+            query = "SELECT * FROM " + category.toLowerCase();
+        }
+
+        // Ranked ids from the index when it can answer, else the old LIKE filter
+        SearchIndex.Kind kind = searchText.isEmpty() ? null : indexedKind();
+        List<Integer> ids = null;
+        if (kind != null && SearchIndex.getInstance().isLoaded()) {
+            ids = SearchIndex.getInstance().search(kind, searchText, INDEX_RESULTS);
         }
-        else if(category.equals("Transactions") && searchBy.equals("Customer/Supplier Name")) {
-            query = "SELECT * FROM transactions WHERE name like ?";
+        List<Object> params = new ArrayList<>();
+        if (ids != null) {
+            if (ids.isEmpty()) {
+                searchSequence++;
+                tableModel.setRowCount(0);
+                return;
+            }
+            String idColumn = idColumn(category);
+            StringBuilder in = new StringBuilder();
+            for (int i = 0; i < ids.size(); i++) {
+                in.append(i == 0 ? "?" : ", ?");
+            }
+            query += " WHERE " + idColumn + " IN (" + in + ") ORDER BY FIELD(" + idColumn + ", " + in + ")";
+            params.addAll(ids);
+            params.addAll(ids);
+            if (isLedgerCategory()) {
+                query += ", " + (category.equals("Sales") ? "sale_date" : "purchase_date") + " DESC LIMIT " + LEDGER_ROWS;
+            }
         } else {
-            query = "SELECT * FROM " + category.toLowerCase() + " WHERE " + searchBy.replace(" ", "_") + " LIKE ?";
+            String column = category.equals("Transactions") && searchBy.equals("Customer/Supplier Name")
+                    ? "name" : searchBy.replace(" ", "_");
+            query += " WHERE " + column + " LIKE ?";
+            params.add("%" + searchText + "%");
         }
 
-        try (Connection conn = db.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setString(1, "%" + searchText + "%");
-            ResultSet rs = stmt.executeQuery();
+        String sql = query;
+        int sequence = ++searchSequence;
+        DataExecutor.getInstance().run(this, () -> fetch(sql, params), result -> {
+            if (sequence != searchSequence) {
+                return; // A newer search is already on its way
+            }
             tableModel.setRowCount(0);
             tableModel.setColumnCount(0);
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
             Vector<String> columns = new Vector<>();
-
-            for (int i = 1; i <= columnCount; i++) {
-                columns.add(getLocalizedColumnName(metaData.getColumnName(i)));
+            for (String column : result.columns) {
+                columns.add(getLocalizedColumnName(column));
             }
             tableModel.setColumnIdentifiers(columns);
+            for (Vector<Object> row : result.rows) {
+                tableModel.addRow(row);
+            }
+        }, error -> JOptionPane.showMessageDialog(this, "Error fetching data: " + error.getMessage()));
+    }
 
-            while (rs.next()) {
-                Vector<Object> row = new Vector<>();
+    private static final class SearchResult {
+        final List<String> columns = new ArrayList<>();
+        final List<Vector<Object>> rows = new ArrayList<>();
+    }
+
+    private SearchResult fetch(String sql, List<Object> params) throws SQLException {
+        try (Connection conn = db.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                SearchResult result = new SearchResult();
+                ResultSetMetaData metaData = rs.getMetaData();
+                int columnCount = metaData.getColumnCount();
                 for (int i = 1; i <= columnCount; i++) {
-                    row.add(rs.getObject(i));
+                    result.columns.add(metaData.getColumnLabel(i));
                 }
-                tableModel.addRow(row);
+                while (rs.next()) {
+                    Vector<Object> row = new Vector<>();
+                    for (int i = 1; i <= columnCount; i++) {
+                        row.add(rs.getObject(i));
+                    }
+                    result.rows.add(row);
+                }
+                return result;
             }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error fetching data: " + ex.getMessage());
+        }
+    }
+
+    private boolean isLedgerCategory() {
+        String category = (String) searchCategory.getSelectedItem();
+        return "Sales".equals(category) || "Purchases".equals(category);
+    }
+
+    // Which index answers the selected name search, or null when it stays a LIKE query
+    private SearchIndex.Kind indexedKind() {
+        String category = (String) searchCategory.getSelectedItem();
+        String searchBy = (String) searchOption.getSelectedItem();
+        if (category == null || searchBy == null) {
+            return null;
+        }
+        switch (category) {
+            case "Inventory":
+                return searchBy.equals("Item Name") || searchBy.equals("company") ? SearchIndex.Kind.ITEM : null;
+            case "Sales":
+            case "Purchases":
+                return searchBy.equals("Item Name") ? SearchIndex.Kind.ITEM : null;
+            case "Customers":
+                return searchBy.equals("Customer Name") ? SearchIndex.Kind.CUSTOMER : null;
+            case "Suppliers":
+                return searchBy.equals("Supplier Name") ? SearchIndex.Kind.SUPPLIER : null;
+            case "Transactions":
+                return searchBy.equals("Customer/Supplier Name") ? SearchIndex.Kind.TRANSACTION : null;
+            default:
+                return null;
+        }
+    }
+
+    // The column the index's ids match in each category's table
+    private static String idColumn(String category) {
+        switch (category) {
+            case "Customers":
+                return "customer_id";
+            case "Suppliers":
+                return "supplier_id";
+            case "Transactions":
+                return "transaction_id";
+            default:
+                return "item_id"; // Inventory, and sales or purchases of the matching items
         }
     }
     
@@ -94,11 +94,19 @@ public class ServerManagementPanel extends JPanel {
         String user = usernameField.getText().trim();
         String pass = new String(passwordField.getPassword());
 
-        try (Connection conn = DriverManager.getConnection(url, user, pass)) {
+        // An unreachable host blocks until the driver's connect timeout, so this runs off the EDT
+        testButton.setEnabled(false);
+        DataExecutor.getInstance().run(this, () -> {
+            try (Connection conn = DriverManager.getConnection(url, user, pass)) {
+                return null;
+            }
+        }, ignored -> {
+            testButton.setEnabled(true);
             JOptionPane.showMessageDialog(this, "Connection Successful!");
-        } catch (SQLException e) {
+        }, e -> {
+            testButton.setEnabled(true);
             JOptionPane.showMessageDialog(this, "Connection Failed!\n" + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     private void saveAndConnect() {
@@ -111,13 +119,15 @@ public class ServerManagementPanel extends JPanel {
         String role = (String) roleCombo.getSelectedItem();
 
         if (!newUser.isEmpty() && !newPass.isEmpty()) {
-            createNewUser(newUser, newPass, role);
+            createNewUser(newUser, newPass, role,
+                    () -> JOptionPane.showMessageDialog(this, "Database settings saved. Restart required."));
+        } else {
+            JOptionPane.showMessageDialog(this, "Database settings saved. Restart required.");
         }
-
-        JOptionPane.showMessageDialog(this, "Database settings saved. Restart required.");
     }
 
-    private void createNewUser(String user, String pass, String role) {
+    // Runs on DataExecutor; then runs after the outcome dialog is dismissed
+    private void createNewUser(String user, String pass, String role, Runnable then) {
         String dbUrl = loadConfig("db_url");
         String dbUser = loadConfig("db_user");
         String dbPass = loadConfig("db_pass");
@@ -125,27 +135,37 @@ public class ServerManagementPanel extends JPanel {
         String checkQuery = "SELECT COUNT(*) FROM credentials WHERE username = ?";
         String insertQuery = "INSERT INTO credentials (username, password, role) VALUES (?, ?, ?)";
 
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPass)) {
-            // Check if user already exists
-            try (PreparedStatement checkStmt = conn.prepareStatement(checkQuery)) {
-                checkStmt.setString(1, user);
-                ResultSet rs = checkStmt.executeQuery();
-                if (rs.next() && rs.getInt(1) > 0) {
-                    JOptionPane.showMessageDialog(this, "User already exists!", "Error", JOptionPane.WARNING_MESSAGE);
-                    return;
+        DataExecutor.getInstance().run(this, () -> {
+            try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPass)) {
+                // Check if user already exists
+                try (PreparedStatement checkStmt = conn.prepareStatement(checkQuery)) {
+                    checkStmt.setString(1, user);
+                    try (ResultSet rs = checkStmt.executeQuery()) {
+                        if (rs.next() && rs.getInt(1) > 0) {
+                            return false;
+                        }
+                    }
                 }
-            }
 
-            // Insert new user
-            try (PreparedStatement stmt = conn.prepareStatement(insertQuery)) {
-                stmt.setString(1, user);
-                stmt.setString(2, pass); // Consider hashing the password
-                stmt.setString(3, role);
-                stmt.executeUpdate();
+                // Insert new user
+                try (PreparedStatement stmt = conn.prepareStatement(insertQuery)) {
+                    stmt.setString(1, user);
+                    stmt.setString(2, pass); // Consider hashing the password
+                    stmt.setString(3, role);
+                    stmt.executeUpdate();
+                }
+                return true;
+            }
+        }, added -> {
+            if (added) {
                 JOptionPane.showMessageDialog(this, "New user added successfully!");
+            } else {
+                JOptionPane.showMessageDialog(this, "User already exists!", "Error", JOptionPane.WARNING_MESSAGE);
             }
-        } catch (SQLException e) {
+            then.run();
+        }, e -> {
             JOptionPane.showMessageDialog(this, "Failed to add user!\n" + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+            then.run();
+        });
     }
 }
@@ -6,7 +6,6 @@ import java.awt.*;
 import java.awt.event.AdjustmentEvent;
 import java.awt.event.AdjustmentListener;
 import java.sql.*;
-import java.util.Vector;
 
 public class SupplierDealsDialog extends JDialog {
     private JTable dealsTable;
@@ -14,8 +13,7 @@ public class SupplierDealsDialog extends JDialog {
     private JScrollPane scrollPane;
     private int supplierId;
     private Database db;
-    private boolean isLoading = false;
-    private ResultSet rs; // Scrollable result set
+    private DealsPager pager; // Seeks on (deal_date, deal_id) and prefetches the next page
     private int pageSize = 50; // Number of rows to load at a time
 
     public SupplierDealsDialog(JFrame parent, int supplierId, Database db) {
@@ -25,9 +23,14 @@ public class SupplierDealsDialog extends JDialog {
         setSize(800, 600);
         setLocationRelativeTo(parent);
 
-        setTitle(fetchSupplierTitle());
+        setTitle("Supplier Deals");
+        DataExecutor.getInstance().run(this, this::fetchSupplierTitle, this::setTitle, ex -> {
+            ex.printStackTrace();
+            JOptionPane.showMessageDialog(this, "Error fetching supplier details: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        });
 
         dealsModel = new DefaultTableModel();
+        dealsModel.setColumnIdentifiers(new String[]{"Deal ID", "Purchase ID", "Item Name", "Quantity", "Price", "payment", "Deal Date", "Reversed?"});
         dealsTable = new JTable(dealsModel);
         scrollPane = new JScrollPane(dealsTable);
         add(scrollPane, BorderLayout.CENTER);
@@ -36,7 +39,7 @@ public class SupplierDealsDialog extends JDialog {
         scrollPane.getVerticalScrollBar().addAdjustmentListener(new AdjustmentListener() {
             @Override
             public void adjustmentValueChanged(AdjustmentEvent e) {
-                if (!e.getValueIsAdjusting() && !isLoading) {
+                if (!e.getValueIsAdjusting()) {
                     JScrollBar scrollBar = (JScrollBar) e.getSource();
                     int extent = scrollBar.getModel().getExtent();
                     int maximum = scrollBar.getModel().getMaximum();
@@ -50,71 +53,54 @@ public class SupplierDealsDialog extends JDialog {
         });
 
         // Load initial data
-        initResultSet();
+        pager = new DealsPager(db, "supplier_id", supplierId,
+                "deal_id, purchase_id, item_name, quantity, credit, payment_type, deal_date, reversed",
+                "purchase_id > 0", pageSize, rs -> new Object[]{ // Excludes reversed purchases
+                        rs.getInt("deal_id"),
+                        rs.getInt("purchase_id"),
+                        rs.getString("item_name"),
+                        rs.getInt("quantity"),
+                        rs.getDouble("credit"),
+                        rs.getString("payment_type"),
+                        rs.getDate("deal_date"),
+                        rs.getBoolean("reversed") ? "Yes" : "No" // Convert boolean to Yes/No
+                });
         loadMoreData();
     }
 
-    private String fetchSupplierTitle() {
+    // Runs on DataExecutor; the dialog keeps its generic title until this returns
+    private String fetchSupplierTitle() throws SQLException {
         String query = "SELECT supplier_name, phone FROM suppliers WHERE supplier_id = ?";
-        try (Connection conn = db.getConnection(); PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setInt(1, supplierId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getString("supplier_name") + " - " + rs.getString("phone");
+        try (Connection conn = db.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("Database is not reachable.");
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setInt(1, supplierId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return rs.getString("supplier_name") + " - " + rs.getString("phone");
+                    }
+                }
             }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error fetching supplier details: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
         return "Supplier Deals";
     }
 
-    private void initResultSet() {
-        String query = "SELECT deal_id, purchase_id, item_name, quantity, Credit , payment_type, deal_date, reversed " +
-                       "FROM deals WHERE supplier_id = ? AND purchase_id > 0";  // Excludes reversed purchases
-
-        try {
-            Connection conn = db.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
-            stmt.setInt(1, supplierId);
-            rs = stmt.executeQuery();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error initializing result set: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
-    }
-
     private void loadMoreData() {
-        isLoading = true;
-
-        try {
-            if (rs == null) return;
-
-            // Set column headers if first load
-            if (dealsModel.getColumnCount() == 0) {
-                dealsModel.setColumnIdentifiers(new String[]{"Deal ID", "Purchase ID", "Item Name", "Quantity", "Price", "payment", "Deal Date", "Reversed?"});
+        pager.loadNext(this, rows -> {
+            for (Object[] row : rows) {
+                dealsModel.addRow(row);
             }
-
-            int count = 0;
-            while (rs.next() && count < pageSize) {
-                Vector<Object> rowData = new Vector<>();
-                rowData.add(rs.getInt("deal_id"));
-                rowData.add(rs.getInt("purchase_id"));
-                rowData.add(rs.getString("item_name"));
-                rowData.add(rs.getInt("quantity"));
-                rowData.add(rs.getDouble("Credit"));
-                rowData.add(rs.getString("payment_type"));
-                rowData.add(rs.getDate("deal_date"));
-                rowData.add(rs.getBoolean("reversed") ? "Yes" : "No"); // Convert boolean to Yes/No
-
-                dealsModel.addRow(rowData);
-                count++;
-            }
-        } catch (SQLException ex) {
+        }, ex -> {
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Error loading supplier deals: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        } finally {
-            isLoading = false;
-        }
+        });
+    }
+
+    @Override
+    public void dispose() {
+        pager.close();
+        super.dispose();
     }
 }
@@ -5,6 +5,8 @@ import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.*;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Vector;
 
 public class TransactionsPanel extends JPanel {
@@ -17,6 +19,8 @@ public class TransactionsPanel extends JPanel {
     
     // Labels for dynamic bilingual support
     private JLabel filterLabel, sortByLabel;
+    // Bumped per load so a slow earlier result never overwrites a newer one
+    private int loadSequence = 0;
 
     public TransactionsPanel(JFrame parent, Database db) {
         this.db = db;
@@ -96,37 +100,59 @@ public class TransactionsPanel extends JPanel {
         repaint();
     }
     
-    // Loads transactions from the database dynamically based on the ResultSet metadata.
+    // Loads transactions off the EDT; the columns come from the ResultSet metadata.
     private void loadTransactions(String filter) {
-        tableModel.setRowCount(0); // Clear existing rows
+        int sequence = ++loadSequence;
+        DataExecutor.getInstance().run(this, () -> fetchTransactions(filter), result -> {
+            if (sequence != loadSequence) {
+                return; // A newer load is already on its way
+            }
+            tableModel.setRowCount(0);
+            tableModel.setColumnIdentifiers(result.columns);
+            for (Vector<Object> row : result.rows) {
+                tableModel.addRow(row);
+            }
+        }, error -> {
+            error.printStackTrace();
+            JOptionPane.showMessageDialog(this, "Error loading transactions!", "Database Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    private static final class Transactions {
+        final Vector<String> columns = new Vector<>();
+        final List<Vector<Object>> rows = new ArrayList<>();
+    }
+
+    private Transactions fetchTransactions(String filter) throws SQLException {
         String query = "SELECT * FROM transactions";
         if (!filter.isEmpty()) {
-            query += " WHERE transaction_id LIKE '%" + filter + "%'";
+            query += " WHERE transaction_id LIKE ?";
         }
-        try (Connection conn = db.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
-             
-            // Get metadata to build column names dynamically
-            ResultSetMetaData meta = rs.getMetaData();
-            int colCount = meta.getColumnCount();
-            Vector<String> columnNames = new Vector<>();
-            for (int i = 1; i <= colCount; i++) {
-                columnNames.add(meta.getColumnName(i));
+        try (Connection conn = db.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("Database is not reachable.");
             }
-            tableModel.setColumnIdentifiers(columnNames);
-            
-            // Populate rows dynamically
-            while (rs.next()) {
-                Vector<Object> rowData = new Vector<>();
-                for (int i = 1; i <= colCount; i++) {
-                    rowData.add(rs.getObject(i));
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                if (!filter.isEmpty()) {
+                    stmt.setString(1, "%" + filter + "%");
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    Transactions result = new Transactions();
+                    ResultSetMetaData meta = rs.getMetaData();
+                    int colCount = meta.getColumnCount();
+                    for (int i = 1; i <= colCount; i++) {
+                        result.columns.add(meta.getColumnName(i));
+                    }
+                    while (rs.next()) {
+                        Vector<Object> rowData = new Vector<>();
+                        for (int i = 1; i <= colCount; i++) {
+                            rowData.add(rs.getObject(i));
+                        }
+                        result.rows.add(rowData);
+                    }
+                    return result;
                 }
-                tableModel.addRow(rowData);
             }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error loading transactions!", "Database Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 }
@@ -0,0 +1,249 @@
+package BookStoreManagement;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Item name type-ahead for a text field.
+ *
+ * Keystrokes restart a short debounce timer; when it fires the lookup runs on a
+ * {@link DataExecutor} thread (against {@link CatalogCache}, or the database while the
+ * cache is still loading) and any older lookup still in flight is cancelled.
+ * Matches are ranked exact, then prefix, then word prefix, best sellers first,
+ * and shown in a popup under the field. Up/Down move through the list, Enter
+ * picks, Escape closes.
+ */
+public class TypeAheadSupport {
+    private static final int DEBOUNCE_MS = 150;
+    private static final int MAX_SUGGESTIONS = 12;
+    // Matches taken from each name index before ranking; enough for best sellers to surface
+    private static final int MAX_CANDIDATES = 200;
+
+    private final JTextField field;
+    private final Database db;
+    private final Consumer<CatalogCache.Item> onSelect;
+    private final Consumer<CatalogCache.Item> onExactMatch;
+
+    private final Timer debounce;
+    private final JPopupMenu popup = new JPopupMenu();
+    private final DefaultListModel<CatalogCache.Item> listModel = new DefaultListModel<>();
+    private final JList<CatalogCache.Item> list = new JList<>(listModel);
+
+    private java.util.concurrent.CompletableFuture<List<CatalogCache.Item>> inFlight;
+    private int generation = 0;
+    private boolean updatingText = false;
+
+    /**
+     * @param onSelect     called when the user picks a suggestion (the field already shows its name)
+     * @param onExactMatch called when the typed text exactly matches an item, like the old exact lookup
+     */
+    public TypeAheadSupport(JTextField field, Database db,
+                            Consumer<CatalogCache.Item> onSelect, Consumer<CatalogCache.Item> onExactMatch) {
+        this.field = field;
+        this.db = db;
+        this.onSelect = onSelect;
+        this.onExactMatch = onExactMatch;
+
+        debounce = new Timer(DEBOUNCE_MS, e -> startLookup());
+        debounce.setRepeats(false);
+
+        list.setFocusable(false);
+        list.setFont(field.getFont());
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> l, Object value, int index, boolean selected, boolean focus) {
+                CatalogCache.Item item = (CatalogCache.Item) value;
+                String text = String.format("%s  (%s)  PKR %.2f  [%d]", item.name, item.condition, item.salePrice, item.stock);
+                return super.getListCellRendererComponent(l, text, index, selected, focus);
+            }
+        });
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = list.locationToIndex(e.getPoint());
+                if (index >= 0) {
+                    choose(listModel.get(index));
+                }
+            }
+        });
+
+        JScrollPane scroll = new JScrollPane(list);
+        scroll.setBorder(BorderFactory.createEmptyBorder());
+        popup.setFocusable(false);
+        popup.setLayout(new BorderLayout());
+        popup.add(scroll, BorderLayout.CENTER);
+
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { textChanged(); }
+            @Override public void removeUpdate(DocumentEvent e) { textChanged(); }
+            @Override public void changedUpdate(DocumentEvent e) { }
+        });
+
+        // Key listeners run before the dialog's default-button binding, so consuming Enter here
+        // stops it from also triggering "Add to cart" while the popup is open
+        field.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (!popup.isVisible()) {
+                    return;
+                }
+                int size = listModel.getSize();
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_DOWN:
+                        list.setSelectedIndex(Math.min(size - 1, list.getSelectedIndex() + 1));
+                        list.ensureIndexIsVisible(list.getSelectedIndex());
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_UP:
+                        list.setSelectedIndex(Math.max(0, list.getSelectedIndex() - 1));
+                        list.ensureIndexIsVisible(list.getSelectedIndex());
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_ENTER:
+                        if (list.getSelectedValue() != null) {
+                            choose(list.getSelectedValue());
+                            e.consume();
+                        }
+                        break;
+                    case KeyEvent.VK_ESCAPE:
+                        popup.setVisible(false);
+                        e.consume();
+                        break;
+                    default:
+                        break;
+                }
+            }
+        });
+    }
+
+    private void textChanged() {
+        if (updatingText) {
+            return;
+        }
+        debounce.restart();
+    }
+
+    private void startLookup() {
+        if (inFlight != null) {
+            inFlight.cancel(true);
+        }
+        String text = field.getText().trim();
+        if (text.isEmpty()) {
+            popup.setVisible(false);
+            return;
+        }
+        int myGeneration = ++generation;
+        // No busy cursor here: suggestions must not distract while typing
+        inFlight = DataExecutor.getInstance().run(null, () -> lookup(text), items -> {
+            // A newer keystroke already started another lookup; drop this result
+            if (myGeneration == generation) {
+                showSuggestions(text, items);
+            }
+        }, Throwable::printStackTrace);
+    }
+
+    private List<CatalogCache.Item> lookup(String text) throws SQLException {
+        String key = CatalogCache.nameKey(text);
+        List<CatalogCache.Item> candidates;
+        CatalogCache catalog = CatalogCache.getInstance();
+        if (catalog.isLoaded()) {
+            // Two range scans on the catalog's sorted name indexes instead of a pass over every item
+            Map<Integer, CatalogCache.Item> matches = new LinkedHashMap<>();
+            for (CatalogCache.Item item : catalog.findByNamePrefix(key, MAX_CANDIDATES)) {
+                matches.put(item.itemId, item);
+            }
+            for (CatalogCache.Item item : catalog.findByWordPrefix(key, MAX_CANDIDATES)) {
+                matches.putIfAbsent(item.itemId, item);
+            }
+            candidates = new ArrayList<>(matches.values());
+        } else {
+            candidates = lookupInDatabase(key);
+        }
+        candidates.sort(Comparator
+                .comparingInt((CatalogCache.Item item) -> rank(CatalogCache.nameKey(item.name), key))
+                .thenComparing(item -> -item.sold)
+                .thenComparing(item -> item.name));
+        return candidates.size() > MAX_SUGGESTIONS ? new ArrayList<>(candidates.subList(0, MAX_SUGGESTIONS)) : candidates;
+    }
+
+    private List<CatalogCache.Item> lookupInDatabase(String key) throws SQLException {
+        List<CatalogCache.Item> result = new ArrayList<>();
+        String query = "SELECT item_id, item_name, barcode, sale_price, item_condition, stock, sold FROM inventory " +
+                       "WHERE item_name LIKE ? OR item_name LIKE ? ORDER BY sold DESC LIMIT 50";
+        String escaped = key.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        try (Connection conn = db.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, escaped + "%");
+            stmt.setString(2, "% " + escaped + "%");
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    result.add(new CatalogCache.Item(rs.getInt("item_id"), rs.getString("item_name"),
+                            rs.getString("barcode"), rs.getDouble("sale_price"), rs.getString("item_condition"),
+                            rs.getInt("stock"), rs.getInt("sold")));
+                }
+            }
+        }
+        return result;
+    }
+
+    // 0 = exact, 1 = prefix, 2 = prefix of a later word, 3 = no match
+    private static int rank(String name, String key) {
+        if (name.equals(key)) return 0;
+        if (name.startsWith(key)) return 1;
+        int idx = name.indexOf(' ' + key);
+        return idx >= 0 ? 2 : 3;
+    }
+
+    private void showSuggestions(String text, List<CatalogCache.Item> items) {
+        listModel.clear();
+        CatalogCache.Item exact = null;
+        for (CatalogCache.Item item : items) {
+            listModel.addElement(item);
+            if (exact == null && item.name.toLowerCase(Locale.ROOT).equals(CatalogCache.nameKey(text))) {
+                exact = item;
+            }
+        }
+        if (exact != null) {
+            onExactMatch.accept(exact);
+        }
+        if (items.isEmpty() || !field.isShowing() || (items.size() == 1 && exact != null)) {
+            popup.setVisible(false);
+            return;
+        }
+        list.setSelectedIndex(0);
+        list.setVisibleRowCount(Math.min(items.size(), 8));
+        popup.setPopupSize(Math.max(field.getWidth(), 280), list.getPreferredScrollableViewportSize().height + 4);
+        popup.show(field, 0, field.getHeight());
+        field.requestFocusInWindow();
+    }
+
+    private void choose(CatalogCache.Item item) {
+        popup.setVisible(false);
+        debounce.stop();
+        updatingText = true;
+        try {
+            field.setText(item.name);
+        } finally {
+            updatingText = false;
+        }
+        onSelect.accept(item);
+    }
+}
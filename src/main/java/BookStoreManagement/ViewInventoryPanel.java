@@ -13,17 +13,26 @@ import java.io.File;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Vector;
-import javax.swing.table.DefaultTableModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 
 public class ViewInventoryPanel extends JPanel implements LanguageChangeListener {
     private Database db;
     private JTable inventoryTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel tableModel;
+    private String sortExpression; // Low stock sort key the model currently uses
+    private long referenceVersion; // Cache version the filter lists were filled from
+    private boolean fillingFilters = false;
     private JButton refreshButton, saveButton, deleteButton, exportButton, detailsButton;
     private JComboBox<String> categoryFilter, subcategoryFilter, conditionFilter, stockFilterOperator, companyFilter;
     private JTextField stockFilterValue;
+    private static final String[] COLUMNS = {"item_id", "barcode", "item_name", "company", "category", "subcategory", "item_condition", "stock", "minimum_stock"};
+    private static final int NAME_COLUMN = 2, STOCK_COLUMN = 7, MIN_STOCK_COLUMN = 8;
     
     // Top panel and filter panel stored as instance variables for language updates
     private JPanel topPanel;
@@ -49,24 +58,29 @@ public class ViewInventoryPanel extends JPanel implements LanguageChangeListener
         this.db = db;
         setLayout(new BorderLayout());
 
-        // Table setup with scroll pane and custom row highlighting
-        tableModel = new DefaultTableModel() {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                // Make the first column (item_id) uneditable
-                return column != 0;
-            }
-        };
+        // Table setup with scroll pane and custom row highlighting. Rows are paged in as the
+        // table scrolls; low stock rows sort first, then by item_id
+        List<PagedTableModel.Column> columns = new ArrayList<>();
+        for (String column : COLUMNS) {
+            PagedTableModel.Type type = column.equals("item_id") || column.endsWith("stock")
+                    ? PagedTableModel.Type.INT : PagedTableModel.Type.STRING;
+            columns.add(new PagedTableModel.Column(column, getLocalizedColumnName(column), type));
+        }
+        sortExpression = InventoryQuery.lowStockExpression();
+        tableModel = new PagedTableModel(db, "inventory", columns, sortKeys(sortExpression));
+        // Only the name and stock are saved back, so only they are editable
+        tableModel.setEditable(NAME_COLUMN, true);
+        tableModel.setEditable(STOCK_COLUMN, true);
+        tableModel.setBusyOwner(this);
         inventoryTable = new JTable(tableModel) {
             @Override
             public Component prepareRenderer(TableCellRenderer renderer, int row, int column) {
                 Component comp = super.prepareRenderer(renderer, row, column);
-                // Get stock and minimum_stock values from the model
-           int stockCol = ((DefaultTableModel)getModel()).findColumn("stock");
-           int minStockCol = ((DefaultTableModel)getModel()).findColumn("minimum_stock");
+                // Fixed indexes: the headers are localized, so findColumn() would miss in Urdu
                 try {
-                    int stock = Integer.parseInt(String.valueOf(getModel().getValueAt(convertRowIndexToModel(row), stockCol)));
-                    int minStock = Integer.parseInt(String.valueOf(getModel().getValueAt(convertRowIndexToModel(row), minStockCol)));
+                    int modelRow = convertRowIndexToModel(row);
+                    int stock = (Integer) getModel().getValueAt(modelRow, STOCK_COLUMN);
+                    int minStock = (Integer) getModel().getValueAt(modelRow, MIN_STOCK_COLUMN);
                     if (stock < minStock) {
                         comp.setBackground(new Color(255, 204, 204)); // Light red/pink background
                     } else {
@@ -162,124 +176,123 @@ public class ViewInventoryPanel extends JPanel implements LanguageChangeListener
         add(filterPanel, BorderLayout.SOUTH);
 
         // Event Listeners
-        refreshButton.addActionListener(e -> loadInventoryData());
+        refreshButton.addActionListener(e -> {
+            ReferenceDataCache.getInstance().reloadAsync(); // Picks up lists changed on other terminals
+            loadInventoryData();
+        });
         saveButton.addActionListener(e -> saveChanges());
         deleteButton.addActionListener(e -> deleteItem());
         exportButton.addActionListener(e -> exportData());
         detailsButton.addActionListener(e -> showItemDetails());
         categoryFilter.addActionListener(e -> loadSubcategories());
         conditionFilter.addActionListener(e -> loadInventoryData());
-        companyFilter.addActionListener(e -> loadInventoryData());
+        companyFilter.addActionListener(e -> {
+            if (!fillingFilters) {
+                loadInventoryData();
+            }
+        });
 
         // Load initial data
+        referenceVersion = ReferenceDataCache.getInstance().version();
         loadCategories();
         loadCompanyFilter(); // Populate company filter combo box
         loadInventoryData();
+        ReferenceDataCache.getInstance().addListener(this::reloadFilterLists);
     }
 
+    // The filter lists come from the shared reference-data cache, not the database
     private void loadCategories() {
-        categoryFilter.removeAllItems();
-        categoryFilter.addItem("All");
-        try (PreparedStatement stmt = db.getConnection().prepareStatement("SELECT category_name FROM categories");
-             ResultSet rs = stmt.executeQuery()) {
-            while (rs.next()) {
-                categoryFilter.addItem(rs.getString("category_name"));
-            }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error loading categories!", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        fillFilter(categoryFilter, ReferenceDataCache.getInstance().categories());
+        loadSubcategories();
     }
     
     // Method to load subcategories based on the selected category
     private void loadSubcategories() {
-        subcategoryFilter.removeAllItems();
-        subcategoryFilter.addItem("All");
-        String selectedCategory = (String) categoryFilter.getSelectedItem();
-        if (selectedCategory == null || selectedCategory.equals("All")) return;
-        try (PreparedStatement stmt = db.getConnection().prepareStatement(
-                "SELECT subcategory_name FROM subcategories WHERE category_id = (SELECT category_id FROM categories WHERE category_name = ?)")) {
-            stmt.setString(1, selectedCategory);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                subcategoryFilter.addItem(rs.getString("subcategory_name"));
-            }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error loading subcategories!", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        fillFilter(subcategoryFilter, ReferenceDataCache.getInstance().subcategories((String) categoryFilter.getSelectedItem()));
     }
     
     // Method to load distinct companies into the companyFilter combo box
     private void loadCompanyFilter() {
-        companyFilter.removeAllItems();
-        companyFilter.addItem("All");
-        try (PreparedStatement stmt = db.getConnection().prepareStatement(
-                "SELECT DISTINCT company FROM inventory WHERE company IS NOT NULL AND company <> ''");
-             ResultSet rs = stmt.executeQuery()) {
-            while (rs.next()) {
-                companyFilter.addItem(rs.getString("company"));
-            }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error loading companies!", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        fillFilter(companyFilter, ReferenceDataCache.getInstance().companies());
     }
 
-    public void loadInventoryData() {
-        tableModel.setRowCount(0);
-        tableModel.setColumnCount(0);
-        // Updated query: select company and minimum_stock columns and order rows so that low stock rows are on top
-        String query = "SELECT item_id, barcode, item_name, company, category, subcategory, item_condition, stock, minimum_stock FROM inventory WHERE 1=1";
-        if (!categoryFilter.getSelectedItem().equals("All")) {
-            query += " AND category = '" + categoryFilter.getSelectedItem() + "'";
+    // Refills the filter lists when the cache moved to a new version, keeping the current choices
+    private void reloadFilterLists() {
+        long version = ReferenceDataCache.getInstance().version();
+        if (version == referenceVersion) {
+            return;
+        }
+        referenceVersion = version;
+        Object company = companyFilter.getSelectedItem();
+        fillingFilters = true;
+        try {
+            loadCategories();
+            loadCompanyFilter();
+        } finally {
+            fillingFilters = false;
         }
-        if (!subcategoryFilter.getSelectedItem().equals("All")) {
-            query += " AND subcategory = '" + subcategoryFilter.getSelectedItem() + "'";
+        if (!Objects.equals(company, companyFilter.getSelectedItem())) {
+            loadInventoryData(); // The selected company is gone
         }
-        if (!conditionFilter.getSelectedItem().equals("All")) {
-            query += " AND item_condition = '" + conditionFilter.getSelectedItem() + "'";
+    }
+
+    private void fillFilter(JComboBox<String> combo, List<String> values) {
+        Object selected = combo.getSelectedItem();
+        boolean wasFilling = fillingFilters;
+        fillingFilters = true;
+        try {
+            combo.removeAllItems();
+            combo.addItem("All");
+            for (String value : values) {
+                combo.addItem(value);
+            }
+            combo.setSelectedItem(selected != null && values.contains(selected) ? selected : "All");
+        } finally {
+            fillingFilters = wasFilling;
         }
+    }
+
+    public void loadInventoryData() {
+        InventoryQuery query = new InventoryQuery()
+                .category((String) categoryFilter.getSelectedItem())
+                .subcategory((String) subcategoryFilter.getSelectedItem())
+                .condition((String) conditionFilter.getSelectedItem())
+                .company((String) companyFilter.getSelectedItem());
         if (!stockFilterValue.getText().trim().isEmpty()) {
-            String operator = (String) stockFilterOperator.getSelectedItem();
-            String value = stockFilterValue.getText().trim();
-            switch (operator) {
-                case "Equals to":
-                    query += " AND stock = " + value;
-                    break;
+            int value;
+            try {
+                value = Integer.parseInt(stockFilterValue.getText().trim());
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Stock filter must be a whole number.", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            switch ((String) stockFilterOperator.getSelectedItem()) {
                 case "Less than":
-                    query += " AND stock < " + value;
+                    query.stock(InventoryQuery.StockOp.LESS_THAN, value);
                     break;
                 case "Greater than":
-                    query += " AND stock > " + value;
+                    query.stock(InventoryQuery.StockOp.GREATER_THAN, value);
+                    break;
+                default:
+                    query.stock(InventoryQuery.StockOp.EQUALS, value);
                     break;
             }
         }
-        if (!companyFilter.getSelectedItem().equals("All")) {
-            query += " AND company = '" + companyFilter.getSelectedItem() + "'";
-        }
-        // Order so that rows with stock less than minimum_stock come on top
-        query += " ORDER BY (stock < minimum_stock) DESC, item_id";
-        try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(query)) {
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
-            String[] columnNames = new String[columnCount];
-            for (int i = 0; i < columnCount; i++) {
-                String orig = metaData.getColumnName(i + 1);
-                columnNames[i] = getLocalizedColumnName(orig);
-            }
-            tableModel.setColumnIdentifiers(columnNames);
-            while (rs.next()) {
-                Vector<Object> rowData = new Vector<>();
-                for (int i = 0; i < columnCount; i++) {
-                    rowData.add(rs.getObject(i + 1));
-                }
-                tableModel.addRow(rowData);
-            }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error loading inventory data: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        // Switch to the indexed low_stock column once the startup schema check has added it
+        String expression = InventoryQuery.lowStockExpression();
+        if (!expression.equals(sortExpression)) {
+            sortExpression = expression;
+            tableModel.setSortKeys(sortKeys(expression));
         }
+        // Unsaved edits belong to the old row set
+        tableModel.clearPendingEdits();
+        tableModel.setFilter(query.where(), query.params());
+        tableModel.refresh();
+    }
+
+    private static List<PagedTableModel.SortKey> sortKeys(String lowStockExpression) {
+        return Arrays.asList(new PagedTableModel.SortKey(lowStockExpression, true),
+                             new PagedTableModel.SortKey("item_id", false));
     }
     
     // Helper method to return localized column names for Urdu
@@ -312,37 +325,73 @@ public class ViewInventoryPanel extends JPanel implements LanguageChangeListener
         }
     }
 
+    // Only rows the user actually edited are written back
     private void saveChanges() {
-        if (db.getConnection() == null) {
-            JOptionPane.showMessageDialog(this, "Database connection is not available!", "Error", JOptionPane.ERROR_MESSAGE);
+        if (inventoryTable.isEditing()) {
+            inventoryTable.getCellEditor().stopCellEditing();
+        }
+        Map<Long, Object[]> edits = tableModel.getPendingEdits();
+        if (edits.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "No changes to save.", "Info", JOptionPane.INFORMATION_MESSAGE);
             return;
         }
-        int itemIdColumn = tableModel.findColumn("item_id");
-        int itemNameColumn = tableModel.findColumn("item_name");
-        int stockColumn = tableModel.findColumn("stock");
-        for (int row = 0; row < tableModel.getRowCount(); row++) {
-            int itemId = (int) tableModel.getValueAt(row, itemIdColumn);
-            String itemName = (String) tableModel.getValueAt(row, itemNameColumn);
-            Object stockValue = tableModel.getValueAt(row, stockColumn);
-            if (stockValue == null || !(stockValue instanceof Integer)) {
-                JOptionPane.showMessageDialog(this, "Invalid stock value for " + itemName + "!", "Error", JOptionPane.ERROR_MESSAGE);
-                continue;
+        for (Map.Entry<Long, Object[]> edit : edits.entrySet()) {
+            Object stock = edit.getValue()[STOCK_COLUMN];
+            if (stock != null && !(stock instanceof Integer)) {
+                JOptionPane.showMessageDialog(this, "Invalid stock value for item " + edit.getKey() + "!", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
             }
-            int stock = (int) stockValue;
+        }
+        // Snapshot; the worker must not read the map the EDT keeps editing
+        Map<Long, Object[]> batch = new LinkedHashMap<>();
+        edits.forEach((itemId, values) -> batch.put(itemId, values.clone()));
+        saveButton.setEnabled(false);
+        DataExecutor.getInstance().run(this, () -> {
             try (Connection conn = db.getConnection()) {
-                conn.setAutoCommit(true);
-                try (PreparedStatement stmt = conn.prepareStatement("UPDATE inventory SET item_name = ?, stock = ? WHERE item_id = ?")) {
-                    stmt.setString(1, itemName);
-                    stmt.setInt(2, stock);
-                    stmt.setInt(3, itemId);
-                    stmt.executeUpdate();
+                if (conn == null) {
+                    throw new SQLException("Database is not reachable.");
+                }
+                try (PreparedStatement nameStmt = conn.prepareStatement("UPDATE inventory SET item_name = ? WHERE item_id = ?");
+                     PreparedStatement stockStmt = conn.prepareStatement("UPDATE inventory SET stock = ? WHERE item_id = ?")) {
+                    for (Map.Entry<Long, Object[]> edit : batch.entrySet()) {
+                        int itemId = edit.getKey().intValue();
+                        Object name = edit.getValue()[NAME_COLUMN];
+                        Object stock = edit.getValue()[STOCK_COLUMN];
+                        if (name != null) {
+                            nameStmt.setString(1, name.toString());
+                            nameStmt.setInt(2, itemId);
+                            nameStmt.addBatch();
+                        }
+                        if (stock != null) {
+                            stockStmt.setInt(1, (Integer) stock);
+                            stockStmt.setInt(2, itemId);
+                            stockStmt.addBatch();
+                        }
+                    }
+                    conn.setAutoCommit(false);
+                    try {
+                        nameStmt.executeBatch();
+                        stockStmt.executeBatch();
+                        conn.commit();
+                    } catch (SQLException ex) {
+                        conn.rollback();
+                        throw ex;
+                    } finally {
+                        conn.setAutoCommit(true);
+                    }
                 }
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-                JOptionPane.showMessageDialog(this, "Error updating inventory for " + itemName + "!", "Database Error", JOptionPane.ERROR_MESSAGE);
             }
-        }
-        JOptionPane.showMessageDialog(this, "All changes saved successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+            return null;
+        }, ignored -> {
+            saveButton.setEnabled(true);
+            tableModel.clearPendingEdits();
+            JOptionPane.showMessageDialog(this, "All changes saved successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+            loadInventoryData();
+        }, ex -> {
+            saveButton.setEnabled(true);
+            ex.printStackTrace();
+            JOptionPane.showMessageDialog(this, "Error updating inventory: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+        });
     }
 
     private void deleteItem() {
@@ -351,19 +400,36 @@ public class ViewInventoryPanel extends JPanel implements LanguageChangeListener
             JOptionPane.showMessageDialog(this, "Select an item to delete.", "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
+        if (tableModel.getValueAt(selectedRow, 0) == null) {
+            return; // Row still loading
+        }
         int itemId = (int) tableModel.getValueAt(selectedRow, 0);
-        String itemName = (String) tableModel.getValueAt(selectedRow, 2);
+        String itemName = (String) tableModel.getValueAt(selectedRow, NAME_COLUMN);
         int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to delete " + itemName + "?", "Confirm Delete", JOptionPane.YES_NO_OPTION);
         if (confirm == JOptionPane.YES_OPTION) {
-            try (PreparedStatement stmt = db.getConnection().prepareStatement("DELETE FROM inventory WHERE item_id = ?")) {
-                stmt.setInt(1, itemId);
-                stmt.executeUpdate();
+            deleteButton.setEnabled(false);
+            DataExecutor.getInstance().run(this, () -> {
+                try (Connection conn = db.getConnection()) {
+                    if (conn == null) {
+                        throw new SQLException("Database is not reachable.");
+                    }
+                    try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM inventory WHERE item_id = ?")) {
+                        stmt.setInt(1, itemId);
+                        stmt.executeUpdate();
+                    }
+                }
+                return null;
+            }, ignored -> {
+                deleteButton.setEnabled(true);
+                CatalogCache.getInstance().removeItem(itemId);
+                SearchIndex.getInstance().remove(SearchIndex.Kind.ITEM, itemId);
                 JOptionPane.showMessageDialog(this, "Item deleted successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
                 loadInventoryData();
-            } catch (SQLException ex) {
+            }, ex -> {
+                deleteButton.setEnabled(true);
                 ex.printStackTrace();
                 JOptionPane.showMessageDialog(this, "Error deleting item!", "Database Error", JOptionPane.ERROR_MESSAGE);
-            }
+            });
         }
     }
 
@@ -376,39 +442,42 @@ public class ViewInventoryPanel extends JPanel implements LanguageChangeListener
         if (userSelection == JFileChooser.APPROVE_OPTION) {
             File fileToSave = fileChooser.getSelectedFile();
             String filePath = fileToSave.getAbsolutePath();
-            try (PdfWriter writer = new PdfWriter(filePath);
-                 PdfDocument pdf = new PdfDocument(writer);
-                 Document document = new Document(pdf)) {
-                document.add(new Paragraph("Inventory Report"));
-                LocalDateTime now = LocalDateTime.now();
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-                String formattedDateTime = now.format(formatter);
-                document.add(new Paragraph("Report generated on: " + formattedDateTime));
-                Table table = new Table(tableModel.getColumnCount());
-                for (int i = 0; i < tableModel.getColumnCount(); i++) {
-                    table.addHeaderCell(tableModel.getColumnName(i));
-                }
-                for (int row = 0; row < tableModel.getRowCount(); row++) {
-                    for (int col = 0; col < tableModel.getColumnCount(); col++) {
-                        Object cellValue = tableModel.getValueAt(row, col);
-                        String cellText = (cellValue == null ? "N/A" : cellValue.toString());
-                        table.addCell(cellText);
+            // The table only holds the visible pages, so the export reads the filtered rows itself
+            DataExecutor.getInstance().run(this, () -> {
+                try (PdfWriter writer = new PdfWriter(filePath);
+                     PdfDocument pdf = new PdfDocument(writer);
+                     Document document = new Document(pdf)) {
+                    document.add(new Paragraph("Inventory Report"));
+                    LocalDateTime now = LocalDateTime.now();
+                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+                    String formattedDateTime = now.format(formatter);
+                    document.add(new Paragraph("Report generated on: " + formattedDateTime));
+                    Table table = new Table(tableModel.getColumnCount());
+                    for (int i = 0; i < tableModel.getColumnCount(); i++) {
+                        table.addHeaderCell(tableModel.getColumnName(i));
                     }
+                    tableModel.scan(row -> {
+                        for (Object cellValue : row) {
+                            table.addCell(cellValue == null ? "N/A" : cellValue.toString());
+                        }
+                    });
+                    document.add(table);
                 }
-                document.add(table);
+                return fileToSave;
+            }, file -> {
                 JOptionPane.showMessageDialog(this, "PDF exported successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
                 if (Desktop.isDesktopSupported()) {
                     try {
-                        Desktop.getDesktop().open(fileToSave);
+                        Desktop.getDesktop().open(file);
                     } catch (Exception ex) {
                         ex.printStackTrace();
                         JOptionPane.showMessageDialog(this, "PDF exported, but unable to open automatically.", "Warning", JOptionPane.WARNING_MESSAGE);
                     }
                 }
-            } catch (Exception ex) {
+            }, ex -> {
                 ex.printStackTrace();
                 JOptionPane.showMessageDialog(this, "Error exporting PDF: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            });
         }
     }
 
@@ -418,71 +487,90 @@ public class ViewInventoryPanel extends JPanel implements LanguageChangeListener
             JOptionPane.showMessageDialog(this, "Select an item to view details.", "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
+        if (tableModel.getValueAt(selectedRow, 0) == null) {
+            return; // Row still loading
+        }
         int itemId = (int) tableModel.getValueAt(selectedRow, 0);
-        try (Connection conn = db.getConnection();
-             PreparedStatement stmt = conn.prepareStatement("SELECT * FROM inventory WHERE item_id = ?")) {
-            stmt.setInt(1, itemId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                JDialog detailsDialog = new JDialog();
-                detailsDialog.setTitle("Item Details");
-                detailsDialog.setSize(400, 400);
-                detailsDialog.setLayout(new BorderLayout());
-                JTextArea detailsArea = new JTextArea();
-                detailsArea.setEditable(false);
-                detailsArea.setFont(getCurrentFont());
-                detailsArea.append("Item ID: " + rs.getInt("item_id") + "\n");
-                detailsArea.append("Barcode: " + rs.getString("barcode") + "\n");
-                detailsArea.append("Item Name: " + rs.getString("item_name") + "\n");
-                detailsArea.append("Category: " + rs.getString("category") + "\n");
-                detailsArea.append("Subcategory: " + rs.getString("subcategory") + "\n");
-                detailsArea.append("Condition: " + rs.getString("item_condition") + "\n");
-                detailsArea.append("Stock: " + rs.getInt("stock") + "\n");
-                double purchasePrice = rs.getDouble("purchase_price");
-                if (rs.wasNull()) {
-                    detailsArea.append("Purchase Price: N/A\n");
-                } else {
-                    detailsArea.append("Purchase Price: " + purchasePrice + "\n");
-                }
-                double salePrice = rs.getDouble("sale_price");
-                if (rs.wasNull()) {
-                    detailsArea.append("Sale Price: N/A\n");
-                } else {
-                    detailsArea.append("Sale Price: " + salePrice + "\n");
-                }
-                String unit = rs.getString("unit");
-                if (unit == null) {
-                    detailsArea.append("Unit: N/A\n");
-                } else {
-                    detailsArea.append("Unit: " + unit + "\n");
-                }
-                Timestamp lastChange = rs.getTimestamp("last_change");
-                if (lastChange == null) {
-                    detailsArea.append("Last Change: N/A\n");
-                } else {
-                    detailsArea.append("Last Change: " + lastChange + "\n");
-                }
-                double profitMargin = rs.getDouble("profit_margin");
-                if (rs.wasNull()) {
-                    detailsArea.append("Profit Margin: N/A\n");
-                } else {
-                    detailsArea.append("Profit Margin: " + profitMargin + "\n");
+        detailsButton.setEnabled(false);
+        DataExecutor.getInstance().run(this, () -> {
+            try (Connection conn = db.getConnection()) {
+                if (conn == null) {
+                    throw new SQLException("Database is not reachable.");
                 }
-                int sold = rs.getInt("sold");
-                if (rs.wasNull()) {
-                    detailsArea.append("Sold: N/A\n");
-                } else {
-                    detailsArea.append("Sold: " + sold + "\n");
+                try (PreparedStatement stmt = conn.prepareStatement("SELECT * FROM inventory WHERE item_id = ?")) {
+                    stmt.setInt(1, itemId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (!rs.next()) {
+                            return null;
+                        }
+                        StringBuilder details = new StringBuilder();
+                        details.append("Item ID: " + rs.getInt("item_id") + "\n");
+                        details.append("Barcode: " + rs.getString("barcode") + "\n");
+                        details.append("Item Name: " + rs.getString("item_name") + "\n");
+                        details.append("Category: " + rs.getString("category") + "\n");
+                        details.append("Subcategory: " + rs.getString("subcategory") + "\n");
+                        details.append("Condition: " + rs.getString("item_condition") + "\n");
+                        details.append("Stock: " + rs.getInt("stock") + "\n");
+                        double purchasePrice = rs.getDouble("purchase_price");
+                        if (rs.wasNull()) {
+                            details.append("Purchase Price: N/A\n");
+                        } else {
+                            details.append("Purchase Price: " + purchasePrice + "\n");
+                        }
+                        double salePrice = rs.getDouble("sale_price");
+                        if (rs.wasNull()) {
+                            details.append("Sale Price: N/A\n");
+                        } else {
+                            details.append("Sale Price: " + salePrice + "\n");
+                        }
+                        String unit = rs.getString("unit");
+                        if (unit == null) {
+                            details.append("Unit: N/A\n");
+                        } else {
+                            details.append("Unit: " + unit + "\n");
+                        }
+                        Timestamp lastChange = rs.getTimestamp("last_change");
+                        if (lastChange == null) {
+                            details.append("Last Change: N/A\n");
+                        } else {
+                            details.append("Last Change: " + lastChange + "\n");
+                        }
+                        double profitMargin = rs.getDouble("profit_margin");
+                        if (rs.wasNull()) {
+                            details.append("Profit Margin: N/A\n");
+                        } else {
+                            details.append("Profit Margin: " + profitMargin + "\n");
+                        }
+                        int sold = rs.getInt("sold");
+                        if (rs.wasNull()) {
+                            details.append("Sold: N/A\n");
+                        } else {
+                            details.append("Sold: " + sold + "\n");
+                        }
+                        return details.toString();
+                    }
                 }
-                detailsDialog.add(new JScrollPane(detailsArea), BorderLayout.CENTER);
-                detailsDialog.setVisible(true);
-            } else {
+            }
+        }, details -> {
+            detailsButton.setEnabled(true);
+            if (details == null) {
                 JOptionPane.showMessageDialog(this, "Item not found!", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
             }
-        } catch (SQLException ex) {
+            JDialog detailsDialog = new JDialog();
+            detailsDialog.setTitle("Item Details");
+            detailsDialog.setSize(400, 400);
+            detailsDialog.setLayout(new BorderLayout());
+            JTextArea detailsArea = new JTextArea(details);
+            detailsArea.setEditable(false);
+            detailsArea.setFont(getCurrentFont());
+            detailsDialog.add(new JScrollPane(detailsArea), BorderLayout.CENTER);
+            detailsDialog.setVisible(true);
+        }, ex -> {
+            detailsButton.setEnabled(true);
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Error retrieving item details!", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
     
     // ----------------- Language Change Implementation -----------------
@@ -517,8 +605,7 @@ public class ViewInventoryPanel extends JPanel implements LanguageChangeListener
             exportButton.setText("ڈیٹا ایکسپورٹ کریں");
             detailsButton.setText("تفصیلات");
             
-            // Reload data to update column headers in Urdu
-            loadInventoryData();
+            updateColumnLabels();
         } else {
             setComponentOrientation(ComponentOrientation.LEFT_TO_RIGHT);
             if (topPanel != null) {
@@ -547,13 +634,20 @@ public class ViewInventoryPanel extends JPanel implements LanguageChangeListener
             exportButton.setText("Export Data");
             detailsButton.setText("Details");
             
-            // Reload data to update column headers in English
-            loadInventoryData();
+            updateColumnLabels();
         }
         revalidate();
         repaint();
     }
     
+    private void updateColumnLabels() {
+        String[] labels = new String[COLUMNS.length];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            labels[i] = getLocalizedColumnName(COLUMNS[i]);
+        }
+        tableModel.setColumnLabels(labels);
+    }
+
     public void updateLanguage(String language) {
         applyLanguage();
     }
@@ -0,0 +1,9 @@
+-- Indexes behind the checkout barcode scan, the date-range reports, the
+-- customer/supplier ledgers and the customer lookup by phone.
+CREATE INDEX idx_inventory_barcode ON inventory (barcode);
+CREATE INDEX idx_sales_date ON sales (sale_date);
+CREATE INDEX idx_purchases_date ON purchases (purchase_date);
+CREATE INDEX idx_expenses_date ON expenses (expense_date);
+CREATE INDEX idx_deals_customer ON deals (customer_id, deal_date, deal_id);
+CREATE INDEX idx_deals_supplier ON deals (supplier_id, deal_date, deal_id);
+CREATE INDEX idx_customers_phone ON customers (phone, customer_name);
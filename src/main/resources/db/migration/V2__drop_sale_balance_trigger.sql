@@ -0,0 +1,2 @@
+-- Customer balances are updated by SaleTransaction; the old trigger would count them twice.
+DROP TRIGGER after_sale_balance_update;
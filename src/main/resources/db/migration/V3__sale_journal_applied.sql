@@ -0,0 +1,5 @@
+-- Offline sales already replayed from the sale journal, so a replay is never applied twice.
+CREATE TABLE sale_journal_applied (
+  journal_id varchar(36) NOT NULL PRIMARY KEY,
+  applied_at timestamp NULL DEFAULT CURRENT_TIMESTAMP
+);
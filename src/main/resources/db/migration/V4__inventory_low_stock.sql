@@ -0,0 +1,6 @@
+-- Stored "below minimum stock" flag and the inventory grid's filter indexes,
+-- which also serve its "low stock first" ordering.
+ALTER TABLE inventory ADD COLUMN low_stock TINYINT(1) GENERATED ALWAYS AS (stock < COALESCE(minimum_stock, 0)) STORED;
+CREATE INDEX idx_inventory_low_stock ON inventory (low_stock DESC, item_id);
+CREATE INDEX idx_inventory_category ON inventory (category, low_stock DESC, item_id);
+CREATE INDEX idx_inventory_company ON inventory (company, low_stock DESC, item_id);
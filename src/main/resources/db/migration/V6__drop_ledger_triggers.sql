@@ -0,0 +1,6 @@
+-- Profit, deals rows and supplier balances are posted by LedgerPosting once per
+-- invoice; these per-row triggers would repeat that work for every line.
+DROP TRIGGER calculate_profit_on_insert;
+DROP TRIGGER after_sale_insert;
+DROP TRIGGER after_purchases_insert;
+DROP TRIGGER after_purchase_balance_update;
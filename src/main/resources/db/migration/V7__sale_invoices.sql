@@ -0,0 +1,33 @@
+-- One header row per checkout, holding the invoice-level totals once; sales rows
+-- point at it through sales.invoice_id.
+CREATE TABLE invoices (
+  invoice_id int NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  customer_id int NOT NULL DEFAULT 0,
+  customer_name varchar(50) DEFAULT NULL,
+  payment_type enum('cash','account') DEFAULT NULL,
+  invoice_date timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  line_count int NOT NULL DEFAULT 0,
+  total_quantity int NOT NULL DEFAULT 0,
+  total_amount decimal(12,2) NOT NULL DEFAULT 0,
+  reversed tinyint(1) NOT NULL DEFAULT 0,
+  KEY idx_invoices_date (invoice_date),
+  KEY idx_invoices_customer (customer_id, invoice_date)
+);
+ALTER TABLE sales ADD COLUMN invoice_id int DEFAULT NULL;
+CREATE INDEX idx_sales_invoice ON sales (invoice_id, sale_id);
+-- Headers left by an earlier run that stopped before the UPDATE below linked them;
+-- without this a re-run would add a second header for the same sales
+DELETE FROM invoices WHERE NOT EXISTS (SELECT 1 FROM sales s WHERE s.invoice_id = invoices.invoice_id);
+-- Older sales have no invoice id: rows written together share their timestamp,
+-- customer and payment type, so each such group becomes one invoice
+INSERT INTO invoices (customer_id, customer_name, payment_type, invoice_date, line_count, total_quantity, total_amount, reversed)
+SELECT COALESCE(customer_id, 0), customer_name, payment_type, sale_date, COUNT(*), SUM(quantity), SUM(total_price),
+       MIN(COALESCE(reversed, 0))
+FROM sales WHERE invoice_id IS NULL
+GROUP BY sale_date, COALESCE(customer_id, 0), customer_name, payment_type
+ORDER BY MIN(sale_id);
+UPDATE sales s JOIN invoices v
+  ON v.invoice_date <=> s.sale_date AND v.customer_id = COALESCE(s.customer_id, 0)
+  AND v.customer_name <=> s.customer_name AND v.payment_type <=> s.payment_type
+SET s.invoice_id = v.invoice_id
+WHERE s.invoice_id IS NULL;
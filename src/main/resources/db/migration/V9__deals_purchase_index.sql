@@ -0,0 +1,3 @@
+-- Purchase reversals flag their deals rows by purchase_id; without an index that
+-- scans, and under REPEATABLE READ locks, the whole deals table.
+CREATE INDEX idx_deals_purchase ON deals (purchase_id);
@@ -0,0 +1,145 @@
+package BookStoreManagement;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvReportWriterTest {
+    @TempDir
+    Path dir;
+
+    /** A column as the driver would describe it: label, java.sql.Types code and scale. */
+    private static final class Column {
+        final String label;
+        final int type;
+        final int scale;
+
+        Column(String label, int type, int scale) {
+            this.label = label;
+            this.type = type;
+            this.scale = scale;
+        }
+    }
+
+    private static ResultSetMetaData meta(Column... columns) {
+        return (ResultSetMetaData) Proxy.newProxyInstance(CsvReportWriterTest.class.getClassLoader(),
+                new Class<?>[]{ResultSetMetaData.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getColumnCount":
+                            return columns.length;
+                        case "getColumnLabel":
+                            return columns[(Integer) args[0] - 1].label;
+                        case "getColumnType":
+                            return columns[(Integer) args[0] - 1].type;
+                        case "getScale":
+                            return columns[(Integer) args[0] - 1].scale;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    // A single row; null values report wasNull() like a driver does
+    private static ResultSet row(Object... values) {
+        boolean[] lastWasNull = {false};
+        return (ResultSet) Proxy.newProxyInstance(CsvReportWriterTest.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("wasNull")) {
+                        return lastWasNull[0];
+                    }
+                    Object value = values[(Integer) args[0] - 1];
+                    lastWasNull[0] = value == null;
+                    switch (method.getName()) {
+                        case "getLong":
+                            return value == null ? 0L : ((Number) value).longValue();
+                        case "getDouble":
+                            return value == null ? 0.0 : ((Number) value).doubleValue();
+                        case "getTimestamp":
+                            return value;
+                        case "getBytes":
+                            return value == null ? null : value.toString().getBytes(StandardCharsets.UTF_8);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    // Everything after the BOM
+    private String write(ResultSetMetaData meta, ResultSet... rows) throws Exception {
+        File file = dir.resolve("report.csv").toFile();
+        CsvReportWriter writer = new CsvReportWriter(file);
+        writer.begin("Report", meta);
+        for (ResultSet rs : rows) {
+            writer.writeRow(rs);
+        }
+        writer.finish();
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        assertArrayEquals(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF}, Arrays.copyOf(bytes, 3));
+        return new String(bytes, 3, bytes.length - 3, StandardCharsets.UTF_8);
+    }
+
+    private String decimal(int scale, double value) throws Exception {
+        String csv = write(meta(new Column("v", scale == 31 ? Types.DOUBLE : Types.DECIMAL, scale)), row(value));
+        return csv.substring("v\r\n".length(), csv.length() - 2);
+    }
+
+    @Test
+    void quotesOnlyWhenNeeded() throws Exception {
+        String csv = write(meta(new Column("name, full", Types.VARCHAR, 0), new Column("note", Types.VARCHAR, 0)),
+                row("plain", "say \"hi\""),
+                row("a\nb", "کتاب"),
+                row(null, "x\ry"));
+
+        assertEquals("\"name, full\",note\r\n" +
+                "plain,\"say \"\"hi\"\"\"\r\n" +
+                "\"a\nb\",کتاب\r\n" +
+                ",\"x\ry\"\r\n", csv);
+    }
+
+    @Test
+    void decimalColumnsKeepTheirScale() throws Exception {
+        assertEquals("1234.50", decimal(2, 1234.5));
+        assertEquals("-0.50", decimal(2, -0.5));
+        assertEquals("0.00", decimal(2, 0.001));
+        assertEquals("1.01", decimal(2, 1.006)); // Rounded, not truncated
+        assertEquals("42", decimal(0, 42.4));
+    }
+
+    @Test
+    void doubleColumnsTrimTrailingZerosWithoutExponent() throws Exception {
+        assertEquals("0.1", decimal(31, 0.1));
+        assertEquals("0.00001", decimal(31, 1e-5));
+        assertEquals("-1700", decimal(31, -1700.0000000000005));
+        assertEquals("12345678.9", decimal(31, 12345678.9));
+        assertEquals("0", decimal(31, 1e-9));
+        assertEquals("100000000000000000000", decimal(31, 1e20));
+        assertEquals("NaN", decimal(31, Double.NaN));
+    }
+
+    @Test
+    void writesIntegersNullsAndDates() throws Exception {
+        Timestamp when = Timestamp.valueOf(LocalDateTime.of(2025, 3, 9, 7, 5, 0));
+        String csv = write(meta(new Column("id", Types.INTEGER, 0), new Column("qty", Types.BIGINT, 0),
+                        new Column("day", Types.DATE, 0), new Column("at", Types.TIMESTAMP, 0)),
+                row(7, Long.MIN_VALUE, when, when),
+                row(-12, null, null, null));
+
+        assertEquals("id,qty,day,at\r\n" +
+                "7,-9223372036854775808,2025-03-09,2025-03-09 07:05:00\r\n" +
+                "-12,,,\r\n", csv);
+    }
+}
@@ -0,0 +1,132 @@
+package BookStoreManagement;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeliveryImporterTest {
+    private static DeliveryImporter.CsvReader csv(String text) {
+        return new DeliveryImporter.CsvReader(new BufferedReader(new StringReader(text)));
+    }
+
+    // Fields in the shared order: name, barcode, condition, quantity, unit price, category, subcategory, company, total
+    private static String[] fields(String... values) {
+        String[] fields = new String[9];
+        System.arraycopy(values, 0, fields, 0, values.length);
+        return fields;
+    }
+
+    @Test
+    void csvMapsHeaderAliasesToFields() throws IOException {
+        DeliveryImporter.CsvReader reader = csv("\uFEFFItem Name,Qty,Purchase_Price,Barcode,Notes\n" +
+                "Notebook,3,120,8901,ignored\n");
+
+        String[] row = reader.next();
+
+        assertArrayEquals(fields("Notebook", "8901", null, "3", "120"), row);
+        assertEquals(2, reader.lineNumber());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void csvHandlesQuotesAndLineBreaksInsideValues() throws IOException {
+        DeliveryImporter.CsvReader reader = csv("item_name,quantity,unit_price\n" +
+                "\"Pens, blue\",10,5\n" +
+                "\n" +
+                "\"The \"\"Best\"\" Book\nVol. 2\",1,900\n" +
+                "Eraser,4,10\n");
+
+        assertEquals("Pens, blue", reader.next()[0]);
+        assertEquals(2, reader.lineNumber());
+        assertEquals("The \"Best\" Book\nVol. 2", reader.next()[0]);
+        assertEquals(4, reader.lineNumber());
+        assertEquals("Eraser", reader.next()[0]);
+        assertEquals(6, reader.lineNumber());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void csvRejectsMissingRequiredColumnsAndUnclosedQuotes() {
+        assertThrows(IOException.class, () -> csv("item_name,quantity\nNotebook,3\n").next());
+        assertThrows(IOException.class, () -> csv("").next());
+        assertThrows(IOException.class, () -> csv("item_name,quantity,unit_price\n\"Open,1,2\n").next());
+    }
+
+    @Test
+    void fixedWidthSlicesColumnsAndSkipsComments() throws IOException {
+        String line = String.format("%-40s%-20s%-15s%8s%12s%-30s%-30s%-30s",
+                "Notebook", "8901", "Used", "3", "120.50", "Stationery", "Paper", "Acme");
+        DeliveryImporter.FixedWidthReader reader = new DeliveryImporter.FixedWidthReader(
+                new BufferedReader(new StringReader("# delivery 42\n\n" + line + "\nShort line\n")));
+
+        String[] row = reader.next();
+        assertEquals("Notebook", row[0].trim());
+        assertEquals("8901", row[1].trim());
+        assertEquals("Used", row[2].trim());
+        assertEquals("3", row[3].trim());
+        assertEquals("120.50", row[4].trim());
+        assertEquals("Acme", row[7].trim());
+        assertEquals(3, reader.lineNumber());
+
+        String[] shortRow = reader.next();
+        assertEquals("Short line", shortRow[0]);
+        assertEquals("", shortRow[1]); // Past the end of the line
+        assertNull(reader.next());
+    }
+
+    @Test
+    void validateAcceptsAGoodLine() {
+        DeliveryImporter.Report report = new DeliveryImporter.Report();
+
+        DeliveryImporter.Row row = DeliveryImporter.validate(7, fields(" Notebook ", "", "like new", "3", "120.5"), report);
+
+        assertNotNull(row);
+        assertEquals(7, row.lineNumber);
+        assertEquals("Notebook", row.line.itemName);
+        assertNull(row.line.barcode);
+        assertEquals("Like New", row.line.condition);
+        assertEquals(3, row.line.quantity);
+        assertEquals(361.5, row.line.lineTotal); // unit price x quantity when no total is given
+        assertNull(row.newItem); // Category, subcategory and company were not all given
+        assertEquals(0, report.skipped);
+    }
+
+    @Test
+    void validateDefaultsConditionAndBuildsNewItem() {
+        DeliveryImporter.Report report = new DeliveryImporter.Report();
+
+        DeliveryImporter.Row row = DeliveryImporter.validate(1,
+                fields("Atlas", "123", "", "1", "900", "Books", "Maps", "Oxford", "850"), report);
+
+        assertEquals("New", row.line.condition);
+        assertEquals(850.0, row.line.lineTotal);
+        assertNotNull(row.newItem);
+    }
+
+    @Test
+    void validateRejectsBadLines() {
+        DeliveryImporter.Report report = new DeliveryImporter.Report();
+
+        assertNull(DeliveryImporter.validate(2, fields("", "", "", "1", "10"), report));
+        assertNull(DeliveryImporter.validate(3, fields("Pen", "", "Broken", "1", "10"), report));
+        assertNull(DeliveryImporter.validate(4, fields("Pen", "", "", "1.5", "10"), report));
+        assertNull(DeliveryImporter.validate(5, fields("Pen", "", "", "0", "10"), report));
+        assertNull(DeliveryImporter.validate(6, fields("Pen", "", "", "1", "ten"), report));
+        assertNull(DeliveryImporter.validate(7, fields("Pen", "", "", "1", "-10"), report));
+        assertNull(DeliveryImporter.validate(8, fields("Pen", "1234567890123456789012345678901", "", "1", "10"), report));
+
+        assertEquals(7, report.skipped);
+        assertEquals(2, report.errors.get(0).lineNumber);
+        assertEquals("Line 3: Unknown condition \"Broken\"", report.errors.get(1).toString());
+        assertTrue(DeliveryImporter.describeErrors(report).startsWith("Line 2: Item name is missing\n"));
+    }
+}
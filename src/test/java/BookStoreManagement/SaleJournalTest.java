@@ -0,0 +1,141 @@
+package BookStoreManagement;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SaleJournalTest {
+    @TempDir
+    Path dir;
+
+    /** Records what replay hands over instead of writing to a database. */
+    private static final class RecordingJournal extends SaleJournal {
+        final List<String> applied = new ArrayList<>();
+        boolean reachable = true;
+
+        @Override
+        boolean applySale(DecodedSale sale) {
+            if (!reachable) {
+                return false;
+            }
+            applied.add(sale.journalId);
+            return true;
+        }
+    }
+
+    private static List<SaleTransaction.Line> lines() {
+        return Arrays.asList(
+                new SaleTransaction.Line("Urdu Reader کتاب", "978000000001", 2, 450.0, 900.0, "New"),
+                new SaleTransaction.Line("Notebook", null, 1, 120.5, 120.5, "Used"));
+    }
+
+    private static void append(SaleJournal journal, String journalId) throws Exception {
+        journal.append(journalId, lines(), "cash", "Walk-in", "", new Timestamp(1_700_000_000_000L));
+    }
+
+    @Test
+    void encodeAndDecodeRoundTrip() throws Exception {
+        Timestamp saleDate = new Timestamp(1_700_000_123_000L);
+        byte[] payload = SaleJournal.encode("id-1", lines(), "account", "Ali", "0300-1234567", saleDate);
+
+        SaleJournal.DecodedSale sale = SaleJournal.decode(payload);
+
+        assertEquals("id-1", sale.journalId);
+        assertEquals(saleDate, sale.saleDate);
+        assertEquals("account", sale.paymentType);
+        assertEquals("Ali", sale.customerName);
+        assertEquals("0300-1234567", sale.customerPhone);
+        assertEquals(2, sale.lines.size());
+        SaleTransaction.Line first = sale.lines.get(0);
+        assertEquals("Urdu Reader کتاب", first.itemName);
+        assertEquals("978000000001", first.barcode);
+        assertEquals(2, first.quantity);
+        assertEquals(450.0, first.unitPrice);
+        assertEquals(900.0, first.lineTotal);
+        assertEquals("New", first.condition);
+        assertEquals("", sale.lines.get(1).barcode); // A missing barcode is stored as empty
+    }
+
+    @Test
+    void replayAppliesRecordsInOrderOnce() throws Exception {
+        RecordingJournal journal = new RecordingJournal();
+        journal.open(dir.resolve("journal.dat").toString());
+        append(journal, "a");
+        append(journal, "b");
+        append(journal, "c");
+        assertEquals(3, journal.countPending());
+
+        journal.replay();
+        journal.replay();
+
+        assertEquals(Arrays.asList("a", "b", "c"), journal.applied);
+        assertEquals(0, journal.countPending());
+    }
+
+    @Test
+    void replayWaitsWhileTheDatabaseIsDown() throws Exception {
+        RecordingJournal journal = new RecordingJournal();
+        journal.open(dir.resolve("journal.dat").toString());
+        append(journal, "a");
+        append(journal, "b");
+
+        journal.reachable = false;
+        journal.replay();
+        assertEquals(2, journal.countPending());
+
+        journal.reachable = true;
+        journal.replay();
+        assertEquals(Arrays.asList("a", "b"), journal.applied);
+    }
+
+    @Test
+    void reopenedJournalSkipsRecordsAlreadyReplayed() throws Exception {
+        String path = dir.resolve("journal.dat").toString();
+        RecordingJournal first = new RecordingJournal();
+        first.open(path);
+        append(first, "a");
+        append(first, "b");
+        first.replay();
+        append(first, "c");
+
+        RecordingJournal reopened = new RecordingJournal();
+        reopened.open(path);
+        assertEquals(1, reopened.countPending());
+        reopened.replay();
+
+        assertEquals(Arrays.asList("c"), reopened.applied);
+    }
+
+    @Test
+    void corruptRecordStopsReplay() throws Exception {
+        Path file = dir.resolve("journal.dat");
+        RecordingJournal journal = new RecordingJournal();
+        journal.open(file.toString());
+        append(journal, "a");
+        append(journal, "b");
+
+        // Header is 16 bytes, each record {magic, length, crc} then the payload; flip a byte of b's payload
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(16 + 4);
+            int firstLength = raw.readInt();
+            long secondPayload = 16 + 12 + firstLength + 12;
+            raw.seek(secondPayload + 2);
+            int b = raw.read();
+            raw.seek(secondPayload + 2);
+            raw.write(b ^ 0xFF);
+        }
+        journal.replay();
+
+        assertEquals(Arrays.asList("a"), journal.applied);
+        assertTrue(journal.countPending() > 0);
+    }
+}